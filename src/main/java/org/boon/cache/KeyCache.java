@@ -0,0 +1,181 @@
+package org.boon.cache;
+
+
+/**
+ * A fixed size cache of map keys, looked up straight from the slice of the parse buffer the key sits in,
+ * so a key seen before costs no allocation at all.
+ * <p/>
+ * Each key has one slot, picked by its hash. A different key that lands in the same slot replaces it.
+ * The cache never grows, however many distinct keys come through,
+ * which matters when the keys are picked by whoever sends the JSON.
+ * <p/>
+ * There are no locks. Slots are plain array writes: a thread may miss a key another thread just stored,
+ * or overwrite it, which only costs a String. Strings are immutable, so a thread never sees half of one.
+ * The hit and miss counts are kept the same way and are close, not exact.
+ */
+public final class KeyCache {
+
+    /** Longer keys are rarely repeated, they are not cached. */
+    public static final int MAX_KEY_LENGTH = 64;
+
+    /** Set with -Dorg.boon.json.implementation.internKeys=true, the parsers then intern map keys in {@link #shared()}. */
+    public static final boolean INTERN_KEYS = Boolean.parseBoolean(
+            System.getProperty( "org.boon.json.implementation.internKeys", "false" ) );
+
+    private static final KeyCache shared = INTERN_KEYS ?
+            new KeyCache( Integer.getInteger( "org.boon.json.implementation.internKeys.size", 4096 ) ) : null;
+
+    private final String[] keys;
+    private final int mask;
+
+    private long hits;
+    private long misses;
+
+
+    /** The one cache every parser interns keys in, null when keys are not interned. */
+    public static KeyCache shared() {
+        return shared;
+    }
+
+
+    public KeyCache( int size ) {
+        int capacity = Integer.highestOneBit( Math.max( size, 16 ) - 1 ) << 1;
+        keys = new String[ capacity ];
+        mask = capacity - 1;
+    }
+
+
+    /** Hashes the same way as {@link String#hashCode()}, spread so that similar keys use different slots. */
+    private int slot( int hash ) {
+        return ( hash ^ ( hash >>> 16 ) ) & mask;
+    }
+
+
+    public String get( final char[] chars, final int start, final int end ) {
+
+        final int length = end - start;
+        if ( length > MAX_KEY_LENGTH ) {
+            misses++;
+            return new String( chars, start, length );
+        }
+
+        int hash = 0;
+        for ( int index = start; index < end; index++ ) {
+            hash = 31 * hash + chars[ index ];
+        }
+
+        final int slot = slot( hash );
+        final String key = keys[ slot ];
+
+        if ( key != null && key.hashCode() == hash && key.length() == length ) {
+            int index = 0;
+            for (; index < length; index++ ) {
+                if ( key.charAt( index ) != chars[ start + index ] ) {
+                    break;
+                }
+            }
+            if ( index == length ) {
+                hits++;
+                return key;
+            }
+        }
+
+        misses++;
+        return store( slot, new String( chars, start, length ) );
+    }
+
+
+    /**
+     * Looks up a key from a slice of UTF-8 or ASCII bytes.
+     * Returns null when the key has non-ASCII bytes, the caller decodes those the usual way.
+     */
+    public String get( final byte[] bytes, final int start, final int end ) {
+
+        final int length = end - start;
+        if ( length > MAX_KEY_LENGTH ) {
+            return null;
+        }
+
+        int hash = 0;
+        for ( int index = start; index < end; index++ ) {
+            final byte b = bytes[ index ];
+            if ( b < 0 ) {
+                return null;
+            }
+            hash = 31 * hash + b;
+        }
+
+        final int slot = slot( hash );
+        final String key = keys[ slot ];
+
+        if ( key != null && key.hashCode() == hash && key.length() == length ) {
+            int index = 0;
+            for (; index < length; index++ ) {
+                if ( key.charAt( index ) != bytes[ start + index ] ) {
+                    break;
+                }
+            }
+            if ( index == length ) {
+                hits++;
+                return key;
+            }
+        }
+
+        misses++;
+        final char[] chars = new char[ length ];
+        for ( int index = 0; index < length; index++ ) {
+            chars[ index ] = ( char ) bytes[ start + index ];
+        }
+        return store( slot, new String( chars ) );
+    }
+
+
+    /** For keys that had to be decoded first, escapes and such. */
+    public String intern( final String key ) {
+
+        if ( key.length() > MAX_KEY_LENGTH ) {
+            misses++;
+            return key;
+        }
+
+        final int slot = slot( key.hashCode() );
+        final String cached = keys[ slot ];
+
+        if ( key.equals( cached ) ) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        return store( slot, key );
+    }
+
+
+    private String store( int slot, String key ) {
+        /* Works the hash out now so later lookups compare against the cached value. */
+        key.hashCode();
+        keys[ slot ] = key;
+        return key;
+    }
+
+
+    public long hits() {
+        return hits;
+    }
+
+
+    public long misses() {
+        return misses;
+    }
+
+
+    public int capacity() {
+        return keys.length;
+    }
+
+
+    @Override
+    public String toString() {
+        return "KeyCache{capacity=" + keys.length + ", hits=" + hits + ", misses=" + misses + '}';
+    }
+}
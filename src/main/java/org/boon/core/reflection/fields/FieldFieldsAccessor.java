@@ -14,6 +14,7 @@ public class FieldFieldsAccessor implements FieldsAccessor {
 
 
     private final Map<Class<?>, Map<String, FieldAccess>> fieldMap = new ConcurrentHashMap<> ();
+    private final Map<Class<?>, FieldNameLookup> lookupMap = new ConcurrentHashMap<> ();
 
 
     public final Map<String, FieldAccess> getFields ( Class<? extends Object> aClass ) {
@@ -25,6 +26,15 @@ public class FieldFieldsAccessor implements FieldsAccessor {
         return map;
     }
 
+    public final FieldNameLookup getFieldLookup ( Class<? extends Object> aClass ) {
+        FieldNameLookup lookup = lookupMap.get ( aClass );
+        if ( lookup == null ) {
+            lookup = new FieldNameLookup ( getFields ( aClass ) );
+            lookupMap.put ( aClass, lookup );
+        }
+        return lookup;
+    }
+
     private final Map<String, FieldAccess> doGetFields ( Class<? extends Object> aClass ) {
         return Reflection.getAllAccessorFields ( aClass );
     }
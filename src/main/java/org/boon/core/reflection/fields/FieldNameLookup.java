@@ -0,0 +1,135 @@
+package org.boon.core.reflection.fields;
+
+import java.util.Map;
+
+/**
+ * Finds the {@link FieldAccess} for a key that is still sitting in a parse buffer, without making a String.
+ * <p/>
+ * The field names are laid out in an open addressed table, at most a quarter full, when the class is first seen.
+ * A handful of hash multipliers are tried and the one with the fewest collisions is kept, often a perfect hash,
+ * so a lookup is usually one hash pass over the key plus one compare.
+ * Read only once built, so it can be shared between threads.
+ */
+public final class FieldNameLookup {
+
+    private static final int SEEDS = 64;
+
+    private final Map<String, FieldAccess> fields;
+
+    private final int shift;
+    private final int multiplier;
+
+    private final int[] hashes;
+    private final char[][] names;
+    private final FieldAccess[] accessors;
+
+
+    public FieldNameLookup( Map<String, FieldAccess> fields ) {
+        this.fields = fields;
+
+        int bits = 1;
+        while ( ( 1 << bits ) < fields.size() * 4 ) {
+            bits++;
+        }
+
+        String[] keys = fields.keySet().toArray( new String[ fields.size() ] );
+
+        int bestMultiplier = 0;
+        int bestCollisions = Integer.MAX_VALUE;
+
+        for ( int seed = 0; seed < SEEDS && bestCollisions > 0; seed++ ) {
+            int multiplier = multiplier( seed );
+            int collisions = place( keys, bits, multiplier, null );
+            if ( collisions < bestCollisions ) {
+                bestCollisions = collisions;
+                bestMultiplier = multiplier;
+            }
+        }
+
+        int size = 1 << bits;
+        this.shift = 32 - bits;
+        this.multiplier = bestMultiplier;
+        this.hashes = new int[ size ];
+        this.names = new char[ size ][];
+        this.accessors = new FieldAccess[ size ];
+
+        place( keys, bits, bestMultiplier, this );
+    }
+
+
+    /* Odd multipliers spread the hash into the high bits which become the slot. */
+    private static int multiplier( int seed ) {
+        return 0x9E3779B9 + seed * 0x3C6EF372 | 1;
+    }
+
+
+    /** Lays the keys out with linear probing, returns how many extra probes it took. */
+    private static int place( String[] keys, int bits, int multiplier, FieldNameLookup table ) {
+
+        final int mask = ( 1 << bits ) - 1;
+        final boolean[] used = new boolean[ 1 << bits ];
+        int collisions = 0;
+
+        for ( String key : keys ) {
+            int hash = key.hashCode();
+            int slot = ( hash * multiplier ) >>> ( 32 - bits );
+
+            while ( used[ slot ] ) {
+                collisions++;
+                slot = ( slot + 1 ) & mask;
+            }
+            used[ slot ] = true;
+
+            if ( table != null ) {
+                table.hashes[ slot ] = hash;
+                table.names[ slot ] = key.toCharArray();
+                table.accessors[ slot ] = table.fields.get( key );
+            }
+        }
+        return collisions;
+    }
+
+
+    /**
+     * Looks up the key in <code>buffer[start, end)</code>.
+     * The key is taken as is, decode escaped keys and use {@link #get(String)} for those.
+     */
+    public FieldAccess find( char[] buffer, int start, int end ) {
+
+        int hash = 0;
+        for ( int index = start; index < end; index++ ) {
+            hash = 31 * hash + buffer[ index ];
+        }
+
+        final int length = end - start;
+        final int mask = names.length - 1;
+        int slot = ( hash * multiplier ) >>> shift;
+
+        probe:
+        for (; ; slot = ( slot + 1 ) & mask ) {
+            final char[] name = names[ slot ];
+            if ( name == null ) {
+                return null;
+            }
+            if ( hashes[ slot ] != hash || name.length != length ) {
+                continue;
+            }
+            for ( int index = 0; index < length; index++ ) {
+                if ( name[ index ] != buffer[ start + index ] ) {
+                    continue probe;
+                }
+            }
+            return accessors[ slot ];
+        }
+    }
+
+
+    public FieldAccess get( String key ) {
+        return fields.get( key );
+    }
+
+
+    public Map<String, FieldAccess> fields() {
+        return fields;
+    }
+}
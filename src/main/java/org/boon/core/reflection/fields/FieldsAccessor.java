@@ -9,4 +9,7 @@ import java.util.Map;
 public interface FieldsAccessor {
       Map<String, FieldAccess> getFields ( Class<? extends Object> aClass );
 
+      /** The same fields laid out to be matched straight from a parse buffer. */
+      FieldNameLookup getFieldLookup ( Class<? extends Object> aClass );
+
 }
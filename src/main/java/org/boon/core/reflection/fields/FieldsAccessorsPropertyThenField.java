@@ -10,6 +10,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class FieldsAccessorsPropertyThenField implements FieldsAccessor {
 
     private final Map <Class<?>, Map<String, FieldAccess>> fieldMap = new ConcurrentHashMap<> ( );
+    private final Map<Class<?>, FieldNameLookup> lookupMap = new ConcurrentHashMap<> ();
 
 
 
@@ -22,6 +23,15 @@ public class FieldsAccessorsPropertyThenField implements FieldsAccessor {
         return map;
     }
 
+    public final FieldNameLookup getFieldLookup ( Class<? extends Object> aClass ) {
+        FieldNameLookup lookup = lookupMap.get ( aClass );
+        if ( lookup == null ) {
+            lookup = new FieldNameLookup ( getFields ( aClass ) );
+            lookupMap.put ( aClass, lookup );
+        }
+        return lookup;
+    }
+
     private final Map<String, FieldAccess> doGetFields ( Class<? extends Object> aClass ) {
         return Reflection.getPropertyFieldAccessMapPropertyFirst( aClass );
     }
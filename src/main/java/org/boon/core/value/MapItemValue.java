@@ -1,9 +1,9 @@
 package org.boon.core.value;
 
+import org.boon.cache.KeyCache;
 import org.boon.core.Value;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static org.boon.Exceptions.die;
 
@@ -17,19 +17,11 @@ public class MapItemValue implements Map.Entry<String, Value> {
 
     private String key = null;
 
-    private static final boolean internKeys = Boolean.parseBoolean( System.getProperty( "org.boon.json.implementation.internKeys", "false" ) );
+    private static final boolean internKeys = KeyCache.INTERN_KEYS;
 
 
 
-    protected static ConcurrentHashMap<String, String> internedKeysCache;
-
-
-
-    static {
-        if ( internKeys ) {
-            internedKeysCache = new ConcurrentHashMap<> ();
-        }
-    }
+    protected static final KeyCache internedKeysCache = KeyCache.shared();
 
 
     public MapItemValue( Value name, Value value ) {
@@ -43,15 +35,7 @@ public class MapItemValue implements Map.Entry<String, Value> {
         if ( key == null ) {
             if ( internKeys ) {
 
-                  key = name.toString();
-
-                  String keyPrime = internedKeysCache.get( key );
-                  if ( keyPrime == null ) {
-                        key = key.intern();
-                        internedKeysCache.put( key, key );
-                  } else {
-                        key = keyPrime;
-                  }
+                  key = internedKeysCache.intern( name.toString() );
             } else {
 
                 key = name.toString();
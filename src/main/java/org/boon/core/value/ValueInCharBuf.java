@@ -234,7 +234,12 @@ public class ValueInCharBuf extends ValueBase {
             sign = -1;
 
         }
-        return parseInt ( buffer, startIndex, endIndex - startIndex ) * sign;
+        int length = endIndex - startIndex;
+        if ( length > 10 ) {
+            /* Wraps the way a long cast to an int does. */
+            return ( int ) parseLong ( buffer, startIndex, length ) * sign;
+        }
+        return parseInt ( buffer, startIndex, length ) * sign;
     }
 
     @Override
@@ -0,0 +1,452 @@
+package org.boon.criteria;
+
+import org.boon.core.Conversions;
+import org.boon.core.Typ;
+import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.predicates.Predicate;
+
+import java.util.*;
+
+/**
+ * Compiles criteria into predicates bound to one class.
+ * <p/>
+ * A criterion keeps the object under test and its field in instance fields while it tests,
+ * so one criteria object can not test from two threads at once, and it looks its field up again
+ * for every item. A compiled predicate looks up the field and converts the value to the field's
+ * type once, compares primitive fields through the typed getters without boxing and keeps nothing
+ * between tests, so any number of threads can share it.
+ * <p/>
+ * Comparisons from {@link CriteriaFactory} on fields of the class are compiled. Anything else,
+ * nested paths, type checks and criteria of your own, is resolved by the criteria itself with the
+ * fields of the class, and is only as safe to share as that criteria; see {@link #isCompiled}.
+ */
+public class CompiledCriteria {
+
+
+    public static <T> Predicate<T> compile( Class<T> cls, Criteria criteria ) {
+        return compile( BeanUtils.getPropertyFieldAccessMap( cls ), criteria );
+    }
+
+    public static <T> Predicate<T> compile( Map<String, FieldAccess> fields, Criteria criteria ) {
+
+        if ( criteria instanceof Group ) {
+            Group group = ( Group ) criteria;
+            Criteria[] expressions = group.getExpressions();
+            Predicate[] predicates = new Predicate[ expressions.length ];
+            for ( int index = 0; index < expressions.length; index++ ) {
+                predicates[ index ] = compile( fields, expressions[ index ] );
+            }
+            return group.getGrouping() == Grouping.OR ? new Or( predicates ) : new And( predicates );
+        }
+
+        if ( criteria instanceof Not ) {
+            return new Negate( compile( fields, ( ( Not ) criteria ).getExpression() ) );
+        }
+
+        if ( criteria instanceof Criterion ) {
+            Predicate<T> predicate = compile( fields, ( Criterion ) criteria );
+            if ( predicate != null ) {
+                return predicate;
+            }
+        }
+
+        return new Resolve( fields, criteria );
+    }
+
+
+    /**
+     * The items that pass the criteria, compiled once for the fields.
+     */
+    public static <T> List<T> filter( Collection<T> items, Map<String, FieldAccess> fields, Criteria criteria ) {
+        if ( items.size() == 0 ) {
+            return Collections.EMPTY_LIST;
+        }
+
+        Predicate<T> predicate = compile( fields, criteria );
+        List<T> results = new ArrayList<>();
+        for ( T item : items ) {
+            if ( predicate.test( item ) ) {
+                results.add( item );
+            }
+        }
+        return results;
+    }
+
+
+    /**
+     * True when no part of the predicate falls back to criteria resolving themselves,
+     * only then is it safe to test from several threads whatever the criteria were.
+     */
+    public static boolean isCompiled( Predicate<?> predicate ) {
+        if ( predicate instanceof Resolve ) {
+            return false;
+        }
+        if ( predicate instanceof Negate ) {
+            return isCompiled( ( ( Negate ) predicate ).predicate );
+        }
+        Predicate[] predicates = predicate instanceof And ? ( ( And ) predicate ).predicates
+                : predicate instanceof Or ? ( ( Or ) predicate ).predicates : null;
+        if ( predicates != null ) {
+            for ( Predicate each : predicates ) {
+                if ( !isCompiled( each ) ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Null when the criterion can only be resolved by itself.
+     */
+    private static Predicate compile( Map<String, FieldAccess> fields, Criterion criterion ) {
+
+        FieldAccess field = fields.get( criterion.getName() );
+        if ( field == null || criterion instanceof Criterion.PrimitiveCriterion
+                || criterion.getClass().getEnclosingClass() != CriteriaFactory.class ) {
+            return null;
+        }
+
+        Operator operator = criterion.getOperator();
+        Object[] values = criterion.getValues();
+        Class<?> type = field.getType();
+
+        if ( type == Typ.intgr || type == Typ.lng || type == Typ.shrt || type == Typ.bt || type == Typ.chr ) {
+            return LongTest.supports( operator ) ? new LongTest( field, operator, longs( type, values ) ) : null;
+        }
+
+        if ( type == Typ.dbl || type == Typ.flt ) {
+            return DoubleTest.supports( operator ) ? new DoubleTest( field, operator, doubles( type, values ) ) : null;
+        }
+
+        if ( type == Typ.bln ) {
+            if ( operator == Operator.EQUAL || operator == Operator.NOT_EQUAL ) {
+                return new BooleanTest( field, Conversions.toBoolean( values[ 0 ] ), operator == Operator.EQUAL );
+            }
+            return null;
+        }
+
+        if ( ObjectTest.supports( operator ) ) {
+            if ( type == Typ.date ) {
+                values = values.clone();
+                for ( int index = 0; index < values.length; index++ ) {
+                    if ( !( values[ index ] instanceof Date ) ) {
+                        values[ index ] = Conversions.toDate( values[ index ] );
+                    }
+                }
+            }
+            return new ObjectTest( field, operator, values );
+        }
+        return null;
+    }
+
+    private static long[] longs( Class<?> type, Object[] values ) {
+        long[] longs = new long[ values.length ];
+        for ( int index = 0; index < values.length; index++ ) {
+            Object value = values[ index ];
+            if ( type == Typ.intgr ) {
+                longs[ index ] = Conversions.toInt( value );
+            } else if ( type == Typ.shrt ) {
+                longs[ index ] = Conversions.toShort( value );
+            } else if ( type == Typ.bt ) {
+                longs[ index ] = Conversions.toByte( value );
+            } else if ( type == Typ.chr ) {
+                longs[ index ] = Conversions.toChar( value );
+            } else {
+                longs[ index ] = Conversions.toLong( value );
+            }
+        }
+        return longs;
+    }
+
+    private static double[] doubles( Class<?> type, Object[] values ) {
+        double[] doubles = new double[ values.length ];
+        for ( int index = 0; index < values.length; index++ ) {
+            /* A float field compares with the value as a float, as the criterion does. */
+            doubles[ index ] = type == Typ.flt ? Conversions.toFloat( values[ index ] ) : Conversions.toDouble( values[ index ] );
+        }
+        return doubles;
+    }
+
+
+    private static final class And implements Predicate {
+        private final Predicate[] predicates;
+
+        And( Predicate[] predicates ) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            for ( Predicate predicate : predicates ) {
+                if ( !predicate.test( item ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Or implements Predicate {
+        private final Predicate[] predicates;
+
+        Or( Predicate[] predicates ) {
+            this.predicates = predicates;
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            for ( Predicate predicate : predicates ) {
+                if ( predicate.test( item ) ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Negate implements Predicate {
+        private final Predicate predicate;
+
+        Negate( Predicate predicate ) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            return !predicate.test( item );
+        }
+    }
+
+    /**
+     * Criteria that only know how to resolve themselves, given the fields.
+     */
+    private static final class Resolve implements Predicate {
+        private final Map<String, FieldAccess> fields;
+        private final Criteria criteria;
+
+        Resolve( Map<String, FieldAccess> fields, Criteria criteria ) {
+            this.fields = fields;
+            this.criteria = criteria;
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            return criteria.resolve( fields, item );
+        }
+    }
+
+
+    /**
+     * int, long, short, byte and char fields, read through their typed getters and compared as longs.
+     */
+    private static final class LongTest implements Predicate {
+        private final FieldAccess field;
+        private final Class<?> type;
+        private final Operator operator;
+        private final long value;
+        private final long value2;
+
+        /* Sorted, for in and not in. */
+        private final long[] values;
+
+        LongTest( FieldAccess field, Operator operator, long[] values ) {
+            this.field = field;
+            this.type = field.getType();
+            this.operator = operator;
+            this.value = values.length > 0 ? values[ 0 ] : 0;
+            this.value2 = values.length > 1 ? values[ 1 ] : 0;
+            this.values = values.clone();
+            Arrays.sort( this.values );
+        }
+
+        static boolean supports( Operator operator ) {
+            switch ( operator ) {
+                case EQUAL:
+                case NOT_EQUAL:
+                case LESS_THAN:
+                case LESS_THAN_EQUAL:
+                case GREATER_THAN:
+                case GREATER_THAN_EQUAL:
+                case BETWEEN:
+                case IN:
+                case NOT_IN:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private long read( Object item ) {
+            if ( type == Typ.intgr ) {
+                return field.getInt( item );
+            } else if ( type == Typ.lng ) {
+                return field.getLong( item );
+            } else if ( type == Typ.shrt ) {
+                return field.getShort( item );
+            } else if ( type == Typ.bt ) {
+                return field.getByte( item );
+            } else {
+                return field.getChar( item );
+            }
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            long v = read( item );
+            switch ( operator ) {
+                case EQUAL:
+                    return v == value;
+                case NOT_EQUAL:
+                    return v != value;
+                case LESS_THAN:
+                    return v < value;
+                case LESS_THAN_EQUAL:
+                    return v <= value;
+                case GREATER_THAN:
+                    return v > value;
+                case GREATER_THAN_EQUAL:
+                    return v >= value;
+                case BETWEEN:
+                    return v >= value && v <= value2;
+                case IN:
+                    return Arrays.binarySearch( values, v ) >= 0;
+                default:
+                    return Arrays.binarySearch( values, v ) < 0;
+            }
+        }
+    }
+
+    /**
+     * double and float fields, read through their typed getters and compared as doubles.
+     */
+    private static final class DoubleTest implements Predicate {
+        private final FieldAccess field;
+        private final boolean isFloat;
+        private final Operator operator;
+        private final double value;
+        private final double value2;
+        private final double[] values;
+
+        DoubleTest( FieldAccess field, Operator operator, double[] values ) {
+            this.field = field;
+            this.isFloat = field.getType() == Typ.flt;
+            this.operator = operator;
+            this.value = values.length > 0 ? values[ 0 ] : 0;
+            this.value2 = values.length > 1 ? values[ 1 ] : 0;
+            this.values = values.clone();
+        }
+
+        static boolean supports( Operator operator ) {
+            return LongTest.supports( operator );
+        }
+
+        private boolean in( double v ) {
+            for ( double each : values ) {
+                if ( v == each ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            double v = isFloat ? field.getFloat( item ) : field.getDouble( item );
+            switch ( operator ) {
+                case EQUAL:
+                    return v == value;
+                case NOT_EQUAL:
+                    return v != value;
+                case LESS_THAN:
+                    return v < value;
+                case LESS_THAN_EQUAL:
+                    return v <= value;
+                case GREATER_THAN:
+                    return v > value;
+                case GREATER_THAN_EQUAL:
+                    return v >= value;
+                case BETWEEN:
+                    return v >= value && v <= value2;
+                case IN:
+                    return in( v );
+                default:
+                    return !in( v );
+            }
+        }
+    }
+
+    private static final class BooleanTest implements Predicate {
+        private final FieldAccess field;
+        private final boolean value;
+        private final boolean equal;
+
+        BooleanTest( FieldAccess field, boolean value, boolean equal ) {
+            this.field = field;
+            this.value = value;
+            this.equal = equal;
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            return ( field.getBoolean( item ) == value ) == equal;
+        }
+    }
+
+    /**
+     * Object fields, compared with equals and compareTo as the criteria do. A null field never compares.
+     */
+    private static final class ObjectTest implements Predicate {
+        private final FieldAccess field;
+        private final Operator operator;
+        private final Object value;
+        private final Object value2;
+        private final Set<Object> values;
+
+        ObjectTest( FieldAccess field, Operator operator, Object[] values ) {
+            this.field = field;
+            this.operator = operator;
+            this.value = values.length > 0 ? values[ 0 ] : null;
+            this.value2 = values.length > 1 ? values[ 1 ] : null;
+            this.values = new HashSet<>( Arrays.asList( values ) );
+        }
+
+        static boolean supports( Operator operator ) {
+            return LongTest.supports( operator );
+        }
+
+        @Override
+        public boolean test( Object item ) {
+            Object v = field.getValue( item );
+            switch ( operator ) {
+                case EQUAL:
+                    return value == null ? v == null : value.equals( v );
+                case NOT_EQUAL:
+                    return value == null ? v != null : !value.equals( v );
+                case IN:
+                    return values.contains( v );
+                case NOT_IN:
+                    return v != null && !values.contains( v );
+            }
+
+            if ( v == null ) {
+                return false;
+            }
+            switch ( operator ) {
+                case LESS_THAN:
+                    return ( ( Comparable ) value ).compareTo( v ) > 0;
+                case LESS_THAN_EQUAL:
+                    return ( ( Comparable ) value ).compareTo( v ) >= 0;
+                case GREATER_THAN:
+                    return ( ( Comparable ) value ).compareTo( v ) < 0;
+                case GREATER_THAN_EQUAL:
+                    return ( ( Comparable ) value ).compareTo( v ) <= 0;
+                default:
+                    return ( ( Comparable ) value ).compareTo( v ) <= 0
+                            && ( ( Comparable ) value2 ).compareTo( v ) >= 0;
+            }
+        }
+    }
+}
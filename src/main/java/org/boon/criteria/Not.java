@@ -12,6 +12,10 @@ public class Not extends Criteria {
         this.expression = expression;
     }
 
+    public Criteria getExpression() {
+        return expression;
+    }
+
     @Override
     public void prepareForGroupTest( Map<String, FieldAccess> fields, Object owner ) {
 
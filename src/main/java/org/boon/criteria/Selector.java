@@ -26,6 +26,13 @@ public abstract class Selector {
         return name;
     }
 
+    /**
+     * The field this selector copies into the row as is, null when the selector works out its value.
+     */
+    public FieldAccess field( Map<String, FieldAccess> fields ) {
+        return null;
+    }
+
     public static List<Selector> selects( Selector... selects ) {
         return list( selects );
     }
@@ -37,6 +44,11 @@ public abstract class Selector {
                 row.put( this.name, fields.get( this.name ).getValue( item ) );
             }
 
+            @Override
+            public FieldAccess field( Map<String, FieldAccess> fields ) {
+                return fields.get( this.name );
+            }
+
             @Override
             public void handleStart( List<? extends Object> results ) {
             }
@@ -16,6 +16,7 @@
 package org.boon.datarepo;
 
 import org.boon.criteria.Criteria;
+import org.boon.datarepo.modification.ModificationEvent;
 
 
 /**
@@ -29,4 +30,10 @@ public interface Filter {
 
     void invalidate();
 
+    /**
+     * Like invalidate but only for what the modification can change, the item of the event
+     * and its property, or the whole item for the ROOT property.
+     */
+    void invalidate( ModificationEvent event );
+
 }
@@ -32,6 +32,11 @@ public interface LookupIndex<KEY, ITEM> extends Bag<ITEM> {
 
     List<ITEM> getAll( KEY key );
 
+    /**
+     * Adds many items at once, indexes that can build faster from a whole batch do so.
+     */
+    void addAll( List<ITEM> items );
+
     boolean deleteByKey( KEY key );
 
     boolean isPrimaryKeyOnly();
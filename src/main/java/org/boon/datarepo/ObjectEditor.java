@@ -19,6 +19,7 @@ import org.boon.criteria.Update;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Future;
 
 public interface ObjectEditor<KEY, ITEM> extends Bag<ITEM> {
 
@@ -34,11 +35,27 @@ public interface ObjectEditor<KEY, ITEM> extends Bag<ITEM> {
 
     void removeAll( ITEM... items );
 
-    void removeAllAsync( Collection<ITEM> items );
+    /**
+     * Queues the items to be removed as one batch and returns straight away,
+     * removals and adds queued close together are applied as one batch, in the order they were queued.
+     * Plain repos apply it under the editor's index lock, but their queries do not wait for it,
+     * build the repo with concurrent( true ) to query while batches land.
+     *
+     * @return done once the items are out of every index
+     */
+    Future<?> removeAllAsync( Collection<ITEM> items );
 
     void addAll( ITEM... items );
 
-    void addAllAsync( Collection<ITEM> items );
+    /**
+     * Queues the items to be added as one batch and returns straight away,
+     * adds and removals queued close together are applied as one batch, in the order they were queued.
+     * Plain repos apply it under the editor's index lock, but their queries do not wait for it,
+     * build the repo with concurrent( true ) to query while batches land.
+     *
+     * @return done once the items are in every index
+     */
+    Future<?> addAllAsync( Collection<ITEM> items );
 
     void modifyAll( ITEM... items );
 
@@ -91,6 +108,13 @@ public interface ObjectEditor<KEY, ITEM> extends Bag<ITEM> {
     void update( KEY key, Update... values );
 
 
+    /**
+     * Sets the property only if it still holds compare, as one step per item.
+     * Callers on other items only wait on each other while the indexes change. Gets and queries
+     * do not lock, so build the repo with concurrent( true ) to query while other threads write.
+     *
+     * @return true if the value was set
+     */
     boolean compareAndUpdate( KEY key, String property, Object compare, Object value );
 
     boolean compareAndUpdate( KEY key, String property, int compare, int value );
@@ -1,6 +1,40 @@
 package org.boon.datarepo;
 
+/**
+ * One step of the plan a query ran with, see {@link ResultSet#queryPlan()}.
+ * Estimate is what the planner expected the step to produce, rows is what it did produce.
+ */
 public class PlanStep {
-    String type;
-    String details;
+    final PlanSteps type;
+    final String details;
+    final int estimate;
+    final int rows;
+
+    public PlanStep( PlanSteps type, String details, int estimate, int rows ) {
+        this.type = type;
+        this.details = details;
+        this.estimate = estimate;
+        this.rows = rows;
+    }
+
+    public PlanSteps getType() {
+        return type;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public int getEstimate() {
+        return estimate;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + details + " estimate=" + estimate + " rows=" + rows;
+    }
 }
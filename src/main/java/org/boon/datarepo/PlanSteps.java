@@ -2,5 +2,6 @@ package org.boon.datarepo;
 
 public enum PlanSteps {
     USE_INDEX,
-    LINEAR_SEARCH;
+    LINEAR_SEARCH,
+    FILTER;
 }
@@ -74,6 +74,13 @@ public interface RepoBuilder {
 
     public RepoBuilder cloneEdits( boolean cloneEdits );
 
+    public RepoBuilder concurrent( boolean concurrent );
+
+    /**
+     * Readers query an immutable snapshot of copies without locks, each finished edit publishes a new one.
+     */
+    public RepoBuilder snapshots( boolean snapshots );
+
     public RepoBuilder useCache();
 
     public RepoBuilder storeKeyInIndexOnly();
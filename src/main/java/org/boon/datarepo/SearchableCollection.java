@@ -103,6 +103,17 @@ public interface SearchableCollection<KEY, ITEM> extends Collection<ITEM> {
 
     boolean delete( ITEM item );
 
+    /**
+     * Adds the items one index at a time rather than one item at a time,
+     * filling the indexes side by side.
+     */
+    void addBatch( List<ITEM> items );
+
+    /**
+     * Deletes the items one index at a time, the indexes side by side.
+     */
+    void deleteBatch( List<ITEM> items );
+
 
     void addSearchIndex( String name, SearchIndex<?, ?> si );
 
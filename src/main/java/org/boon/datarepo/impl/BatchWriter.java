@@ -0,0 +1,175 @@
+package org.boon.datarepo.impl;
+
+import org.boon.datarepo.SearchableCollection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Write queue behind addAllAsync and removeAllAsync.
+ * <p/>
+ * Callers queue their items and get a future back. One drain at a time runs on a writer thread,
+ * not on the {@link IndexPool}, since a drain waits for the repo's write lock. It takes whatever has piled up, joins writes of the same kind that follow each other into one batch
+ * and hands the batch to {@link SearchableCollection#addBatch} or {@link SearchableCollection#deleteBatch}.
+ * Writes are applied in the order they were queued. When a batch fails, every write in it fails.
+ * A target without a lock of its own can name one, each batch is then applied holding it.
+ */
+public class BatchWriter<ITEM> {
+
+    private static final Callable<Object> NOTHING = new Callable<Object>() {
+        @Override
+        public Object call() {
+            return null;
+        }
+    };
+
+
+    private static final class Write<ITEM> extends FutureTask<Object> {
+
+        final boolean add;
+        final Collection<ITEM> items;
+
+        Write( boolean add, Collection<ITEM> items ) {
+            super( NOTHING );
+            this.add = add;
+            this.items = items;
+        }
+
+        void finish( Throwable failure ) {
+            if ( failure == null ) {
+                set( null );
+            } else {
+                setException( failure );
+            }
+        }
+    }
+
+
+    /* Drains block on write locks, fork-join workers are left for index and scan chunks. */
+    private static final ExecutorService drains = Executors.newCachedThreadPool( new ThreadFactory() {
+        @Override
+        public Thread newThread( Runnable runnable ) {
+            Thread thread = new Thread( runnable, "boon-repo-writer" );
+            thread.setDaemon( true );
+            return thread;
+        }
+    } );
+
+
+    private final SearchableCollection<?, ITEM> target;
+
+    private final Object lock;
+
+    private final ConcurrentLinkedQueue<Write<ITEM>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+
+    public BatchWriter( SearchableCollection<?, ITEM> target ) {
+        this( target, null );
+    }
+
+    /**
+     * @param lock held while each batch is applied, for targets that do not lock themselves
+     */
+    public BatchWriter( SearchableCollection<?, ITEM> target, Object lock ) {
+        this.target = target;
+        this.lock = lock;
+    }
+
+
+    public Future<?> add( Collection<ITEM> items ) {
+        return queue( new Write<>( true, items ) );
+    }
+
+
+    public Future<?> delete( Collection<ITEM> items ) {
+        return queue( new Write<>( false, items ) );
+    }
+
+
+    private Future<?> queue( Write<ITEM> write ) {
+        queue.add( write );
+        if ( draining.compareAndSet( false, true ) ) {
+            drains.execute( drain );
+        }
+        return write;
+    }
+
+
+    private void drain() {
+
+        for (; ; ) {
+
+            List<Write<ITEM>> writes = new ArrayList<>();
+            for ( Write<ITEM> write = queue.poll(); write != null; write = queue.poll() ) {
+                writes.add( write );
+            }
+
+            if ( writes.isEmpty() ) {
+                draining.set( false );
+
+                /* Something was queued after the last poll but saw the flag still set. */
+                if ( queue.isEmpty() || !draining.compareAndSet( false, true ) ) {
+                    return;
+                }
+                continue;
+            }
+
+            int start = 0;
+            while ( start < writes.size() ) {
+                final boolean add = writes.get( start ).add;
+
+                int end = start;
+                List<ITEM> batch = new ArrayList<>();
+                while ( end < writes.size() && writes.get( end ).add == add ) {
+                    batch.addAll( writes.get( end ).items );
+                    end++;
+                }
+
+                Throwable failure = null;
+                try {
+                    if ( lock == null ) {
+                        apply( add, batch );
+                    } else {
+                        synchronized ( lock ) {
+                            apply( add, batch );
+                        }
+                    }
+                } catch ( Throwable ex ) {
+                    failure = ex;
+                }
+
+                for ( int index = start; index < end; index++ ) {
+                    writes.get( index ).finish( failure );
+                }
+                start = end;
+            }
+        }
+    }
+
+    private void apply( boolean add, List<ITEM> batch ) {
+        if ( add ) {
+            target.addBatch( batch );
+        } else {
+            target.deleteBatch( batch );
+        }
+    }
+}
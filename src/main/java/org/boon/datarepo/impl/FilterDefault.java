@@ -6,12 +6,17 @@ import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.criteria.*;
 import org.boon.datarepo.Filter;
 import org.boon.datarepo.LookupIndex;
+import org.boon.datarepo.PlanStep;
+import org.boon.datarepo.PlanSteps;
 import org.boon.datarepo.ResultSet;
 import org.boon.datarepo.SearchableCollection;
+import org.boon.datarepo.modification.ModificationEvent;
 import org.boon.datarepo.spi.FilterComposer;
 import org.boon.datarepo.spi.ResultSetInternal;
 import org.boon.datarepo.spi.SearchIndex;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +34,11 @@ import static org.boon.criteria.CriteriaFactory.not;
  */
 public class FilterDefault implements Filter, FilterComposer {
 
+    private static final int NOT_INDEXED = -1;
+
+    /* Checking a candidate against a criterion costs about as much as collecting and matching this many index hits. */
+    private static final int FILTER_COST = 2;
+
     private Set<Operator> indexedOperators =
             Sets.set( Operator.BETWEEN, Operator.EQUAL, Operator.STARTS_WITH,
                     Operator.GREATER_THAN, Operator.GREATER_THAN_EQUAL,
@@ -39,6 +49,9 @@ public class FilterDefault implements Filter, FilterComposer {
     private Map<String, SearchIndex> searchIndexMap;
     private Map<String, LookupIndex> lookupIndexMap;
 
+    /* Row ids of the collection, index results are combined as bitmaps of them. Null for other collections. */
+    private RowIds rows;
+
 
     /**
      * Seems innocent enough. Give me some criteria expressions,
@@ -70,7 +83,7 @@ public class FilterDefault implements Filter, FilterComposer {
      */
     private ResultSet mainQueryPlan( Criteria[] expressions ) {
 
-        ResultSetInternal results = new ResultSetImpl( this.fields );
+        ResultSetInternal results = new ResultSetImpl( this.fields, rows );
 
         /* I am sure this looked easy to read when I wrote it.
          * If there is only one expression and first expression is a group then
@@ -89,19 +102,21 @@ public class FilterDefault implements Filter, FilterComposer {
     }
 
 
-    private void orPlanWithIndex( Criterion criterion, ResultSetInternal results ) {
-
+    /**
+     * Runs an or branch against its index.
+     *
+     * @return false when there is no index for it, the caller scans for it
+     */
+    private boolean orPlanWithIndex( Criterion criterion, ResultSetInternal results ) {
 
-        Operator operator = criterion.getOperator();
-        if ( operator == Operator.EQUAL && lookupIndexMap.get( criterion.getName() ) != null ) {
-            doFilterWithIndex( criterion, fields, results );
-        } else if ( this.isIndexed( criterion.getName() ) && Sets.in( operator, indexedOperators ) ) {
-            doFilterWithIndex( criterion, fields, results );
-        } else {
-            List list = QueryFactory.filter( this.searchableCollection.all(), criterion );
-            results.addResults( list );
+        int estimate = estimate( criterion );
+        if ( estimate == NOT_INDEXED ) {
+            return false;
         }
 
+        doFilterWithIndex( criterion, fields, results );
+        planStep( results, PlanSteps.USE_INDEX, criterion, estimate, results.lastSize() );
+        return true;
     }
 
     @Override
@@ -109,6 +124,11 @@ public class FilterDefault implements Filter, FilterComposer {
 
     }
 
+    @Override
+    public void invalidate( ModificationEvent event ) {
+
+    }
+
     /**
      * Run the filter on the group.
      *
@@ -117,30 +137,45 @@ public class FilterDefault implements Filter, FilterComposer {
      */
     private void doFilterGroup( Group group, ResultSetInternal results ) {
         /* The group was n or group so handle it that way. */
+        ResultSetInternal groupResults = new ResultSetImpl( fields, rows );
+
         if ( group.getGrouping() == Grouping.OR ) {
             /* nice short method name, or. */
-            or( group.getExpressions(), fields, results );
+            or( group.getExpressions(), fields, groupResults );
+            groupResults.orResults();
         } else {
-            /* create a result internal (why?), wrap the fields in the result set
-            internal, and pass that to the and method.
-             */
-            ResultSetInternal resultsForAnd = new ResultSetImpl( fields );
-            and( group.getExpressions(), fields, resultsForAnd );
-            results.addResults( resultsForAnd.asList() );
+            and( group.getExpressions(), fields, groupResults );
+        }
+
+        results.addResults( groupResults.asList() );
+        List<PlanStep> plan = groupResults.queryPlan();
+        for ( PlanStep step : plan ) {
+            results.addPlanStep( step );
         }
     }
 
     private void or( Criteria[] expressions,
                      Map<String, FieldAccess> fields, ResultSetInternal results ) {
 
+        /* Branches without an index share one pass over the items. */
+        List<Criteria> scan = new ArrayList<>();
 
         for ( Criteria expression : expressions ) {
             if ( expression instanceof Criterion ) {
-                orPlanWithIndex( ( Criterion ) expression, results );
+                if ( !orPlanWithIndex( ( Criterion ) expression, results ) ) {
+                    scan.add( expression );
+                }
             } else if ( expression instanceof Group ) {
                 doFilterGroup( ( Group ) expression, results );
             }
         }
+
+        if ( scan.size() > 0 ) {
+            Criteria criteria = CriteriaFactory.or( scan.toArray( new Criteria[ scan.size() ] ) );
+            List list = IndexPool.filter( this.searchableCollection.all(), fields, criteria );
+            results.addResults( list );
+            planStep( results, PlanSteps.LINEAR_SEARCH, criteria, searchableCollection.size(), list.size() );
+        }
     }
 
 
@@ -150,6 +185,9 @@ public class FilterDefault implements Filter, FilterComposer {
 
 
         boolean foundIndex = applyIndexedFiltersForAnd( expressions, fields, expressionSet, resultSet );
+        if ( foundIndex ) {
+            applyNotsWithIndex( expressionSet, resultSet );
+        }
         applyLinearSearch( expressionSet, resultSet, foundIndex );
         applyGroups( expressionSet, resultSet );
 
@@ -157,49 +195,120 @@ public class FilterDefault implements Filter, FilterComposer {
     }
 
 
+    /**
+     * Runs the indexed criteria of an and, most selective first.
+     * Once the candidates are few enough that checking them costs less than the next index would,
+     * the remaining criteria are left for {@link #applyLinearSearch} to check against the candidates.
+     */
     private boolean applyIndexedFiltersForAnd( Criteria[] expressions, Map<String, FieldAccess> fields, Set<Criteria> expressionSet, ResultSetInternal resultSet ) {
-        Criterion criteria = null;
-        boolean foundIndex = false;
 
+        List<Estimate> plan = new ArrayList<>( expressions.length );
+        for ( Criteria expression : expressions ) {
+            if ( expression instanceof Criterion ) {
+                Criterion criterion = ( Criterion ) expression;
+                int estimate = estimate( criterion );
+                if ( estimate != NOT_INDEXED ) {
+                    plan.add( new Estimate( criterion, estimate ) );
+                }
+            }
+        }
+        Collections.sort( plan );
 
-        if ( expressions.length == 1 && expressions[ 0 ] instanceof Criterion ) {
-            criteria = ( Criterion ) expressions[ 0 ];
-            foundIndex = doFilterWithIndex( criteria, fields, resultSet );
-            if ( foundIndex ) {
-                expressionSet.remove( criteria );
+        boolean foundIndex = false;
+        int candidates = Integer.MAX_VALUE;
+
+        for ( Estimate step : plan ) {
+            if ( foundIndex && ( candidates == 0 || step.rows > candidates * FILTER_COST ) ) {
+                break;
             }
 
-            return foundIndex;
+            doFilterWithIndex( step.criterion, fields, resultSet );
+            expressionSet.remove( step.criterion );
+            foundIndex = true;
+
+            int rows = resultSet.lastSize();
+            candidates = Math.min( candidates, rows );
+            planStep( resultSet, PlanSteps.USE_INDEX, step.criterion, step.rows, rows );
         }
 
+        if ( foundIndex ) {
+            resultSet.andResults();
+        }
+        return foundIndex;
+    }
 
-        for ( Criteria expression : expressions ) {
-            /*
-             * See if the criteria has an index
-             */
-            if ( expression instanceof Criterion ) {
-                criteria = ( Criterion ) expression;
 
+    /**
+     * Rows the index would hand back for the criterion, or NOT_INDEXED.
+     */
+    private int estimate( Criterion criterion ) {
 
-                foundIndex = doFilterWithIndex( criteria, fields, resultSet );
-                if ( foundIndex ) {
-                    expressionSet.remove( criteria );
-                }
+        if ( !indexedOperators.contains( criterion.getOperator() ) ) {
+            return NOT_INDEXED;
+        }
 
-                /* if it is less than 20, just linear search the rest. */
-                if ( resultSet.lastSize() < 20 ) {
-                    resultSet.andResults(); //consolidate now
-                    return foundIndex;
-                } else if ( resultSet.lastSize() > 0 ) {
-                    //No op
-                }
+        LookupIndex lookupIndex = lookupIndexMap.get( criterion.getName() );
+        if ( lookupIndex != null && criterion.getOperator() == Operator.EQUAL ) {
+            return Selectivity.lookup( lookupIndex, criterion.getValue() );
+        }
 
-            }
+        SearchIndex searchIndex = searchIndexMap.get( criterion.getName() );
+        if ( searchIndex == null ) {
+            return NOT_INDEXED;
         }
-        if ( foundIndex ) {
-            resultSet.andResults();
+
+        if ( !criterion.isInitialized() ) {
+            criterion.initByFields( this.fields );
         }
-        return foundIndex;
+        int estimate = Selectivity.search( criterion, searchIndex, searchableCollection.size() );
+        criterion.clean();
+        return estimate;
+    }
+
+
+    private static final class Estimate implements Comparable<Estimate> {
+        final Criterion criterion;
+        final int rows;
+
+        Estimate( Criterion criterion, int rows ) {
+            this.criterion = criterion;
+            this.rows = rows;
+        }
+
+        @Override
+        public int compareTo( Estimate other ) {
+            return Integer.compare( rows, other.rows );
+        }
+    }
+
+
+    private static void planStep( ResultSetInternal resultSet, PlanSteps type, Criteria criteria, int estimate, int rows ) {
+        resultSet.addPlanStep( new PlanStep( type, describe( criteria ), estimate, rows ) );
+    }
+
+
+    private static String describe( Criteria criteria ) {
+        if ( criteria instanceof Criterion ) {
+            Criterion criterion = ( Criterion ) criteria;
+            return criterion.getName() + " " + criterion.getOperator() + " "
+                    + ( criterion.getValues().length > 1 ? Arrays.toString( criterion.getValues() ) : criterion.getValue() );
+        } else if ( criteria instanceof Group ) {
+            Group group = ( Group ) criteria;
+            if ( group.getExpressions().length == 1 ) {
+                return describe( group.getExpressions()[ 0 ] );
+            }
+            StringBuilder builder = new StringBuilder( "(" );
+            for ( Criteria expression : group.getExpressions() ) {
+                if ( builder.length() > 1 ) {
+                    builder.append( ' ' ).append( group.getGrouping() ).append( ' ' );
+                }
+                builder.append( describe( expression ) );
+            }
+            return builder.append( ')' ).toString();
+        } else if ( criteria instanceof Not ) {
+            return "not " + describe( ( ( Not ) criteria ).getExpression() );
+        }
+        return String.valueOf( criteria );
     }
 
 
@@ -248,19 +357,53 @@ public class FilterDefault implements Filter, FilterComposer {
 //    }
 
 
+    /**
+     * Takes the rows of an indexed not( criterion ) out of the candidates,
+     * when looking them up costs less than checking every candidate.
+     */
+    private void applyNotsWithIndex( Set<Criteria> expressionSet, ResultSetInternal resultSet ) {
+
+        for ( Criteria expression : new ArrayList<>( expressionSet ) ) {
+            if ( !( expression instanceof Not ) || !( ( ( Not ) expression ).getExpression() instanceof Criterion ) ) {
+                continue;
+            }
+
+            Criterion criterion = ( Criterion ) ( ( Not ) expression ).getExpression();
+            int estimate = estimate( criterion );
+            if ( estimate == NOT_INDEXED || estimate > resultSet.size() ) {
+                continue;
+            }
+
+            ResultSetInternal excluded = new ResultSetImpl( fields, rows );
+            doFilterWithIndex( criterion, fields, excluded );
+            resultSet.andNotResults( excluded.asList() );
+            expressionSet.remove( expression );
+            planStep( resultSet, PlanSteps.USE_INDEX, expression, estimate, resultSet.size() );
+        }
+    }
+
+
+    /**
+     * Each group narrows the results down further.
+     */
     private void applyGroups( Set<Criteria> expressionSet, ResultSetInternal resultSet ) {
 
         if ( expressionSet.size() == 0 ) {
             return;
         }
 
-
+        boolean foundGroup = false;
         for ( Criteria expression : expressionSet ) {
 
             if ( expression instanceof Group ) {
                 doFilterGroup( ( Group ) expression, resultSet );
+                foundGroup = true;
             }
         }
+
+        if ( foundGroup ) {
+            resultSet.andResults();
+        }
     }
 
 
@@ -272,13 +415,20 @@ public class FilterDefault implements Filter, FilterComposer {
 
         Criteria[] expressions = Conversions.array( Criteria.class, QueryFactory.filter( expressionSet, not( instanceOf( Group.class ) ) ) );
 
+        if ( expressions.length == 0 ) {
+            return;
+        }
+
+        Criteria criteria = CriteriaFactory.and( expressions );
+
         if ( foundIndex ) {
-            resultSet.filterAndPrune( CriteriaFactory.and( expressions ) );
+            int candidates = resultSet.size();
+            resultSet.filterAndPrune( criteria );
+            planStep( resultSet, PlanSteps.FILTER, criteria, candidates, resultSet.size() );
         } else {
-            resultSet.addResults(
-                    QueryFactory.filter( searchableCollection.all(),
-                            CriteriaFactory.and( expressions ) )
-            );
+            List list = IndexPool.filter( searchableCollection.all(), fields, criteria );
+            resultSet.addResults( list );
+            planStep( resultSet, PlanSteps.LINEAR_SEARCH, criteria, searchableCollection.size(), list.size() );
         }
         for ( Criteria expression : expressions ) {
             expressionSet.remove( expression );
@@ -287,10 +437,6 @@ public class FilterDefault implements Filter, FilterComposer {
     }
 
 
-    private boolean isIndexed( String name ) {
-        return searchIndexMap.containsKey( name );
-    }
-
     private boolean doFilterWithIndex( Criterion criterion, Map<String, FieldAccess> fields, ResultSetInternal resultSet ) {
 
 
@@ -386,6 +532,9 @@ public class FilterDefault implements Filter, FilterComposer {
     @Override
     public void setSearchableCollection( SearchableCollection searchableCollection ) {
         this.searchableCollection = searchableCollection;
+        if ( searchableCollection instanceof SearchableCollectionDefault ) {
+            this.rows = ( ( SearchableCollectionDefault ) searchableCollection ).rows;
+        }
     }
 
     @Override
@@ -0,0 +1,146 @@
+package org.boon.datarepo.impl;
+
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.criteria.CompiledCriteria;
+import org.boon.criteria.Criteria;
+import org.boon.predicates.Predicate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+
+/**
+ * Worker threads shared by every repo for index upkeep that can run side by side,
+ * one task per index, or off the caller's thread, and for scans of many items split into chunks.
+ */
+final class IndexPool {
+
+    /** Below this many items a batch is cheaper to index on the calling thread. */
+    static final int PARALLEL_THRESHOLD = Integer.getInteger( "org.boon.datarepo.parallelThreshold", 1_000 );
+
+    /** Below this many items a scan is cheaper on the calling thread. */
+    static final int SCAN_THRESHOLD = Integer.getInteger( "org.boon.datarepo.parallelScanThreshold", 10_000 );
+
+    static final ForkJoinPool pool = new ForkJoinPool(
+            Integer.getInteger( "org.boon.datarepo.indexThreads", Runtime.getRuntime().availableProcessors() ) );
+
+
+    private IndexPool() {
+    }
+
+
+    /** Runs the tasks on the pool and waits for all of them, the first failure is rethrown. */
+    static void runAll( Collection<? extends Runnable> tasks ) {
+
+        List<ForkJoinTask<?>> running = new ArrayList<>( tasks.size() );
+        for ( Runnable task : tasks ) {
+            running.add( pool.submit( task ) );
+        }
+
+        RuntimeException failure = null;
+        for ( ForkJoinTask<?> task : running ) {
+            try {
+                task.join();
+            } catch ( RuntimeException ex ) {
+                if ( failure == null ) {
+                    failure = ex;
+                }
+            }
+        }
+        if ( failure != null ) {
+            throw failure;
+        }
+    }
+
+
+    /** Part of a scan, the items from and up to but not including to. */
+    interface Range {
+        void run( int from, int to );
+    }
+
+
+    /** How many chunks a scan of this many items is split into, one keeps it on the calling thread. */
+    static int chunks( int size ) {
+        int threads = pool.getParallelism();
+        return size < SCAN_THRESHOLD || threads == 1 ? 1 : threads * 4;
+    }
+
+    /** Runs the range over 0 to size in chunks on the pool, or in one go on the calling thread. */
+    static void forRanges( int size, int chunks, final Range range ) {
+        if ( chunks <= 1 || size < chunks ) {
+            range.run( 0, size );
+            return;
+        }
+
+        List<Runnable> tasks = new ArrayList<>( chunks );
+        for ( int chunk = 0; chunk < chunks; chunk++ ) {
+            final int from = ( int ) ( ( long ) size * chunk / chunks );
+            final int to = ( int ) ( ( long ) size * ( chunk + 1 ) / chunks );
+            tasks.add( new Runnable() {
+                @Override
+                public void run() {
+                    range.run( from, to );
+                }
+            } );
+        }
+        runAll( tasks );
+    }
+
+    static <T> List<T> randomAccess( List<T> items ) {
+        return items instanceof RandomAccess ? items : new ArrayList<>( items );
+    }
+
+
+    /**
+     * The items that pass the criteria, in their order. Criteria that compile all the way
+     * are tested in chunks side by side, anything resolving itself stays on the calling thread.
+     */
+    static <T> List<T> filter( List<T> items, Map<String, FieldAccess> fields, Criteria criteria ) {
+        Predicate<T> predicate = CompiledCriteria.compile( fields, criteria );
+        return filter( items, predicate, CompiledCriteria.isCompiled( predicate ) ? chunks( items.size() ) : 1 );
+    }
+
+    static <T> List<T> filter( List<T> items, final Predicate<T> predicate, int chunks ) {
+
+        final List<T> list = randomAccess( items );
+
+        /* Chunks finish in any order, keyed by where they start they join back up in order. */
+        final Map<Integer, List<T>> found = new TreeMap<>();
+
+        forRanges( list.size(), chunks, new Range() {
+            @Override
+            public void run( int from, int to ) {
+                List<T> passed = new ArrayList<>();
+                for ( int index = from; index < to; index++ ) {
+                    T item = list.get( index );
+                    if ( predicate.test( item ) ) {
+                        passed.add( item );
+                    }
+                }
+                synchronized ( found ) {
+                    found.put( from, passed );
+                }
+            }
+        } );
+
+        if ( found.size() == 1 ) {
+            return found.values().iterator().next();
+        }
+
+        int size = 0;
+        for ( List<T> passed : found.values() ) {
+            size += passed.size();
+        }
+        List<T> results = new ArrayList<>( size );
+        for ( List<T> passed : found.values() ) {
+            results.addAll( passed );
+        }
+        return results;
+    }
+}
@@ -0,0 +1,82 @@
+package org.boon.datarepo.impl;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Searchable collection that remembers the keys of the items it changed since they were last taken.
+ * <p/>
+ * The live collection of a {@link RepoSnapshot}, which copies just those items into the next snapshot.
+ * Changes come from the writers of the repo, under its write lock.
+ */
+final class JournalingSearchableCollection<KEY, ITEM> extends SearchableCollectionDefault<KEY, ITEM> {
+
+    private Set<KEY> changed = new HashSet<>();
+
+
+    /**
+     * The keys changed since the last call, the items may since have gone.
+     */
+    Set<KEY> takeChanges() {
+        Set<KEY> changes = changed;
+        changed = new HashSet<>();
+        return changes;
+    }
+
+    private void changed( ITEM item ) {
+        if ( item != null ) {
+            changed.add( getKey( item ) );
+        }
+    }
+
+
+    @Override
+    public boolean delete( ITEM item ) {
+        changed( item );
+        return super.delete( item );
+    }
+
+    @Override
+    public void validateIndexes( ITEM item ) {
+        changed( item );
+        super.validateIndexes( item );
+    }
+
+    @Override
+    public void addBatch( List<ITEM> items ) {
+        for ( ITEM item : items ) {
+            changed( item );
+        }
+        super.addBatch( items );
+    }
+
+    @Override
+    public void deleteBatch( List<ITEM> items ) {
+        for ( ITEM item : items ) {
+            changed( item );
+        }
+        super.deleteBatch( items );
+    }
+
+    @Override
+    public void invalidateIndex( String property, ITEM item ) {
+        changed( item );
+        super.invalidateIndex( property, item );
+    }
+
+    @Override
+    public void validateIndex( String property, ITEM item ) {
+        changed( item );
+        super.validateIndex( property, item );
+    }
+
+    @Override
+    public void clear() {
+        for ( ITEM item : all() ) {
+            changed( item );
+        }
+        super.clear();
+    }
+}
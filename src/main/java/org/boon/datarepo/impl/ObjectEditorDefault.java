@@ -9,10 +9,13 @@ import org.boon.datarepo.ObjectEditor;
 import org.boon.datarepo.SearchableCollection;
 import org.boon.datarepo.spi.ObjectEditorComposer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -25,6 +28,26 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
     protected Map<String, FieldAccess> fields = new LinkedHashMap<>();
     private boolean hashCodeOptimization;
 
+    /**
+     * compareAndUpdate and compareAndIncrement hold the stripe of their key from the read to the write,
+     * so two callers on the same item never both see the old value, and property updates take the same
+     * stripe so they can not slip in between. Every change to the indexes, adds and removes included,
+     * goes through indexLock, held only while the indexes change and always taken after the stripe.
+     * Gets and queries do not lock, a repo that is queried while other threads write has to be built
+     * with concurrent( true ).
+     */
+    private final Object[] keyLocks = new Object[ 64 ];
+    private final Object indexLock = new Object();
+
+    /* addAllAsync and removeAllAsync queue here. */
+    private BatchWriter<ITEM> writer;
+
+    {
+        for ( int index = 0; index < keyLocks.length; index++ ) {
+            keyLocks[ index ] = new Object();
+        }
+    }
+
 
     private boolean lookupAndExcept;
 
@@ -36,7 +59,9 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
     }
 
     public void removeByKey( KEY key ) {
-        query.removeByKey( key );
+        synchronized ( indexLock ) {
+            query.removeByKey( key );
+        }
     }
 
     public void removeAll( ITEM... items ) {
@@ -45,21 +70,25 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
         }
     }
 
-    public void removeAllAsync( Collection<ITEM> items ) {
-        for ( ITEM item : items ) {
-            this.delete( item );
-        }
+    /**
+     * Queued and applied as a batch on a writer thread, holding the index lock like every other edit.
+     */
+    public Future<?> removeAllAsync( Collection<ITEM> items ) {
+        return writer.delete( new ArrayList<>( items ) );
     }
 
     public void addAll( ITEM... items ) {
-        for ( ITEM item : items ) {
-            this.add( item );
+        synchronized ( indexLock ) {
+            query.addBatch( Arrays.asList( items ) );
         }
     }
 
 
-    public void addAllAsync( Collection<ITEM> items ) {
-        query.addAll( items );
+    /**
+     * Queued and applied as a batch on a writer thread, holding the index lock like every other edit.
+     */
+    public Future<?> addAllAsync( Collection<ITEM> items ) {
+        return writer.add( new ArrayList<>( items ) );
     }
 
     public void modifyAll( ITEM... items ) {
@@ -76,17 +105,20 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
 
     public void modify( ITEM item ) {
 
-        /** See if we have an original. */
-        KEY key = query.getKey( item );
-        ITEM oldItem = this.doGet( key );
+        ITEM oldItem;
+        synchronized ( indexLock ) {
+            /** See if we have an original. */
+            KEY key = query.getKey( item );
+            oldItem = this.doGet( key );
 
-        if ( oldItem != null ) {
-            delete( oldItem );
-        } else {
-            log.warning( String.format( "An original item was not in the repo %s", item ) );
-        }
+            if ( oldItem != null ) {
+                delete( oldItem );
+            } else {
+                log.warning( String.format( "An original item was not in the repo %s", item ) );
+            }
 
-        this.query.validateIndexes( item );
+            this.query.validateIndexes( item );
+        }
 
         if ( log.isLoggable( Level.FINE ) ) {
             log.fine( String.format( "This item %s was modified like this %s", oldItem, item ) );
@@ -97,14 +129,17 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
 
     @Override
     public void update( ITEM item ) {
-        KEY key = query.getKey( item );
-        ITEM oldItem = this.doGet( key );
-
-        if ( oldItem == null ) {
-            throw new DataRepoException( "Unable to perform update, the object does not exist" );
+        ITEM oldItem;
+        synchronized ( indexLock ) {
+            KEY key = query.getKey( item );
+            oldItem = this.doGet( key );
+
+            if ( oldItem == null ) {
+                throw new DataRepoException( "Unable to perform update, the object does not exist" );
+            }
+            this.query.delete( oldItem );
+            this.query.validateIndexes( item );
         }
-        this.query.delete( oldItem );
-        this.query.validateIndexes( item );
 
         if ( log.isLoggable( Level.FINE ) ) {
             log.fine( String.format( "This item %s was modified like this %s", oldItem, item ) );
@@ -113,11 +148,15 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
     }
 
     public void modify( ITEM item, String property, Object value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setObject( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setObject( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     private void optimizeHash( ITEM item ) {
@@ -134,342 +173,503 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
     }
 
     public void modifyByValue( ITEM item, String property, String value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setValue( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setValue( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
 
     }
 
     public void modify( ITEM item, String property, int value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setInt( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setInt( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, String property, long value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setLong( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setLong( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, String property, char value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setChar( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setChar( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, String property, short value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setShort( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setShort( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, String property, byte value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setByte( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setByte( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, String property, float value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setFloat( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setFloat( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, String property, double value ) {
-        item = lookupAndExpect( item );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setDouble( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setDouble( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void modify( ITEM item, Update... values ) {
-        item = lookupAndExpect( item );
-        for ( Update value : values ) {
-            query.invalidateIndex( value.getName(), item );
-            value.doSet( this, item );
-            optimizeHash( item );
-            query.validateIndex( value.getName(), item );
+        synchronized ( lockFor( getKey( item ) ) ) {
+            synchronized ( indexLock ) {
+                item = lookupAndExpect( item );
+                for ( Update value : values ) {
+                    query.invalidateIndex( value.getName(), item );
+                    value.doSet( this, item );
+                    optimizeHash( item );
+                    query.validateIndex( value.getName(), item );
+                }
+            }
         }
 
     }
 
     public void update( KEY key, String property, Object value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setObject( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setObject( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void updateByValue( KEY key, String property, String value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setValue( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setValue( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, int value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setInt( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setInt( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, long value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setLong( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setLong( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, char value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setChar( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setChar( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, short value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setShort( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setShort( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, byte value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setByte( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setByte( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, float value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setFloat( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setFloat( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, String property, double value ) {
-        ITEM item = lookupAndExpectByKey( key );
-        query.invalidateIndex( property, item );
-        fields.get( property ).setDouble( item, value );
-        optimizeHash( item );
-        query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                query.invalidateIndex( property, item );
+                fields.get( property ).setDouble( item, value );
+                optimizeHash( item );
+                query.validateIndex( property, item );
+            }
+        }
     }
 
     public void update( KEY key, Update... values ) {
-        ITEM item = lookupAndExpectByKey( key );
-
-        for ( Update value : values ) {
-            query.invalidateIndex( value.getName(), item );
-            value.doSet( this, item );
-            optimizeHash( item );
-            query.validateIndex( value.getName(), item );
+        synchronized ( lockFor( key ) ) {
+            synchronized ( indexLock ) {
+                ITEM item = lookupAndExpectByKey( key );
+                for ( Update value : values ) {
+                    query.invalidateIndex( value.getName(), item );
+                    value.doSet( this, item );
+                    optimizeHash( item );
+                    query.validateIndex( value.getName(), item );
+                }
+            }
         }
     }
 
     public boolean compareAndUpdate( KEY key, String property, Object compare, Object value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getObject( item ).equals( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setObject( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getObject( item ).equals( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setObject( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndUpdate( KEY key, String property, int compare, int value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getInt( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setInt( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getInt( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setInt( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndUpdate( KEY key, String property, long compare, long value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getLong( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setLong( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getLong( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setLong( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndUpdate( KEY key, String property, char compare, char value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getChar( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setChar( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getChar( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setChar( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndUpdate( KEY key, String property, short compare, short value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getShort( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setShort( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getShort( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setShort( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
-
     }
 
     public boolean compareAndUpdate( KEY key, String property, byte compare, byte value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getByte( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setByte( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getByte( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setByte( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndUpdate( KEY key, String property, float compare, float value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getFloat( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setFloat( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getFloat( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setFloat( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndUpdate( KEY key, String property, double compare, double value ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getDouble( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setDouble( item, value );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getDouble( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setDouble( item, value );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndIncrement( KEY key, String property, int compare ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getInt( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setInt( item, ( compare + 1 ) );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getInt( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setInt( item, ( compare + 1 ) );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
-
     }
 
     public boolean compareAndIncrement( KEY key, String property, long compare ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getLong( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setLong( item, ( compare + 1 ) );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getLong( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setLong( item, ( compare + 1 ) );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndIncrement( KEY key, String property, short compare ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getShort( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setShort( item, ( short ) ( compare + 1 ) );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getShort( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setShort( item, ( short ) ( compare + 1 ) );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     public boolean compareAndIncrement( KEY key, String property, byte compare ) {
-        ITEM item = lookupAndExpectByKey( key );
         FieldAccess field = fields.get( property );
-        boolean set = false;
-        if ( field.getByte( item ) == ( compare ) ) {
-            query.invalidateIndex( property, item );
-            field.setByte( item, ( byte ) ( compare + 1 ) );
-            set = true;
-            optimizeHash( item );
-            query.validateIndex( property, item );
+        synchronized ( lockFor( key ) ) {
+            ITEM item = lookupAndExpectByKey( key );
+            if ( field.getByte( item ) == ( compare ) ) {
+                synchronized ( indexLock ) {
+                    if ( doGet( key ) != item ) {
+                        /* Removed or replaced since it was read, the caller reads it again. */
+                        return false;
+                    }
+                    query.invalidateIndex( property, item );
+                    field.setByte( item, ( byte ) ( compare + 1 ) );
+                    optimizeHash( item );
+                    query.validateIndex( property, item );
+                }
+                return true;
+            }
+            return false;
         }
-        return set;
     }
 
     @Override
     public void addAll( List<ITEM> items ) {
-        query.addAll( items );
+        synchronized ( indexLock ) {
+            query.addAll( items );
+        }
     }
 
 
     public boolean add( ITEM item ) {
-        return query.add( item );
+        synchronized ( indexLock ) {
+            return query.add( item );
+        }
     }
 
 
@@ -481,6 +681,7 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
     @Override
     public void setSearchableCollection( SearchableCollection searchableCollection ) {
         this.query = searchableCollection;
+        this.writer = new BatchWriter<>( searchableCollection, indexLock );
     }
 
     @Override
@@ -497,6 +698,12 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
         return ( ITEM ) query.get( key );
     }
 
+    private Object lockFor( KEY key ) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return keyLocks[ hash & ( keyLocks.length - 1 ) ];
+    }
+
     private ITEM doGet( KEY key ) {
         return ( ITEM ) query.get( key );
     }
@@ -540,12 +747,16 @@ public class ObjectEditorDefault<KEY, ITEM> implements ObjectEditorComposer<KEY,
 
     @Override
     public void clear() {
-        query.clear();
+        synchronized ( indexLock ) {
+            query.clear();
+        }
     }
 
     @Override
     public boolean delete( ITEM item ) {
-        return query.delete( item );
+        synchronized ( indexLock ) {
+            return query.delete( item );
+        }
 
     }
 
@@ -10,6 +10,9 @@ import org.boon.datarepo.impl.decorators.ObjectEditorCloneDecorator;
 import org.boon.datarepo.impl.decorators.ObjectEditorEventDecorator;
 import org.boon.datarepo.impl.decorators.ObjectEditorLogNullCheckDecorator;
 import org.boon.datarepo.impl.indexes.NestedKeySearchIndex;
+import org.boon.datarepo.impl.indexes.PrimitiveSearchIndex;
+import org.boon.datarepo.impl.indexes.SearchIndexDefault;
+import org.boon.datarepo.impl.indexes.SnapshotSearchIndex;
 import org.boon.datarepo.impl.indexes.TypeHierarchyIndex;
 import org.boon.datarepo.modification.ModificationListener;
 import org.boon.datarepo.spi.*;
@@ -141,6 +144,20 @@ public class RepoBuilderDefault implements RepoBuilder {
      */
     boolean cloneEdits;
 
+    /**
+     * Builds a repo that readers and writers can share without an outer lock.
+     *
+     * @see RepoConcurrent
+     */
+    boolean concurrent;
+
+    /**
+     * Builds a repo whose readers query an immutable snapshot.
+     *
+     * @see RepoSnapshot
+     */
+    boolean snapshots;
+
     /**
      * This is not implemented yet.
      * It would allow to have only keys in the repo and the actual data could live
@@ -338,7 +355,36 @@ public class RepoBuilderDefault implements RepoBuilder {
     }
 
     /**
-     * This caches query results until there is an update.
+     * Builds a repo that is safe to query and edit from many threads.
+     * Queries run side by side under a read lock, edits take the write lock.
+     *
+     * @param concurrent do you want a thread safe repo?
+     * @return RepoBuilder
+     * @see RepoConcurrent
+     */
+    @Override
+    public RepoBuilder concurrent( boolean concurrent ) {
+        this.concurrent = concurrent;
+        return this;
+    }
+
+    /**
+     * Builds a repo for many readers and batched writers.
+     * Queries read the last published snapshot without a lock, its search indexes are sorted arrays.
+     * Edits are locked as in a concurrent repo and each finished edit copies the items it changed into a new snapshot.
+     *
+     * @param snapshots do you want lock free reads of published snapshots?
+     * @return RepoBuilder
+     * @see RepoSnapshot
+     */
+    @Override
+    public RepoBuilder snapshots( boolean snapshots ) {
+        this.snapshots = snapshots;
+        return this;
+    }
+
+    /**
+     * This caches query results until there is an update that can change them.
      *
      * @return RepoBuilder
      */
@@ -570,6 +616,22 @@ public class RepoBuilderDefault implements RepoBuilder {
      */
     private void initializeTheFactories() {
 
+        if ( this.repoComposerFactory == null && this.snapshots ) {
+            this.repoComposerFactory = new Supplier<RepoComposer>() {
+                @Override
+                public RepoComposer get() {
+                    return new RepoSnapshot();
+                }
+            };
+        }
+        if ( this.repoComposerFactory == null && this.concurrent ) {
+            this.repoComposerFactory = new Supplier<RepoComposer>() {
+                @Override
+                public RepoComposer get() {
+                    return new RepoConcurrent();
+                }
+            };
+        }
         if ( this.repoComposerFactory == null ) {
             this.repoComposerFactory = SPIFactory.getRepoFactory();
         }
@@ -582,6 +644,14 @@ public class RepoBuilderDefault implements RepoBuilder {
         if ( this.uniqueLookupIndexFactory == null ) {
             this.uniqueLookupIndexFactory = SPIFactory.getUniqueLookupIndexFactory();
         }
+        if ( this.searchableCollectionFactory == null && this.snapshots ) {
+            this.searchableCollectionFactory = new Supplier<SearchableCollectionComposer>() {
+                @Override
+                public SearchableCollectionComposer get() {
+                    return new JournalingSearchableCollection();
+                }
+            };
+        }
         if ( this.searchableCollectionFactory == null ) {
             this.searchableCollectionFactory = SPIFactory.getSearchableCollectionFactory();
         }
@@ -631,7 +701,7 @@ public class RepoBuilderDefault implements RepoBuilder {
         /* Construct */
         this.repo = this.repoComposerFactory.get();
         this.editor = constructObjectEditor( fields );
-        SearchableCollectionComposer query = constructSearchableCollection( primitiveKey, clazz, repo, fields );
+        SearchableCollectionComposer query = constructSearchableCollection( primitiveKey, clazz, repo, fields, false );
         query.setRemoveDuplication( this.removeDuplication );
 
         /* Inject */
@@ -641,6 +711,17 @@ public class RepoBuilderDefault implements RepoBuilder {
         editor = decorateEditor( editor );
         repo.setObjectEditor( ( ObjectEditor ) editor );
 
+        if ( repo instanceof RepoConcurrent ) {
+            ( ( RepoConcurrent ) repo ).setFields( fields );
+        }
+
+        if ( repo instanceof RepoSnapshot ) {
+            if ( query instanceof JournalingSearchableCollection ) {
+                ( ( RepoSnapshot ) repo ).setJournal( ( JournalingSearchableCollection ) query );
+            }
+            ( ( RepoSnapshot ) repo ).setSnapshots( snapshotFactory( primitiveKey, clazz, fields ) );
+        }
+
         return ( Repo<KEY, ITEM> ) repo;
     }
 
@@ -667,17 +748,39 @@ public class RepoBuilderDefault implements RepoBuilder {
         }
     }
 
+    /**
+     * Empty snapshots configured like the repo, with snapshot search indexes and no query cache.
+     */
+    private Supplier<SearchableCollection> snapshotFactory( final Class<?> primitiveKey, final Class<?> itemClazz,
+                                                            final Map<String, FieldAccess> fields ) {
+        final RepoComposer repo = this.repo;
+        final boolean removeDuplication = this.removeDuplication;
+        return new Supplier<SearchableCollection>() {
+            @Override
+            public SearchableCollection get() {
+                /* Building goes through the builder's own fields. */
+                synchronized ( RepoBuilderDefault.this ) {
+                    SearchableCollectionComposer snapshot = constructSearchableCollection( primitiveKey, itemClazz, repo, fields, true );
+                    snapshot.setRemoveDuplication( removeDuplication );
+                    return ( SearchableCollection ) snapshot;
+                }
+            }
+        };
+    }
+
     /**
      * @param primitiveKey
      * @param itemClazz
      * @param repo
      * @param fields
+     * @param snapshot
      * @return
      */
-    private SearchableCollectionComposer constructSearchableCollection( Class<?> primitiveKey, Class<?> itemClazz, RepoComposer repo, Map<String, FieldAccess> fields ) {
+    private SearchableCollectionComposer constructSearchableCollection( Class<?> primitiveKey, Class<?> itemClazz, RepoComposer repo,
+                                                                        Map<String, FieldAccess> fields, boolean snapshot ) {
 
-        /* Create the searchable collection. */
-        query = searchableCollectionFactory.get();
+        /* Create the searchable collection, snapshots are plain ones that merge in what the live one changed. */
+        query = snapshot ? new SearchableCollectionDefault() : searchableCollectionFactory.get();
 
         /* Create the filter object. */
         Filter filter = this.filterFactory.get();
@@ -686,7 +789,7 @@ public class RepoBuilderDefault implements RepoBuilder {
         configPrimaryKey( primitiveKey == null ? itemClazz : primitiveKey, fields );
 
 
-        configIndexes( repo, fields );
+        configIndexes( repo, fields, snapshot );
 
 
         query.setFilter( filter );
@@ -696,8 +799,10 @@ public class RepoBuilderDefault implements RepoBuilder {
 
         query.init();
 
-        if ( this.cache ) {
-            filter = new FilterWithSimpleCache( filter );
+        if ( this.cache && !snapshot ) {
+            Set<String> inexact = new HashSet<>( collators.keySet() );
+            inexact.addAll( keyTransformers.keySet() );
+            filter = new FilterWithSimpleCache( filter, fields, inexact );
         }
 
         query.setFilter( filter );
@@ -825,9 +930,10 @@ public class RepoBuilderDefault implements RepoBuilder {
     /**
      * @param repo
      * @param fields
+     * @param snapshot
      */
     private void configIndexes( RepoComposer repo,
-                                Map<String, FieldAccess> fields ) {
+                                Map<String, FieldAccess> fields, boolean snapshot ) {
 
         if ( this.indexHierarchy ) {
             TypeHierarchyIndex index = new TypeHierarchyIndex();
@@ -848,7 +954,12 @@ public class RepoBuilderDefault implements RepoBuilder {
 
             Class<?> type = fieldAccess.getType();
 
-            SearchIndex searchIndex = this.searchIndexFactory.apply( type );
+            SearchIndex searchIndex = snapshot ? new SnapshotSearchIndex() : this.searchIndexFactory.apply( type );
+
+            /* Primitive keys are kept in value order, a collator needs the general index. */
+            if ( searchIndex instanceof PrimitiveSearchIndex && this.collators.get( prop ) != null ) {
+                searchIndex = new SearchIndexDefault( type );
+            }
             configSearchIndex( fields, prop, searchIndex );
 
         }
@@ -856,7 +967,7 @@ public class RepoBuilderDefault implements RepoBuilder {
             FieldAccess fieldAccess = fields.get( prop );
             Objects.requireNonNull( fieldAccess, "Field access for property was null. " + prop );
 
-            SearchIndex searchIndex = this.uniqueSearchIndexFactory.apply( fieldAccess.getType() );
+            SearchIndex searchIndex = snapshot ? new SnapshotSearchIndex() : this.uniqueSearchIndexFactory.apply( fieldAccess.getType() );
             configSearchIndex( fields, prop, searchIndex );
         }
 
@@ -0,0 +1,1412 @@
+package org.boon.datarepo.impl;
+
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.criteria.*;
+import org.boon.datarepo.LookupIndex;
+import org.boon.datarepo.PlanStep;
+import org.boon.datarepo.ResultSet;
+import org.boon.datarepo.spi.SearchIndex;
+
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * Repo that many threads can query and edit at once.
+ * <p/>
+ * Queries, counts and reads share a read lock so they run side by side, edits take the write lock.
+ * The indexes and the searchable collection underneath are the usual unsynchronized ones,
+ * the lock is what keeps them consistent.
+ * <p/>
+ * Index buckets can come back from a query as is, so lists and result sets
+ * are copied before the read lock is released.
+ *
+ * @param <KEY>  primary key of the object.
+ * @param <ITEM> item that this repo holds.
+ * @see org.boon.datarepo.RepoBuilder#concurrent(boolean)
+ */
+public class RepoConcurrent<KEY, ITEM> extends RepoDefault<KEY, ITEM> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    private Map<String, FieldAccess> fields = Collections.emptyMap();
+
+    /* Async writes queue here so each batch is applied under the write lock. */
+    private final BatchWriter<ITEM> writer = new BatchWriter<>( this );
+
+
+    public void setFields( Map<String, FieldAccess> fields ) {
+        this.fields = fields;
+    }
+
+
+    /**
+     * Every edit ends here, subclasses can act on the finished edit before the lock goes.
+     */
+    protected void unlockWrite() {
+        writeLock.unlock();
+    }
+
+    /**
+     * How many nested edits hold the write lock, one for the outermost.
+     */
+    protected final int writeDepth() {
+        return lock.getWriteHoldCount();
+    }
+
+
+    @Override
+    public ResultSet<ITEM> results( Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return copy( super.results( expressions ) );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * The results and their plan in a result set of the caller's own.
+     */
+    protected ResultSet<ITEM> copy( ResultSet<ITEM> results ) {
+        ResultSetImpl<ITEM> copy = new ResultSetImpl<>( new ArrayList<>( results.asList() ), fields );
+        for ( PlanStep step : results.queryPlan() ) {
+            copy.addPlanStep( step );
+        }
+        return copy;
+    }
+
+    @Override
+    public void updateByFilter( String property, Object value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilterUsingValue( String property, String value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilterUsingValue( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, int value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, long value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, char value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, short value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, byte value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, float value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( String property, double value, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( property, value, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByFilter( List<Update> values, Criteria... expressions ) {
+        writeLock.lock();
+        try {
+            super.updateByFilter( values, expressions );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public ITEM get( KEY key ) {
+        readLock.lock();
+        try {
+            return super.get( key );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public KEY getKey( ITEM item ) {
+        readLock.lock();
+        try {
+            return super.getKey( item );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateIndex( String property, ITEM item ) {
+        writeLock.lock();
+        try {
+            super.invalidateIndex( property, item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void validateIndex( String property, ITEM item ) {
+        writeLock.lock();
+        try {
+            super.validateIndex( property, item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void validateIndexes( ITEM item ) {
+        writeLock.lock();
+        try {
+            super.validateIndexes( item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public Object readObject( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readObject( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T readValue( KEY key, String property, Class<T> type ) {
+        readLock.lock();
+        try {
+            return super.readValue( key, property, type );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int readInt( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readInt( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long readLong( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readLong( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public char readChar( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readChar( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public short readShort( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readShort( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public byte readByte( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readByte( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public float readFloat( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readFloat( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public double readDouble( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.readDouble( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Object getObject( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getObject( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T getValue( ITEM item, String property, Class<T> type ) {
+        readLock.lock();
+        try {
+            return super.getValue( item, property, type );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int getInt( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getInt( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long getLong( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getLong( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public char getChar( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getChar( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public short getShort( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getShort( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public byte getByte( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getByte( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public float getFloat( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getFloat( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public double getDouble( ITEM item, String property ) {
+        readLock.lock();
+        try {
+            return super.getDouble( item, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, int value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, short value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, byte value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, long value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, char value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, float value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, double value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int count( KEY key, String property, Object value ) {
+        readLock.lock();
+        try {
+            return super.count( key, property, value );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T max( KEY key, String property, Class<T> type ) {
+        readLock.lock();
+        try {
+            return super.max( key, property, type );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String maxString( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.maxString( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Number maxNumber( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.maxNumber( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int maxInt( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.maxInt( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long maxLong( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.maxLong( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public double maxDouble( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.maxDouble( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T min( KEY key, String property, Class<T> type ) {
+        readLock.lock();
+        try {
+            return super.min( key, property, type );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String minString( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.minString( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Number minNumber( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.minNumber( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int minInt( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.minInt( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long minLong( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.minLong( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public double minDouble( KEY key, String property ) {
+        readLock.lock();
+        try {
+            return super.minDouble( key, property );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<ITEM> query( Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return new ArrayList<>( super.query( expressions ) );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<ITEM> sortedQuery( String sortBy, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return super.sortedQuery( sortBy, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<ITEM> sortedQuery( Sort sortBy, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return super.sortedQuery( sortBy, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> queryAsMaps( Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return super.queryAsMaps( expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> query( List<Selector> selectors, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return super.query( selectors, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> sortedQuery( String sortBy, List<Selector> selectors, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return super.sortedQuery( sortBy, selectors, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Map<String, Object>> sortedQuery( Sort sortBy, List<Selector> selectors, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            return super.sortedQuery( sortBy, selectors, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void query( Visitor<KEY, ITEM> visitor, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            super.query( visitor, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void sortedQuery( Visitor<KEY, ITEM> visitor, String sortBy, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            super.sortedQuery( visitor, sortBy, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void sortedQuery( Visitor<KEY, ITEM> visitor, Sort sortBy, Criteria... expressions ) {
+        readLock.lock();
+        try {
+            super.sortedQuery( visitor, sortBy, expressions );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void put( ITEM item ) {
+        writeLock.lock();
+        try {
+            super.put( item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void removeByKey( KEY key ) {
+        writeLock.lock();
+        try {
+            super.removeByKey( key );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void removeAll( ITEM... items ) {
+        writeLock.lock();
+        try {
+            super.removeAll( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public Future<?> removeAllAsync( Collection<ITEM> items ) {
+        return writer.delete( items );
+    }
+
+    @Override
+    public void addAll( ITEM... items ) {
+        writeLock.lock();
+        try {
+            super.addAll( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public Future<?> addAllAsync( Collection<ITEM> items ) {
+        return writer.add( items );
+    }
+
+    @Override
+    public void modifyAll( ITEM... items ) {
+        writeLock.lock();
+        try {
+            super.modifyAll( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modifyAll( Collection<ITEM> items ) {
+        writeLock.lock();
+        try {
+            super.modifyAll( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item ) {
+        writeLock.lock();
+        try {
+            super.modify( item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( ITEM item ) {
+        writeLock.lock();
+        try {
+            super.update( item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modifyByValue( ITEM item, String property, String value ) {
+        writeLock.lock();
+        try {
+            super.modifyByValue( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, Object value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, int value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, long value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, char value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, short value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, byte value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, float value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, String property, double value ) {
+        writeLock.lock();
+        try {
+            super.modify( item, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void modify( ITEM item, Update... values ) {
+        writeLock.lock();
+        try {
+            super.modify( item, values );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void updateByValue( KEY key, String property, String value ) {
+        writeLock.lock();
+        try {
+            super.updateByValue( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, Object value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, int value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, long value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, char value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, short value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, byte value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, float value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, String property, double value ) {
+        writeLock.lock();
+        try {
+            super.update( key, property, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void update( KEY key, Update... values ) {
+        writeLock.lock();
+        try {
+            super.update( key, values );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, Object compare, Object value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, int compare, int value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, long compare, long value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, char compare, char value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, short compare, short value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, byte compare, byte value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, float compare, float value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndUpdate( KEY key, String property, double compare, double value ) {
+        writeLock.lock();
+        try {
+            return super.compareAndUpdate( key, property, compare, value );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndIncrement( KEY key, String property, int compare ) {
+        writeLock.lock();
+        try {
+            return super.compareAndIncrement( key, property, compare );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndIncrement( KEY key, String property, long compare ) {
+        writeLock.lock();
+        try {
+            return super.compareAndIncrement( key, property, compare );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndIncrement( KEY key, String property, short compare ) {
+        writeLock.lock();
+        try {
+            return super.compareAndIncrement( key, property, compare );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean compareAndIncrement( KEY key, String property, byte compare ) {
+        writeLock.lock();
+        try {
+            return super.compareAndIncrement( key, property, compare );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void addAll( List<ITEM> items ) {
+        writeLock.lock();
+        try {
+            super.addAll( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public Object readNestedValue( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedValue( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int readNestedInt( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedInt( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public short readNestedShort( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedShort( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public char readNestedChar( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedChar( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public byte readNestedByte( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedByte( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public double readNestedDouble( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedDouble( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public float readNestedFloat( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedFloat( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long readNestedLong( KEY key, String... properties ) {
+        readLock.lock();
+        try {
+            return super.readNestedLong( key, properties );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean add( ITEM item ) {
+        writeLock.lock();
+        try {
+            return super.add( item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean remove( Object o ) {
+        writeLock.lock();
+        try {
+            return super.remove( o );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean containsAll( Collection<?> c ) {
+        readLock.lock();
+        try {
+            return super.containsAll( c );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addAll( Collection<? extends ITEM> c ) {
+        writeLock.lock();
+        try {
+            return super.addAll( c );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean removeAll( Collection<?> c ) {
+        writeLock.lock();
+        try {
+            return super.removeAll( c );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean retainAll( Collection<?> c ) {
+        writeLock.lock();
+        try {
+            return super.retainAll( c );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public boolean delete( ITEM item ) {
+        writeLock.lock();
+        try {
+            return super.delete( item );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void addBatch( List<ITEM> items ) {
+        writeLock.lock();
+        try {
+            super.addBatch( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void deleteBatch( List<ITEM> items ) {
+        writeLock.lock();
+        try {
+            super.deleteBatch( items );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void addSearchIndex( String name, SearchIndex<?, ?> si ) {
+        writeLock.lock();
+        try {
+            super.addSearchIndex( name, si );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public void addLookupIndex( String name, LookupIndex<?, ?> si ) {
+        writeLock.lock();
+        try {
+            super.addLookupIndex( name, si );
+        } finally {
+            unlockWrite();
+        }
+    }
+
+    @Override
+    public List<ITEM> all() {
+        readLock.lock();
+        try {
+            return super.all();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        readLock.lock();
+        try {
+            return super.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        readLock.lock();
+        try {
+            return super.isEmpty();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains( Object o ) {
+        readLock.lock();
+        try {
+            return super.contains( o );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<ITEM> iterator() {
+        readLock.lock();
+        try {
+            return super.iterator();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        readLock.lock();
+        try {
+            return super.toArray();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T[] toArray( T[] a ) {
+        readLock.lock();
+        try {
+            return super.toArray( a );
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<ITEM> toCollection() {
+        readLock.lock();
+        try {
+            return super.toCollection();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        writeLock.lock();
+        try {
+            super.clear();
+        } finally {
+            unlockWrite();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 
 /**
@@ -395,8 +396,8 @@ public class RepoDefault<KEY, ITEM> implements Repo<KEY, ITEM>, RepoComposer<KEY
     }
 
     @Override
-    public void removeAllAsync( Collection<ITEM> items ) {
-        editor.removeAllAsync( items );
+    public Future<?> removeAllAsync( Collection<ITEM> items ) {
+        return editor.removeAllAsync( items );
     }
 
     @Override
@@ -405,8 +406,8 @@ public class RepoDefault<KEY, ITEM> implements Repo<KEY, ITEM>, RepoComposer<KEY
     }
 
     @Override
-    public void addAllAsync( Collection<ITEM> items ) {
-        editor.addAllAsync( items );
+    public Future<?> addAllAsync( Collection<ITEM> items ) {
+        return editor.addAllAsync( items );
     }
 
     @Override
@@ -669,6 +670,16 @@ public class RepoDefault<KEY, ITEM> implements Repo<KEY, ITEM>, RepoComposer<KEY
         return editor.delete( item );
     }
 
+    @Override
+    public void addBatch( List<ITEM> items ) {
+        query.addBatch( items );
+    }
+
+    @Override
+    public void deleteBatch( List<ITEM> items ) {
+        query.deleteBatch( items );
+    }
+
     @Override
     public void addSearchIndex( String name, SearchIndex<?, ?> si ) {
         query.addSearchIndex( name, si );
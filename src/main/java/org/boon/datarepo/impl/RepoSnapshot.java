@@ -0,0 +1,218 @@
+package org.boon.datarepo.impl;
+
+import org.boon.core.Supplier;
+import org.boon.core.reflection.BeanUtils;
+import org.boon.criteria.Criteria;
+import org.boon.criteria.Selector;
+import org.boon.criteria.Sort;
+import org.boon.criteria.Visitor;
+import org.boon.datarepo.ResultSet;
+import org.boon.datarepo.SearchableCollection;
+
+import java.util.*;
+
+
+/**
+ * Repo for many readers and few, batched writers.
+ * <p/>
+ * Edits go to the repo underneath under the write lock, as with {@link RepoConcurrent}. When the outermost
+ * edit is done, and before the lock goes, the items it changed are copied and a new snapshot is published.
+ * A snapshot is a searchable collection that is never edited again and holds copies of its own, so edits
+ * never change an item a reader holds. Its search indexes are
+ * {@link org.boon.datarepo.impl.indexes.SnapshotSearchIndex sorted arrays}, so queries, get, all and size
+ * read the current snapshot without taking a lock and never wait for a writer.
+ * <p/>
+ * A snapshot is the one before it with the changed items merged in: the sorted indexes are not sorted again,
+ * and the lookup indexes and row ids are copied over with only the changed items applied, so no key of an
+ * unchanged item is read. The copying still grows with the repo, so edit in batches: addAll, removeAll,
+ * modifyAll and the async adds and removes publish once per batch.
+ * Items handed out by get and queries are the snapshot's copies, change them through the repo.
+ * Reads of single properties by key still go to the repo underneath under the read lock.
+ *
+ * @param <KEY>  primary key of the object.
+ * @param <ITEM> item that this repo holds.
+ * @see org.boon.datarepo.RepoBuilder#snapshots(boolean)
+ */
+public class RepoSnapshot<KEY, ITEM> extends RepoConcurrent<KEY, ITEM> {
+
+    private Supplier<SearchableCollection<KEY, ITEM>> snapshots;
+
+    private volatile SearchableCollection<KEY, ITEM> snapshot;
+
+    /* Where the changed keys come from, without it every publish copies every item. */
+    private JournalingSearchableCollection<KEY, ITEM> journal;
+
+    /* The copy the current snapshot holds for each key, only writers use it. */
+    private final Map<KEY, ITEM> copies = new HashMap<>();
+
+
+    void setJournal( JournalingSearchableCollection<KEY, ITEM> journal ) {
+        this.journal = journal;
+    }
+
+    /**
+     * Sets where empty snapshots come from, configured like the repo with snapshot indexes, and publishes the first.
+     */
+    public void setSnapshots( Supplier<SearchableCollection<KEY, ITEM>> snapshots ) {
+        this.snapshots = snapshots;
+        publish();
+    }
+
+
+    @Override
+    protected void unlockWrite() {
+        try {
+            if ( writeDepth() == 1 && snapshots != null ) {
+                publish();
+            }
+        } finally {
+            super.unlockWrite();
+        }
+    }
+
+    private void publish() {
+        Set<KEY> changed;
+        if ( journal != null && snapshot != null ) {
+            changed = journal.takeChanges();
+        } else {
+            changed = new HashSet<>( copies.keySet() );
+            for ( ITEM item : super.all() ) {
+                changed.add( super.getKey( item ) );
+            }
+            if ( journal != null ) {
+                journal.takeChanges();
+            }
+        }
+
+        if ( changed.isEmpty() && snapshot != null ) {
+            return;
+        }
+
+        List<ITEM> dropped = new ArrayList<>();
+        List<ITEM> added = new ArrayList<>( changed.size() );
+        for ( KEY key : changed ) {
+            ITEM before = copies.remove( key );
+            if ( before != null ) {
+                dropped.add( before );
+            }
+            ITEM item = super.get( key );
+            if ( item != null ) {
+                ITEM copy = BeanUtils.copy( item );
+                copies.put( key, copy );
+                added.add( copy );
+            }
+        }
+
+        SearchableCollection<KEY, ITEM> previous = snapshot;
+        SearchableCollection<KEY, ITEM> next = snapshots.get();
+        if ( previous instanceof SearchableCollectionDefault && next instanceof SearchableCollectionDefault ) {
+            ( ( SearchableCollectionDefault<KEY, ITEM> ) next ).addBatch( copies.values(),
+                    ( SearchableCollectionDefault<KEY, ITEM> ) previous, dropped, added );
+        } else {
+            next.addBatch( new ArrayList<>( copies.values() ) );
+        }
+        snapshot = next;
+    }
+
+
+    @Override
+    public ITEM get( KEY key ) {
+        return snapshot.get( key );
+    }
+
+    @Override
+    public ResultSet<ITEM> results( Criteria... expressions ) {
+        /* Index buckets can come back as is, hand out a copy so the snapshot stays as built. */
+        return copy( snapshot.results( expressions ) );
+    }
+
+    @Override
+    public List<ITEM> query( Criteria... expressions ) {
+        return new ArrayList<>( snapshot.query( expressions ) );
+    }
+
+    @Override
+    public List<ITEM> sortedQuery( String sortBy, Criteria... expressions ) {
+        return snapshot.sortedQuery( sortBy, expressions );
+    }
+
+    @Override
+    public List<ITEM> sortedQuery( Sort sortBy, Criteria... expressions ) {
+        return snapshot.sortedQuery( sortBy, expressions );
+    }
+
+    @Override
+    public List<Map<String, Object>> queryAsMaps( Criteria... expressions ) {
+        return snapshot.queryAsMaps( expressions );
+    }
+
+    @Override
+    public List<Map<String, Object>> query( List<Selector> selectors, Criteria... expressions ) {
+        return snapshot.query( selectors, expressions );
+    }
+
+    @Override
+    public List<Map<String, Object>> sortedQuery( String sortBy, List<Selector> selectors, Criteria... expressions ) {
+        return snapshot.sortedQuery( sortBy, selectors, expressions );
+    }
+
+    @Override
+    public List<Map<String, Object>> sortedQuery( Sort sortBy, List<Selector> selectors, Criteria... expressions ) {
+        return snapshot.sortedQuery( sortBy, selectors, expressions );
+    }
+
+    @Override
+    public void query( Visitor<KEY, ITEM> visitor, Criteria... expressions ) {
+        snapshot.query( visitor, expressions );
+    }
+
+    @Override
+    public void sortedQuery( Visitor<KEY, ITEM> visitor, String sortBy, Criteria... expressions ) {
+        snapshot.sortedQuery( visitor, sortBy, expressions );
+    }
+
+    @Override
+    public void sortedQuery( Visitor<KEY, ITEM> visitor, Sort sortBy, Criteria... expressions ) {
+        snapshot.sortedQuery( visitor, sortBy, expressions );
+    }
+
+    @Override
+    public List<ITEM> all() {
+        return snapshot.all();
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.isEmpty();
+    }
+
+    @Override
+    public boolean contains( Object o ) {
+        return snapshot.contains( o );
+    }
+
+    @Override
+    public Iterator<ITEM> iterator() {
+        return snapshot.iterator();
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot.toArray();
+    }
+
+    @Override
+    public <T> T[] toArray( T[] a ) {
+        return snapshot.toArray( a );
+    }
+
+    @Override
+    public Collection<ITEM> toCollection() {
+        return snapshot.all();
+    }
+}
@@ -2,6 +2,7 @@ package org.boon.datarepo.impl;
 
 import org.boon.core.reflection.BeanUtils;
 import org.boon.core.Conversions;
+import org.boon.core.Typ;
 import org.boon.core.reflection.Reflection;
 import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.criteria.Criteria;
@@ -29,6 +30,11 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
 
     private Map<String, FieldAccess> fields;
 
+    private List<PlanStep> plan;
+
+    /* When set, results are combined as bitmaps of row ids. */
+    private RowIds<T> rows;
+
 
     public ResultSetImpl( Map<String, FieldAccess> fields ) {
         this.fields = fields;
@@ -36,6 +42,13 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
     }
 
 
+    ResultSetImpl( Map<String, FieldAccess> fields, RowIds<T> rows ) {
+        this.fields = fields;
+        this.allResults = new ArrayList<>();
+        this.rows = rows;
+    }
+
+
     public ResultSetImpl( List<T> results, Map<String, FieldAccess> fields ) {
         this.fields = fields;
         this.allResults = new ArrayList<>();
@@ -145,7 +158,11 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
     @Override
     public void filterAndPrune( Criteria criteria ) {
         prepareResults();
-        this.results = QueryFactory.filter( results, criteria );
+        if ( fields != null ) {
+            this.results = IndexPool.filter( results, fields, criteria );
+        } else {
+            this.results = QueryFactory.filter( results, criteria );
+        }
     }
 
 
@@ -163,6 +180,24 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
     public int[] selectInts( Selector selector ) {
         prepareResults();
 
+        final FieldAccess field = fields == null ? null : selector.field( fields );
+        if ( field != null ) {
+            final List<T> items = IndexPool.randomAccess( results );
+            final int[] values = new int[ items.size() ];
+            final boolean isInt = field.getType() == Typ.intgr;
+
+            IndexPool.forRanges( values.length, IndexPool.chunks( values.length ), new IndexPool.Range() {
+                @Override
+                public void run( int from, int to ) {
+                    for ( int index = from; index < to; index++ ) {
+                        Object item = items.get( index );
+                        values[ index ] = isInt ? field.getInt( item ) : Conversions.toInt( field.getValue( item ) );
+                    }
+                }
+            } );
+            return values;
+        }
+
         int[] values = new int[ results.size() ];
 
         List<Map<String, Object>> maps = Selector.performSelection( list( selector ), results, fields );
@@ -211,6 +246,24 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
     public double[] selectDoubles( Selector selector ) {
         prepareResults();
 
+        final FieldAccess field = fields == null ? null : selector.field( fields );
+        if ( field != null ) {
+            final List<T> items = IndexPool.randomAccess( results );
+            final double[] values = new double[ items.size() ];
+            final boolean isDouble = field.getType() == Typ.dbl;
+
+            IndexPool.forRanges( values.length, IndexPool.chunks( values.length ), new IndexPool.Range() {
+                @Override
+                public void run( int from, int to ) {
+                    for ( int index = from; index < to; index++ ) {
+                        Object item = items.get( index );
+                        values[ index ] = isDouble ? field.getDouble( item ) : Conversions.toDouble( field.getValue( item ) );
+                    }
+                }
+            } );
+            return values;
+        }
+
         double[] values = new double[ results.size() ];
 
         List<Map<String, Object>> maps = Selector.performSelection( list( selector ), results, fields );
@@ -349,7 +402,18 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
 
     @Override
     public List<PlanStep> queryPlan() {
-        throw new RuntimeException( "NOT IMPLEMENTED" );
+        if ( plan == null ) {
+            return Collections.emptyList();
+        }
+        return plan;
+    }
+
+    @Override
+    public void addPlanStep( PlanStep step ) {
+        if ( plan == null ) {
+            plan = new ArrayList<>();
+        }
+        plan.add( step );
     }
 
     @Override
@@ -569,6 +633,13 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
 
     @Override
     public void andResults() {
+
+        /* Results already in hand take part like any other list. */
+        if ( results != null && allResults.size() > 0 ) {
+            allResults.add( 0, results );
+            results = null;
+        }
+
         if ( allResults.size() == 0 ) {
             return;
         }
@@ -609,15 +680,70 @@ public class ResultSetImpl<T> implements ResultSetInternal<T> {
         }
 
         allResults.remove( shortestList );
-        Set set = new HashSet( shortestList );
+
+        if ( rows != null ) {
+            RowBitmap bitmap = rows.bitmap( shortestList );
+            for ( List<T> list : allResults ) {
+                if ( bitmap.cardinality() == 0 ) {
+                    break;
+                }
+                bitmap = bitmap.and( rows.bitmap( list ) );
+            }
+            results = rows.items( bitmap );
+        } else {
+            Set set = new HashSet( shortestList );
+            for ( List<T> list : allResults ) {
+                set.retainAll( list );
+            }
+            results = new ArrayList( set );
+        }
+
+        allResults.clear();
+        totalSize = 0;
+
+    }
+
+    @Override
+    public void orResults() {
+
+        if ( rows == null || allResults.size() <= 1 ) {
+            prepareResults();
+            return;
+        }
+
+        RowBitmap bitmap = RowBitmap.EMPTY;
         for ( List<T> list : allResults ) {
-            set.retainAll( list );
+            bitmap = bitmap.or( rows.bitmap( list ) );
+        }
+        if ( results != null ) {
+            bitmap = bitmap.or( rows.bitmap( results ) );
         }
+        results = rows.items( bitmap );
 
-        results = new ArrayList( set );
         allResults.clear();
         totalSize = 0;
+    }
+
+    @Override
+    public void andNotResults( List<T> list ) {
+        prepareResults();
 
+        if ( list.size() == 0 || results.size() == 0 ) {
+            return;
+        }
+
+        if ( rows != null ) {
+            results = rows.items( rows.bitmap( results ).andNot( rows.bitmap( list ) ) );
+        } else {
+            Set<T> set = new HashSet<>( list );
+            List<T> kept = new ArrayList<>( results.size() );
+            for ( T item : results ) {
+                if ( !set.contains( item ) ) {
+                    kept.add( item );
+                }
+            }
+            results = kept;
+        }
     }
 
     @Override
@@ -0,0 +1,378 @@
+package org.boon.datarepo.impl;
+
+import java.util.Arrays;
+
+
+/**
+ * A set of row ids kept the way Roaring bitmaps keep them.
+ * <p/>
+ * Ids are split on their high 16 bits into chunks. A chunk with up to 4096 ids holds its low bits
+ * as a sorted char array, a fuller one as a 65536 bit bitmap, so sparse and dense runs both stay small.
+ * And, or and andNot walk the chunks of both sides in key order and combine them pairwise.
+ */
+final class RowBitmap {
+
+    static final RowBitmap EMPTY = new RowBitmap( new char[ 0 ], new Chunk[ 0 ], 0 );
+
+    private static final int ARRAY_MAX = 4096;
+
+    private static final int WORDS = 1024;
+
+
+    private final char[] keys;
+    private final Chunk[] chunks;
+    private final int size;
+
+
+    private RowBitmap( char[] keys, Chunk[] chunks, int size ) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+
+    /**
+     * Builds from ids in any order, the array is sorted in place.
+     */
+    static RowBitmap of( int[] ids, int count ) {
+
+        if ( count == 0 ) {
+            return EMPTY;
+        }
+        Arrays.sort( ids, 0, count );
+
+        char[] keys = new char[ 4 ];
+        Chunk[] chunks = new Chunk[ 4 ];
+        int size = 0;
+
+        int start = 0;
+        while ( start < count ) {
+            int high = ids[ start ] >>> 16;
+            int end = start;
+            while ( end < count && ids[ end ] >>> 16 == high ) {
+                end++;
+            }
+
+            if ( size == keys.length ) {
+                keys = Arrays.copyOf( keys, size * 2 );
+                chunks = Arrays.copyOf( chunks, size * 2 );
+            }
+            keys[ size ] = ( char ) high;
+            chunks[ size ] = Chunk.sorted( ids, start, end );
+            size++;
+            start = end;
+        }
+        return new RowBitmap( keys, chunks, size );
+    }
+
+
+    int cardinality() {
+        int cardinality = 0;
+        for ( int index = 0; index < size; index++ ) {
+            cardinality += chunks[ index ].cardinality;
+        }
+        return cardinality;
+    }
+
+
+    boolean contains( int id ) {
+        int index = Arrays.binarySearch( keys, 0, size, ( char ) ( id >>> 16 ) );
+        return index >= 0 && chunks[ index ].contains( ( char ) id );
+    }
+
+
+    /**
+     * The ids in ascending order.
+     */
+    int[] toArray() {
+        int[] ids = new int[ cardinality() ];
+        int position = 0;
+        for ( int index = 0; index < size; index++ ) {
+            position = chunks[ index ].copyTo( keys[ index ] << 16, ids, position );
+        }
+        return ids;
+    }
+
+
+    RowBitmap and( RowBitmap other ) {
+        Builder builder = new Builder( Math.min( size, other.size ) );
+        int left = 0;
+        int right = 0;
+        while ( left < size && right < other.size ) {
+            char leftKey = keys[ left ];
+            char rightKey = other.keys[ right ];
+            if ( leftKey == rightKey ) {
+                builder.add( leftKey, Chunk.and( chunks[ left ], other.chunks[ right ] ) );
+                left++;
+                right++;
+            } else if ( leftKey < rightKey ) {
+                left++;
+            } else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+
+    RowBitmap or( RowBitmap other ) {
+        Builder builder = new Builder( size + other.size );
+        int left = 0;
+        int right = 0;
+        while ( left < size || right < other.size ) {
+            if ( right == other.size || ( left < size && keys[ left ] < other.keys[ right ] ) ) {
+                builder.add( keys[ left ], chunks[ left ] );
+                left++;
+            } else if ( left == size || other.keys[ right ] < keys[ left ] ) {
+                builder.add( other.keys[ right ], other.chunks[ right ] );
+                right++;
+            } else {
+                builder.add( keys[ left ], Chunk.or( chunks[ left ], other.chunks[ right ] ) );
+                left++;
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+
+    RowBitmap andNot( RowBitmap other ) {
+        Builder builder = new Builder( size );
+        int right = 0;
+        for ( int left = 0; left < size; left++ ) {
+            while ( right < other.size && other.keys[ right ] < keys[ left ] ) {
+                right++;
+            }
+            if ( right < other.size && other.keys[ right ] == keys[ left ] ) {
+                builder.add( keys[ left ], Chunk.andNot( chunks[ left ], other.chunks[ right ] ) );
+            } else {
+                builder.add( keys[ left ], chunks[ left ] );
+            }
+        }
+        return builder.build();
+    }
+
+
+    private static final class Builder {
+        char[] keys;
+        Chunk[] chunks;
+        int size;
+
+        Builder( int capacity ) {
+            keys = new char[ Math.max( capacity, 1 ) ];
+            chunks = new Chunk[ keys.length ];
+        }
+
+        void add( char key, Chunk chunk ) {
+            if ( chunk != null ) {
+                keys[ size ] = key;
+                chunks[ size ] = chunk;
+                size++;
+            }
+        }
+
+        RowBitmap build() {
+            return size == 0 ? EMPTY : new RowBitmap( keys, chunks, size );
+        }
+    }
+
+
+    /**
+     * The low 16 bits of the ids that share a high 16 bits.
+     * Either array holds them sorted or bits holds them as a bitmap, never both.
+     * Chunks are never changed once built, so bitmaps can share them.
+     */
+    private static final class Chunk {
+        final char[] array;
+        final long[] bits;
+        final int cardinality;
+
+        private Chunk( char[] array, long[] bits, int cardinality ) {
+            this.array = array;
+            this.bits = bits;
+            this.cardinality = cardinality;
+        }
+
+        static Chunk sorted( int[] ids, int start, int end ) {
+            int count = 0;
+            if ( end - start <= ARRAY_MAX ) {
+                char[] array = new char[ end - start ];
+                for ( int index = start; index < end; index++ ) {
+                    char low = ( char ) ids[ index ];
+                    if ( count == 0 || array[ count - 1 ] != low ) {
+                        array[ count++ ] = low;
+                    }
+                }
+                return new Chunk( array, null, count );
+            }
+
+            long[] bits = new long[ WORDS ];
+            for ( int index = start; index < end; index++ ) {
+                bits[ ( ids[ index ] & 0xFFFF ) >>> 6 ] |= 1L << ids[ index ];
+            }
+            return bitmap( bits );
+        }
+
+        /**
+         * Counts the bits and goes back to an array when few are left.
+         */
+        static Chunk bitmap( long[] bits ) {
+            int cardinality = 0;
+            for ( long word : bits ) {
+                cardinality += Long.bitCount( word );
+            }
+            if ( cardinality == 0 ) {
+                return null;
+            } else if ( cardinality > ARRAY_MAX ) {
+                return new Chunk( null, bits, cardinality );
+            }
+
+            char[] array = new char[ cardinality ];
+            int count = 0;
+            for ( int word = 0; word < WORDS; word++ ) {
+                long value = bits[ word ];
+                while ( value != 0 ) {
+                    array[ count++ ] = ( char ) ( word << 6 | Long.numberOfTrailingZeros( value ) );
+                    value &= value - 1;
+                }
+            }
+            return new Chunk( array, null, cardinality );
+        }
+
+        boolean contains( char low ) {
+            if ( bits != null ) {
+                return ( bits[ low >>> 6 ] & 1L << low ) != 0;
+            }
+            return Arrays.binarySearch( array, 0, cardinality, low ) >= 0;
+        }
+
+        long[] toBits() {
+            if ( bits != null ) {
+                return bits.clone();
+            }
+            long[] words = new long[ WORDS ];
+            for ( int index = 0; index < cardinality; index++ ) {
+                words[ array[ index ] >>> 6 ] |= 1L << array[ index ];
+            }
+            return words;
+        }
+
+        int copyTo( int high, int[] ids, int position ) {
+            if ( bits == null ) {
+                for ( int index = 0; index < cardinality; index++ ) {
+                    ids[ position++ ] = high | array[ index ];
+                }
+                return position;
+            }
+            for ( int word = 0; word < WORDS; word++ ) {
+                long value = bits[ word ];
+                while ( value != 0 ) {
+                    ids[ position++ ] = high | word << 6 | Long.numberOfTrailingZeros( value );
+                    value &= value - 1;
+                }
+            }
+            return position;
+        }
+
+        static Chunk and( Chunk left, Chunk right ) {
+            if ( left.bits != null && right.bits != null ) {
+                long[] words = new long[ WORDS ];
+                for ( int word = 0; word < WORDS; word++ ) {
+                    words[ word ] = left.bits[ word ] & right.bits[ word ];
+                }
+                return bitmap( words );
+            }
+
+            if ( left.bits != null ) {
+                Chunk swap = left;
+                left = right;
+                right = swap;
+            }
+
+            /* Left is an array, keep what the right side has. */
+            char[] array = new char[ left.cardinality ];
+            int count = 0;
+            if ( right.bits != null ) {
+                for ( int index = 0; index < left.cardinality; index++ ) {
+                    if ( right.contains( left.array[ index ] ) ) {
+                        array[ count++ ] = left.array[ index ];
+                    }
+                }
+            } else {
+                int other = 0;
+                for ( int index = 0; index < left.cardinality && other < right.cardinality; ) {
+                    char a = left.array[ index ];
+                    char b = right.array[ other ];
+                    if ( a == b ) {
+                        array[ count++ ] = a;
+                        index++;
+                        other++;
+                    } else if ( a < b ) {
+                        index++;
+                    } else {
+                        other++;
+                    }
+                }
+            }
+            return count == 0 ? null : new Chunk( array, null, count );
+        }
+
+        static Chunk or( Chunk left, Chunk right ) {
+            if ( left.bits == null && right.bits == null && left.cardinality + right.cardinality <= ARRAY_MAX ) {
+                char[] array = new char[ left.cardinality + right.cardinality ];
+                int count = 0;
+                int index = 0;
+                int other = 0;
+                while ( index < left.cardinality || other < right.cardinality ) {
+                    if ( other == right.cardinality
+                            || ( index < left.cardinality && left.array[ index ] < right.array[ other ] ) ) {
+                        array[ count++ ] = left.array[ index++ ];
+                    } else if ( index == left.cardinality || right.array[ other ] < left.array[ index ] ) {
+                        array[ count++ ] = right.array[ other++ ];
+                    } else {
+                        array[ count++ ] = left.array[ index++ ];
+                        other++;
+                    }
+                }
+                return new Chunk( array, null, count );
+            }
+
+            long[] words = left.toBits();
+            if ( right.bits != null ) {
+                for ( int word = 0; word < WORDS; word++ ) {
+                    words[ word ] |= right.bits[ word ];
+                }
+            } else {
+                for ( int index = 0; index < right.cardinality; index++ ) {
+                    words[ right.array[ index ] >>> 6 ] |= 1L << right.array[ index ];
+                }
+            }
+            return bitmap( words );
+        }
+
+        static Chunk andNot( Chunk left, Chunk right ) {
+            if ( left.bits == null ) {
+                char[] array = new char[ left.cardinality ];
+                int count = 0;
+                for ( int index = 0; index < left.cardinality; index++ ) {
+                    if ( !right.contains( left.array[ index ] ) ) {
+                        array[ count++ ] = left.array[ index ];
+                    }
+                }
+                return count == 0 ? null : new Chunk( array, null, count );
+            }
+
+            long[] words = left.bits.clone();
+            if ( right.bits != null ) {
+                for ( int word = 0; word < WORDS; word++ ) {
+                    words[ word ] &= ~right.bits[ word ];
+                }
+            } else {
+                for ( int index = 0; index < right.cardinality; index++ ) {
+                    words[ right.array[ index ] >>> 6 ] &= ~( 1L << right.array[ index ] );
+                }
+            }
+            return bitmap( words );
+        }
+    }
+}
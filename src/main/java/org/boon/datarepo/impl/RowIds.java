@@ -0,0 +1,105 @@
+package org.boon.datarepo.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+
+/**
+ * Gives every item in a repo a small dense row id so index results can be combined as {@link RowBitmap}s.
+ * <p/>
+ * Ids of deleted items are handed out again, which keeps the ids, and the bitmaps built from them, dense.
+ * Items are told apart by identity, the same instance the indexes hand back.
+ * Changes come from the writers of the collection, lookups are safe alongside each other.
+ */
+final class RowIds<ITEM> {
+
+    private IdentityHashMap<ITEM, Integer> ids = new IdentityHashMap<>();
+
+    private Object[] items = new Object[ 16 ];
+
+    private int[] free = new int[ 16 ];
+    private int freeCount;
+
+    private int next;
+
+
+    void assign( ITEM item ) {
+        if ( ids.containsKey( item ) ) {
+            return;
+        }
+
+        int id;
+        if ( freeCount > 0 ) {
+            id = free[ --freeCount ];
+        } else {
+            id = next++;
+            if ( id == items.length ) {
+                items = Arrays.copyOf( items, id * 2 );
+            }
+        }
+        items[ id ] = item;
+        ids.put( item, id );
+    }
+
+
+    /**
+     * Takes over the ids of another, so the items they share keep their rows and only the changes need ids.
+     * The other one is not changed.
+     */
+    void carry( RowIds<ITEM> previous ) {
+        ids = ( IdentityHashMap<ITEM, Integer> ) previous.ids.clone();
+        items = previous.items.clone();
+        free = previous.free.clone();
+        freeCount = previous.freeCount;
+        next = previous.next;
+    }
+
+
+    void release( ITEM item ) {
+        Integer id = ids.remove( item );
+        if ( id == null ) {
+            return;
+        }
+        items[ id ] = null;
+        if ( freeCount == free.length ) {
+            free = Arrays.copyOf( free, freeCount * 2 );
+        }
+        free[ freeCount++ ] = id;
+    }
+
+
+    void clear() {
+        ids.clear();
+        Arrays.fill( items, 0, next, null );
+        next = 0;
+        freeCount = 0;
+    }
+
+
+    /**
+     * The rows of the items, items the repo does not hold are left out.
+     */
+    RowBitmap bitmap( List<?> list ) {
+        int[] rows = new int[ list.size() ];
+        int count = 0;
+        for ( Object item : list ) {
+            Integer id = ids.get( item );
+            if ( id != null ) {
+                rows[ count++ ] = id;
+            }
+        }
+        return RowBitmap.of( rows, count );
+    }
+
+
+    List<ITEM> items( RowBitmap rows ) {
+        int[] array = rows.toArray();
+        List<ITEM> list = new ArrayList<>( array.length );
+        for ( int id : array ) {
+            list.add( ( ITEM ) items[ id ] );
+        }
+        return list;
+    }
+}
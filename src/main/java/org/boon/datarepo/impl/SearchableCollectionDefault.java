@@ -10,7 +10,10 @@ import org.boon.datarepo.Filter;
 import org.boon.datarepo.LookupIndex;
 import org.boon.datarepo.ResultSet;
 import org.boon.datarepo.SearchableCollection;
+import org.boon.datarepo.impl.indexes.LookupIndexDefault;
+import org.boon.datarepo.impl.indexes.SnapshotSearchIndex;
 import org.boon.datarepo.impl.indexes.UniqueLookupIndex;
+import org.boon.datarepo.modification.ModificationType;
 import org.boon.datarepo.spi.FilterComposer;
 import org.boon.datarepo.spi.SearchIndex;
 import org.boon.datarepo.spi.SearchableCollectionComposer;
@@ -22,6 +25,7 @@ import java.util.logging.Logger;
 import static org.boon.Lists.list;
 import static org.boon.core.reflection.Reflection.isArray;
 import static org.boon.core.reflection.MapObjectConversion.toMap;
+import static org.boon.datarepo.modification.ModificationEvent.createModification;
 
 public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollection<KEY, ITEM>, SearchableCollectionComposer {
 
@@ -42,15 +46,39 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
 
     protected boolean removeDuplication = true;
 
+    /* Dense ids for the items, the filter combines index results with them. */
+    protected final RowIds<ITEM> rows = new RowIds<>();
+
 
     @Override
     public boolean delete( ITEM item ) {
+        ITEM stored = stored( item );
         for ( LookupIndex index : indexes ) {
             index.delete( item );
         }
+        if ( stored != null ) {
+            rows.release( stored );
+        }
+        modified( ModificationType.BEFORE_REMOVE, item, null );
         return true;
     }
 
+    /**
+     * Lets the filter drop the cached queries the item, or its property, can change.
+     */
+    private void modified( ModificationType type, ITEM item, String property ) {
+        if ( filter != null ) {
+            filter.invalidate( createModification( type, getKey( item ), item, property, ( Object ) null ) );
+        }
+    }
+
+    /**
+     * The instance the repo holds for this item's key, the one its row id belongs to.
+     */
+    private ITEM stored( ITEM item ) {
+        return item == null ? null : primaryIndex.get( getKey( item ) );
+    }
+
     public boolean add( ITEM item ) {
 
         Objects.requireNonNull( item, "No nulls allowed in repo" );
@@ -65,9 +93,141 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
     }
 
     public void validateIndexes( ITEM item ) {
+        rows.assign( item );
         for ( LookupIndex index : indexes ) {
             index.add( item );
         }
+        modified( ModificationType.AFTER_ADD, item, null );
+    }
+
+
+    @Override
+    public void addBatch( List<ITEM> items ) {
+
+        /* Same rules as add, no nulls and the first item with a key wins. */
+        List<ITEM> accepted = new ArrayList<>( items.size() );
+        Set<KEY> keys = new HashSet<>( items.size() );
+        for ( ITEM item : items ) {
+            Objects.requireNonNull( item, "No nulls allowed in repo" );
+            KEY key = getKey( item );
+            if ( !primaryIndex.has( key ) && keys.add( key ) ) {
+                accepted.add( item );
+                rows.assign( item );
+            }
+        }
+
+        eachIndex( accepted, true );
+        filter.invalidate();
+    }
+
+
+    @Override
+    public void deleteBatch( List<ITEM> items ) {
+        List<ITEM> stored = new ArrayList<>( items.size() );
+        for ( ITEM item : items ) {
+            stored.add( stored( item ) );
+        }
+
+        eachIndex( items, false );
+
+        for ( ITEM item : stored ) {
+            if ( item != null ) {
+                rows.release( item );
+            }
+        }
+        filter.invalidate();
+    }
+
+
+    /**
+     * Fills an empty collection with the items of the one before it, less the dropped and plus the added items.
+     * <p/>
+     * The row ids, the snapshot search indexes and the hash lookup indexes are carried over from the collection
+     * before with just the change applied, other indexes are built from all the items.
+     * Neither collection is edited after, nor are the items they share.
+     *
+     * @param items    all the items the collection is to hold
+     * @param previous the collection before
+     * @param dropped  items of previous that are not in items
+     * @param added    items that are not in previous
+     */
+    void addBatch( Collection<ITEM> items, SearchableCollectionDefault<KEY, ITEM> previous, List<ITEM> dropped, List<ITEM> added ) {
+
+        rows.carry( previous.rows );
+        for ( ITEM item : dropped ) {
+            rows.release( item );
+        }
+        for ( ITEM item : added ) {
+            rows.assign( item );
+        }
+
+        Set<LookupIndex> rest = new LinkedHashSet<>( indexes );
+        for ( Map.Entry<String, SearchIndex> entry : searchIndexMap.entrySet() ) {
+            SearchIndex before = previous.searchIndexMap.get( entry.getKey() );
+            if ( entry.getValue() instanceof SnapshotSearchIndex && before instanceof SnapshotSearchIndex ) {
+                ( ( SnapshotSearchIndex<Object, ITEM> ) entry.getValue() ).addAll( ( SnapshotSearchIndex<Object, ITEM> ) before, dropped, added );
+                rest.remove( entry.getValue() );
+            }
+        }
+        for ( Map.Entry<String, LookupIndex> entry : lookupIndexMap.entrySet() ) {
+            LookupIndex index = entry.getValue();
+            LookupIndex before = previous.lookupIndexMap.get( entry.getKey() );
+            if ( before == null || before.getClass() != index.getClass() ) {
+                continue;
+            }
+            if ( index.getClass() == UniqueLookupIndex.class ) {
+                ( ( UniqueLookupIndex<Object, ITEM> ) index ).addAll( ( UniqueLookupIndex<Object, ITEM> ) before, dropped, added );
+                rest.remove( index );
+            } else if ( index.getClass() == LookupIndexDefault.class ) {
+                ( ( LookupIndexDefault<Object, ITEM> ) index ).addAll( ( LookupIndexDefault<Object, ITEM> ) before, dropped, added );
+                rest.remove( index );
+            }
+        }
+
+        if ( !rest.isEmpty() ) {
+            List<ITEM> list = new ArrayList<>( items );
+            for ( LookupIndex index : rest ) {
+                index.addAll( list );
+            }
+        }
+        filter.invalidate();
+    }
+
+
+    /**
+     * Adds or deletes the items one index at a time.
+     * Indexes share nothing, so for big batches each index gets its own task.
+     */
+    private void eachIndex( final List<ITEM> items, final boolean add ) {
+
+        if ( items.size() < IndexPool.PARALLEL_THRESHOLD || indexes.size() == 1 ) {
+            for ( LookupIndex index : indexes ) {
+                apply( index, items, add );
+            }
+            return;
+        }
+
+        List<Runnable> tasks = new ArrayList<>( indexes.size() );
+        for ( final LookupIndex index : indexes ) {
+            tasks.add( new Runnable() {
+                @Override
+                public void run() {
+                    apply( index, items, add );
+                }
+            } );
+        }
+        IndexPool.runAll( tasks );
+    }
+
+
+    private static void apply( LookupIndex index, List items, boolean add ) {
+        if ( add ) {
+            index.addAll( items );
+        } else {
+            for ( Object item : items ) {
+                index.delete( item );
+            }
+        }
     }
 
 
@@ -368,7 +528,8 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
 
     @Override
     public List<ITEM> sortedQuery( Sort sortBy, Criteria... expressions ) {
-        List<ITEM> results = this.query( expressions );
+        /* The query can hand back an index bucket, sort a copy of it not the bucket. */
+        List<ITEM> results = new ArrayList<>( this.query( expressions ) );
         sortBy.sort( results );
         return results;
     }
@@ -495,7 +656,7 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
         if ( index != null ) {
             index.delete( item );
         }
-        filter.invalidate();
+        modified( ModificationType.BEFORE_UPDATE, item, property );
 
     }
 
@@ -509,6 +670,7 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
         if ( index != null ) {
             index.add( item );
         }
+        modified( ModificationType.AFTER_UPDATE, item, property );
 
     }
 
@@ -518,6 +680,7 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
         for ( LookupIndex index : indexes ) {
             index.clear();
         }
+        rows.clear();
 
     }
 
@@ -603,9 +766,7 @@ public class SearchableCollectionDefault<KEY, ITEM> implements SearchableCollect
     }
 
     public boolean addAll( Collection<? extends ITEM> items ) {
-        for ( ITEM item : items ) {
-            this.add( item );
-        }
+        addBatch( new ArrayList<ITEM>( items ) );
         return true;
     }
 
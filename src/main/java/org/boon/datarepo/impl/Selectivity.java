@@ -0,0 +1,119 @@
+package org.boon.datarepo.impl;
+
+import org.boon.criteria.Criterion;
+import org.boon.datarepo.LookupIndex;
+import org.boon.datarepo.spi.SearchIndex;
+
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Row estimates the planner in {@link FilterDefault} orders criteria by.
+ * <p/>
+ * Equality asks the index for the bucket, which is as cheap as it gets and exact.
+ * Ranges place their bounds between the first and the last key of the index and take the rows
+ * to be spread evenly in between, numbers and dates by value, strings by their first few chars.
+ * Keys that can not be placed are taken to match a third of the rows.
+ */
+final class Selectivity {
+
+    private static final double UNKNOWN = 1.0 / 3;
+
+    private Selectivity() {
+    }
+
+
+    static int lookup( LookupIndex lookupIndex, Object value ) {
+        List list = lookupIndex.getAll( value );
+        return list == null ? 0 : list.size();
+    }
+
+
+    static int search( Criterion criterion, SearchIndex searchIndex, int rows ) {
+
+        if ( rows == 0 || searchIndex.size() == 0 ) {
+            return 0;
+        }
+
+        Object value = criterion.getValue();
+
+        double fraction;
+        switch ( criterion.getOperator() ) {
+            case EQUAL:
+                List list = searchIndex.findEquals( value );
+                return list == null ? 0 : list.size();
+
+            case GREATER_THAN:
+            case GREATER_THAN_EQUAL:
+                fraction = fraction( searchIndex, position( value ), Double.POSITIVE_INFINITY );
+                break;
+
+            case LESS_THAN:
+            case LESS_THAN_EQUAL:
+                fraction = fraction( searchIndex, Double.NEGATIVE_INFINITY, position( value ) );
+                break;
+
+            case BETWEEN:
+                fraction = fraction( searchIndex, position( value ), position( criterion.getValues()[ 1 ] ) );
+                break;
+
+            case STARTS_WITH:
+                fraction = fraction( searchIndex, position( value ), position( value + "\uffff" ) );
+                break;
+
+            default:
+                fraction = UNKNOWN;
+        }
+
+        return ( int ) Math.ceil( fraction * rows );
+    }
+
+
+    private static double fraction( SearchIndex searchIndex, double from, double to ) {
+
+        double first = position( searchIndex.findFirstKey() );
+        double last = position( searchIndex.findLastKey() );
+
+        if ( Double.isNaN( first ) || Double.isNaN( last ) || Double.isNaN( from ) || Double.isNaN( to ) ) {
+            return UNKNOWN;
+        }
+
+        from = Math.max( from, first );
+        to = Math.min( to, last );
+
+        if ( from > to ) {
+            return 0;
+        } else if ( first == last ) {
+            return 1;
+        }
+        return ( to - from ) / ( last - first );
+    }
+
+
+    /**
+     * Where a key falls on a line, NaN when it can not be placed.
+     */
+    static double position( Object key ) {
+
+        if ( key instanceof Number ) {
+            return ( ( Number ) key ).doubleValue();
+        } else if ( key instanceof Date ) {
+            return ( ( Date ) key ).getTime();
+        } else if ( key instanceof Character ) {
+            return ( Character ) key;
+        } else if ( key instanceof CharSequence ) {
+            CharSequence chars = ( CharSequence ) key;
+            double position = 0;
+            double scale = 1;
+            for ( int index = 0; index < 4; index++ ) {
+                scale /= 65_536;
+                if ( index < chars.length() ) {
+                    position += chars.charAt( index ) * scale;
+                }
+            }
+            return position;
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,98 @@
+package org.boon.datarepo.impl.decorators;
+
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.criteria.Group;
+import org.boon.datarepo.Filter;
+import org.boon.datarepo.modification.ModificationEvent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts and dependencies shared by the caching filters.
+ * A modification evicts only the cached queries it can change, see {@link QueryDependencies}.
+ */
+public abstract class CachingFilterBase extends FilterDecoratorBase {
+
+    /* Queries the caches dropped on their own stay in the dependencies until the next prune. */
+    private static final int PRUNE_AT = 1_024;
+
+    final QueryDependencies dependencies;
+
+    private int pruneAt = PRUNE_AT;
+
+    final AtomicLong hits = new AtomicLong();
+    final AtomicLong misses = new AtomicLong();
+    final AtomicLong evictions = new AtomicLong();
+
+
+    CachingFilterBase( Filter delegate, Map<String, FieldAccess> fields, Set<String> inexact ) {
+        super( delegate );
+        this.dependencies = new QueryDependencies( fields, inexact );
+    }
+
+
+    /**
+     * Drops the query from every cache.
+     */
+    abstract void evict( Group group );
+
+    /**
+     * Whether any cache still holds the query.
+     */
+    abstract boolean holds( Group group );
+
+
+    void cached( Group group ) {
+        dependencies.add( group );
+        if ( dependencies.size() > pruneAt ) {
+            synchronized ( dependencies ) {
+                for ( Group query : dependencies.groups() ) {
+                    if ( !holds( query ) ) {
+                        dependencies.remove( query );
+                    }
+                }
+                pruneAt = Math.max( PRUNE_AT, dependencies.size() * 2 );
+            }
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        evictions.addAndGet( dependencies.size() );
+        dependencies.clear();
+        super.invalidate();
+    }
+
+    @Override
+    public void invalidate( ModificationEvent event ) {
+        for ( Group group : dependencies.affected( event ) ) {
+            evict( group );
+            evictions.incrementAndGet();
+        }
+        super.invalidate( event );
+    }
+
+
+    /**
+     * Queries answered from the cache.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Queries that went to the filter underneath.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Cached queries dropped by modifications or a full invalidate.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+}
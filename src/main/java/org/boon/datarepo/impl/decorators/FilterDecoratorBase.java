@@ -3,6 +3,7 @@ package org.boon.datarepo.impl.decorators;
 import org.boon.criteria.Criteria;
 import org.boon.datarepo.Filter;
 import org.boon.datarepo.ResultSet;
+import org.boon.datarepo.modification.ModificationEvent;
 
 /**
  * Checking
@@ -24,4 +25,9 @@ public class FilterDecoratorBase implements Filter {
     public void invalidate() {
         delegate.invalidate();
     }
+
+    @Override
+    public void invalidate( ModificationEvent event ) {
+        delegate.invalidate( event );
+    }
 }
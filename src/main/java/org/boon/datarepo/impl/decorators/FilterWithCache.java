@@ -2,20 +2,33 @@ package org.boon.datarepo.impl.decorators;
 
 import org.boon.cache.Cache;
 import org.boon.core.Supplier;
+import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.criteria.Criteria;
 import org.boon.criteria.CriteriaFactory;
 import org.boon.criteria.Group;
 import org.boon.datarepo.Filter;
 import org.boon.datarepo.ResultSet;
 
-public class FilterWithCache extends FilterDecoratorBase {
+import java.util.Map;
+import java.util.Set;
+
+public class FilterWithCache extends CachingFilterBase {
 
     private final Supplier<Cache<Group, ResultSet>> cacheFactory;
 
     private Cache<Group, ResultSet> cache;
 
     public FilterWithCache( final Filter delegate, final Supplier<Cache<Group, ResultSet>> cacheFactory ) {
-        super( delegate );
+        this( delegate, cacheFactory, null, null );
+    }
+
+    /**
+     * @param fields  fields of the items, equals criteria on them pin the values a query can hold.
+     * @param inexact properties whose indexes have a collator or key transformer, never pinned.
+     */
+    public FilterWithCache( final Filter delegate, final Supplier<Cache<Group, ResultSet>> cacheFactory,
+                            Map<String, FieldAccess> fields, Set<String> inexact ) {
+        super( delegate, fields, inexact );
         this.cacheFactory = cacheFactory;
         this.cache = cacheFactory.get();
     }
@@ -28,14 +41,17 @@ public class FilterWithCache extends FilterDecoratorBase {
 
 
         if ( results != null ) {
+            hits.incrementAndGet();
             cache.put( and, results );
             return results;
         }
 
+        misses.incrementAndGet();
 
         results = super.filter( expressions );
 
         cache.put( and, results );
+        cached( and );
 
         return results;
     }
@@ -47,5 +63,15 @@ public class FilterWithCache extends FilterDecoratorBase {
         super.invalidate();
     }
 
+    @Override
+    void evict( Group group ) {
+        cache.remove( group );
+    }
+
+    @Override
+    boolean holds( Group group ) {
+        return cache.getSilent( group ) != null;
+    }
+
 
 }
@@ -3,13 +3,17 @@ package org.boon.datarepo.impl.decorators;
 import org.boon.cache.Cache;
 import org.boon.cache.CacheType;
 import org.boon.cache.SimpleConcurrentCache;
+import org.boon.core.reflection.fields.FieldAccess;
 import org.boon.criteria.Criteria;
 import org.boon.criteria.CriteriaFactory;
 import org.boon.criteria.Group;
 import org.boon.datarepo.Filter;
 import org.boon.datarepo.ResultSet;
 
-public class FilterWithSimpleCache extends FilterDecoratorBase {
+import java.util.Map;
+import java.util.Set;
+
+public class FilterWithSimpleCache extends CachingFilterBase {
 
     /* The fifo cache is meant for a routine that is maybe using a few queries in a loop. */
     private Cache<Criteria, ResultSet> fifoCache = new SimpleConcurrentCache<>( 50, false, CacheType.FIFO );
@@ -27,15 +31,21 @@ public class FilterWithSimpleCache extends FilterDecoratorBase {
             results = lruCache.get( and );
             if ( results != null ) {
                 fifoCache.put( and, results );
-                return results;
             }
         }
 
+        if ( results != null ) {
+            hits.incrementAndGet();
+            return results;
+        }
+
+        misses.incrementAndGet();
 
         results = super.filter( expressions );
 
         fifoCache.put( and, results );
         lruCache.put( and, results );
+        cached( and );
 
         return results;
     }
@@ -49,8 +59,27 @@ public class FilterWithSimpleCache extends FilterDecoratorBase {
         super.invalidate();
     }
 
+    @Override
+    void evict( Group group ) {
+        fifoCache.remove( group );
+        lruCache.remove( group );
+    }
+
+    @Override
+    boolean holds( Group group ) {
+        return fifoCache.getSilent( group ) != null || lruCache.getSilent( group ) != null;
+    }
+
     public FilterWithSimpleCache( Filter delegate ) {
-        super( delegate );
+        this( delegate, null, null );
+    }
+
+    /**
+     * @param fields  fields of the items, equals criteria on them pin the values a query can hold.
+     * @param inexact properties whose indexes have a collator or key transformer, never pinned.
+     */
+    public FilterWithSimpleCache( Filter delegate, Map<String, FieldAccess> fields, Set<String> inexact ) {
+        super( delegate, fields, inexact );
     }
 
 
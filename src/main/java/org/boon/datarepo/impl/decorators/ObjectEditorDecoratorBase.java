@@ -5,6 +5,7 @@ import org.boon.datarepo.ObjectEditor;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Future;
 
 public class ObjectEditorDecoratorBase<KEY, ITEM> implements ObjectEditor<KEY, ITEM> {
     private final ObjectEditor<KEY, ITEM> objectEditorDefault;
@@ -34,16 +35,16 @@ public class ObjectEditorDecoratorBase<KEY, ITEM> implements ObjectEditor<KEY, I
         objectEditorDefault.removeAll( items );
     }
 
-    public void removeAllAsync( Collection<ITEM> items ) {
-        objectEditorDefault.removeAllAsync( items );
+    public Future<?> removeAllAsync( Collection<ITEM> items ) {
+        return objectEditorDefault.removeAllAsync( items );
     }
 
     public void addAll( ITEM... items ) {
         objectEditorDefault.addAll( items );
     }
 
-    public void addAllAsync( Collection<ITEM> items ) {
-        objectEditorDefault.addAllAsync( items );
+    public Future<?> addAllAsync( Collection<ITEM> items ) {
+        return objectEditorDefault.addAllAsync( items );
     }
 
     public void modifyAll( ITEM... items ) {
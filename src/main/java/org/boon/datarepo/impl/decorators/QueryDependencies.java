@@ -0,0 +1,246 @@
+package org.boon.datarepo.impl.decorators;
+
+import org.boon.core.Conversions;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.criteria.Criteria;
+import org.boon.criteria.Criterion;
+import org.boon.criteria.Group;
+import org.boon.criteria.Grouping;
+import org.boon.criteria.Not;
+import org.boon.criteria.Operator;
+import org.boon.datarepo.modification.ModificationEvent;
+
+import java.util.*;
+
+/**
+ * What each cached query reads, so a modification evicts only the queries it can change.
+ * <p/>
+ * A query reads the top level properties its criteria name, a modification of another property
+ * leaves its results as they were. An equals criterion on a field at the top of the query also pins
+ * a value, an item with another value there is not in the results before the modification
+ * nor after it, so the query stays.
+ */
+class QueryDependencies {
+
+    /* Queries with a criteria we can not see into read every property. */
+    private static final String EVERY = "*";
+
+    private final Map<String, FieldAccess> fields;
+
+    /* Properties indexed with a collator or key transformer, an equals there is not plain equals. */
+    private final Set<String> inexact;
+
+    private final Map<Group, Query> queries = new HashMap<>();
+
+    private final Map<String, Set<Group>> byProperty = new HashMap<>();
+
+    /* Queries with a pin by the property and value of their first pin, the others are unpinned. */
+    private final Map<String, Map<Object, Set<Group>>> byValue = new HashMap<>();
+
+    private final Set<Group> unpinned = new HashSet<>();
+
+
+    private static final class Query {
+        final Set<String> properties = new HashSet<>();
+        final List<FieldAccess> pinFields = new ArrayList<>();
+        final List<Object> pinValues = new ArrayList<>();
+    }
+
+
+    QueryDependencies( Map<String, FieldAccess> fields, Set<String> inexact ) {
+        this.fields = fields == null ? Collections.<String, FieldAccess>emptyMap() : fields;
+        this.inexact = inexact == null ? Collections.<String>emptySet() : inexact;
+    }
+
+
+    synchronized void add( Group group ) {
+        if ( queries.containsKey( group ) ) {
+            return;
+        }
+
+        Query query = new Query();
+        read( group, query.properties );
+        pin( group, query );
+        queries.put( group, query );
+
+        for ( String property : query.properties ) {
+            group( byProperty, property ).add( group );
+        }
+
+        if ( query.pinFields.isEmpty() ) {
+            unpinned.add( group );
+        } else {
+            Map<Object, Set<Group>> values = byValue.get( query.pinFields.get( 0 ).getName() );
+            if ( values == null ) {
+                values = new HashMap<>();
+                byValue.put( query.pinFields.get( 0 ).getName(), values );
+            }
+            group( values, query.pinValues.get( 0 ) ).add( group );
+        }
+    }
+
+    private static <K> Set<Group> group( Map<K, Set<Group>> map, K key ) {
+        Set<Group> groups = map.get( key );
+        if ( groups == null ) {
+            groups = new HashSet<>();
+            map.put( key, groups );
+        }
+        return groups;
+    }
+
+    private static void read( Criteria criteria, Set<String> properties ) {
+        if ( criteria instanceof Group ) {
+            for ( Criteria expression : ( ( Group ) criteria ).getExpressions() ) {
+                read( expression, properties );
+            }
+        } else if ( criteria instanceof Not ) {
+            read( ( ( Not ) criteria ).getExpression(), properties );
+        } else if ( criteria instanceof Criterion && ( ( Criterion ) criteria ).getName() != null ) {
+            properties.add( top( ( ( Criterion ) criteria ).getName() ) );
+        } else {
+            properties.add( EVERY );
+        }
+    }
+
+    private static String top( String property ) {
+        int dot = property.indexOf( '.' );
+        return dot == -1 ? property : property.substring( 0, dot );
+    }
+
+    /**
+     * Pins the equals criteria that every result has to pass, those not under an or or a not.
+     */
+    private void pin( Criteria criteria, Query query ) {
+        if ( criteria instanceof Group ) {
+            Group group = ( Group ) criteria;
+            if ( group.getGrouping() == Grouping.AND ) {
+                for ( Criteria expression : group.getExpressions() ) {
+                    pin( expression, query );
+                }
+            }
+        } else if ( criteria instanceof Criterion ) {
+            Criterion criterion = ( Criterion ) criteria;
+            FieldAccess field = fields.get( criterion.getName() );
+            if ( criterion.getOperator() != Operator.EQUAL || field == null
+                    || inexact.contains( criterion.getName() ) || criterion.getValue() == null ) {
+                return;
+            }
+            Object value = plain( field.getType(), criterion.getValue() );
+            if ( value != null ) {
+                query.pinFields.add( field );
+                query.pinValues.add( value );
+            }
+        }
+    }
+
+    /**
+     * The value as the field would hold it, or null for types where equals might not be what the query does.
+     */
+    private static Object plain( Class<?> type, Object value ) {
+        if ( !( type == String.class || type.isPrimitive() || type.isEnum()
+                || Number.class.isAssignableFrom( type ) || type == Boolean.class ) ) {
+            return null;
+        }
+        try {
+            return Conversions.coerce( type, value );
+        } catch ( RuntimeException ex ) {
+            /* Not convertible, the query can not be pinned. */
+            return null;
+        }
+    }
+
+
+    /**
+     * Removes and returns the queries whose results the modification can change.
+     */
+    synchronized List<Group> affected( ModificationEvent event ) {
+        Object item = event.getItem();
+        if ( item == null ) {
+            return new ArrayList<>( queries.keySet() );
+        }
+
+        Set<Group> candidates = new HashSet<>();
+        if ( ModificationEvent.ROOT_PROPERTY.equals( event.getProperty() ) ) {
+            candidates.addAll( unpinned );
+            for ( Map.Entry<String, Map<Object, Set<Group>>> entry : byValue.entrySet() ) {
+                Set<Group> pinned = entry.getValue().get( fields.get( entry.getKey() ).getValue( item ) );
+                if ( pinned != null ) {
+                    candidates.addAll( pinned );
+                }
+            }
+        } else {
+            addAll( candidates, byProperty.get( top( event.getProperty() ) ) );
+            addAll( candidates, byProperty.get( EVERY ) );
+        }
+
+        List<Group> affected = new ArrayList<>( candidates.size() );
+        for ( Group group : candidates ) {
+            if ( canHold( queries.get( group ), item ) ) {
+                remove( group );
+                affected.add( group );
+            }
+        }
+        return affected;
+    }
+
+    private static void addAll( Set<Group> candidates, Set<Group> groups ) {
+        if ( groups != null ) {
+            candidates.addAll( groups );
+        }
+    }
+
+    private static boolean canHold( Query query, Object item ) {
+        for ( int index = 0; index < query.pinFields.size(); index++ ) {
+            if ( !query.pinValues.get( index ).equals( query.pinFields.get( index ).getValue( item ) ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    synchronized void remove( Group group ) {
+        Query query = queries.remove( group );
+        if ( query == null ) {
+            return;
+        }
+
+        for ( String property : query.properties ) {
+            Set<Group> groups = byProperty.get( property );
+            groups.remove( group );
+            if ( groups.isEmpty() ) {
+                byProperty.remove( property );
+            }
+        }
+
+        if ( query.pinFields.isEmpty() ) {
+            unpinned.remove( group );
+        } else {
+            String property = query.pinFields.get( 0 ).getName();
+            Map<Object, Set<Group>> values = byValue.get( property );
+            Set<Group> groups = values.get( query.pinValues.get( 0 ) );
+            groups.remove( group );
+            if ( groups.isEmpty() ) {
+                values.remove( query.pinValues.get( 0 ) );
+                if ( values.isEmpty() ) {
+                    byValue.remove( property );
+                }
+            }
+        }
+    }
+
+    synchronized List<Group> groups() {
+        return new ArrayList<>( queries.keySet() );
+    }
+
+    synchronized int size() {
+        return queries.size();
+    }
+
+    synchronized void clear() {
+        queries.clear();
+        byProperty.clear();
+        byValue.clear();
+        unpinned.clear();
+    }
+}
@@ -123,6 +123,13 @@ public abstract class BaseIndexWrapper implements SearchIndex {
         return index.getAll( o );
     }
 
+    @Override
+    public void addAll( List items ) {
+        for ( Object item : items ) {
+            add( item );
+        }
+    }
+
     @Override
     public boolean deleteByKey( Object o ) {
         return index.deleteByKey( o );
@@ -28,6 +28,9 @@ public class LookupIndexDefault<KEY, ITEM> implements LookupIndex<KEY, ITEM> {
 
     protected int keyBucketSize = 3;
 
+    /* While a change is merged in, the buckets this index has copies of, the rest are the index before's. */
+    private Set<MultiValue> owned;
+
 
     public LookupIndexDefault( Class<?> keyType ) {
 
@@ -69,6 +72,49 @@ public class LookupIndexDefault<KEY, ITEM> implements LookupIndex<KEY, ITEM> {
 
     }
 
+    @Override
+    public void addAll( List<ITEM> items ) {
+        for ( ITEM item : items ) {
+            add( item );
+        }
+    }
+
+    /**
+     * Builds the index from the one before it, without the dropped items and with the added ones.
+     * <p/>
+     * The buckets the change does not touch are shared with the index before, the touched ones are copied
+     * first, so neither index is edited after and the keys of the items carried over are not read again.
+     *
+     * @param previous the index of the snapshot before
+     * @param dropped  items of previous to leave out
+     * @param added    items to add
+     */
+    public void addAll( LookupIndexDefault<KEY, ITEM> previous, List<ITEM> dropped, List<ITEM> added ) {
+        map.putAll( previous.map );
+        owned = Collections.newSetFromMap( new IdentityHashMap<MultiValue, Boolean>() );
+        try {
+            for ( ITEM item : dropped ) {
+                delete( item );
+            }
+            addAll( added );
+        } finally {
+            owned = null;
+        }
+    }
+
+    /**
+     * The bucket of the key, copied first if it is still the index before's.
+     */
+    private MultiValue bucket( KEY key ) {
+        MultiValue mv = map.get( key );
+        if ( mv != null && owned != null && !owned.contains( mv ) ) {
+            mv = mv.copy();
+            owned.add( mv );
+            map.put( key, mv );
+        }
+        return mv;
+    }
+
     private void put( ITEM item, KEY key ) {
 
 
@@ -79,7 +125,7 @@ public class LookupIndexDefault<KEY, ITEM> implements LookupIndex<KEY, ITEM> {
         key = getKey( key );
 
 
-        MultiValue mv = map.get( key );
+        MultiValue mv = bucket( key );
 
 
         if ( storeKeyInIndexOnly ) {
@@ -90,6 +136,9 @@ public class LookupIndexDefault<KEY, ITEM> implements LookupIndex<KEY, ITEM> {
             mv = mvCreateOrAddToMV( mv, item );
         }
 
+        if ( owned != null ) {
+            owned.add( mv );
+        }
         map.put( key, mv );
     }
 
@@ -122,7 +171,7 @@ public class LookupIndexDefault<KEY, ITEM> implements LookupIndex<KEY, ITEM> {
             return false;
         }
 
-        MultiValue mv = map.get( key );
+        MultiValue mv = bucket( key );
 
         if ( mv == null ) {
             return false;
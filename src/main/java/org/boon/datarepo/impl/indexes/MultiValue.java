@@ -1,16 +1,35 @@
 package org.boon.datarepo.impl.indexes;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 /**
  * Internal class support class.
  * It tries to hide single values and nulls from the parent class.
+ * <p/>
+ * A single value is held inline, a second one moves both into a list. Once the list is past
+ * {@link #POSITIONS_AFTER} values each value's position is kept by identity, and a removal
+ * moves the last value into the hole, so adding and removing stay constant time however many
+ * items share the key. Small lists keep their order.
  *
  * @param <T> Value we are holding
  */
 class MultiValue<T> {
-    List<T> values = null;
+
+    /**
+     * Past this many values the list keeps positions, below it a scan is as quick.
+     */
+    static final int POSITIONS_AFTER = 16;
+
+    private T value;
+
+    private List<T> values;
+
+    /* Where a value sits in values, only for big lists. */
+    private IdentityHashMap<T, Integer> positions;
+
+    private int bucketSize;
 
     public static <T> MultiValue<T> add( MultiValue<T> org, T newItem, int bucketSize ) {
         if ( org == null ) {
@@ -50,36 +69,121 @@ class MultiValue<T> {
     }
 
     private MultiValue( T item, int bucketSize ) {
-        values = new ArrayList( bucketSize );
-        values.add( item );
+        this.value = item;
+        this.bucketSize = bucketSize;
+    }
 
+    /**
+     * A bucket of its own with the same values, to edit while this one is still being read.
+     */
+    MultiValue<T> copy() {
+        MultiValue<T> copy = new MultiValue<>( value, bucketSize );
+        if ( values != null ) {
+            copy.values = new ArrayList<>( values );
+        }
+        if ( positions != null ) {
+            copy.positions = new IdentityHashMap<>( positions );
+        }
+        return copy;
     }
 
     private void add( T item ) {
 
+        if ( values == null ) {
+            values = new ArrayList<>( Math.max( bucketSize, 2 ) );
+            values.add( value );
+            value = null;
+        }
         values.add( item );
+
+        if ( positions != null ) {
+            positions.put( item, values.size() - 1 );
+        } else if ( values.size() > POSITIONS_AFTER ) {
+            reposition();
+        }
+    }
+
+    private void reposition() {
+        positions = new IdentityHashMap<>( values.size() * 2 );
+        for ( int index = 0; index < values.size(); index++ ) {
+            positions.put( values.get( index ), index );
+        }
     }
 
     private void remove( T item ) {
-        values.remove( item );
+        if ( values == null ) {
+            if ( value != null && value.equals( item ) ) {
+                value = null;
+            }
+            return;
+        }
+
+        if ( positions == null ) {
+            values.remove( item );
+            return;
+        }
+
+        Integer position = positions.get( item );
+        if ( position != null && ( position >= values.size() || values.get( position ) != item ) ) {
+            /* The list is handed out, and callers sort it in place, so a stale position means reading them all again. */
+            reposition();
+            position = positions.get( item );
+        }
+        int index = position != null ? position : values.indexOf( item );
+        if ( index < 0 ) {
+            return;
+        }
+
+        /* The same item can be in here twice, only drop the position if it is this one. */
+        T removed = values.get( index );
+        Integer at = positions.get( removed );
+        if ( at != null && at == index ) {
+            positions.remove( removed );
+        }
+
+        T last = values.remove( values.size() - 1 );
+        if ( index < values.size() ) {
+            values.set( index, last );
+            positions.put( last, index );
+        }
     }
 
     T getValue() {
 
+        if ( values == null ) {
+            return value;
+        }
         return ( values.size() > 0 ) ? values.get( 0 ) : null;
     }
 
     final List<T> getValues() {
+        if ( values == null ) {
+            /* Callers may sort what they get, so even one value comes in a list of its own. */
+            List<T> list = new ArrayList<>( 1 );
+            if ( value != null ) {
+                list.add( value );
+            }
+            return list;
+        }
         return values;
     }
 
 
     int size() {
+        if ( values == null ) {
+            return value == null ? 0 : 1;
+        }
         return values.size();
     }
 
     void addTo( List<T> results ) {
-        results.addAll( values );
+        if ( values == null ) {
+            if ( value != null ) {
+                results.add( value );
+            }
+        } else {
+            results.addAll( values );
+        }
     }
 
 
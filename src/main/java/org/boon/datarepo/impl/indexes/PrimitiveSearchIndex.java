@@ -0,0 +1,566 @@
+package org.boon.datarepo.impl.indexes;
+
+import org.boon.core.Conversions;
+import org.boon.core.Function;
+import org.boon.core.Typ;
+import org.boon.datarepo.spi.SearchIndex;
+
+import java.util.*;
+
+
+/**
+ * Search index for int, long and double keys.
+ * <p/>
+ * Keys are kept unboxed as longs in sorted pages of up to {@link #PAGE_SIZE} keys, doubles as bits that sort
+ * the same way the doubles do. An insert shifts one page at most and a full page is split in two.
+ * Next to each key is the item, or a {@link MultiValue} once a second item shares the key,
+ * so a range scan walks flat arrays and a unique key costs a long and a reference.
+ * Keys are ordered by value, a comparator is not supported; the repo builder uses {@link SearchIndexDefault}
+ * for a property that has a collator.
+ *
+ * @param <KEY>  Key we are indexing on, an Integer, Long or Double.
+ * @param <ITEM> The items we are indexing.
+ */
+public class PrimitiveSearchIndex<KEY, ITEM> implements SearchIndex<KEY, ITEM> {
+
+    static final int PAGE_SIZE = 256;
+
+    /**
+     * Bulk loads leave room in each page for later inserts.
+     */
+    private static final int LOAD_SIZE = PAGE_SIZE * 3 / 4;
+
+    private final Class<?> keyType;
+    private final boolean floating;
+
+    private Function<ITEM, KEY> keyGetter;
+    private Function<Object, KEY> keyTransformer;
+    private int keyBucketSize = 3;
+
+    private Page[] pages = new Page[ 4 ];
+    private int pageCount;
+
+    /* Distinct keys. */
+    private int size;
+
+
+    public PrimitiveSearchIndex( Class<?> keyType ) {
+        if ( !supports( keyType ) ) {
+            throw new IllegalArgumentException( "not an int, long or double key " + keyType );
+        }
+        this.keyType = keyType;
+        this.floating = keyType == Typ.dbl;
+    }
+
+
+    public static boolean supports( Class<?> keyType ) {
+        return keyType == Typ.intgr || keyType == Typ.lng || keyType == Typ.dbl;
+    }
+
+
+    private static final class Page {
+        final long[] keys = new long[ PAGE_SIZE ];
+        final Object[] values = new Object[ PAGE_SIZE ];
+        int count;
+    }
+
+
+    private long encode( Object key ) {
+        if ( floating ) {
+            double value = key instanceof Number ? ( ( Number ) key ).doubleValue() : Conversions.toDouble( key );
+            long bits = Double.doubleToLongBits( value );
+            return bits ^ ( ( bits >> 63 ) & Long.MAX_VALUE );
+        }
+        return key instanceof Number ? ( ( Number ) key ).longValue() : Conversions.toLong( key );
+    }
+
+    private KEY decode( long key ) {
+        if ( floating ) {
+            return ( KEY ) Double.valueOf( Double.longBitsToDouble( key ^ ( ( key >> 63 ) & Long.MAX_VALUE ) ) );
+        } else if ( keyType == Typ.intgr ) {
+            return ( KEY ) Integer.valueOf( ( int ) key );
+        }
+        return ( KEY ) Long.valueOf( key );
+    }
+
+    private KEY getKey( KEY key ) {
+        if ( keyTransformer != null ) {
+            key = this.keyTransformer.apply( key );
+        }
+        return key;
+    }
+
+
+    /**
+     * The last page whose first key is not after the key, the first page when every page is.
+     */
+    private int pageFor( long key ) {
+        int low = 0;
+        int high = pageCount - 1;
+        while ( low < high ) {
+            int middle = ( low + high + 1 ) >>> 1;
+            if ( pages[ middle ].keys[ 0 ] <= key ) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The first position in the page past the key, or at it when inclusive.
+     */
+    private static int lowerBound( Page page, long key, boolean inclusive ) {
+        int index = Arrays.binarySearch( page.keys, 0, page.count, key );
+        if ( index < 0 ) {
+            return -index - 1;
+        }
+        return inclusive ? index : index + 1;
+    }
+
+    private Object find( KEY key ) {
+        if ( key == null || pageCount == 0 ) {
+            return null;
+        }
+        long k = encode( key );
+        Page page = pages[ pageFor( k ) ];
+        int index = Arrays.binarySearch( page.keys, 0, page.count, k );
+        return index < 0 ? null : page.values[ index ];
+    }
+
+
+    private static List values( Object value ) {
+        if ( value instanceof MultiValue ) {
+            return ( ( MultiValue ) value ).getValues();
+        }
+        List list = new ArrayList( 1 );
+        list.add( value );
+        return list;
+    }
+
+    private static Object first( Object value ) {
+        return value instanceof MultiValue ? ( ( MultiValue ) value ).getValue() : value;
+    }
+
+    private static void addTo( Object value, List results ) {
+        if ( value instanceof MultiValue ) {
+            List values = ( ( MultiValue ) value ).getValues();
+            for ( int index = 0; index < values.size(); index++ ) {
+                results.add( values.get( index ) );
+            }
+        } else {
+            results.add( value );
+        }
+    }
+
+
+    @Override
+    public boolean add( ITEM item ) {
+        KEY key = keyGetter.apply( item );
+        if ( key != null ) {
+            key = getKey( key );
+        }
+        if ( key == null ) {
+            return false;
+        }
+        put( encode( key ), item );
+        return true;
+    }
+
+    private void put( long key, Object item ) {
+        if ( pageCount == 0 ) {
+            pages[ pageCount++ ] = new Page();
+        }
+
+        int pageIndex = pageFor( key );
+        Page page = pages[ pageIndex ];
+        int index = Arrays.binarySearch( page.keys, 0, page.count, key );
+        if ( index >= 0 ) {
+            Object value = page.values[ index ];
+            if ( value instanceof MultiValue ) {
+                MultiValue.add( ( MultiValue ) value, item, keyBucketSize );
+            } else {
+                MultiValue mv = MultiValue.add( null, value, keyBucketSize );
+                page.values[ index ] = MultiValue.add( mv, item, keyBucketSize );
+            }
+            return;
+        }
+
+        if ( page.count == PAGE_SIZE ) {
+            split( pageIndex );
+            put( key, item );
+            return;
+        }
+
+        index = -index - 1;
+        System.arraycopy( page.keys, index, page.keys, index + 1, page.count - index );
+        System.arraycopy( page.values, index, page.values, index + 1, page.count - index );
+        page.keys[ index ] = key;
+        page.values[ index ] = item;
+        page.count++;
+        size++;
+    }
+
+    private void split( int pageIndex ) {
+        Page page = pages[ pageIndex ];
+        Page upper = new Page();
+        int half = page.count / 2;
+        upper.count = page.count - half;
+        System.arraycopy( page.keys, half, upper.keys, 0, upper.count );
+        System.arraycopy( page.values, half, upper.values, 0, upper.count );
+        Arrays.fill( page.values, half, page.count, null );
+        page.count = half;
+        insertPage( pageIndex + 1, upper );
+    }
+
+    private void insertPage( int pageIndex, Page page ) {
+        if ( pageCount == pages.length ) {
+            pages = Arrays.copyOf( pages, pageCount * 2 );
+        }
+        System.arraycopy( pages, pageIndex, pages, pageIndex + 1, pageCount - pageIndex );
+        pages[ pageIndex ] = page;
+        pageCount++;
+    }
+
+    private void remove( int pageIndex, int index ) {
+        Page page = pages[ pageIndex ];
+        page.count--;
+        System.arraycopy( page.keys, index + 1, page.keys, index, page.count - index );
+        System.arraycopy( page.values, index + 1, page.values, index, page.count - index );
+        page.values[ page.count ] = null;
+        size--;
+
+        if ( page.count == 0 ) {
+            pageCount--;
+            System.arraycopy( pages, pageIndex + 1, pages, pageIndex, pageCount - pageIndex );
+            pages[ pageCount ] = null;
+        }
+    }
+
+
+    /**
+     * Sorts the keys of a batch as primitives, an empty index is then built page by page from them.
+     */
+    @Override
+    public void addAll( List<ITEM> items ) {
+
+        if ( size > 0 ) {
+            for ( ITEM item : items ) {
+                add( item );
+            }
+            return;
+        }
+
+        long[] keys = new long[ items.size() ];
+        boolean[] nulls = new boolean[ items.size() ];
+        int count = 0;
+        for ( int index = 0; index < keys.length; index++ ) {
+            KEY key = keyGetter.apply( items.get( index ) );
+            if ( key != null ) {
+                key = getKey( key );
+            }
+            if ( key == null ) {
+                nulls[ index ] = true;
+            } else {
+                keys[ index ] = encode( key );
+                count++;
+            }
+        }
+
+        long[] sorted = new long[ count ];
+        count = 0;
+        for ( int index = 0; index < keys.length; index++ ) {
+            if ( !nulls[ index ] ) {
+                sorted[ count++ ] = keys[ index ];
+            }
+        }
+        Arrays.sort( sorted );
+
+        int distinct = 0;
+        for ( int index = 0; index < sorted.length; index++ ) {
+            if ( distinct == 0 || sorted[ distinct - 1 ] != sorted[ index ] ) {
+                sorted[ distinct++ ] = sorted[ index ];
+            }
+        }
+
+        /* Items land in their key's slot in list order, the same as adding them one at a time. */
+        Object[] values = new Object[ distinct ];
+        for ( int index = 0; index < keys.length; index++ ) {
+            if ( nulls[ index ] ) {
+                continue;
+            }
+            int slot = Arrays.binarySearch( sorted, 0, distinct, keys[ index ] );
+            Object value = values[ slot ];
+            ITEM item = items.get( index );
+            if ( value == null ) {
+                values[ slot ] = item;
+            } else if ( value instanceof MultiValue ) {
+                MultiValue.add( ( MultiValue ) value, item, keyBucketSize );
+            } else {
+                MultiValue mv = MultiValue.add( null, value, keyBucketSize );
+                values[ slot ] = MultiValue.add( mv, item, keyBucketSize );
+            }
+        }
+
+        clear();
+        for ( int start = 0; start < distinct; start += LOAD_SIZE ) {
+            Page page = new Page();
+            page.count = Math.min( LOAD_SIZE, distinct - start );
+            System.arraycopy( sorted, start, page.keys, 0, page.count );
+            System.arraycopy( values, start, page.values, 0, page.count );
+            insertPage( pageCount, page );
+        }
+        size = distinct;
+    }
+
+
+    @Override
+    public boolean delete( ITEM item ) {
+        KEY key = keyGetter.apply( item );
+        if ( key != null ) {
+            key = getKey( key );
+        }
+        if ( key == null || pageCount == 0 ) {
+            return false;
+        }
+
+        long k = encode( key );
+        int pageIndex = pageFor( k );
+        Page page = pages[ pageIndex ];
+        int index = Arrays.binarySearch( page.keys, 0, page.count, k );
+        if ( index < 0 ) {
+            return false;
+        }
+
+        Object value = page.values[ index ];
+        if ( value instanceof MultiValue ) {
+            MultiValue mv = MultiValue.remove( ( MultiValue ) value, item );
+            if ( mv == null ) {
+                remove( pageIndex, index );
+            } else if ( mv.size() == 1 ) {
+                page.values[ index ] = mv.getValue();
+            }
+        } else if ( value == item || value.equals( item ) ) {
+            remove( pageIndex, index );
+        }
+        return true;
+    }
+
+    @Override
+    public boolean deleteByKey( KEY key ) {
+        key = getKey( key );
+        if ( key == null || pageCount == 0 ) {
+            return true;
+        }
+
+        long k = encode( key );
+        int pageIndex = pageFor( k );
+        int index = Arrays.binarySearch( pages[ pageIndex ].keys, 0, pages[ pageIndex ].count, k );
+        if ( index >= 0 ) {
+            remove( pageIndex, index );
+        }
+        return true;
+    }
+
+
+    /**
+     * Every item whose key lies between from and to, in key order.
+     */
+    private List<ITEM> collect( long from, boolean fromInclusive, long to, boolean toInclusive ) {
+        List<ITEM> results = new ArrayList<>();
+        if ( pageCount == 0 ) {
+            return results;
+        }
+
+        int start = pageFor( from );
+        for ( int pageIndex = start; pageIndex < pageCount; pageIndex++ ) {
+            Page page = pages[ pageIndex ];
+            int index = pageIndex == start ? lowerBound( page, from, fromInclusive ) : 0;
+            for (; index < page.count; index++ ) {
+                long key = page.keys[ index ];
+                if ( key > to || ( key == to && !toInclusive ) ) {
+                    return results;
+                }
+                addTo( page.values[ index ], results );
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<ITEM> findBetween( KEY start, KEY end ) {
+        return collect( encode( getKey( start ) ), true, encode( getKey( end ) ), false );
+    }
+
+    @Override
+    public List<ITEM> findGreaterThan( KEY key ) {
+        return collect( encode( getKey( key ) ), false, Long.MAX_VALUE, true );
+    }
+
+    @Override
+    public List<ITEM> findLessThan( KEY key ) {
+        return collect( Long.MIN_VALUE, true, encode( getKey( key ) ), false );
+    }
+
+    @Override
+    public List<ITEM> findGreaterThanEqual( KEY key ) {
+        return collect( encode( getKey( key ) ), true, Long.MAX_VALUE, true );
+    }
+
+    @Override
+    public List<ITEM> findLessThanEqual( KEY key ) {
+        return collect( Long.MIN_VALUE, true, encode( getKey( key ) ), true );
+    }
+
+
+    @Override
+    public List<ITEM> findEquals( KEY key ) {
+        return getAll( key );
+    }
+
+    @Override
+    public List<ITEM> getAll( KEY key ) {
+        Object value = find( getKey( key ) );
+        return value == null ? null : values( value );
+    }
+
+    @Override
+    public ITEM get( KEY key ) {
+        Object value = find( getKey( key ) );
+        return value == null ? null : ( ITEM ) first( value );
+    }
+
+    @Override
+    public boolean has( KEY key ) {
+        return find( getKey( key ) ) != null;
+    }
+
+    @Override
+    public int count( KEY key ) {
+        Object value = find( getKey( key ) );
+        if ( value == null ) {
+            return 0;
+        }
+        return value instanceof MultiValue ? ( ( MultiValue ) value ).size() : 1;
+    }
+
+
+    @Override
+    public List<ITEM> findStartsWith( KEY keyFrag ) {
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public List<ITEM> findEndsWith( KEY keyFrag ) {
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public List<ITEM> findContains( KEY keyFrag ) {
+        return Collections.EMPTY_LIST;
+    }
+
+
+    @Override
+    public ITEM findFirst() {
+        return pageCount == 0 ? null : ( ITEM ) first( pages[ 0 ].values[ 0 ] );
+    }
+
+    @Override
+    public ITEM findLast() {
+        if ( pageCount == 0 ) {
+            return null;
+        }
+        Page page = pages[ pageCount - 1 ];
+        return ( ITEM ) first( page.values[ page.count - 1 ] );
+    }
+
+    @Override
+    public KEY findFirstKey() {
+        return pageCount == 0 ? null : decode( pages[ 0 ].keys[ 0 ] );
+    }
+
+    @Override
+    public KEY findLastKey() {
+        if ( pageCount == 0 ) {
+            return null;
+        }
+        Page page = pages[ pageCount - 1 ];
+        return decode( page.keys[ page.count - 1 ] );
+    }
+
+    @Override
+    public ITEM min() {
+        return findFirst();
+    }
+
+    @Override
+    public ITEM max() {
+        return findLast();
+    }
+
+
+    @Override
+    public List<ITEM> all() {
+        List<ITEM> results = new ArrayList<>( size );
+        for ( int pageIndex = 0; pageIndex < pageCount; pageIndex++ ) {
+            Page page = pages[ pageIndex ];
+            for ( int index = 0; index < page.count; index++ ) {
+                addTo( page.values[ index ], results );
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Collection<ITEM> toCollection() {
+        return all();
+    }
+
+    @Override
+    public void clear() {
+        pages = new Page[ 4 ];
+        pageCount = 0;
+        size = 0;
+    }
+
+
+    @Override
+    public void setComparator( Comparator<KEY> collator ) {
+        if ( collator != null ) {
+            throw new UnsupportedOperationException( "primitive keys are ordered by value" );
+        }
+    }
+
+    @Override
+    public void setKeyGetter( Function<ITEM, KEY> keyGetter ) {
+        Objects.requireNonNull( keyGetter, "keyGetter cannot be null" );
+        this.keyGetter = keyGetter;
+    }
+
+    @Override
+    public void setInputKeyTransformer( Function<Object, KEY> func ) {
+        this.keyTransformer = func;
+    }
+
+    @Override
+    public void setBucketSize( int size ) {
+        this.keyBucketSize = size;
+    }
+
+    @Override
+    public boolean isPrimaryKeyOnly() {
+        return false;
+    }
+
+    @Override
+    public void init() {
+        clear();
+    }
+}
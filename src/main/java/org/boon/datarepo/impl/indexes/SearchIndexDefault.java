@@ -1,5 +1,6 @@
 package org.boon.datarepo.impl.indexes;
 
+import org.boon.datarepo.impl.maps.JavaUtilNavigableMap;
 import org.boon.datarepo.spi.SPIFactory;
 import org.boon.datarepo.spi.SearchIndex;
 import org.boon.core.Function;
@@ -55,6 +56,52 @@ public class SearchIndexDefault<KEY, ITEM> extends LookupIndexDefault<KEY, ITEM>
 
     }
 
+    /**
+     * Groups the items by key in one sorted pass, then an empty index is built straight from the sorted keys
+     * instead of inserting them one at a time, and a filled one gets one insert per distinct key.
+     */
+    @Override
+    public void addAll( List<ITEM> items ) {
+
+        if ( storeKeyInIndexOnly ) {
+            super.addAll( items );
+            return;
+        }
+
+        TreeMap<KEY, MultiValue> sorted = new TreeMap<>( navigableMap.comparator() );
+        for ( ITEM item : items ) {
+            KEY key = keyGetter.apply( item );
+            if ( key == null ) {
+                continue;
+            }
+            key = getKey( key );
+
+            MultiValue mv = sorted.get( key );
+            if ( mv == null ) {
+                sorted.put( key, MultiValue.add( null, item, keyBucketSize ) );
+            } else {
+                MultiValue.add( mv, item, keyBucketSize );
+            }
+        }
+
+        if ( navigableMap.isEmpty() && navigableMap instanceof JavaUtilNavigableMap ) {
+            super.map = new JavaUtilNavigableMap<>( sorted );
+            this.navigableMap = ( NavigableMap<KEY, MultiValue> ) super.map;
+            return;
+        }
+
+        for ( Map.Entry<KEY, MultiValue> entry : sorted.entrySet() ) {
+            MultiValue mv = navigableMap.get( entry.getKey() );
+            if ( mv == null ) {
+                navigableMap.put( entry.getKey(), entry.getValue() );
+            } else {
+                for ( Object item : entry.getValue().getValues() ) {
+                    MultiValue.add( mv, item, keyBucketSize );
+                }
+            }
+        }
+    }
+
     @Override
     public void setComparator( Comparator collator ) {
         this.collator = collator;
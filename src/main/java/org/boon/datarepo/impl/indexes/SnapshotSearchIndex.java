@@ -0,0 +1,441 @@
+package org.boon.datarepo.impl.indexes;
+
+import org.boon.core.Function;
+import org.boon.datarepo.spi.SearchIndex;
+
+import java.util.*;
+
+
+/**
+ * Search index of a published snapshot, built once, from one batch or from the index of the snapshot before,
+ * and never edited after.
+ * <p/>
+ * The distinct keys sit in one sorted array and the items of all keys in one flat array, grouped by key
+ * in key order, with the start of each key's group alongside. A range is one binary search at each end
+ * and one array copy, and as nothing changes once built any number of threads can read it without locks.
+ *
+ * @param <KEY>  Key we are indexing on.
+ * @param <ITEM> The items we are indexing.
+ * @see org.boon.datarepo.impl.RepoSnapshot
+ */
+public class SnapshotSearchIndex<KEY, ITEM> implements SearchIndex<KEY, ITEM> {
+
+    private static final Comparator NATURAL = new Comparator() {
+        @Override
+        public int compare( Object left, Object right ) {
+            return ( ( Comparable ) left ).compareTo( right );
+        }
+    };
+
+    private Function<ITEM, KEY> keyGetter;
+    private Function<Object, KEY> keyTransformer;
+    private Comparator comparator = NATURAL;
+
+    private Object[] keys;
+
+    /* Where each key's items start in items, with the end of the last key at the end. */
+    private int[] starts;
+
+    private Object[] items;
+
+
+    private static final class Entry {
+        final Object key;
+        final Object item;
+
+        Entry( Object key, Object item ) {
+            this.key = key;
+            this.item = item;
+        }
+    }
+
+
+    /**
+     * Builds the index, items with the same key keep their order in the batch.
+     */
+    @Override
+    public void addAll( List<ITEM> list ) {
+        if ( keys != null ) {
+            throw edited();
+        }
+
+        Entry[] entries = sorted( list );
+        Layout layout = new Layout( entries.length );
+        for ( Entry entry : entries ) {
+            layout.add( entry.key, entry.item );
+        }
+        layout.publish();
+    }
+
+    /**
+     * Builds the index from the one before it, without the dropped items and with the added ones.
+     * <p/>
+     * The items carried over keep the places they had, only the added items are sorted, and the two
+     * runs are merged, so the items of the index before must not have been edited since it was built.
+     * Added items go after the carried over items with the same key.
+     *
+     * @param previous the index of the snapshot before
+     * @param dropped  items of previous to leave out, told apart by identity
+     * @param added    items to add
+     */
+    public void addAll( SnapshotSearchIndex<KEY, ITEM> previous, List<ITEM> dropped, List<ITEM> added ) {
+        if ( keys != null ) {
+            throw edited();
+        }
+
+        /* The dropped items still have the keys they were filed under, so their places are found by key. */
+        BitSet gone = new BitSet();
+        for ( ITEM item : dropped ) {
+            KEY key = keyGetter.apply( item );
+            int index = key == null ? -1 : previous.find( getKey( key ) );
+            if ( index >= 0 ) {
+                for ( int place = previous.starts[ index ]; place < previous.starts[ index + 1 ]; place++ ) {
+                    if ( previous.items[ place ] == item ) {
+                        gone.set( place );
+                    }
+                }
+            }
+        }
+
+        Entry[] entries = sorted( added );
+        Layout layout = new Layout( previous.items == null ? entries.length : previous.items.length + entries.length );
+
+        int entry = 0;
+        for ( int key = 0; key < previous.keyCount(); key++ ) {
+            Object current = previous.keys[ key ];
+            while ( entry < entries.length && comparator.compare( entries[ entry ].key, current ) < 0 ) {
+                layout.add( entries[ entry ].key, entries[ entry ].item );
+                entry++;
+            }
+            layout.carry( current, previous.items, previous.starts[ key ], previous.starts[ key + 1 ], gone );
+        }
+        for ( ; entry < entries.length; entry++ ) {
+            layout.add( entries[ entry ].key, entries[ entry ].item );
+        }
+        layout.publish();
+    }
+
+    /**
+     * The items with a key, by key, items with the same key keep their order in the list.
+     */
+    private Entry[] sorted( List<ITEM> list ) {
+        Entry[] entries = new Entry[ list.size() ];
+        int count = 0;
+        for ( ITEM item : list ) {
+            KEY key = keyGetter.apply( item );
+            if ( key != null ) {
+                key = getKey( key );
+            }
+            if ( key != null ) {
+                entries[ count++ ] = new Entry( key, item );
+            }
+        }
+
+        final Comparator comparator = this.comparator;
+        Arrays.sort( entries, 0, count, new Comparator<Entry>() {
+            @Override
+            public int compare( Entry left, Entry right ) {
+                return comparator.compare( left.key, right.key );
+            }
+        } );
+        return Arrays.copyOf( entries, count );
+    }
+
+    /**
+     * Lays the items out as they come, in key order, and publishes them to the index once done.
+     */
+    private final class Layout {
+        private final Object[] keys;
+        private final int[] starts;
+        private final Object[] items;
+        private int distinct;
+        private int count;
+
+        Layout( int capacity ) {
+            keys = new Object[ capacity ];
+            starts = new int[ capacity + 1 ];
+            items = new Object[ capacity ];
+        }
+
+        void add( Object key, Object item ) {
+            if ( distinct == 0 || comparator.compare( keys[ distinct - 1 ], key ) != 0 ) {
+                keys[ distinct ] = key;
+                starts[ distinct ] = count;
+                distinct++;
+            }
+            items[ count++ ] = item;
+        }
+
+        /**
+         * Adds the items of one key from the index before, but the gone ones. Keys come from the index before
+         * in order, and added items before them have smaller keys, so the key always starts a group of its own.
+         */
+        void carry( Object key, Object[] source, int from, int to, BitSet gone ) {
+            boolean started = false;
+            for ( int place = from; place < to; place++ ) {
+                if ( gone.get( place ) ) {
+                    continue;
+                }
+                if ( !started ) {
+                    keys[ distinct ] = key;
+                    starts[ distinct ] = count;
+                    distinct++;
+                    started = true;
+                }
+                items[ count++ ] = source[ place ];
+            }
+        }
+
+        void publish() {
+            starts[ distinct ] = count;
+            SnapshotSearchIndex.this.keys = Arrays.copyOf( keys, distinct );
+            SnapshotSearchIndex.this.starts = Arrays.copyOf( starts, distinct + 1 );
+            SnapshotSearchIndex.this.items = Arrays.copyOf( items, count );
+        }
+    }
+
+    private static UnsupportedOperationException edited() {
+        return new UnsupportedOperationException( "snapshot indexes are rebuilt, not edited" );
+    }
+
+    @Override
+    public boolean add( ITEM item ) {
+        throw edited();
+    }
+
+    @Override
+    public boolean delete( ITEM item ) {
+        throw edited();
+    }
+
+    @Override
+    public boolean deleteByKey( KEY key ) {
+        throw edited();
+    }
+
+    @Override
+    public void clear() {
+        throw edited();
+    }
+
+
+    private KEY getKey( KEY key ) {
+        if ( keyTransformer != null ) {
+            key = this.keyTransformer.apply( key );
+        }
+        return key;
+    }
+
+    private int keyCount() {
+        return keys == null ? 0 : keys.length;
+    }
+
+    /**
+     * The first key at or past the key, or past it when not inclusive.
+     */
+    private int lowerBound( Object key, boolean inclusive ) {
+        int low = 0;
+        int high = keyCount();
+        while ( low < high ) {
+            int middle = ( low + high ) >>> 1;
+            int compare = comparator.compare( keys[ middle ], key );
+            if ( compare < 0 || ( compare == 0 && !inclusive ) ) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The items of the keys from first up to but not including last, as a list of their own.
+     */
+    private List<ITEM> range( int first, int last ) {
+        if ( first >= last ) {
+            return Collections.EMPTY_LIST;
+        }
+        return ( List<ITEM> ) Arrays.asList( Arrays.copyOfRange( items, starts[ first ], starts[ last ] ) );
+    }
+
+    private int find( KEY key ) {
+        if ( key == null ) {
+            return -1;
+        }
+        int index = lowerBound( key, true );
+        return index < keyCount() && comparator.compare( keys[ index ], key ) == 0 ? index : -1;
+    }
+
+
+    @Override
+    public List<ITEM> findEquals( KEY key ) {
+        return getAll( key );
+    }
+
+    @Override
+    public List<ITEM> getAll( KEY key ) {
+        int index = find( getKey( key ) );
+        return index < 0 ? null : range( index, index + 1 );
+    }
+
+    @Override
+    public ITEM get( KEY key ) {
+        int index = find( getKey( key ) );
+        return index < 0 ? null : ( ITEM ) items[ starts[ index ] ];
+    }
+
+    @Override
+    public boolean has( KEY key ) {
+        return find( getKey( key ) ) >= 0;
+    }
+
+    @Override
+    public int count( KEY key ) {
+        int index = find( getKey( key ) );
+        return index < 0 ? 0 : starts[ index + 1 ] - starts[ index ];
+    }
+
+
+    @Override
+    public List<ITEM> findBetween( KEY start, KEY end ) {
+        return range( lowerBound( getKey( start ), true ), lowerBound( getKey( end ), true ) );
+    }
+
+    @Override
+    public List<ITEM> findGreaterThan( KEY key ) {
+        return range( lowerBound( getKey( key ), false ), keyCount() );
+    }
+
+    @Override
+    public List<ITEM> findGreaterThanEqual( KEY key ) {
+        return range( lowerBound( getKey( key ), true ), keyCount() );
+    }
+
+    @Override
+    public List<ITEM> findLessThan( KEY key ) {
+        return range( 0, lowerBound( getKey( key ), true ) );
+    }
+
+    @Override
+    public List<ITEM> findLessThanEqual( KEY key ) {
+        return range( 0, lowerBound( getKey( key ), false ) );
+    }
+
+
+    @Override
+    public List<ITEM> findStartsWith( KEY keyFrag ) {
+        keyFrag = getKey( keyFrag );
+        if ( !( keyFrag instanceof String ) || ( ( String ) keyFrag ).isEmpty() ) {
+            return Collections.EMPTY_LIST;
+        }
+
+        String start = ( String ) keyFrag;
+        String after = start.substring( 0, start.length() - 1 ) + ( char ) ( start.charAt( start.length() - 1 ) + 1 );
+        return range( lowerBound( start, true ), lowerBound( after, true ) );
+    }
+
+    @Override
+    public List<ITEM> findEndsWith( KEY keyFrag ) {
+        keyFrag = getKey( keyFrag );
+        List<ITEM> results = new ArrayList<>();
+        if ( keyFrag instanceof String ) {
+            for ( int index = 0; index < keyCount(); index++ ) {
+                if ( keys[ index ].toString().endsWith( ( String ) keyFrag ) ) {
+                    results.addAll( range( index, index + 1 ) );
+                }
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public List<ITEM> findContains( KEY keyFrag ) {
+        keyFrag = getKey( keyFrag );
+        List<ITEM> results = new ArrayList<>();
+        if ( keyFrag instanceof String ) {
+            for ( int index = 0; index < keyCount(); index++ ) {
+                if ( keys[ index ].toString().contains( ( String ) keyFrag ) ) {
+                    results.addAll( range( index, index + 1 ) );
+                }
+            }
+        }
+        return results;
+    }
+
+
+    @Override
+    public ITEM findFirst() {
+        return keyCount() == 0 ? null : ( ITEM ) items[ 0 ];
+    }
+
+    @Override
+    public ITEM findLast() {
+        return keyCount() == 0 ? null : ( ITEM ) items[ starts[ keys.length - 1 ] ];
+    }
+
+    @Override
+    public KEY findFirstKey() {
+        return keyCount() == 0 ? null : ( KEY ) keys[ 0 ];
+    }
+
+    @Override
+    public KEY findLastKey() {
+        return keyCount() == 0 ? null : ( KEY ) keys[ keys.length - 1 ];
+    }
+
+    @Override
+    public ITEM min() {
+        return findFirst();
+    }
+
+    @Override
+    public ITEM max() {
+        return findLast();
+    }
+
+
+    @Override
+    public List<ITEM> all() {
+        return range( 0, keyCount() );
+    }
+
+    @Override
+    public int size() {
+        return keyCount();
+    }
+
+    @Override
+    public Collection<ITEM> toCollection() {
+        return all();
+    }
+
+
+    @Override
+    public void setComparator( Comparator<KEY> collator ) {
+        this.comparator = collator == null ? NATURAL : collator;
+    }
+
+    @Override
+    public void setKeyGetter( Function<ITEM, KEY> keyGetter ) {
+        Objects.requireNonNull( keyGetter, "keyGetter cannot be null" );
+        this.keyGetter = keyGetter;
+    }
+
+    @Override
+    public void setInputKeyTransformer( Function<Object, KEY> func ) {
+        this.keyTransformer = func;
+    }
+
+    @Override
+    public void setBucketSize( int size ) {
+    }
+
+    @Override
+    public boolean isPrimaryKeyOnly() {
+        return false;
+    }
+
+    @Override
+    public void init() {
+    }
+}
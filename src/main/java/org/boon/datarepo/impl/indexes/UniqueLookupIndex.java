@@ -61,6 +61,33 @@ public class UniqueLookupIndex<KEY, ITEM> implements LookupIndex<KEY, ITEM> {
 
     }
 
+    @Override
+    public void addAll( List<ITEM> items ) {
+        for ( ITEM item : items ) {
+            add( item );
+        }
+    }
+
+    /**
+     * Builds the index from the one before it, without the dropped items and with the added ones.
+     * The entries carried over are copied as they are, their keys are not read again.
+     *
+     * @param previous the index of the snapshot before
+     * @param dropped  items of previous to leave out
+     * @param added    items to add
+     */
+    public void addAll( UniqueLookupIndex<KEY, ITEM> previous, List<ITEM> dropped, List<ITEM> added ) {
+        map.putAll( previous.map );
+        for ( ITEM item : dropped ) {
+            /* Under the key add put it, and only if it is there, another item with that key may have been kept instead. */
+            KEY key = keyGetter.apply( item );
+            if ( key != null && map.get( key ) == item ) {
+                map.remove( key );
+            }
+        }
+        addAll( added );
+    }
+
     @Override
     public boolean delete( ITEM item ) {
 
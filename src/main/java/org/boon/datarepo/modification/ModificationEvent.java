@@ -32,6 +32,14 @@ public abstract class ModificationEvent<KEY, ITEM> {
         return key;
     }
 
+    public String getProperty() {
+        return property;
+    }
+
+    public ModificationType getType() {
+        return type;
+    }
+
 
     public abstract boolean booleanValue();
 
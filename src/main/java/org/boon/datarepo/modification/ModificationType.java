@@ -11,6 +11,7 @@ public enum ModificationType {
     AFTER_UPDATE,  //update a single property
     AFTER_MODIFY,  //modify an entire object, remove and re-addObject it
     AFTER_ADD,      //Add a new object
+    BEFORE_REMOVE,  //Remove an object
 
     BEFORE_MODIFY_BY_VALUE_SETTERS,
     AFTER_MODIFY_BY_VALUE_SETTERS,
@@ -1,6 +1,7 @@
 package org.boon.datarepo.spi;
 
 import org.boon.criteria.Criteria;
+import org.boon.datarepo.PlanStep;
 import org.boon.datarepo.ResultSet;
 
 import java.util.List;
@@ -13,5 +14,17 @@ public interface ResultSetInternal<T> extends ResultSet<T> {
 
     void andResults();
 
+    /**
+     * Joins the lists added so far, each item once.
+     */
+    void orResults();
+
+    /**
+     * Drops the items in the list from the results.
+     */
+    void andNotResults( List<T> list );
+
     int lastSize();
+
+    void addPlanStep( PlanStep step );
 }
@@ -1,11 +1,11 @@
 package org.boon.datarepo.spi;
 
-import org.boon.core.Typ;
 import org.boon.datarepo.Filter;
 import org.boon.datarepo.LookupIndex;
 import org.boon.datarepo.RepoBuilder;
 import org.boon.datarepo.impl.*;
 import org.boon.datarepo.impl.indexes.LookupIndexDefault;
+import org.boon.datarepo.impl.indexes.PrimitiveSearchIndex;
 import org.boon.datarepo.impl.indexes.SearchIndexDefault;
 import org.boon.datarepo.impl.indexes.UniqueLookupIndex;
 import org.boon.datarepo.impl.indexes.UniqueSearchIndex;
@@ -87,8 +87,8 @@ public class SPIFactory {
         if ( searchIndexFactory == null ) {
             searchIndexFactory = new Function<Class, SearchIndex>() {
                 public SearchIndex apply( Class keyType ) {
-                    if ( keyType == Typ.string ) {
-                        return new SearchIndexDefault( keyType );
+                    if ( PrimitiveSearchIndex.supports( keyType ) ) {
+                        return new PrimitiveSearchIndex( keyType );
                     } else {
                         return new SearchIndexDefault( keyType );
                     }
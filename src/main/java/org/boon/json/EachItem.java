@@ -0,0 +1,14 @@
+package org.boon.json;
+
+/**
+ * Callback for streaming the elements of a JSON array one at a time.
+ */
+public interface EachItem<T> {
+
+    /**
+     * @param item  the element that was just parsed
+     * @param index position of the element in the array
+     * @return false to stop reading the rest of the array
+     */
+    boolean item( T item, int index );
+}
@@ -0,0 +1,12 @@
+package org.boon.json;
+
+import org.boon.primitive.ByteBuf;
+
+
+/**
+ * Serializes straight to UTF-8 bytes, for output that ends up as bytes anyway.
+ */
+public interface JsonByteSerializer {
+
+    ByteBuf serialize( Object obj );
+}
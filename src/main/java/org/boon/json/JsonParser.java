@@ -6,6 +6,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +33,10 @@ public interface JsonParser {
     <T> List<T>  parseList(  Class<T> componentType, CharSequence jsonSeq );
     <T> List<T>  parseListFromFile(  Class<T> componentType, String fileName );
 
+    <T> Iterator<T> parseIterator(  Class<T> componentType, InputStream input );
+    <T> void parseEach(  Class<T> componentType, InputStream input, EachItem<T> eachItem );
+    <T> void parseEachFromFile(  Class<T> componentType, String fileName, EachItem<T> eachItem );
+
     <T> T parse( Class<T> type, String jsonString );
     <T> T parse( Class<T> type, byte[] bytes );
     <T> T parse( Class<T> type, byte[] bytes, Charset charset );
@@ -140,6 +145,16 @@ public interface JsonParser {
     Object parseFile(  String fileName);
 
 
+    /**
+     * The values at a path like <code>a.b[3].c</code>, with <code>*</code> or <code>[*]</code> for every key or item.
+     * The parser from {@link JsonParserFactory#createJsonParserForJsonPath()} skips whatever is off the path
+     * instead of parsing it.
+     */
+    List<Object> parsePath( String path, String jsonString );
+    List<Object> parsePath( String path, byte[] bytes );
+    List<Object> parsePath( String path, char[] chars );
+
+
     void close();
 
 }
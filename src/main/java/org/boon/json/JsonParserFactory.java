@@ -3,8 +3,12 @@ package org.boon.json;
 import org.boon.core.reflection.fields.*;
 import org.boon.json.implementation.*;
 
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 public class JsonParserFactory {
 
@@ -15,7 +19,9 @@ public class JsonParserFactory {
     private boolean plistStyle;
     private boolean chop = false;
     private boolean lazyChop = true;
+    private boolean directBinding = false;
     private FieldAccessMode fieldAccessType = FieldAccessMode.FIELD;
+    private int streamBufferSize = JsonUTF8StreamReader.DEFAULT_BUFFER_SIZE;
 
 
     public FieldAccessMode getFieldAccessType() {
@@ -41,6 +47,28 @@ public class JsonParserFactory {
         return this;
     }
 
+    public boolean isDirectBinding() {
+        return directBinding;
+    }
+
+    /**
+     * Typed parses set the fields of the object while scanning instead of building
+     * a map of values first and converting it. Does not apply to lax or plist parsers.
+     */
+    public JsonParserFactory useDirectBinding() {
+        this.directBinding = true;
+        return this;
+    }
+
+    public int getStreamBufferSize() {
+        return streamBufferSize;
+    }
+
+    public JsonParserFactory setStreamBufferSize( int streamBufferSize ) {
+        this.streamBufferSize = streamBufferSize;
+        return this;
+    }
+
     public JsonParserFactory lax() {
         lax = true;
         return this;
@@ -115,13 +143,58 @@ public class JsonParserFactory {
 
     }
 
+    /**
+     * Creates a parser whose {@link JsonParser#parsePath} skips over everything that is not on the path.
+     */
     public JsonParser createJsonParserForJsonPath() {
 
-        BaseJsonParser jsonParser = new JsonFastParser (  FieldAccessMode.create( fieldAccessType ), false, chop, lazyChop );
+        BaseJsonParser jsonParser = new JsonPathParser (  FieldAccessMode.create( fieldAccessType ), chop, lazyChop );
         jsonParser.setCharset ( charset );
         return (JsonParser)jsonParser;
     }
 
+    /**
+     * Creates a pull reader over UTF-8 input that never holds more than
+     * {@link #getStreamBufferSize()} bytes (or the largest single token) in memory.
+     */
+    public JsonStreamReader createStreamReader( InputStream inputStream ) {
+        return new JsonUTF8StreamReader( inputStream, streamBufferSize );
+    }
+
+    public JsonStreamReader createStreamReader( ReadableByteChannel channel ) {
+        return new JsonUTF8StreamReader( channel, streamBufferSize );
+    }
+
+    /**
+     * Creates a reader for newline delimited JSON that decodes one record after another on the calling thread.
+     */
+    public NdJsonParser createNdJsonParser() {
+        return new NdJsonParser( FieldAccessMode.create( fieldAccessType ), streamBufferSize );
+    }
+
+    /**
+     * Creates a reader for newline delimited JSON that decodes blocks of records on the given pool.
+     * If <code>ordered</code> is false records are handed out as soon as their block is done.
+     */
+    public NdJsonParser createParallelNdJsonParser( ForkJoinPool pool, boolean ordered ) {
+        return new NdJsonParser( FieldAccessMode.create( fieldAccessType ), streamBufferSize, pool, ordered );
+    }
+
+    /**
+     * Creates a parser that can be shared between threads, backed by a pool of one parser per core.
+     */
+    public JsonParserConcurrent createConcurrentParser() {
+        return new JsonParserConcurrent( this );
+    }
+
+    /**
+     * Creates a parser that can be shared between threads, backed by a pool of <code>poolSize</code> parsers.
+     * When they are all in use a caller waits up to <code>maxWait</code> before making a parser of its own.
+     */
+    public JsonParserConcurrent createConcurrentParser( int poolSize, long maxWait, TimeUnit unit ) {
+        return new JsonParserConcurrent( this, poolSize, maxWait, unit );
+    }
+
     public JsonParser create() {
 
 
@@ -134,7 +207,7 @@ public class JsonParserFactory {
         }
 
         return new JsonParserImpl( FieldAccessMode.create( fieldAccessType ), charset,
-                 lax, plistStyle, chop, lazyChop );
+                 lax, plistStyle, chop, lazyChop, directBinding );
     }
 
 
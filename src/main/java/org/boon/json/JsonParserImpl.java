@@ -4,6 +4,7 @@ import org.boon.Exceptions;
 import org.boon.IO;
 import org.boon.core.Typ;
 import org.boon.core.Value;
+import org.boon.core.reflection.FastStringUtils;
 import org.boon.core.reflection.MapObjectConversion;
 import org.boon.core.reflection.fields.FieldsAccessor;
 import org.boon.json.implementation.*;
@@ -26,6 +27,9 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
     private final JsonParser objectParser;
     private final JsonParser basicParser;
 
+    /* Set when objects are bound while parsing instead of through a map of values. */
+    private final JsonDirectBindingParser bindingParser;
+
 
     private int bufSize = 32;
 
@@ -34,6 +38,13 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
                            Charset charset,
                            boolean lax,
                            boolean plistStyle, boolean chop, boolean lazyChop ) {
+        this( fields, charset, lax, plistStyle, chop, lazyChop, false );
+    }
+
+    public JsonParserImpl( final FieldsAccessor fields,
+                           Charset charset,
+                           boolean lax,
+                           boolean plistStyle, boolean chop, boolean lazyChop, boolean directBinding ) {
 
 
         super(fields);
@@ -53,6 +64,8 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
         ( (BaseJsonParser) basicParser).setCharset ( charset );
         ( (BaseJsonParser) objectParser).setCharset ( charset );
 
+        this.bindingParser = directBinding && !lax && !plistStyle ? new JsonDirectBindingParser ( fields ) : null;
+
 
 
 
@@ -66,6 +79,8 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
         if ( type == Object.class || type == Map.class || type == List.class || Typ.isBasicType ( type ) ) {
             Object obj = basicParser.parse( type, value );
             return (T) obj;
+        } else if ( bindingParser != null ) {
+            return bindingParser.bind ( type, FastStringUtils.toCharArray ( value ) );
         } else {
            Map<String, Value> objectMap = ( Map<String, Value> ) objectParser.parse( Map.class, value );
            return MapObjectConversion.fromValueMap (fieldsAccessor, objectMap, type );
@@ -82,6 +97,8 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
             } else {
                 return this.basicParser.parseAsStream ( type, value );
             }
+        } else if ( bindingParser != null ) {
+            return bindingParser.bind ( type, FastStringUtils.toCharArrayFromBytes ( value, charset ) );
         } else {
             Map<String, Value> objectMap = ( Map<String, Value> ) objectParser.parse( Map.class, value );
             return MapObjectConversion.fromValueMap (fieldsAccessor, objectMap, type );
@@ -93,6 +110,8 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
 
         if ( type==Object.class || type == Map.class || type == List.class ) {
             return this.basicParser.parse( type, value, charset );
+        } else if ( bindingParser != null ) {
+            return bindingParser.bind ( type, FastStringUtils.toCharArrayFromBytes ( value, charset ) );
         } else {
             Map<String, Value> objectMap = ( Map<String, Value> ) objectParser.parse( Map.class, value );
             return MapObjectConversion.fromValueMap (fieldsAccessor, objectMap, type );
@@ -103,6 +122,8 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
     public final <T> T parse( Class<T> type, CharSequence value ) {
         if ( type==Object.class ||  type == Map.class || type == List.class ) {
             return basicParser.parse( type, value );
+        } else if ( bindingParser != null ) {
+            return bindingParser.bind ( type, FastStringUtils.toCharArray ( value.toString () ) );
         } else {
             Map<String, Value> objectMap = ( Map<String, Value> ) objectParser.parse( Map.class, value );
             return MapObjectConversion.fromValueMap ( fieldsAccessor, objectMap, type );
@@ -113,6 +134,8 @@ public class JsonParserImpl extends BaseJsonParser implements JsonParser  {
     public final <T> T parse( Class<T> type, char[] value ) {
         if (  type==Object.class || type == Map.class || type == List.class ) {
             return basicParser.parse( type, value );
+        } else if ( bindingParser != null ) {
+            return bindingParser.bind ( type, value );
         } else {
             Map<String, Value> objectMap = ( Map<String, Value> ) objectParser.parse( Map.class, value );
             return MapObjectConversion.fromValueMap ( fieldsAccessor, objectMap, type );
@@ -1,9 +1,13 @@
 package org.boon.json;
 
 import org.boon.core.reflection.fields.*;
+import org.boon.json.implementation.NdJsonWriter;
 import org.boon.json.serializers.*;
 import org.boon.json.serializers.impl.*;
+import org.boon.primitive.ByteBuf;
+import org.boon.primitive.CharBuf;
 
+import java.io.OutputStream;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -25,19 +29,25 @@ public class JsonSerializerFactory {
     private boolean includeDefault = false;
     private boolean cacheInstances = true;
     private String view;
+    private boolean useSerializationPlans = false;
+    private InstanceSerializerPlanImpl.Plans plans;
 
     private List<FieldFilter> filterProperties = null;
     private List<CustomFieldSerializer> customFieldSerializers = null;
     private Map<Class, CustomObjectSerializer> customObjectSerializers = null;
 
 
-    public JsonSerializer create() {
-
-        if ( !outputType && !includeEmpty && !includeNulls && !useAnnotations &&
+    private boolean isSimple () {
+        return !outputType && !includeEmpty && !includeNulls && !useAnnotations &&
                 !jsonFormatForDates && handleSimpleBackReference &&
                 !handleComplexBackReference && !includeDefault && filterProperties == null
                 && customFieldSerializers == null && customObjectSerializers == null &&
-                fieldAccessType == FieldAccessMode.FIELD) {
+                fieldAccessType == FieldAccessMode.FIELD && !useSerializationPlans;
+    }
+
+    public JsonSerializer create() {
+
+        if ( isSimple () ) {
             return new JsonSimpleSerializerImpl ();
         } else {
 
@@ -54,8 +64,6 @@ public class JsonSerializerFactory {
             FieldSerializer fieldSerializer;
 
 
-            instanceSerializer = new InstanceSerializerImpl ();
-
             if ( !outputType )  {
                 objectSerializer = new BasicObjectSerializerImpl();
             } else {
@@ -66,8 +74,24 @@ public class JsonSerializerFactory {
             stringSerializer = new StringSerializerImpl ();
             mapSerializer = new MapSerializerImpl ();
 
-            if ( useAnnotations || includeNulls || includeEmpty || handleComplexBackReference
-                    || !includeDefault || view!=null) {
+            final boolean annotated = useAnnotations || includeNulls || includeEmpty || handleComplexBackReference
+                    || !includeDefault || view!=null;
+
+            if ( useSerializationPlans ) {
+                instanceSerializer = new InstanceSerializerPlanImpl (
+                        plans ( annotated && useAnnotations, view ),
+                        includeNulls,
+                        annotated && includeDefault,
+                        includeEmpty, handleSimpleBackReference,
+                        handleComplexBackReference,
+                        customObjectSerializers,
+                        filterProperties,
+                        customFieldSerializers );
+            } else {
+                instanceSerializer = new InstanceSerializerImpl ();
+            }
+
+            if ( annotated ) {
                 fieldSerializer = new FieldSerializerUseAnnotationsImpl (
                         includeNulls,
                         includeDefault, useAnnotations,
@@ -128,6 +152,47 @@ public class JsonSerializerFactory {
     }
 
 
+    /* Plans only depend on which fields are written, so serializers with the same settings share them. */
+    private synchronized InstanceSerializerPlanImpl.Plans plans ( boolean useAnnotations, String view ) {
+        if ( plans == null || !plans.matches ( useAnnotations, view, fieldAccessType ) ) {
+            plans = new InstanceSerializerPlanImpl.Plans ( useAnnotations, view, fieldAccessType );
+        }
+        return plans;
+    }
+
+
+    /**
+     * Creates a serializer that writes UTF-8 bytes.
+     * With the default settings it encodes as it goes, otherwise it encodes what {@link #create()} writes.
+     */
+    public JsonByteSerializer createUTF8Serializer () {
+        if ( isSimple () ) {
+            return new JsonSimpleUTF8SerializerImpl ();
+        }
+
+        final JsonSerializer serializer = create ();
+        return new JsonByteSerializer () {
+            private final ByteBuf bytes = ByteBuf.create ( 4000 );
+
+            @Override
+            public ByteBuf serialize ( Object obj ) {
+                CharBuf chars = serializer.serialize ( obj );
+                int length = chars.len ();
+                bytes.readForRecycle ();
+                return bytes.addUTF8 ( chars.readForRecycle (), 0, length );
+            }
+        };
+    }
+
+
+    /**
+     * Creates a writer that puts one serialized record per line (newline delimited JSON) on the stream.
+     */
+    public NdJsonWriter createNdJsonWriter ( OutputStream output ) {
+        return new NdJsonWriter ( ( JsonSerializerInternal ) create (), output );
+    }
+
+
     public JsonSerializerFactory addFilter ( FieldFilter filter ) {
         if ( filterProperties == null ) {
             filterProperties = new CopyOnWriteArrayList<> ();
@@ -314,6 +379,25 @@ public class JsonSerializerFactory {
         return this;
     }
 
+    public boolean isUseSerializationPlans () {
+        return useSerializationPlans;
+    }
+
+    public JsonSerializerFactory setUseSerializationPlans ( boolean useSerializationPlans ) {
+        this.useSerializationPlans = useSerializationPlans;
+        return this;
+    }
+
+
+    /**
+     * Serialize instances from a per class plan: the fields to write in order, their names already quoted,
+     * with ignore, include and view worked out once instead of for every field of every instance.
+     */
+    public JsonSerializerFactory useSerializationPlans () {
+        this.useSerializationPlans = true;
+        return this;
+    }
+
     public String getView() {
         return view;
     }
@@ -0,0 +1,67 @@
+package org.boon.json;
+
+import org.boon.primitive.CharBuf;
+
+import java.io.Closeable;
+
+/**
+ * Pull style JSON reader.
+ * Unlike {@link JsonParser} it never needs the whole document in memory, tokens are
+ * read one at a time from a fixed size buffer that is refilled from the underlying stream.
+ * <p/>
+ * The values of the current token (string, number, field name) are only valid until the
+ * next call to {@link #nextToken()}.
+ */
+public interface JsonStreamReader extends Closeable {
+
+    /**
+     * Advances to the next token.
+     * @return the next token or null if the end of the input was reached.
+     */
+    JsonToken nextToken();
+
+    /**
+     * @return the token that the reader is positioned on or null if no token was read yet.
+     */
+    JsonToken currentToken();
+
+    /**
+     * Advances to the next token and checks that it is a field name.
+     * @return the field name, or null if the end of the current object was reached instead.
+     */
+    String readFieldName();
+
+    /**
+     * Skips the value the reader is positioned on.
+     * If the current token is a field name the field's value is skipped.
+     * If it is the start of an object or array then everything up to and including
+     * the matching end token is skipped without decoding it.
+     */
+    void skipValue();
+
+    /**
+     * Copies the raw JSON text of the value the reader is positioned on into out and moves past it.
+     * If the current token is a field name the field's value is copied.
+     * Only the value itself is held in memory, not the rest of the document.
+     */
+    void readRawValue( CharBuf out );
+
+    /**
+     * @return number of objects and arrays that are currently open.
+     */
+    int depth();
+
+    String stringValue();
+
+    Number numberValue();
+
+    int intValue();
+
+    long longValue();
+
+    double doubleValue();
+
+    boolean booleanValue();
+
+    void close();
+}
@@ -0,0 +1,32 @@
+package org.boon.json;
+
+/**
+ * Tokens produced by a {@link JsonStreamReader}.
+ */
+public enum JsonToken {
+
+    START_OBJECT,
+    END_OBJECT,
+    START_ARRAY,
+    END_ARRAY,
+    FIELD_NAME,
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL;
+
+
+    public boolean isScalar() {
+        switch ( this ) {
+            case STRING:
+            case NUMBER:
+            case TRUE:
+            case FALSE:
+            case NULL:
+                return true;
+        }
+        return false;
+    }
+
+}
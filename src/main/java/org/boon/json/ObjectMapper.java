@@ -2,8 +2,10 @@ package org.boon.json;
 
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.Collection;
+import java.util.Iterator;
 
 
 
@@ -164,6 +166,23 @@ public interface ObjectMapper {
      */
     <T extends Collection<C>, C> T readValue(InputStream src, Charset charset, Class<T> valueType, Class<C> componentType);
 
+    /**
+     * Method to deserialize a JSON array one element at a time.
+     *<p>
+     * Only the element that is being returned is held in memory, which makes this the
+     * method to use for arrays that are too large to materialize as a single list.
+     * The stream is closed once the end of the array is reached.
+     */
+    <T> Iterator<T> readValues(InputStream src, Class<T> componentType);
+
+    /**
+     * Method to deserialize a JSON array one element at a time, handing each element
+     * to the callback as soon as it is parsed.
+     *<p>
+     * Note: the stream is closed when this method returns.
+     */
+    <T> void readValues(InputStream src, Class<T> componentType, EachItem<T> eachItem);
+
     /**
      * Method that can be used to serialize any Java value as
      * JSON output, written to File provided.
@@ -191,6 +210,16 @@ public interface ObjectMapper {
     public void writeValue(Writer dest, Object value);
 
 
+    /**
+     * Method that can be used to serialize any Java value as
+     * JSON output, put into the byte buffer provided (using encoding
+     * UTF8), starting at its current position.
+     *<p>
+     * Fails if the buffer does not have room for all of it.
+     */
+    public void writeValue(ByteBuffer dest, Object value);
+
+
     /**
      * Method that can be used to serialize any Java value as
      * a String. Functionally equivalent to calling
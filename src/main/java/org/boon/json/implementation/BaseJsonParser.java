@@ -2,10 +2,12 @@ package org.boon.json.implementation;
 
 import org.boon.Exceptions;
 import org.boon.IO;
+import org.boon.cache.KeyCache;
 import org.boon.core.Conversions;
 import org.boon.core.reflection.FastStringUtils;
 import org.boon.core.reflection.MapObjectConversion;
 import org.boon.core.reflection.fields.FieldsAccessor;
+import org.boon.json.EachItem;
 import org.boon.json.JsonParser;
 import org.boon.primitive.CharBuf;
 
@@ -17,9 +19,9 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class BaseJsonParser implements JsonParser {
 
@@ -60,8 +62,10 @@ public abstract class BaseJsonParser implements JsonParser {
 
     }
 
-    protected static final boolean internKeys = Boolean.parseBoolean( System.getProperty( "org.boon.json.implementation.internKeys", "false" ) );
-    protected static ConcurrentHashMap<String, String> internedKeysCache;
+    protected static final boolean internKeys = KeyCache.INTERN_KEYS;
+
+    /** Bounded and shared with the lazy map values, see {@link KeyCache#shared()}. */
+    protected static final KeyCache internedKeysCache = KeyCache.shared();
 
     protected Charset charset  = StandardCharsets.UTF_8;
 
@@ -69,10 +73,9 @@ public abstract class BaseJsonParser implements JsonParser {
     protected int bufSize  = 256;
 
 
-    static {
-        if ( internKeys ) {
-            internedKeysCache = new ConcurrentHashMap<>();
-        }
+    /** The cache keys are interned in, with its hit and miss counts, or null when keys are not interned. */
+    public static KeyCache internedKeys() {
+        return internedKeysCache;
     }
 
 
@@ -175,6 +178,37 @@ public abstract class BaseJsonParser implements JsonParser {
     }
 
 
+    @Override
+    public <T> Iterator<T> parseIterator ( Class<T> componentType, InputStream input ) {
+        return new JsonArrayItemIterator<>( new JsonUTF8StreamReader( input ), fieldsAccessor, componentType );
+    }
+
+    @Override
+    public <T> void parseEach ( Class<T> componentType, InputStream input, EachItem<T> eachItem ) {
+        JsonArrayItemIterator<T> iterator =
+                new JsonArrayItemIterator<>( new JsonUTF8StreamReader( input ), fieldsAccessor, componentType );
+        try {
+            int index = 0;
+            while ( iterator.hasNext() ) {
+                if ( !eachItem.item( iterator.next(), index++ ) ) {
+                    break;
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+    }
+
+    @Override
+    public <T> void parseEachFromFile ( Class<T> componentType, String fileName, EachItem<T> eachItem ) {
+        try {
+            parseEach( componentType, Files.newInputStream( IO.path( fileName ) ), eachItem );
+        } catch ( IOException ex ) {
+            Exceptions.handle( fileName, ex );
+        }
+    }
+
+
     @Override
     public Date parseDate ( String jsonString ) {
         return Conversions.toDate ( parse ( jsonString ) );
@@ -583,6 +617,24 @@ public abstract class BaseJsonParser implements JsonParser {
 
 
 
+    @Override
+    public List<Object> parsePath( String path, String jsonString ) {
+        return JsonPath.compile( path ).select( parse( jsonString ) );
+    }
+
+
+    @Override
+    public List<Object> parsePath( String path, byte[] bytes ) {
+        return JsonPath.compile( path ).select( parse( bytes ) );
+    }
+
+
+    @Override
+    public List<Object> parsePath( String path, char[] chars ) {
+        return JsonPath.compile( path ).select( parse( chars ) );
+    }
+
+
     @Override
     public  <T> T parseAsStream( Class<T> type, byte[] value ) {
         return this.parse( type, new ByteArrayInputStream( value ) );
@@ -777,11 +829,8 @@ public abstract class BaseJsonParser implements JsonParser {
                     break;
                 }
             }
-            if ( isEscape (currentChar) ) {
-                escape = true;
-            } else {
-                escape = false;
-            }
+            /* A backslash only escapes the next char when it is not itself escaped. */
+            escape = isEscape ( currentChar ) && !escape;
         }
         return index;
     }
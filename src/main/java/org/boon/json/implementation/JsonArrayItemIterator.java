@@ -0,0 +1,93 @@
+package org.boon.json.implementation;
+
+import org.boon.core.reflection.fields.FieldsAccessor;
+import org.boon.json.JsonException;
+import org.boon.json.JsonParser;
+import org.boon.json.JsonStreamReader;
+import org.boon.json.JsonToken;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the elements of a top level JSON array without reading the whole array.
+ * <p/>
+ * Each element is copied out of the stream into a reusable buffer and parsed on its own,
+ * so memory is bounded by the largest element. Objects are bound with
+ * {@link org.boon.core.reflection.MapObjectConversion#fromValueMap} just like {@link JsonParser#parseList}.
+ * The stream is closed once the end of the array is reached.
+ */
+public class JsonArrayItemIterator<T> implements Iterator<T>, Closeable {
+
+    private final JsonStreamReader reader;
+    private final JsonItemDecoder<T> decoder;
+
+    private boolean started;
+    private boolean done;
+    private boolean ready;
+
+
+    public JsonArrayItemIterator( JsonStreamReader reader, FieldsAccessor fieldsAccessor, Class<T> componentType ) {
+        this.reader = reader;
+        this.decoder = new JsonItemDecoder<>( fieldsAccessor, componentType );
+    }
+
+
+    @Override
+    public boolean hasNext() {
+
+        if ( ready ) {
+            return true;
+        }
+
+        if ( done ) {
+            return false;
+        }
+
+        if ( !started ) {
+            started = true;
+            if ( reader.nextToken() != JsonToken.START_ARRAY ) {
+                close();
+                throw new JsonException( "expecting the input to be a JSON array but got " + reader.currentToken() );
+            }
+        }
+
+        if ( reader.nextToken() == JsonToken.END_ARRAY ) {
+            close();
+            return false;
+        }
+
+        ready = true;
+        return true;
+    }
+
+
+    @Override
+    public T next() {
+
+        if ( !hasNext() ) {
+            throw new NoSuchElementException();
+        }
+
+        ready = false;
+
+        reader.readRawValue( decoder.buffer() );
+        return decoder.decode();
+    }
+
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException( "remove" );
+    }
+
+
+    @Override
+    public void close() {
+        if ( !done ) {
+            done = true;
+            reader.close();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.boon.json.implementation;
 import org.boon.core.reflection.fields.FieldAccessMode;
 import org.boon.core.reflection.fields.FieldsAccessor;
 import org.boon.json.JsonParser;
+import org.boon.primitive.ByteScanner;
 import org.boon.primitive.CharBuf;
 
 import java.io.InputStream;
@@ -53,27 +54,11 @@ public class JsonAsciiParser extends JsonBaseByteArrayParser implements JsonPars
 
         final int startIndex = index;
 
-
-        boolean escape = false;
-
-        boolean hasEscaped = false;
-
-
-        while ( true ) {
-            currentChar = array[ index ];
-            if ( isDoubleQuote( currentChar ) ) {
-                if ( !escape ) {
-                    break;
-                }
-            }
-            if ( isEscape( currentChar ) ) {
-                hasEscaped = true;
-                escape = true;
-            } else {
-                escape = false;
-            }
-            index++;
-            if ( index >= array.length ) break;
+        /* Jump from backslash to backslash, the char after each one is escaped, until the closing quote. */
+        index = ByteScanner.indexOfQuoteOrBackslash( array, index );
+        final boolean hasEscaped = index < array.length && array[ index ] == ESCAPE;
+        while ( index < array.length && array[ index ] == ESCAPE ) {
+            index = ByteScanner.indexOfQuoteOrBackslash( array, index + 2 );
         }
 
 
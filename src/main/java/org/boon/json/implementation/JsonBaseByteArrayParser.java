@@ -1,5 +1,6 @@
 package org.boon.json.implementation;
 
+import org.boon.Exceptions;
 import org.boon.IO;
 import org.boon.core.Typ;
 import org.boon.core.reflection.MapObjectConversion;
@@ -12,9 +13,12 @@ import org.boon.primitive.CharBuf;
 import org.boon.primitive.CharScanner;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 import static org.boon.Exceptions.die;
@@ -72,7 +76,6 @@ public abstract class JsonBaseByteArrayParser extends BaseJsonParser {
 
     protected static final int LETTER_S = 's';
 
-
     protected final CharBuf builder = CharBuf.create( 20 );
 
     public JsonBaseByteArrayParser( FieldsAccessor fieldsAccessor ) {
@@ -159,15 +162,12 @@ public abstract class JsonBaseByteArrayParser extends BaseJsonParser {
 
 
     private static int  skipWhiteSpaceFastBytes( byte [] array, int index ) {
-        int c;
-        for (; index< array.length; index++ ) {
-            c = array [index];
-            if ( c > 32 ) {
-
-                return index;
-            }
+        /* Most of the time there is no white space at all, or a single space. */
+        if ( index < array.length && array [index] > 32 ) {
+            return index;
         }
-        return index-1;
+        index = ByteScanner.indexOfNonWhiteSpace ( array, index );
+        return index < array.length ? index : array.length - 1;
     }
 
 
@@ -351,16 +351,12 @@ public abstract class JsonBaseByteArrayParser extends BaseJsonParser {
 
 
             if ( __currentChar == DOUBLE_QUOTE ) {
-                String key = decodeKeyName();
+                String key;
 
                 if ( internKeys ) {
-                    String keyPrime = internedKeysCache.get( key );
-                    if ( keyPrime == null ) {
-                        key = key.intern();
-                        internedKeysCache.put( key, key );
-                    } else {
-                        key = keyPrime;
-                    }
+                    key = internedKey();
+                } else {
+                    key = decodeKeyName();
                 }
 
 
@@ -651,6 +647,21 @@ public abstract class JsonBaseByteArrayParser extends BaseJsonParser {
     protected abstract String decodeString();
 
 
+    /* ASCII keys without escapes come straight from the buffer, without a new String once they are cached. */
+    private String internedKey() {
+        final int start = __index + 1;
+        final int end = ByteScanner.indexOfQuoteOrBackslash( charArray, start );
+        if ( end < charArray.length && charArray[ end ] == DOUBLE_QUOTE ) {
+            String key = internedKeysCache.get( charArray, start, end );
+            if ( key != null ) {
+                __index = end + 1;
+                return key;
+            }
+        }
+        return internedKeysCache.intern( decodeKeyName() );
+    }
+
+
     protected final String decodeKeyName() {
         return decodeString();
 
@@ -727,8 +738,36 @@ public abstract class JsonBaseByteArrayParser extends BaseJsonParser {
     }
 
 
+    /**
+     * Reads the raw bytes of the file, no charset decode and no Reader.
+     * The scanners and the values they chop keep indexes into one byte array, so the whole file is read into it.
+     * Files over 2 GB do not fit in an array, use {@link org.boon.json.JsonParserFactory#createStreamReader}
+     * over a {@link java.nio.channels.FileChannel} for those.
+     */
+    protected static byte[] readFile( String fileName ) {
+        Path path = IO.path( fileName );
+
+        try {
+            long size = Files.size( path );
+
+            if ( size > Integer.MAX_VALUE - 8 ) {
+                die( "file " + fileName + " is " + size + " bytes which is too big to parse into memory, stream it instead" );
+            }
+            return Files.readAllBytes( path );
+
+        } catch ( IOException ex ) {
+            return Exceptions.handle( byte[].class, fileName, ex );
+        }
+    }
+
+
     public <T> T parseFile( Class<T> type, String fileName ) {
-        return parse(type, IO.input ( fileName ));
+        return parse( type, readFile( fileName ) );
+    }
+
+    @Override
+    public Object parseFile( String fileName ) {
+        return decode( readFile( fileName ) );
     }
 
 
@@ -0,0 +1,418 @@
+package org.boon.json.implementation;
+
+import org.boon.core.Conversions;
+import org.boon.core.Type;
+import org.boon.core.Value;
+import org.boon.core.reflection.Reflection;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.core.reflection.fields.FieldNameLookup;
+import org.boon.core.reflection.fields.FieldsAccessor;
+import org.boon.primitive.CharBuf;
+import org.boon.primitive.CharScanner;
+
+import java.util.Collection;
+
+/**
+ * Binds JSON objects straight into Java objects.
+ * <p/>
+ * {@link JsonFastParser} in value mode builds a map of index overlays which
+ * {@link org.boon.core.reflection.MapObjectConversion#fromValueMap} then walks to fill in the object.
+ * This parser instead looks up the {@link FieldAccess} for each key while scanning, straight from the buffer
+ * with the class's {@link FieldNameLookup}, and sets the field right away,
+ * primitives through the primitive setters, so the only things allocated are the objects, strings,
+ * and collections that end up in the result.
+ * <p/>
+ * Less common field types (dates, enums, big numbers, maps, arrays) and values that do not match their field
+ * (e.g., a number in quotes) are decoded as a chopped overlay and set with
+ * {@link FieldAccess#setFromValue} or {@link FieldAccess#setValue} just like before.
+ * Keys that match no field are skipped.
+ */
+public class JsonDirectBindingParser extends JsonFastParser {
+
+
+    private final CharBuf builder = CharBuf.create( 20 );
+
+    /* The span of the last number scanned. */
+    private int numberStart;
+    private boolean doubleFloat;
+
+
+    public JsonDirectBindingParser( FieldsAccessor fieldsAccessor ) {
+        super( fieldsAccessor, false, true );
+    }
+
+
+    public <T> T bind( Class<T> type, char[] chars ) {
+
+        charArray = chars;
+        __index = 0;
+        skipWhiteSpace();
+
+        if ( __currentChar != '{' ) {
+            return convert( type, decodeFromChars( chars ) );
+        }
+        return ( T ) bindObject( type );
+    }
+
+
+    private Object bindObject( Class<?> type ) {
+
+        final FieldNameLookup fields = fieldsAccessor.getFieldLookup( type );
+        final Object instance = Reflection.newInstance( type );
+        final char[] array = charArray;
+
+        __index++;
+
+        for (; ; ) {
+            skipWhiteSpace();
+
+            if ( __currentChar == '}' ) {
+                __index++;
+                break;
+            }
+
+            if ( __currentChar != '"' ) {
+                complain( "expecting a key but got current char " + charDescription( __currentChar ) );
+            }
+
+            final int keyStart = __index + 1;
+            FieldAccess field;
+
+            if ( hasEscapeChar( array, keyStart, indexHolder ) ) {
+                int keyEnd = findEndQuote( array, indexHolder[ 0 ] );
+                field = fields.get( builder.decodeJsonString( array, keyStart, keyEnd ).toStringAndRecycle() );
+                __index = keyEnd + 1;
+            } else {
+                int keyEnd = indexHolder[ 0 ];
+                field = fields.find( array, keyStart, keyEnd );
+                __index = keyEnd + 1;
+            }
+
+            skipWhiteSpace();
+            if ( __currentChar != ':' ) {
+                complain( "expecting current character to be ':' but got " + charDescription( __currentChar ) + "\n" );
+            }
+            __index++;
+            skipWhiteSpace();
+
+            if ( field == null ) {
+                skipValue();
+            } else {
+                bindField( instance, field );
+            }
+
+            skipWhiteSpace();
+
+            if ( __currentChar == ',' ) {
+                __index++;
+            } else if ( __currentChar == '}' ) {
+                __index++;
+                break;
+            } else {
+                complain( "expecting '}' or ',' but got current char " + charDescription( __currentChar ) );
+            }
+        }
+        return instance;
+    }
+
+
+    private void bindField( Object instance, FieldAccess field ) {
+
+        final char c = __currentChar;
+        final int start = __index;
+
+        if ( c == 'n' ) {
+            decodeNull();
+            if ( !field.isPrimitive() ) {
+                field.setObject( instance, null );
+            }
+            return;
+        }
+
+        final boolean number = c == '-' || ( c >= '0' && c <= '9' );
+
+        switch ( field.typeEnum() ) {
+
+            case INT:
+                if ( number ) {
+                    field.setInt( instance, ( int ) integerNumber() );
+                    return;
+                }
+                break;
+
+            case LONG:
+                if ( number ) {
+                    field.setLong( instance, integerNumber() );
+                    return;
+                }
+                break;
+
+            case SHORT:
+                if ( number ) {
+                    field.setShort( instance, ( short ) integerNumber() );
+                    return;
+                }
+                break;
+
+            case BYTE:
+                if ( number ) {
+                    field.setByte( instance, ( byte ) integerNumber() );
+                    return;
+                }
+                break;
+
+            case DOUBLE:
+                if ( number ) {
+                    field.setDouble( instance, doubleNumber() );
+                    return;
+                }
+                break;
+
+            case FLOAT:
+                if ( number ) {
+                    field.setFloat( instance, ( float ) doubleNumber() );
+                    return;
+                }
+                break;
+
+            case BOOLEAN:
+                if ( c == 't' || c == 'f' ) {
+                    field.setBoolean( instance, c == 't' ? decodeTrue() : decodeFalse() );
+                    return;
+                }
+                break;
+
+            case BOOLEAN_WRAPPER:
+                if ( c == 't' || c == 'f' ) {
+                    field.setObject( instance, c == 't' ? decodeTrue() : decodeFalse() );
+                    return;
+                }
+                break;
+
+            case STRING:
+            case CHAR_SEQUENCE:
+                if ( c == '"' ) {
+                    field.setObject( instance, readString() );
+                    return;
+                }
+                break;
+
+            case INSTANCE:
+                if ( c == '{' ) {
+                    field.setObject( instance, bindObject( field.getType() ) );
+                    return;
+                }
+                break;
+
+            case LIST:
+            case SET:
+            case COLLECTION:
+                if ( c == '[' && field.getComponentClass() != null ) {
+                    field.setObject( instance, bindCollection( field ) );
+                    return;
+                }
+                break;
+
+            case INTEGER_WRAPPER:
+            case LONG_WRAPPER:
+            case DOUBLE_WRAPPER:
+                if ( number ) {
+                    field.setObject( instance, boxedNumber( field.typeEnum() ) );
+                    return;
+                }
+                break;
+        }
+
+        __index = start;
+
+        Value value = ( Value ) decodeValue();
+        if ( value.isContainer() ) {
+            field.setValue( instance, value.toValue() );
+        } else {
+            field.setFromValue( instance, value );
+        }
+    }
+
+
+    private Collection<Object> bindCollection( FieldAccess field ) {
+
+        final Class<?> componentClass = field.getComponentClass();
+        final Type componentType = Type.getType( componentClass );
+        final Collection<Object> collection = Reflection.createCollection( field.getType(), 16 );
+
+        __index++;
+        skipWhiteSpace();
+
+        if ( __currentChar == ']' ) {
+            __index++;
+            return collection;
+        }
+
+        for (; ; ) {
+            skipWhiteSpace();
+            collection.add( bindItem( componentClass, componentType ) );
+            skipWhiteSpace();
+
+            if ( __currentChar == ',' ) {
+                __index++;
+            } else if ( __currentChar == ']' ) {
+                __index++;
+                break;
+            } else {
+                complain( String.format( "expecting a ',' or a ']', " +
+                        " but got \nthe current character of  %s " +
+                        " on array size of %s \n", charDescription( __currentChar ), collection.size() ) );
+            }
+        }
+        return collection;
+    }
+
+
+    private Object bindItem( Class<?> componentClass, Type componentType ) {
+
+        final char c = __currentChar;
+
+        switch ( componentType ) {
+            case INSTANCE:
+                if ( c == '{' ) {
+                    return bindObject( componentClass );
+                }
+                break;
+
+            case STRING:
+            case CHAR_SEQUENCE:
+                if ( c == '"' ) {
+                    return readString();
+                }
+                break;
+
+            case INTEGER_WRAPPER:
+            case LONG_WRAPPER:
+            case DOUBLE_WRAPPER:
+                if ( c == '-' || ( c >= '0' && c <= '9' ) ) {
+                    return boxedNumber( componentType );
+                }
+                break;
+        }
+
+        Value value = ( Value ) decodeValue();
+        return Conversions.coerce( componentClass, value.toValue() );
+    }
+
+
+    private Object boxedNumber( Type type ) {
+        switch ( type ) {
+            case INTEGER_WRAPPER:
+                return ( int ) integerNumber();
+            case LONG_WRAPPER:
+                return integerNumber();
+            default:
+                return doubleNumber();
+        }
+    }
+
+
+    private String readString() {
+
+        final char[] array = charArray;
+        final int start = __index + 1;
+        String value;
+
+        if ( hasEscapeChar( array, start, indexHolder ) ) {
+            int end = findEndQuote( array, indexHolder[ 0 ] );
+            value = builder.decodeJsonString( array, start, end ).toStringAndRecycle();
+            __index = end + 1;
+        } else {
+            int end = indexHolder[ 0 ];
+            value = new String( array, start, end - start );
+            __index = end + 1;
+        }
+        return value;
+    }
+
+
+    /**
+     * Scans the number at the current index.
+     * Returns true if it is a plain integer that fits in a long.
+     */
+    private boolean scanInteger() {
+        scanNumber();
+        boolean negative = charArray[ numberStart ] == '-';
+        int start = negative ? numberStart + 1 : numberStart;
+        int digits = __index - start;
+        if ( doubleFloat || digits == 0 ) {
+            return false;
+        }
+        return digits <= 18 || CharScanner.isLong( charArray, start, digits, negative );
+    }
+
+
+    private void scanNumber() {
+
+        final char[] array = charArray;
+        int index = __index;
+
+        numberStart = index;
+        doubleFloat = false;
+
+        if ( array[ index ] == '-' ) {
+            index++;
+        }
+
+        for (; index < array.length; index++ ) {
+            char c = array[ index ];
+            if ( isNumberDigit( c ) ) {
+                continue;
+            }
+            if ( c <= 32 || isDelimiter( c ) ) {
+                break;
+            }
+            if ( isDecimalChar( c ) ) {
+                doubleFloat = true;
+            } else {
+                complain( "expecting number char but got current char " + charDescription( c ) );
+            }
+        }
+
+        __index = index;
+    }
+
+
+    private long longFromSpan() {
+
+        final char[] array = charArray;
+        int index = numberStart;
+        boolean negative = array[ index ] == '-';
+
+        if ( negative ) {
+            index++;
+        }
+
+        long value = 0;
+        for (; index < __index; index++ ) {
+            value = value * 10 + ( array[ index ] - '0' );
+        }
+        return negative ? -value : value;
+    }
+
+
+    /**
+     * Integer fields take the whole part of a fraction, whole numbers past what a long holds are an error.
+     * int, short and byte fields narrow the long the way the value map path does.
+     */
+    private long integerNumber() {
+        if ( scanInteger() ) {
+            return longFromSpan();
+        }
+        if ( !doubleFloat && __index - numberStart > 1 ) {
+            complain( "number does not fit in a long " + new String( charArray, numberStart, __index - numberStart ) );
+        }
+        return ( long ) CharScanner.doubleValue( charArray, numberStart, __index );
+    }
+
+
+    private double doubleNumber() {
+        scanNumber();
+        return CharScanner.doubleValue( charArray, numberStart, __index );
+    }
+}
@@ -0,0 +1,83 @@
+package org.boon.json.implementation;
+
+import org.boon.core.Typ;
+import org.boon.core.Value;
+import org.boon.core.reflection.fields.FieldsAccessor;
+import org.boon.json.JsonParser;
+import org.boon.primitive.CharBuf;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses one item at a time out of a reusable buffer.
+ * Used by the streaming readers which hand over each array element or NDJSON record on its own.
+ * Not thread safe, give each thread its own decoder.
+ */
+class JsonItemDecoder<T> {
+
+    private final Class<T> type;
+    private final JsonParser parser;
+
+    /* Bound objects copy what they need, anything else keeps overlays so it gets a fresh buffer. */
+    private final boolean recycleBuffer;
+
+    private final CharBuf buffer = CharBuf.create( 256 );
+
+    /* How far the buffer holds chars of earlier items. */
+    private int used;
+
+
+    JsonItemDecoder( FieldsAccessor fieldsAccessor, Class<T> type ) {
+        this.type = type;
+
+        if ( type == Object.class || type == Map.class ||
+                type == List.class || Typ.isBasicType( type ) ) {
+            this.parser = new JsonFastParser( fieldsAccessor, false, true );
+            this.recycleBuffer = false;
+        } else {
+            this.parser = new JsonFastParser( fieldsAccessor, true );
+            this.recycleBuffer = true;
+        }
+    }
+
+
+    /** Empties and returns the buffer the next item gets copied into. */
+    CharBuf buffer() {
+        buffer.recycle();
+        return buffer;
+    }
+
+
+    T decode( byte[] utf8, int start, int end ) {
+        buffer.recycle();
+        buffer.addAsUTF( utf8, start, end );
+        return decode();
+    }
+
+
+    /** Parses whatever was copied into {@link #buffer()}. */
+    T decode() {
+
+        int length = buffer.length();
+        char[] chars;
+        if ( recycleBuffer ) {
+            chars = buffer.readForRecycle();
+            /* Blanks out what a longer item left past this one, so a cut off item fails rather than reading it. */
+            if ( used > length ) {
+                Arrays.fill( chars, length, used, '\0' );
+            }
+            used = length;
+        } else {
+            /* Value maps point into the chars they were parsed from, so each item gets one copy of its own. */
+            chars = Arrays.copyOf( buffer.readForRecycle(), length );
+        }
+        Object item = parser.parse( type, chars );
+
+        if ( item instanceof Value ) {
+            item = ( ( Value ) item ).toValue();
+        }
+        return ( T ) item;
+    }
+}
@@ -182,17 +182,12 @@ public class JsonParserCharArray extends BaseJsonParser implements JsonParser {
 
             if ( __currentChar == '"' ) {
 
-                String key =
-                        decodeString();
+                String key;
 
                 if ( internKeys ) {
-                    String keyPrime = internedKeysCache.get( key );
-                    if ( keyPrime == null ) {
-                        key = key.intern();
-                        internedKeysCache.put( key, key );
-                    } else {
-                        key = keyPrime;
-                    }
+                    key = internedKey();
+                } else {
+                    key = decodeString();
                 }
 
                 skipWhiteSpace();
@@ -229,6 +224,18 @@ public class JsonParserCharArray extends BaseJsonParser implements JsonParser {
     }
 
 
+    /* Keys without escapes come straight from the buffer, without a new String once they are cached. */
+    private String internedKey() {
+        final int start = __index + 1;
+        if ( hasEscapeChar( charArray, start, indexHolder ) ) {
+            return internedKeysCache.intern( decodeString() );
+        }
+        final int end = indexHolder[ 0 ];
+        __index = end < charArray.length ? end + 1 : end;
+        return internedKeysCache.get( charArray, start, end );
+    }
+
+
     protected final void complain( String complaint ) {
         throw new JsonException( exceptionDetails( complaint ) );
     }
@@ -425,6 +432,69 @@ public class JsonParserCharArray extends BaseJsonParser implements JsonParser {
 
 
 
+    /**
+     * Steps over the value at the current char without decoding it.
+     * Objects and arrays are skipped by counting brackets, jumping over strings whole.
+     */
+    protected final void skipValue() {
+
+        final char[] array = charArray;
+
+        switch ( __currentChar ) {
+            case '"':
+                __index = findEndQuote( array, __index + 1 ) + 1;
+                return;
+            case 't':
+                decodeTrue();
+                return;
+            case 'f':
+                decodeFalse();
+                return;
+            case 'n':
+                decodeNull();
+                return;
+            case '{':
+            case '[':
+                break;
+            default:
+                int index = __index;
+                for (; index < array.length; index++ ) {
+                    char c = array[ index ];
+                    if ( !isNumberDigit( c ) && !isDecimalChar( c ) ) {
+                        break;
+                    }
+                }
+                if ( index == __index ) {
+                    complain( "unable to skip a value that starts with " + charDescription( __currentChar ) );
+                }
+                __index = index;
+                return;
+        }
+
+        int depth = 0;
+        for ( int index = __index; index < array.length; index++ ) {
+            switch ( array[ index ] ) {
+                case '"':
+                    index = findEndQuote( array, index + 1 );
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if ( --depth == 0 ) {
+                        __index = index + 1;
+                        return;
+                    }
+                    break;
+            }
+        }
+        __index = array.length - 1;
+        complain( "unexpected end of input while skipping a value" );
+    }
+
+
     private CharBuf builder = CharBuf.create( 20 );
 
     private String decodeString() {
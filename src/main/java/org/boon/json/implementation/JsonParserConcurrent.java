@@ -1,10 +1,7 @@
 package org.boon.json.implementation;
 
 
-import org.boon.Exceptions;
 import org.boon.core.reflection.fields.FieldAccessMode;
-import org.boon.core.reflection.fields.FieldsAccessor;
-import org.boon.json.JsonException;
 import org.boon.json.JsonParser;
 import org.boon.json.JsonParserFactory;
 
@@ -12,644 +9,487 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-
-import static org.boon.Boon.puts;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A parser that can be shared between threads.
+ * <p/>
+ * Every call leases a parser, which owns its own scratch buffers, from a small lock free pool, runs the parse
+ * on the calling thread and hands the parser back. Each thread starts looking at its own slot so threads
+ * seldom fight over the same parser.
+ * If every parser is out the caller waits up to <code>maxWait</code> for one to come back,
+ * then makes a throw away parser rather than block (a miss).
+ */
 public class JsonParserConcurrent extends BaseJsonParser implements JsonParser {
 
-    private Worker [] workers;
-    private Future [] futures;
-
-    private TransferQueue<Action> workQueue = new LinkedTransferQueue<>();
-    private TransferQueue<Action> actionQueue = new LinkedTransferQueue <>();
+    private static final int SPINS = 32;
+    private static final long PARK_NANOS = 20_000;
 
-    private final ExecutorService pool;
+    private final JsonParserFactory factory;
+    private final AtomicReferenceArray<JsonParser> slots;
+    private final long maxWaitNanos;
 
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
 
-    private static class Worker {
+    private volatile boolean closed;
 
-        JsonParser parser;
-        JsonParserConcurrent parent;
-        AtomicBoolean run = new AtomicBoolean ( true );
 
-        void run () {
-            try {
-                while (run.get ()) {
-                    Action action = parent.workQueue.take ();
-                    workOn ( action );
-                }
-            } catch ( InterruptedException e ) {
-                Thread.interrupted ();
-            }
-        }
+    public JsonParserConcurrent ( JsonParserFactory factory, int poolSize, long maxWait, TimeUnit unit ) {
+        super( FieldAccessMode.create( factory.getFieldAccessType() ) );
 
-        private void workOn ( Action action ) {
-            switch ( action.type ) {
-                case OBJECT:
-                    workOnObject(action);
-                    return;
-                case LIST:
-                    workOnList ( action );
-                    return;
-                case TYPED_OBJECT:
-                    workOnTypedObject ( action );
-                    return;
+        this.factory = factory;
+        this.maxWaitNanos = unit.toNanos( maxWait );
+        this.slots = new AtomicReferenceArray<>( Math.max( poolSize, 1 ) );
 
-            }
+        for ( int index = 0; index < slots.length(); index++ ) {
+            slots.set( index, factory.create() );
         }
+    }
 
-        private void workOnTypedObject ( Action action ) {
-
-            Object object = null;
-            Class<?> componentType = action.finalType;
-
-
-            try {
-                switch ( action.medium ) {
-                    case CHARS:
-                        object = parser.parse ( componentType, ( char[] ) action.payload );
-                        break;
-                    case STRING:
-                        object = parser.parse ( componentType,  ( String ) action.payload );
-                        break;
-                    case INPUT_STREAM:
-                        if ( action.charSet == null ) {
-                            object = parser.parse ( componentType,  ( InputStream ) action.payload );
-                        } else {
-                            object = parser.parse ( componentType,  ( InputStream ) action.payload, action.charSet );
-                        }
-                        break;
-                    case BYTES:
-                        if ( action.charSet == null ) {
-                            object = parser.parse ( componentType,  ( byte[] ) action.payload );
-                        } else {
-                            object = parser.parse ( componentType,  ( byte[] ) action.payload, action.charSet );
-                        }
-                        break;
-                    case READER:
-                        object = parser.parse ( componentType,  ( Reader ) action.payload );
-                        break;
+    public JsonParserConcurrent ( JsonParserFactory factory ) {
+        this( factory, Runtime.getRuntime().availableProcessors(), 0, TimeUnit.NANOSECONDS );
+    }
 
-                }
+    public JsonParserConcurrent (  ) {
+        this( new JsonParserFactory() );
+    }
 
-                if (action.returnQueue.hasWaitingConsumer ()) {
-                    action.returnQueue.transfer ( object );
-                } else {
-                    action.returnQueue.put ( object );
-                }
-            } catch ( Exception ex ) {
 
-                try {
-                    action.returnQueue.put ( ex );
-                } catch ( InterruptedException e ) {
-                    Thread.interrupted ();
-                }
-            }
+    /** Parsers handed out from the pool. */
+    public long getLeaseCount () {
+        return leases.get();
+    }
 
-        }
-        private void workOnList ( Action action ) {
-
-            Class<?> componentType = action.finalType;
-            Object object = null;
-            try {
-                switch ( action.medium ) {
-                    case CHARS:
-                        object = parser.parseList ( componentType, ( char[] ) action.payload );
-                        break;
-                    case STRING:
-                        object = parser.parseList ( componentType, ( String ) action.payload );
-                        break;
-                    case INPUT_STREAM:
-                        if ( action.charSet == null ) {
-                            object = parser.parseList ( componentType, ( InputStream) action.payload );
-                        } else {
-                            object = parser.parseList ( componentType, ( InputStream ) action.payload, action.charSet );
-                        }
-                        break;
-                    case BYTES:
-                        if ( action.charSet == null ) {
-                            object = parser.parseList ( componentType, ( byte[]) action.payload  );
-
-                        } else {
-                            object = parser.parseList ( componentType, ( byte[] ) action.payload, action.charSet );
-                        }
-                        break;
-                    case READER:
-                        object = parser.parseList ( componentType, ( Reader ) action.payload );
-                        break;
+    /** Parsers that had to be made because the pool was empty. */
+    public long getMissCount () {
+        return misses.get();
+    }
 
-                }
+    public int getPoolSize () {
+        return slots.length();
+    }
 
 
-                if (action.returnQueue.hasWaitingConsumer ()) {
-                    action.returnQueue.transfer ( object );
-                } else {
-                    action.returnQueue.put ( object );
-                }
-            } catch ( Exception ex ) {
+    private int home () {
+        return ( int ) ( Thread.currentThread().getId() % slots.length() );
+    }
 
-                try {
-                    action.returnQueue.put ( ex );
-                } catch ( InterruptedException e ) {
-                    Thread.interrupted ();
+    private JsonParser take ( int home ) {
+        final int length = slots.length();
+        for ( int count = 0, index = home; count < length; count++ ) {
+            if ( slots.get( index ) != null ) {
+                JsonParser parser = slots.getAndSet( index, null );
+                if ( parser != null ) {
+                    return parser;
                 }
             }
-
+            if ( ++index == length ) {
+                index = 0;
+            }
         }
+        return null;
+    }
 
-        private void workOnObject ( Action action ) {
-
-            Object object = null;
-
-            try {
-                switch ( action.medium ) {
-                    case CHARS:
-                        object = parser.parse ( ( char[] ) action.payload );
-                        break;
-                    case STRING:
-                        object = parser.parse ( ( String ) action.payload );
-                        break;
-                    case INPUT_STREAM:
-                        if ( action.charSet == null ) {
-                            object = parser.parse ( ( InputStream ) action.payload );
-                        } else {
-                            object = parser.parse ( ( InputStream ) action.payload, action.charSet );
-                        }
-                        break;
-                    case BYTES:
-                        if ( action.charSet == null ) {
-                            object = parser.parse ( ( byte[] ) action.payload );
-                        } else {
-                            object = parser.parse ( ( byte[] ) action.payload, action.charSet );
-                        }
-                        break;
-                    case READER:
-                        object = parser.parse ( ( Reader ) action.payload );
-                        break;
+    private JsonParser lease () {
+        final int home = home();
 
-                }
+        JsonParser parser = take( home );
 
-                if (action.returnQueue.hasWaitingConsumer ()) {
-                    action.returnQueue.transfer ( object );
+        if ( parser == null && maxWaitNanos > 0 ) {
+            final long deadline = System.nanoTime() + maxWaitNanos;
+            for ( int spins = 0; parser == null && System.nanoTime() - deadline < 0; spins++ ) {
+                if ( spins < SPINS ) {
+                    Thread.yield();
                 } else {
-                    action.returnQueue.put ( object );
-                }
-            } catch ( Exception ex ) {
-
-                try {
-                    action.returnQueue.put ( ex );
-                } catch ( InterruptedException e ) {
-                    Thread.interrupted ();
+                    LockSupport.parkNanos( PARK_NANOS );
                 }
+                parser = take( home );
             }
+        }
 
+        if ( parser == null ) {
+            misses.incrementAndGet();
+            return factory.create();
         }
 
+        leases.incrementAndGet();
+        return parser;
     }
 
-
-    public JsonParserConcurrent ( JsonParserFactory factory) {
-        super( FieldAccessMode.create( factory.getFieldAccessType() ) );
-
-        int cores = Runtime.getRuntime().availableProcessors();
-        workers = new Worker[cores];
-        pool = Executors.newFixedThreadPool ( cores );
-        futures = new Future[cores];
-
-        for (int index = 0; index < cores; index++) {
-            final Worker worker = new Worker();
-            worker.parser = factory.createFastParser ();
-            worker.parent = this;
-            final Future<?> future = pool.submit ( new Runnable () {
-                @Override
-                public void run () {
-                    worker.run ();
-                }
-            } );
-            workers[index] = worker;
-            futures [index] = future;
+    /* If every slot is full the parser was a miss and is left for the garbage collector. */
+    private void release ( JsonParser parser ) {
+        if ( closed ) {
+            parser.close();
+            return;
         }
-    }
-
-    public JsonParserConcurrent (  ) {
-        super( FieldAccessMode.create(FieldAccessMode.FIELD) );
-        JsonParserFactory factory = new JsonParserFactory();
-        int cores = Runtime.getRuntime().availableProcessors();
-        workers = new Worker[cores];
-        pool = Executors.newFixedThreadPool ( cores );
-        futures = new Future[cores];
-
-        for (int index = 0; index < cores; index++) {
-            final Worker worker = new Worker();
-            worker.parser = factory.createFastParser ();
-            worker.parent = this;
-            final Future<?> future = pool.submit ( new Runnable () {
-                @Override
-                public void run () {
-                    worker.run ();
-                }
-            } );
-            workers[index] = worker;
-            futures [index] = future;
+        final int length = slots.length();
+        for ( int count = 0, index = home(); count < length; count++ ) {
+            if ( slots.get( index ) == null && slots.compareAndSet( index, null, parser ) ) {
+                return;
+            }
+            if ( ++index == length ) {
+                index = 0;
+            }
         }
     }
 
-    private static class Action {
-        ActionType type;
-        Medium medium;
-        Object payload;
-        Charset charSet;
-        Class<?> finalType;
-
-        TransferQueue<Object> returnQueue = new LinkedTransferQueue<> ();
-    }
-
-    static enum ActionType {
-        OBJECT,
-        TYPED_OBJECT,
-        LIST
-    }
-
-    static enum Medium {
-        BYTES,
-        STRING,
-        CHARS,
-        INPUT_STREAM,
-        READER,
-        FILE_NAME
-    }
-
 
     @Override
     public Object parse ( String jsonString ) {
-
-        Action action = createAction();
-        action.payload = jsonString;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.STRING;
-        addJob(action);
-
-        return getResult(Object.class, action);
-
+        JsonParser parser = lease();
+        try {
+            return parser.parse( jsonString );
+        } finally {
+            release( parser );
+        }
     }
 
-    private <T> T  getResult ( Class<T> clazz, Action action ) {
-        Object object = null;
+    @Override
+    public Object parse ( char[] value ) {
+        JsonParser parser = lease();
         try {
-            object = action.returnQueue.poll ( 60, TimeUnit.SECONDS );
-        } catch ( InterruptedException e ) {
-            Thread.interrupted();
+            return parser.parse( value );
+        } finally {
+            release( parser );
         }
-          
-        if ( object != null ) {
-            action.returnQueue.clear ();
-            action.charSet = null;
-            action.finalType = null;
-            this.actionQueue.offer( action );
+    }
 
+    @Override
+    public Object parse ( byte[] value ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parse( value );
+        } finally {
+            release( parser );
         }
+    }
 
-        if (object instanceof  Exception) {
-            if (object instanceof JsonException ) {
-                throw ((RuntimeException) object);
-            }
-            return Exceptions.handle (clazz, (Exception) object);
-        } else {
-            return (T) object;
+    @Override
+    public Object parse ( byte[] value, Charset charset ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parse( value, charset );
+        } finally {
+            release( parser );
         }
-
-
     }
 
-    private void addJob ( Action action ) {
+    @Override
+    public Object parse ( InputStream value, Charset charset ) {
+        JsonParser parser = lease();
         try {
-
-            if (this.workQueue.hasWaitingConsumer ()) {
-                this.workQueue.transfer ( action );
-            } else {
-                this.workQueue.put ( action );
-            }
-        } catch ( InterruptedException e ) {
-            Thread.interrupted();
+            return parser.parse( value, charset );
+        } finally {
+            release( parser );
         }
     }
 
-    private Action createAction () {
-        Action action = actionQueue.poll ();
-        if (action == null) {
-            action = new Action();
+    @Override
+    public Object parse ( CharSequence value ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parse( value );
+        } finally {
+            release( parser );
         }
-        return action;
     }
 
     @Override
-    public Object parse ( char[] value ) {
-        Action action = createAction();
-        action.payload = value;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.CHARS;
-        addJob(action);
-
-        return getResult(Object.class, action);
+    public Object parse ( InputStream value ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parse( value );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object parse ( byte[] value ) {
-        Action action = createAction();
-        action.payload = value;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.BYTES;
-        action.charSet = null;
-        addJob(action);
-
-        return getResult(Object.class, action);
+    public Object parse ( Reader value ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parse( value );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object parse ( byte[] value, Charset charset ) {
-        Action action = createAction();
-        action.payload = value;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.BYTES;
-        action.charSet = charset;
-        addJob(action);
-        return getResult(Object.class, action);
+    public Object parseDirect ( byte[] value ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parseDirect( value );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object  parse ( InputStream value, Charset charset ) {
-        Action action = createAction();
-        action.payload = value;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.INPUT_STREAM;
-        action.charSet = charset;
-        addJob(action);
-        return getResult(Object.class, action);
+    public List<Object> parsePath ( String path, String jsonString ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parsePath( path, jsonString );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object parse ( CharSequence value ) {
-        Action action = createAction();
-        action.payload = value.toString ();
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.STRING;
-        addJob(action);
-        return getResult(Object.class, action);
+    public List<Object> parsePath ( String path, byte[] bytes ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parsePath( path, bytes );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object  parse ( InputStream value ) {
-        Action action = createAction();
-        action.payload = value;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.INPUT_STREAM;
-        action.charSet = null;
-        addJob(action);
-        return getResult(Object.class, action);
+    public List<Object> parsePath ( String path, char[] chars ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parsePath( path, chars );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object  parse ( Reader value ) {
-        Action action = createAction();
-        action.payload = value;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.READER;
-        addJob(action);
-        return getResult(Object.class, action);
+    public Object parseAsStream ( byte[] value ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parseAsStream( value );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
-    public Object  parseFile ( String file ) {
-        Action action = createAction();
-        action.payload = file;
-        action.type = ActionType.OBJECT;
-        action.medium = Medium.FILE_NAME;
-        addJob(action);
-        return getResult(Object.class, action);
+    public Object parseFile ( String file ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parseFile( file );
+        } finally {
+            release( parser );
+        }
     }
 
+
     @Override
     public <T> List<T> parseList ( Class<T> componentType, String jsonString ) {
-        Action action = createAction();
-        action.payload = jsonString;
-        action.type = ActionType.LIST;
-        action.medium = Medium.STRING;
-        action.finalType = componentType;
-        addJob(action); 
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, jsonString );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseList ( Class<T> componentType, InputStream input ) {
-        Action action = createAction();
-        action.payload = input;
-        action.type = ActionType.LIST;
-        action.medium = Medium.INPUT_STREAM;
-        action.finalType = componentType;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, input );
+        } finally {
+            release( parser );
+        }
+    }
+
+    @Override
+    public <T> List<T> parseList ( Class<T> componentType, Reader reader ) {
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, reader );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseList ( Class<T> componentType, InputStream input, Charset charset ) {
-        Action action = createAction();
-        action.payload = input;
-        action.type = ActionType.LIST;
-        action.medium = Medium.INPUT_STREAM;
-        action.finalType = componentType;
-        action.charSet = charset;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, input, charset );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseList ( Class<T> componentType, byte[] jsonBytes ) {
-        Action action = createAction();
-        action.payload = jsonBytes;
-        action.type = ActionType.LIST;
-        action.medium = Medium.BYTES;
-        action.finalType = componentType;
-        action.charSet = null;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, jsonBytes );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseList ( Class<T> componentType, byte[] jsonBytes, Charset charset ) {
-        Action action = createAction();
-        action.payload = jsonBytes;
-        action.type = ActionType.LIST;
-        action.medium = Medium.BYTES;
-        action.finalType = componentType;
-        action.charSet = charset;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, jsonBytes, charset );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseList ( Class<T> componentType, char[] chars ) {
-        Action action = createAction();
-        action.payload = chars;
-        action.type = ActionType.LIST;
-        action.medium = Medium.CHARS;
-        action.finalType = componentType;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, chars );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseList ( Class<T> componentType, CharSequence jsonSeq ) {
-        Action action = createAction();
-        action.payload = jsonSeq.toString();
-        action.type = ActionType.LIST;
-        action.medium = Medium.STRING;
-        action.finalType = componentType;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseList( componentType, jsonSeq );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> List<T> parseListFromFile ( Class<T> componentType, String fileName ) {
-        Action action = createAction();
-        action.payload = fileName;
-        action.type = ActionType.LIST;
-        action.medium = Medium.FILE_NAME;
-        action.finalType = componentType;
-        addJob(action);
-        List  list  =  getResult(List.class, action);
-        return (List<T>) list;
+        JsonParser parser = lease();
+        try {
+            return parser.parseListFromFile( componentType, fileName );
+        } finally {
+            release( parser );
+        }
     }
 
+
     @Override
     public <T> T parse ( Class<T> type, String jsonString ) {
-        Action action = createAction();
-        action.payload = jsonString;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.STRING;
-        action.finalType = type;
-        addJob(action);
-        return getResult(type, action);
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, jsonString );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, byte[] bytes ) {
-        Action action = createAction();
-        action.payload = bytes;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.BYTES;
-        action.finalType = type;
-        addJob(action);
-        return getResult(type, action);
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, bytes );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, byte[] bytes, Charset charset ) {
-        Action action = createAction();
-        action.payload = bytes;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.BYTES;
-        action.charSet = charset;
-        action.finalType = type;
-        addJob(action);
-        return getResult(type, action);
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, bytes, charset );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, CharSequence charSequence ) {
-        Action action = createAction();
-        action.payload = charSequence.toString ();
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.STRING;
-        action.finalType = type;
-        addJob(action);
-        return getResult(type, action);
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, charSequence );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, char[] chars ) {
-        Action action = createAction();
-        action.payload = chars;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.CHARS;
-        action.finalType = type;
-        addJob(action);
-        return getResult(type, action);
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, chars );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, Reader reader ) {
-        Action action = createAction();
-        action.payload = reader;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.READER;
-        action.finalType = type;
-        addJob(action);
-        return getResult(type, action);
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, reader );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, InputStream input ) {
-        Action action = createAction();
-        action.payload = input;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.INPUT_STREAM;
-        action.finalType = type;
-        addJob(action);
-        return getResult ( type, action );
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, input );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parse ( Class<T> type, InputStream input, Charset charset ) {
-        Action action = createAction();
-        action.payload = input;
-        action.type = ActionType.TYPED_OBJECT;
-        action.medium = Medium.INPUT_STREAM;
-        action.finalType = type;
-        action.charSet = charset;
-        addJob(action);
-        return getResult ( type, action );
+        JsonParser parser = lease();
+        try {
+            return parser.parse( type, input, charset );
+        } finally {
+            release( parser );
+        }
     }
-    
-
-
 
     @Override
     public <T> T parseDirect ( Class<T> type, byte[] value ) {
-        return parse (type, value);
+        JsonParser parser = lease();
+        try {
+            return parser.parseDirect( type, value );
+        } finally {
+            release( parser );
+        }
     }
 
     @Override
     public <T> T parseAsStream ( Class<T> type, byte[] value ) {
-        return parse ( type, value );
+        JsonParser parser = lease();
+        try {
+            return parser.parseAsStream( type, value );
+        } finally {
+            release( parser );
+        }
     }
 
-
     @Override
-    public void close () {
-        this.workQueue.clear ();
-
+    public <T> T parseFile ( Class<T> type, String fileName ) {
+        JsonParser parser = lease();
         try {
-            for (int index = 0; index < workers.length; index++) {
-                workers[index].run.set ( false );
-            }
-            for (int index = 0; index < futures.length; index++) {
-                futures[index].cancel ( true );
-            }
-        } catch (Exception ex) {
-                ex.printStackTrace ();
+            return parser.parseFile( type, fileName );
         } finally {
-            this.pool.shutdown ();
+            release( parser );
         }
+    }
 
+
+    /** Closes the parsers sitting in the pool, ones still leased out are closed when they come back. */
+    @Override
+    public void close () {
+        closed = true;
+        for ( int index = 0; index < slots.length(); index++ ) {
+            JsonParser parser = slots.getAndSet( index, null );
+            if ( parser != null ) {
+                parser.close();
+            }
+        }
     }
 }
@@ -0,0 +1,169 @@
+package org.boon.json.implementation;
+
+import org.boon.core.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.boon.Exceptions.die;
+
+/**
+ * A compiled path like <code>a.b[3].c</code> into a JSON document.
+ * <p/>
+ * Steps are keys, array indexes, or <code>*</code> / <code>[*]</code> for every key of an object or every
+ * item of an array. A leading <code>$</code> is allowed and means the root.
+ * Paths are compiled once and cached, up to a thousand of them.
+ */
+public final class JsonPath {
+
+    /** Matches every key or item. */
+    static final Object WILDCARD = new Object();
+
+    private static final int MAX_CACHED = 1_000;
+
+    private static final Map<String, JsonPath> paths = new ConcurrentHashMap<>();
+
+    /* Each step is a char[] key, an Integer index or WILDCARD. */
+    final Object[] steps;
+
+    /* Without wildcards a path matches at most one value and scanning can stop there. */
+    final boolean single;
+
+    private final String path;
+
+
+    private JsonPath( String path, Object[] steps, boolean single ) {
+        this.path = path;
+        this.steps = steps;
+        this.single = single;
+    }
+
+
+    public static JsonPath compile( String path ) {
+        JsonPath compiled = paths.get( path );
+        if ( compiled == null ) {
+            compiled = parse( path );
+            if ( paths.size() < MAX_CACHED ) {
+                paths.put( path, compiled );
+            }
+        }
+        return compiled;
+    }
+
+
+    private static JsonPath parse( String path ) {
+
+        List<Object> steps = new ArrayList<>();
+        boolean single = true;
+
+        final int length = path.length();
+        int index = 0;
+
+        if ( index < length && path.charAt( index ) == '$' ) {
+            index++;
+        }
+
+        while ( index < length ) {
+            char c = path.charAt( index );
+
+            if ( c == '.' ) {
+                index++;
+                continue;
+            }
+
+            if ( c == '[' ) {
+                int end = path.indexOf( ']', index );
+                if ( end == -1 ) {
+                    die( "path " + path + " has a [ with no ]" );
+                }
+                String inside = path.substring( index + 1, end ).trim();
+                if ( inside.equals( "*" ) ) {
+                    steps.add( WILDCARD );
+                    single = false;
+                } else {
+                    try {
+                        steps.add( Integer.parseInt( inside ) );
+                    } catch ( NumberFormatException ex ) {
+                        die( "path " + path + " has an index that is not a number: " + inside );
+                    }
+                }
+                index = end + 1;
+                continue;
+            }
+
+            int end = index;
+            while ( end < length && path.charAt( end ) != '.' && path.charAt( end ) != '[' ) {
+                end++;
+            }
+            String key = path.substring( index, end );
+            if ( key.equals( "*" ) ) {
+                steps.add( WILDCARD );
+                single = false;
+            } else {
+                steps.add( key.toCharArray() );
+            }
+            index = end;
+        }
+
+        return new JsonPath( path, steps.toArray(), single );
+    }
+
+
+    /**
+     * Selects from an already parsed document, for parsers that do not scan for paths themselves.
+     */
+    public List<Object> select( Object root ) {
+        List<Object> results = new ArrayList<>();
+        select( root, 0, results );
+        return results;
+    }
+
+
+    private void select( Object node, int step, List<Object> results ) {
+
+        if ( node instanceof Value && ( ( Value ) node ).isContainer() ) {
+            node = ( ( Value ) node ).toValue();
+        }
+
+        if ( step == steps.length ) {
+            results.add( node instanceof Value ? ( ( Value ) node ).toValue() : node );
+            return;
+        }
+
+        final Object current = steps[ step ];
+
+        if ( node instanceof Map ) {
+            Map<?, ?> map = ( Map<?, ?> ) node;
+            if ( current == WILDCARD ) {
+                for ( Object value : map.values() ) {
+                    select( value, step + 1, results );
+                }
+            } else if ( current instanceof char[] ) {
+                String key = new String( ( char[] ) current );
+                if ( map.containsKey( key ) ) {
+                    select( map.get( key ), step + 1, results );
+                }
+            }
+        } else if ( node instanceof List ) {
+            List<?> list = ( List<?> ) node;
+            if ( current == WILDCARD ) {
+                for ( Object value : list ) {
+                    select( value, step + 1, results );
+                }
+            } else if ( current instanceof Integer ) {
+                int index = ( Integer ) current;
+                if ( index >= 0 && index < list.size() ) {
+                    select( list.get( index ), step + 1, results );
+                }
+            }
+        }
+    }
+
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,206 @@
+package org.boon.json.implementation;
+
+import org.boon.core.reflection.FastStringUtils;
+import org.boon.core.reflection.fields.FieldsAccessor;
+import org.boon.primitive.CharBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link JsonFastParser} that answers {@link #parsePath} by scanning the buffer, decoding only the values
+ * on the path and skipping everything else with {@link #skipValue()}, which just matches brackets and quotes.
+ * <p/>
+ * Keys are compared with the path in place. A path with no wildcards matches at most one value,
+ * so the scan stops as soon as it is found, which makes peeking at the envelope fields of a large document cheap.
+ */
+public class JsonPathParser extends JsonFastParser {
+
+    private final CharBuf builder = CharBuf.create( 20 );
+
+    private JsonPath path;
+    private List<Object> results;
+    private boolean done;
+
+
+    public JsonPathParser( FieldsAccessor fieldsAccessor, boolean chop, boolean lazyChop ) {
+        super( fieldsAccessor, false, chop, lazyChop );
+    }
+
+
+    @Override
+    public List<Object> parsePath( String path, String jsonString ) {
+        return parsePath( path, FastStringUtils.toCharArray( jsonString ) );
+    }
+
+
+    @Override
+    public List<Object> parsePath( String path, byte[] bytes ) {
+        /* Not a recycled buffer, lazy values in the results keep pointing at it. */
+        return parsePath( path, FastStringUtils.toCharArrayFromBytes( bytes, charset ) );
+    }
+
+
+    @Override
+    public List<Object> parsePath( String path, char[] chars ) {
+
+        this.path = JsonPath.compile( path );
+        this.results = new ArrayList<>();
+        this.done = false;
+
+        charArray = chars;
+        __index = 0;
+
+        try {
+            select( 0 );
+            return results;
+        } finally {
+            this.results = null;
+            charArray = null;
+        }
+    }
+
+
+    private void select( int step ) {
+
+        skipWhiteSpace();
+
+        if ( step == path.steps.length ) {
+            results.add( decodeValue().toValue() );
+            done = path.single;
+            return;
+        }
+
+        final Object current = path.steps[ step ];
+
+        switch ( __currentChar ) {
+            case '{':
+                if ( current instanceof char[] || current == JsonPath.WILDCARD ) {
+                    selectInObject( step, current );
+                    return;
+                }
+                break;
+            case '[':
+                if ( current instanceof Integer || current == JsonPath.WILDCARD ) {
+                    selectInArray( step, current );
+                    return;
+                }
+                break;
+        }
+        skipValue();
+    }
+
+
+    private void selectInObject( int step, Object current ) {
+
+        final char[] array = charArray;
+        final boolean wildcard = current == JsonPath.WILDCARD;
+
+        __index++;
+
+        for (; ; ) {
+            skipWhiteSpace();
+
+            if ( __currentChar == '}' ) {
+                __index++;
+                return;
+            }
+
+            if ( __currentChar != '"' ) {
+                complain( "expecting a key but got current char " + charDescription( __currentChar ) );
+            }
+
+            final int keyStart = __index + 1;
+            final boolean match;
+
+            if ( hasEscapeChar( array, keyStart, indexHolder ) ) {
+                int keyEnd = findEndQuote( array, indexHolder[ 0 ] );
+                match = wildcard || new String( ( char[] ) current ).equals(
+                        builder.decodeJsonString( array, keyStart, keyEnd ).toStringAndRecycle() );
+                __index = keyEnd + 1;
+            } else {
+                int keyEnd = indexHolder[ 0 ];
+                match = wildcard || sameKey( array, keyStart, keyEnd, ( char[] ) current );
+                __index = keyEnd + 1;
+            }
+
+            skipWhiteSpace();
+            if ( __currentChar != ':' ) {
+                complain( "expecting current character to be ':' but got " + charDescription( __currentChar ) + "\n" );
+            }
+            __index++;
+            skipWhiteSpace();
+
+            if ( match ) {
+                select( step + 1 );
+                if ( done ) {
+                    return;
+                }
+            } else {
+                skipValue();
+            }
+
+            skipWhiteSpace();
+
+            if ( __currentChar == ',' ) {
+                __index++;
+            } else if ( __currentChar == '}' ) {
+                __index++;
+                return;
+            } else {
+                complain( "expecting '}' or ',' but got current char " + charDescription( __currentChar ) );
+            }
+        }
+    }
+
+
+    private void selectInArray( int step, Object current ) {
+
+        final boolean wildcard = current == JsonPath.WILDCARD;
+        final int wanted = wildcard ? -1 : ( Integer ) current;
+
+        __index++;
+
+        for ( int item = 0; ; item++ ) {
+            skipWhiteSpace();
+
+            if ( __currentChar == ']' ) {
+                __index++;
+                return;
+            }
+
+            if ( wildcard || item == wanted ) {
+                select( step + 1 );
+                if ( done ) {
+                    return;
+                }
+            } else {
+                skipValue();
+            }
+
+            skipWhiteSpace();
+
+            if ( __currentChar == ',' ) {
+                __index++;
+            } else if ( __currentChar == ']' ) {
+                __index++;
+                return;
+            } else {
+                complain( "expecting ']' or ',' but got current char " + charDescription( __currentChar ) );
+            }
+        }
+    }
+
+
+    private static boolean sameKey( char[] array, int start, int end, char[] key ) {
+        if ( end - start != key.length ) {
+            return false;
+        }
+        for ( int index = 0; index < key.length; index++ ) {
+            if ( array[ start + index ] != key[ index ] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -3,6 +3,7 @@ package org.boon.json.implementation;
 import org.boon.core.reflection.fields.FieldAccessMode;
 import org.boon.core.reflection.fields.FieldsAccessor;
 import org.boon.json.JsonParser;
+import org.boon.primitive.ByteScanner;
 import org.boon.primitive.CharBuf;
 import sun.nio.cs.Surrogate;
 
@@ -29,23 +30,6 @@ public class JsonUTF8Parser extends JsonBaseByteArrayParser implements JsonParse
     }
 
 
-    private static int skipChar( final int c, int index ) {
-
-
-        if ( ( c >> 5 ) == -2 ) {
-            index++;
-        } else if ( ( c >> 4 ) == -2 ) {
-            index+=2;
-        } else if ( ( c >> 3 ) == -2 ) {
-            index+=3;
-        }
-
-        return index;
-    }
-
-
-
-
 
     protected final String decodeString() {
 
@@ -59,33 +43,11 @@ public class JsonUTF8Parser extends JsonBaseByteArrayParser implements JsonParse
 
         final int startIndex = index;
 
-
-        boolean escape = false;
-
-        boolean hasEscaped = false;
-
-
-        while ( true ) {
-                currentChar = array[index];
-                if (currentChar>=0)  {
-                    if ( isDoubleQuote ( currentChar )) {
-                        if (!escape) {
-                            break;
-                        }
-                    }  if ( isEscape (currentChar) ) {
-                        hasEscaped = true;
-                        escape = true;
-                    } else {
-                        escape = false;
-                    }
-                    index++;
-                    if (index >= array.length) break;
-                } else {
-                    index = skipChar(currentChar, index);
-                    index++;
-                    if (index >= array.length) break;
-
-                }
+        /* Jump from backslash to backslash, the char after each one is escaped, until the closing quote. */
+        index = ByteScanner.indexOfQuoteOrBackslash ( array, index );
+        final boolean hasEscaped = index < array.length && array[ index ] == ESCAPE;
+        while ( index < array.length && array[ index ] == ESCAPE ) {
+            index = ByteScanner.indexOfQuoteOrBackslash ( array, index + 2 );
         }
 
 
@@ -0,0 +1,671 @@
+package org.boon.json.implementation;
+
+import org.boon.Exceptions;
+import org.boon.json.JsonException;
+import org.boon.json.JsonStreamReader;
+import org.boon.json.JsonToken;
+import org.boon.primitive.Byt;
+import org.boon.primitive.ByteScanner;
+import org.boon.primitive.CharBuf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull parser that reads UTF-8 JSON from an InputStream or a ReadableByteChannel.
+ * <p/>
+ * The input is read into a fixed size byte buffer which is compacted and refilled as tokens are consumed.
+ * The buffer only grows if a single string or number is larger than the buffer, so heap use is flat
+ * no matter how big the document is. Strings are decoded with the same {@link CharBuf#decodeJsonString}
+ * the byte array parsers use and numbers with {@link ByteScanner}.
+ */
+public class JsonUTF8StreamReader implements JsonStreamReader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+
+    private static final int DOUBLE_QUOTE = '"';
+    private static final int ESCAPE = '\\';
+
+    private static final byte[] TRUE = Byt.bytes( "true" );
+    private static final byte[] FALSE = Byt.bytes( "false" );
+    private static final byte[] NULL = Byt.bytes( "null" );
+
+    private final InputStream inputStream;
+    private final ReadableByteChannel channel;
+    private ByteBuffer channelBuffer;
+
+    protected byte[] buffer;
+    protected int index;
+    protected int limit;
+    private boolean eof;
+
+    /* Start of the current token (including its quote or bracket), kept across refills. -1 if nothing is pinned. */
+    private int tokenStart = -1;
+
+    /* Bytes dropped from the front of the buffer so far, used for error reporting. */
+    private long consumed;
+
+    protected int valueStart;
+    protected int valueEnd;
+    private boolean escaped;
+    private boolean doubleFloat;
+    private boolean negative;
+
+    private JsonToken token;
+
+    private int[] stack = new int[ 16 ];
+    private int depth;
+
+    private final CharBuf builder = CharBuf.create( 20 );
+
+
+    public JsonUTF8StreamReader( InputStream inputStream ) {
+        this( inputStream, DEFAULT_BUFFER_SIZE );
+    }
+
+    public JsonUTF8StreamReader( InputStream inputStream, int bufferSize ) {
+        this.inputStream = inputStream;
+        this.channel = null;
+        this.buffer = new byte[ bufferSize ];
+    }
+
+    public JsonUTF8StreamReader( ReadableByteChannel channel ) {
+        this( channel, DEFAULT_BUFFER_SIZE );
+    }
+
+    public JsonUTF8StreamReader( ReadableByteChannel channel, int bufferSize ) {
+        this.inputStream = null;
+        this.channel = channel;
+        this.buffer = new byte[ bufferSize ];
+    }
+
+
+    @Override
+    public final JsonToken nextToken() {
+
+        tokenStart = -1;
+
+        int c = skipWhiteSpace();
+
+        if ( depth == 0 ) {
+            if ( c == -1 ) {
+                return token = null;
+            }
+            return token = readValueToken( c );
+        }
+
+        if ( stack[ depth - 1 ] == OBJECT ) {
+
+            if ( token == JsonToken.FIELD_NAME ) {
+                return token = readValueToken( c );
+            }
+
+            if ( c == '}' ) {
+                index++;
+                depth--;
+                return token = JsonToken.END_OBJECT;
+            }
+
+            if ( token != JsonToken.START_OBJECT ) {
+                if ( c != ',' ) {
+                    complain( "expecting '}' or ',' but got " + charDescription( c ) );
+                }
+                index++;
+                c = skipWhiteSpace();
+            }
+
+            if ( c != DOUBLE_QUOTE ) {
+                complain( "expecting a field name but got " + charDescription( c ) );
+            }
+
+            scanString();
+
+            c = skipWhiteSpace();
+            if ( c != ':' ) {
+                complain( "expecting ':' but got " + charDescription( c ) );
+            }
+            index++;
+
+            return token = JsonToken.FIELD_NAME;
+
+        } else {
+
+            if ( c == ']' ) {
+                index++;
+                depth--;
+                return token = JsonToken.END_ARRAY;
+            }
+
+            if ( token != JsonToken.START_ARRAY ) {
+                if ( c != ',' ) {
+                    complain( "expecting ']' or ',' but got " + charDescription( c ) );
+                }
+                index++;
+                c = skipWhiteSpace();
+            }
+
+            return token = readValueToken( c );
+        }
+    }
+
+
+    @Override
+    public final JsonToken currentToken() {
+        return token;
+    }
+
+
+    @Override
+    public String readFieldName() {
+        JsonToken next = nextToken();
+        if ( next == JsonToken.FIELD_NAME ) {
+            return stringValue();
+        } else if ( next == JsonToken.END_OBJECT ) {
+            return null;
+        }
+        complain( "expecting a field name but got " + next );
+        return null;
+    }
+
+
+    @Override
+    public void skipValue() {
+
+        if ( token == JsonToken.FIELD_NAME ) {
+            nextToken();
+        }
+
+        if ( token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY ) {
+            skipContainer( false );
+        }
+    }
+
+
+    @Override
+    public void readRawValue( CharBuf out ) {
+
+        if ( token == JsonToken.FIELD_NAME ) {
+            nextToken();
+        }
+
+        if ( token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY ) {
+            skipContainer( true );
+        } else if ( token == null || !token.isScalar() ) {
+            complain( "current token " + token + " is not the start of a value" );
+        }
+
+        out.addAsUTF( buffer, tokenStart, index );
+    }
+
+
+    @Override
+    public final int depth() {
+        return depth;
+    }
+
+
+    @Override
+    public String stringValue() {
+
+        if ( token == null ) {
+            return null;
+        }
+
+        switch ( token ) {
+            case STRING:
+            case FIELD_NAME:
+                if ( escaped ) {
+                    return builder.decodeJsonString( buffer, valueStart, valueEnd ).toStringAndRecycle();
+                } else {
+                    return new String( buffer, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8 );
+                }
+            case NUMBER:
+                return new String( buffer, valueStart, valueEnd - valueStart, StandardCharsets.US_ASCII );
+            case TRUE:
+                return "true";
+            case FALSE:
+                return "false";
+            case NULL:
+                return null;
+        }
+
+        complain( "current token " + token + " has no string value" );
+        return null;
+    }
+
+
+    @Override
+    public Number numberValue() {
+
+        expectNumber();
+
+        if ( doubleFloat ) {
+            return doubleValue();
+        }
+
+        int start = negative ? valueStart + 1 : valueStart;
+        int length = valueEnd - start;
+
+        if ( ByteScanner.isInteger( buffer, start, length, negative ) ) {
+            return intValue();
+        } else if ( ByteScanner.isLong( buffer, start, length, negative ) ) {
+            return longValue();
+        } else {
+            return new BigInteger( stringValue() );
+        }
+    }
+
+
+    @Override
+    public int intValue() {
+
+        expectNumber();
+
+        int start = negative ? valueStart + 1 : valueStart;
+        int length = valueEnd - start;
+
+        if ( !doubleFloat && ByteScanner.isInteger( buffer, start, length, negative ) ) {
+            int value = ByteScanner.parseInt( buffer, start, length );
+            return negative ? -value : value;
+        }
+        return ( int ) doubleValue();
+    }
+
+
+    @Override
+    public long longValue() {
+
+        expectNumber();
+
+        int start = negative ? valueStart + 1 : valueStart;
+        int length = valueEnd - start;
+
+        if ( !doubleFloat && ByteScanner.isLong( buffer, start, length, negative ) ) {
+            if ( length > 18 ) {
+                /* ByteScanner.parseLong handles at most 18 digits. */
+                return Long.parseLong( stringValue() );
+            }
+            long value = length < 10 ? ByteScanner.parseInt( buffer, start, length )
+                    : ByteScanner.parseLong( buffer, start, length );
+            return negative ? -value : value;
+        }
+        return ( long ) doubleValue();
+    }
+
+
+    @Override
+    public double doubleValue() {
+
+        expectNumber();
+
+        if ( valueEnd - valueStart < 17 ) {
+            return ByteScanner.doubleValue( buffer, valueStart, valueEnd );
+        } else {
+            return Double.parseDouble( stringValue() );
+        }
+    }
+
+
+    @Override
+    public boolean booleanValue() {
+        if ( token == JsonToken.TRUE ) {
+            return true;
+        } else if ( token == JsonToken.FALSE ) {
+            return false;
+        }
+        complain( "current token " + token + " is not a boolean" );
+        return false;
+    }
+
+
+    @Override
+    public void close() {
+        try {
+            if ( inputStream != null ) {
+                inputStream.close();
+            } else {
+                channel.close();
+            }
+        } catch ( IOException ex ) {
+            Exceptions.handle( "unable to close json stream", ex );
+        }
+    }
+
+
+    private void expectNumber() {
+        if ( token != JsonToken.NUMBER ) {
+            complain( "current token " + token + " is not a number" );
+        }
+    }
+
+
+    private JsonToken readValueToken( int c ) {
+
+        switch ( c ) {
+
+            case '{':
+                tokenStart = index++;
+                push( OBJECT );
+                return JsonToken.START_OBJECT;
+
+            case '[':
+                tokenStart = index++;
+                push( ARRAY );
+                return JsonToken.START_ARRAY;
+
+            case DOUBLE_QUOTE:
+                scanString();
+                return JsonToken.STRING;
+
+            case 't':
+                scanLiteral( TRUE );
+                return JsonToken.TRUE;
+
+            case 'f':
+                scanLiteral( FALSE );
+                return JsonToken.FALSE;
+
+            case 'n':
+                scanLiteral( NULL );
+                return JsonToken.NULL;
+
+            case '-':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                scanNumber();
+                return JsonToken.NUMBER;
+
+            case -1:
+                complain( "unexpected end of input" );
+                return null;
+
+            default:
+                complain( "Unable to determine the current character, it is not a string, number, array, or object "
+                        + charDescription( c ) );
+                return null;
+        }
+    }
+
+
+    private void push( int container ) {
+        if ( depth == stack.length ) {
+            int[] newStack = new int[ stack.length * 2 ];
+            System.arraycopy( stack, 0, newStack, 0, stack.length );
+            stack = newStack;
+        }
+        stack[ depth++ ] = container;
+    }
+
+
+    private int skipWhiteSpace() {
+        int c;
+        for (; ; ) {
+            if ( index >= limit && !fill() ) {
+                return -1;
+            }
+            c = buffer[ index ] & 0xff;
+            if ( c > 32 ) {
+                return c;
+            }
+            index++;
+        }
+    }
+
+
+    /**
+     * Scans a string starting at the open quote, leaves the span between the quotes in valueStart/valueEnd.
+     */
+    private void scanString() {
+
+        tokenStart = index++;
+
+        boolean escape = false;
+        boolean hasEscape = false;
+        int c;
+
+        for (; ; ) {
+            if ( index >= limit && !fill() ) {
+                complain( "unterminated string" );
+            }
+            c = buffer[ index ];
+            if ( c == DOUBLE_QUOTE && !escape ) {
+                break;
+            }
+            if ( c == ESCAPE ) {
+                hasEscape = true;
+                escape = !escape;
+            } else {
+                escape = false;
+            }
+            index++;
+        }
+
+        valueStart = tokenStart + 1;
+        valueEnd = index;
+        escaped = hasEscape;
+        index++;
+    }
+
+
+    private void scanNumber() {
+
+        tokenStart = index;
+
+        boolean minus = false;
+        boolean decimal = false;
+        int c;
+
+        for (; ; ) {
+            if ( index >= limit && !fill() ) {
+                break;
+            }
+            c = buffer[ index ];
+            if ( c >= '0' && c <= '9' ) {
+                //noop
+            } else if ( c == '.' || c == 'e' || c == 'E' || c == '+' ) {
+                decimal = true;
+            } else if ( c == '-' ) {
+                if ( index == tokenStart ) {
+                    minus = true;
+                } else {
+                    decimal = true;
+                }
+            } else {
+                break;
+            }
+            index++;
+        }
+
+        valueStart = tokenStart;
+        valueEnd = index;
+        negative = minus;
+        doubleFloat = decimal;
+
+        if ( valueEnd - valueStart == ( minus ? 1 : 0 ) ) {
+            complain( "expecting a number" );
+        }
+    }
+
+
+    private void scanLiteral( byte[] literal ) {
+
+        tokenStart = index;
+        while ( limit - index < literal.length ) {
+            if ( !fill() ) {
+                complain( "unexpected end of input, expecting " + new String( literal, StandardCharsets.US_ASCII ) );
+            }
+        }
+
+        for ( int i = 0; i < literal.length; i++ ) {
+            if ( buffer[ index + i ] != literal[ i ] ) {
+                complain( new String( literal, StandardCharsets.US_ASCII ) + " not parsed properly" );
+            }
+        }
+        index += literal.length;
+    }
+
+
+    /**
+     * Skips to the end of the object or array that was just started without decoding anything.
+     * Only quotes, escapes and brackets are looked at.
+     *
+     * @param keep keep the whole container in the buffer so it can be copied out afterwards.
+     */
+    private void skipContainer( boolean keep ) {
+
+        if ( !keep ) {
+            tokenStart = -1;
+        }
+
+        int nesting = 1;
+        int c = 0;
+
+        while ( nesting > 0 ) {
+            if ( index >= limit && !fill() ) {
+                complain( "unexpected end of input" );
+            }
+            c = buffer[ index++ ];
+            switch ( c ) {
+                case DOUBLE_QUOTE:
+                    skipString();
+                    break;
+                case '{':
+                case '[':
+                    nesting++;
+                    break;
+                case '}':
+                case ']':
+                    nesting--;
+                    break;
+            }
+        }
+
+        boolean object = stack[ depth - 1 ] == OBJECT;
+        if ( object != ( c == '}' ) ) {
+            complain( "mismatched " + charDescription( c ) );
+        }
+
+        depth--;
+        token = object ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+
+
+    private void skipString() {
+        boolean escape = false;
+        int c;
+
+        for (; ; ) {
+            if ( index >= limit && !fill() ) {
+                complain( "unterminated string" );
+            }
+            c = buffer[ index++ ];
+            if ( c == DOUBLE_QUOTE && !escape ) {
+                return;
+            }
+            escape = c == ESCAPE && !escape;
+        }
+    }
+
+
+    /**
+     * Drops consumed bytes from the front of the buffer and reads more.
+     * Anything from tokenStart on is kept so the token being scanned stays contiguous.
+     *
+     * @return false if there was nothing left to read.
+     */
+    private boolean fill() {
+
+        if ( eof ) {
+            return false;
+        }
+
+        int keep = tokenStart >= 0 ? tokenStart : index;
+
+        if ( keep > 0 ) {
+            int remaining = limit - keep;
+            System.arraycopy( buffer, keep, buffer, 0, remaining );
+            consumed += keep;
+            index -= keep;
+            limit = remaining;
+            if ( tokenStart >= 0 ) {
+                tokenStart -= keep;
+                valueStart -= keep;
+                valueEnd -= keep;
+            }
+        } else if ( limit == buffer.length ) {
+            buffer = Byt.grow( buffer );
+            channelBuffer = null;
+        }
+
+        int read;
+        do {
+            read = read( buffer, limit, buffer.length - limit );
+        } while ( read == 0 );
+
+        if ( read == -1 ) {
+            eof = true;
+            return false;
+        }
+
+        limit += read;
+        return true;
+    }
+
+
+    private int read( byte[] bytes, int offset, int length ) {
+        try {
+            if ( inputStream != null ) {
+                return inputStream.read( bytes, offset, length );
+            }
+
+            if ( channelBuffer == null ) {
+                channelBuffer = ByteBuffer.wrap( bytes );
+            }
+            channelBuffer.limit( offset + length );
+            channelBuffer.position( offset );
+            return channel.read( channelBuffer );
+
+        } catch ( IOException ex ) {
+            return Exceptions.handle( int.class, "unable to read json stream", ex );
+        }
+    }
+
+
+    protected String charDescription( int c ) {
+        String charString;
+        if ( c == -1 ) {
+            charString = "[END OF INPUT]";
+        } else if ( c == ' ' ) {
+            charString = "[SPACE]";
+        } else if ( c == '\t' ) {
+            charString = "[TAB]";
+        } else if ( c == '\n' ) {
+            charString = "[NEWLINE]";
+        } else {
+            charString = "'" + ( char ) c + "'";
+        }
+
+        return charString + " with an int value of " + c;
+    }
+
+
+    protected void complain( String complaint ) {
+        throw new JsonException( complaint + " at byte offset " + ( consumed + index ) );
+    }
+
+}
@@ -0,0 +1,361 @@
+package org.boon.json.implementation;
+
+import org.boon.Exceptions;
+import org.boon.IO;
+import org.boon.core.reflection.fields.FieldsAccessor;
+import org.boon.json.EachItem;
+import org.boon.primitive.Byt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Reads newline delimited JSON (one JSON value per line, a.k.a. NDJSON or JSON lines).
+ * <p/>
+ * Records are split on <code>'\n'</code> right in the byte buffer, no <code>String</code> is made per line,
+ * and blank lines are skipped. Each record is decoded into a reusable buffer and parsed with a
+ * {@link JsonFastParser}.
+ * <p/>
+ * When created with a pool, records are copied into blocks of about {@link #BATCH_SIZE} bytes and the blocks are
+ * decoded on the pool, each worker thread using its own parser.
+ * The callback always runs on the calling thread, either in record order or as soon as a block is done.
+ */
+public class NdJsonParser {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Roughly how many bytes of records go into one parallel task. */
+    public static final int BATCH_SIZE = 64 * 1024;
+
+    private final FieldsAccessor fieldsAccessor;
+    private final int bufferSize;
+    private final ForkJoinPool pool;
+    private final boolean ordered;
+
+
+    public NdJsonParser( FieldsAccessor fieldsAccessor, int bufferSize ) {
+        this( fieldsAccessor, bufferSize, null, true );
+    }
+
+    /**
+     * @param pool    decodes blocks of records in parallel, null decodes on the calling thread
+     * @param ordered hand records to the callback in the order they were read,
+     *                otherwise hand them over as soon as their block is parsed
+     */
+    public NdJsonParser( FieldsAccessor fieldsAccessor, int bufferSize, ForkJoinPool pool, boolean ordered ) {
+        this.fieldsAccessor = fieldsAccessor;
+        this.bufferSize = bufferSize;
+        this.pool = pool;
+        this.ordered = ordered;
+    }
+
+
+    /**
+     * Calls <code>eachItem</code> with every record and its line index (blank lines not counted).
+     * Stops reading when the callback returns false. The stream is always closed.
+     */
+    public <T> void parseEach( Class<T> type, InputStream input, EachItem<T> eachItem ) {
+        try {
+            if ( pool == null ) {
+                parseSequential( type, new RecordSplitter( input, bufferSize ), eachItem );
+            } else {
+                parseParallel( type, new RecordSplitter( input, bufferSize ), eachItem );
+            }
+        } catch ( IOException ex ) {
+            Exceptions.handle( ex );
+        } finally {
+            try {
+                input.close();
+            } catch ( IOException ex ) {
+                Exceptions.handle( ex );
+            }
+        }
+    }
+
+
+    public <T> void parseEachFromFile( Class<T> type, String fileName, EachItem<T> eachItem ) {
+        try {
+            parseEach( type, Files.newInputStream( IO.path( fileName ) ), eachItem );
+        } catch ( IOException ex ) {
+            Exceptions.handle( fileName, ex );
+        }
+    }
+
+
+    /** Reads every record into a list, in record order. */
+    public <T> List<T> parseList( Class<T> type, InputStream input ) {
+        final List<T> list = new ArrayList<>();
+        final boolean sorted = ordered || pool == null;
+
+        parseEach( type, input, new EachItem<T>() {
+            @Override
+            public boolean item( T item, int index ) {
+                if ( sorted ) {
+                    list.add( item );
+                } else {
+                    while ( list.size() <= index ) {
+                        list.add( null );
+                    }
+                    list.set( index, item );
+                }
+                return true;
+            }
+        } );
+        return list;
+    }
+
+
+    private <T> void parseSequential( Class<T> type, RecordSplitter records, EachItem<T> eachItem ) throws IOException {
+
+        JsonItemDecoder<T> decoder = new JsonItemDecoder<>( fieldsAccessor, type );
+
+        int index = 0;
+        while ( records.next() ) {
+            T item = decoder.decode( records.buffer, records.start, records.end );
+            if ( !eachItem.item( item, index++ ) ) {
+                break;
+            }
+        }
+    }
+
+
+    private <T> void parseParallel( final Class<T> type, RecordSplitter records, EachItem<T> eachItem ) throws IOException {
+
+        final ThreadLocal<JsonItemDecoder<T>> decoders = new ThreadLocal<JsonItemDecoder<T>>() {
+            @Override
+            protected JsonItemDecoder<T> initialValue() {
+                return new JsonItemDecoder<>( fieldsAccessor, type );
+            }
+        };
+
+        final int maxInFlight = pool.getParallelism() * 2;
+
+        final ArrayDeque<Future<Batch>> pending = new ArrayDeque<>();
+        final ExecutorCompletionService<Batch> completion = ordered ? null : new ExecutorCompletionService<Batch>( pool );
+        int inFlight = 0;
+
+        try {
+            boolean more = true;
+            int index = 0;
+
+            while ( more || inFlight > 0 ) {
+
+                if ( more && inFlight < maxInFlight ) {
+
+                    final Batch batch = new Batch( index );
+                    while ( batch.size < BATCH_SIZE && ( more = records.next() ) ) {
+                        batch.add( records.buffer, records.start, records.end );
+                    }
+                    index += batch.count;
+
+                    if ( batch.count > 0 ) {
+                        Callable<Batch> task = new Callable<Batch>() {
+                            @Override
+                            public Batch call() {
+                                batch.decode( decoders.get() );
+                                return batch;
+                            }
+                        };
+
+                        if ( ordered ) {
+                            pending.add( pool.submit( task ) );
+                        } else {
+                            pending.add( completion.submit( task ) );
+                        }
+                        inFlight++;
+                    }
+                    continue;
+                }
+
+                Batch done;
+                if ( ordered ) {
+                    done = pending.poll().get();
+                } else {
+                    Future<Batch> future = completion.take();
+                    pending.remove( future );
+                    done = future.get();
+                }
+                inFlight--;
+
+                if ( !done.emit( eachItem ) ) {
+                    break;
+                }
+            }
+
+        } catch ( InterruptedException ex ) {
+            Thread.currentThread().interrupt();
+            Exceptions.handle( ex );
+        } catch ( ExecutionException ex ) {
+            if ( ex.getCause() instanceof RuntimeException ) {
+                throw ( RuntimeException ) ex.getCause();
+            }
+            Exceptions.handle( "unable to parse record", ex.getCause() );
+        } finally {
+            for ( Future<Batch> future : pending ) {
+                future.cancel( false );
+            }
+        }
+    }
+
+
+    /**
+     * A block of records copied out of the read buffer so the reader can move on while it is decoded.
+     */
+    private static final class Batch {
+
+        private final int firstIndex;
+
+        private byte[] bytes = new byte[ 4096 ];
+        private int[] ends = new int[ 64 ];
+        private int size;
+        private int count;
+
+        private Object[] items;
+
+
+        Batch( int firstIndex ) {
+            this.firstIndex = firstIndex;
+        }
+
+
+        void add( byte[] buffer, int start, int end ) {
+            int length = end - start;
+
+            if ( size + length > bytes.length ) {
+                bytes = Byt.grow( bytes, Math.max( bytes.length, length ) );
+            }
+            if ( count == ends.length ) {
+                ends = Arrays.copyOf( ends, count * 2 );
+            }
+
+            System.arraycopy( buffer, start, bytes, size, length );
+            size += length;
+            ends[ count++ ] = size;
+        }
+
+
+        void decode( JsonItemDecoder<?> decoder ) {
+            items = new Object[ count ];
+
+            int start = 0;
+            for ( int index = 0; index < count; index++ ) {
+                items[ index ] = decoder.decode( bytes, start, ends[ index ] );
+                start = ends[ index ];
+            }
+
+            /* The raw bytes are not needed once parsed. */
+            bytes = null;
+        }
+
+
+        <T> boolean emit( EachItem<T> eachItem ) {
+            for ( int index = 0; index < count; index++ ) {
+                if ( !eachItem.item( ( T ) items[ index ], firstIndex + index ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+
+    /**
+     * Finds one record at a time in a refillable byte buffer.
+     * After {@link #next()} returns true the record is <code>buffer[start, end)</code>.
+     * The buffer only grows when a single record does not fit.
+     */
+    private static final class RecordSplitter {
+
+        private final InputStream input;
+
+        private byte[] buffer;
+        private int limit;
+        private int position;
+        private boolean eof;
+
+        private int start;
+        private int end;
+
+
+        RecordSplitter( InputStream input, int bufferSize ) {
+            this.input = input;
+            this.buffer = new byte[ bufferSize < 16 ? 16 : bufferSize ];
+        }
+
+
+        boolean next() throws IOException {
+
+            int lineStart = position;
+            int scan = position;
+
+            for (; ; ) {
+
+                for (; scan < limit; scan++ ) {
+                    if ( buffer[ scan ] == '\n' ) {
+                        position = scan + 1;
+                        if ( !blank( lineStart, scan ) ) {
+                            start = lineStart;
+                            end = scan;
+                            return true;
+                        }
+                        lineStart = position;
+                    }
+                }
+
+                if ( eof ) {
+                    position = limit;
+                    if ( !blank( lineStart, limit ) ) {
+                        start = lineStart;
+                        end = limit;
+                        return true;
+                    }
+                    return false;
+                }
+
+                /* Keep the partial line, drop what has been handed out already. */
+                int kept = limit - lineStart;
+                if ( lineStart > 0 ) {
+                    System.arraycopy( buffer, lineStart, buffer, 0, kept );
+                } else if ( kept == buffer.length ) {
+                    buffer = Byt.grow( buffer, buffer.length );
+                }
+                scan = kept;
+                limit = kept;
+                lineStart = 0;
+                position = 0;
+
+                int read = input.read( buffer, limit, buffer.length - limit );
+                if ( read == -1 ) {
+                    eof = true;
+                } else {
+                    limit += read;
+                }
+            }
+        }
+
+
+        private boolean blank( int from, int to ) {
+            for ( int index = from; index < to; index++ ) {
+                switch ( buffer[ index ] ) {
+                    case ' ':
+                    case '\t':
+                    case '\r':
+                        continue;
+                    default:
+                        return false;
+                }
+            }
+            return true;
+        }
+    }
+}
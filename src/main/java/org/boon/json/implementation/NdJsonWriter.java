@@ -0,0 +1,111 @@
+package org.boon.json.implementation;
+
+import org.boon.Exceptions;
+import org.boon.json.serializers.JsonSerializerInternal;
+import org.boon.primitive.CharBuf;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes newline delimited JSON, one record per line.
+ * <p/>
+ * Records are serialized straight into one reusable {@link CharBuf} which is encoded as UTF-8 into a
+ * reusable byte buffer and written out every {@link #FLUSH_SIZE} chars or so. Nothing is allocated per record.
+ * Not thread safe.
+ */
+public class NdJsonWriter implements Closeable, Flushable {
+
+    public static final int FLUSH_SIZE = 8 * 1024;
+
+    private final JsonSerializerInternal serializer;
+    private final OutputStream output;
+
+    private final CharBuf chars = CharBuf.create( FLUSH_SIZE * 2 );
+    private final ByteBuffer bytes = ByteBuffer.allocate( FLUSH_SIZE * 2 );
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput( CodingErrorAction.REPLACE )
+            .onUnmappableCharacter( CodingErrorAction.REPLACE );
+
+
+    public NdJsonWriter( JsonSerializerInternal serializer, OutputStream output ) {
+        this.serializer = serializer;
+        this.output = output;
+    }
+
+
+    public NdJsonWriter write( Object record ) {
+        serializer.serializeObject( record, chars );
+        chars.add( '\n' );
+
+        if ( chars.len() >= FLUSH_SIZE ) {
+            drain();
+        }
+        return this;
+    }
+
+
+    public NdJsonWriter writeAll( Iterable<?> records ) {
+        for ( Object record : records ) {
+            write( record );
+        }
+        return this;
+    }
+
+
+    /* Every record ends in a new line so the buffer never ends half way through a surrogate pair. */
+    private void drain() {
+        int length = chars.len();
+        if ( length == 0 ) {
+            return;
+        }
+
+        CharBuffer in = CharBuffer.wrap( chars.readForRecycle(), 0, length );
+        encoder.reset();
+
+        try {
+            for (; ; ) {
+                CoderResult result = encoder.encode( in, bytes, true );
+                if ( result.isOverflow() || !in.hasRemaining() ) {
+                    output.write( bytes.array(), 0, bytes.position() );
+                    bytes.clear();
+                }
+                if ( result.isUnderflow() ) {
+                    break;
+                }
+            }
+        } catch ( IOException ex ) {
+            Exceptions.handle( ex );
+        }
+    }
+
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            output.flush();
+        } catch ( IOException ex ) {
+            Exceptions.handle( ex );
+        }
+    }
+
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            output.close();
+        } catch ( IOException ex ) {
+            Exceptions.handle( ex );
+        }
+    }
+}
@@ -1,12 +1,13 @@
 package org.boon.json.implementation;
 
 import org.boon.Exceptions;
-import org.boon.IO;
 import org.boon.json.*;
+import org.boon.json.serializers.JsonSerializerInternal;
+import org.boon.primitive.StreamingCharBuf;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 
@@ -179,28 +180,50 @@ public class ObjectMapperImpl implements ObjectMapper {
     }
 
     @Override
-    public void writeValue( File dest, Object value ) {
-        IO.write( IO.path( dest.toString() ), serializerFactory.create().serialize( value ).toString());
+    public <T> Iterator<T> readValues( InputStream src, Class<T> componentType ) {
+        return this.parserFactory.create().parseIterator( componentType, src );
     }
 
     @Override
-    public void writeValue( OutputStream dest, Object value ) {
+    public <T> void readValues( InputStream src, Class<T> componentType, EachItem<T> eachItem ) {
+        this.parserFactory.create().parseEach( componentType, src, eachItem );
+    }
 
-        IO.writeNoClose( dest, serializerFactory.create().serialize( value ).toString() );
+    /* Flushes to the sink as the buffer fills, so large values are never held as a whole. */
+    private void stream( StreamingCharBuf buffer, Object value ) {
+        JsonSerializerInternal serializer = ( JsonSerializerInternal ) serializerFactory.create();
+        try {
+            serializer.serializeObject( value, buffer );
+        } catch ( Exception ex ) {
+            Exceptions.handle( "unable to serializeObject", ex );
+        }
+        buffer.flush();
     }
 
     @Override
-    public void writeValue( Writer dest, Object value ) {
-
-        char [] chars =  serializerFactory.create().serialize( value ).toCharArray();
-
-        try {
-            dest.write( chars );
+    public void writeValue( File dest, Object value ) {
+        try ( OutputStream output = new BufferedOutputStream( new FileOutputStream( dest ) ) ) {
+            stream( StreamingCharBuf.create( output, StreamingCharBuf.DEFAULT_FLUSH_SIZE ), value );
         } catch ( IOException e ) {
             Exceptions.handle( e );
         }
     }
 
+    @Override
+    public void writeValue( OutputStream dest, Object value ) {
+        stream( StreamingCharBuf.create( dest, StreamingCharBuf.DEFAULT_FLUSH_SIZE ), value );
+    }
+
+    @Override
+    public void writeValue( Writer dest, Object value ) {
+        stream( StreamingCharBuf.create( dest, StreamingCharBuf.DEFAULT_FLUSH_SIZE ), value );
+    }
+
+    @Override
+    public void writeValue( ByteBuffer dest, Object value ) {
+        stream( StreamingCharBuf.create( dest, StreamingCharBuf.DEFAULT_FLUSH_SIZE ), value );
+    }
+
     @Override
     public String writeValueAsString( Object value ) {
         return serializerFactory.create().serialize( value ).toString();
@@ -213,7 +236,7 @@ public class ObjectMapperImpl implements ObjectMapper {
 
     @Override
     public byte[] writeValueAsBytes( Object value ) {
-        return serializerFactory.create().serialize( value ).toString().getBytes( StandardCharsets.UTF_8 );
+        return serializerFactory.createUTF8Serializer().serialize( value ).toBytes();
     }
 
     @Override
@@ -22,6 +22,7 @@ public class CollectionSerializerImpl implements CollectionSerializer, ArraySeri
 
         builder.addChar( '[' );
         for ( Object o : collection ) {
+            builder.checkpoint ();
             serializer.serializeObject ( o, builder );
             builder.addChar ( ',' );
         }
@@ -40,6 +41,7 @@ public class CollectionSerializerImpl implements CollectionSerializer, ArraySeri
         builder.addChar( '[' );
         final int length = Array.getLength ( array );
         for ( int index = 0; index < length; index++ ) {
+            builder.checkpoint ();
             serializer.serializeObject ( Array.get ( array, index ), builder );
             builder.addChar ( ',' );
         }
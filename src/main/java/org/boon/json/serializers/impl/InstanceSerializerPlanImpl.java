@@ -0,0 +1,356 @@
+package org.boon.json.serializers.impl;
+
+import org.boon.core.Type;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.core.reflection.fields.FieldAccessMode;
+import org.boon.json.serializers.*;
+import org.boon.primitive.CharBuf;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes instances from a plan built the first time a class is seen, instead of walking the field map
+ * and asking each field for its annotations every time.
+ * <p/>
+ * A plan is the class's fields in order, less the ones that are ignored or not in the view,
+ * each with its <code>"name":</code> chars, its type and whether it is always included.
+ * Writing an instance is then one loop over that array.
+ * Filters, custom serializers and back references still apply per value, as in {@link FieldSerializerUseAnnotationsImpl}.
+ */
+public class InstanceSerializerPlanImpl implements InstanceSerializer {
+
+
+    /** Everything about a field that does not change from one instance to the next. */
+    private static final class FieldPlan {
+        final FieldAccess field;
+        final Type type;
+        final char[] name;
+        final boolean include;
+
+        FieldPlan( FieldAccess field, boolean include ) {
+            this.field = field;
+            this.type = field.typeEnum();
+            /* Field names are Java identifiers, there is nothing to escape. */
+            this.name = ( "\"" + field.getName() + "\":" ).toCharArray();
+            this.include = include;
+        }
+    }
+
+
+    /**
+     * The plans for one set of settings, shared by all the serializers a factory creates with those settings.
+     */
+    public static final class Plans {
+        private final boolean useAnnotations;
+        private final String view;
+        private final FieldAccessMode fieldAccessType;
+        private final Map<Class<?>, FieldPlan[]> plans = new ConcurrentHashMap<>();
+
+        public Plans( boolean useAnnotations, String view, FieldAccessMode fieldAccessType ) {
+            this.useAnnotations = useAnnotations;
+            this.view = view;
+            this.fieldAccessType = fieldAccessType;
+        }
+
+        public boolean matches( boolean useAnnotations, String view, FieldAccessMode fieldAccessType ) {
+            return this.useAnnotations == useAnnotations && this.fieldAccessType == fieldAccessType
+                    && ( this.view == null ? view == null : this.view.equals( view ) );
+        }
+
+        FieldPlan[] plan( JsonSerializerInternal serializer, Class<?> type ) {
+            FieldPlan[] plan = plans.get( type );
+            if ( plan == null ) {
+                plan = build( serializer.getFields( type ).values() );
+                plans.put( type, plan );
+            }
+            return plan;
+        }
+
+        private FieldPlan[] build( Collection<FieldAccess> fields ) {
+            List<FieldPlan> plan = new ArrayList<>( fields.size() );
+            for ( FieldAccess field : fields ) {
+                if ( useAnnotations && field.ignore() ) {
+                    continue;
+                }
+                if ( useAnnotations && view != null && !field.isViewActive( view ) ) {
+                    continue;
+                }
+                plan.add( new FieldPlan( field, useAnnotations && field.include() ) );
+            }
+            return plan.toArray( new FieldPlan[ plan.size() ] );
+        }
+    }
+
+
+    private final Plans plans;
+
+    private final boolean includeNulls;
+    private final boolean includeDefault;
+    private final boolean includeEmpty;
+    private final boolean handleSimpleBackReference;
+    private final boolean handleComplexBackReference;
+    private IdentityHashMap idMap;
+    private final Map<Class, CustomObjectSerializer> overrideMap;
+    private final List<FieldFilter> filterProperties;
+    private final List<CustomFieldSerializer> customFieldSerializers;
+
+
+    public InstanceSerializerPlanImpl( Plans plans,
+                                       boolean includeNulls, boolean includeDefault,
+                                       boolean includeEmpty, boolean handleSimpleBackReference,
+                                       boolean handleComplexBackReference,
+                                       Map<Class, CustomObjectSerializer> overrideMap,
+                                       List<FieldFilter> filterProperties,
+                                       List<CustomFieldSerializer> customFieldSerializers ) {
+        this.plans = plans;
+        this.includeNulls = includeNulls;
+        this.includeDefault = includeDefault;
+        this.includeEmpty = includeEmpty;
+        this.handleSimpleBackReference = handleSimpleBackReference;
+        this.handleComplexBackReference = handleComplexBackReference;
+
+        if ( handleComplexBackReference ) {
+            idMap = new IdentityHashMap();
+        }
+
+        this.overrideMap = overrideMap;
+        this.filterProperties = filterProperties;
+        this.customFieldSerializers = customFieldSerializers;
+    }
+
+
+    @Override
+    public final void serializeInstance( JsonSerializerInternal serializer, Object instance, CharBuf builder ) {
+
+        final FieldPlan[] plan = plans.plan( serializer, instance.getClass() );
+
+        builder.addChar( '{' );
+
+        int index = 0;
+        for ( FieldPlan field : plan ) {
+            if ( serializeField( serializer, instance, field, builder ) ) {
+                builder.addChar( ',' );
+                index++;
+            }
+        }
+        if ( index > 0 ) {
+            builder.removeLastChar();
+        }
+        builder.addChar( '}' );
+    }
+
+
+    private boolean serializeField( JsonSerializerInternal serializer, Object parent, FieldPlan plan, CharBuf builder ) {
+
+        final FieldAccess fieldAccess = plan.field;
+        final boolean include = includeDefault || plan.include;
+
+        if ( filterProperties != null ) {
+            for ( FieldFilter filter : filterProperties ) {
+                if ( !filter.include( parent, fieldAccess ) ) {
+                    return false;
+                }
+            }
+        }
+
+        if ( customFieldSerializers != null ) {
+            for ( CustomFieldSerializer cfs : customFieldSerializers ) {
+                if ( cfs.serializeField( serializer, parent, fieldAccess, builder ) ) {
+                    return true;
+                }
+            }
+        }
+
+        switch ( plan.type ) {
+            case INT:
+                int value = fieldAccess.getInt( parent );
+                if ( include || value != 0 ) {
+                    builder.addChars( plan.name );
+                    builder.addInt( value );
+                    return true;
+                }
+                return false;
+            case BOOLEAN:
+                boolean bvalue = fieldAccess.getBoolean( parent );
+                if ( include || bvalue ) {
+                    builder.addChars( plan.name );
+                    builder.addBoolean( bvalue );
+                    return true;
+                }
+                return false;
+            case BYTE:
+                byte byvalue = fieldAccess.getByte( parent );
+                if ( include || byvalue != 0 ) {
+                    builder.addChars( plan.name );
+                    builder.addByte( byvalue );
+                    return true;
+                }
+                return false;
+            case LONG:
+                long lvalue = fieldAccess.getLong( parent );
+                if ( include || lvalue != 0 ) {
+                    builder.addChars( plan.name );
+                    builder.addLong( lvalue );
+                    return true;
+                }
+                return false;
+            case DOUBLE:
+                double dvalue = fieldAccess.getDouble( parent );
+                if ( include || dvalue != 0 ) {
+                    builder.addChars( plan.name );
+                    builder.addDouble( dvalue );
+                    return true;
+                }
+                return false;
+            case FLOAT:
+                float fvalue = fieldAccess.getFloat( parent );
+                if ( include || fvalue != 0.0f ) {
+                    builder.addChars( plan.name );
+                    builder.addFloat( fvalue );
+                    return true;
+                }
+                return false;
+            case SHORT:
+                short svalue = fieldAccess.getShort( parent );
+                if ( include || svalue != 0 ) {
+                    builder.addChars( plan.name );
+                    builder.addShort( svalue );
+                    return true;
+                }
+                return false;
+            case CHAR:
+                char cvalue = fieldAccess.getChar( parent );
+                if ( include || cvalue != 0 ) {
+                    builder.addChars( plan.name );
+                    builder.addChar( cvalue );
+                    return true;
+                }
+                return false;
+        }
+
+        Object value = fieldAccess.getObject( parent );
+
+        if ( value == null ) {
+            if ( includeNulls || plan.include ) {
+                builder.addChars( plan.name );
+                builder.addNull();
+                return true;
+            }
+            return false;
+        }
+
+        if ( handleSimpleBackReference && value == parent ) {
+            return false;
+        } else if ( handleComplexBackReference ) {
+            if ( idMap.containsKey( value ) ) {
+                return false;
+            } else {
+                idMap.put( value, value );
+            }
+        }
+
+        if ( overrideMap != null ) {
+            final CustomObjectSerializer customObjectSerializer = overrideMap.get( fieldAccess.getType() );
+            if ( customObjectSerializer != null ) {
+                builder.addChars( plan.name );
+                customObjectSerializer.serializeObject( serializer, value, builder );
+                return true;
+            }
+        }
+
+        final boolean includeEmpty = this.includeEmpty || plan.include;
+
+        switch ( plan.type ) {
+            case BIG_DECIMAL:
+                builder.addChars( plan.name );
+                builder.addBigDecimal( ( BigDecimal ) value );
+                return true;
+            case BIG_INT:
+                builder.addChars( plan.name );
+                builder.addBigInteger( ( BigInteger ) value );
+                return true;
+            case DATE:
+                builder.addChars( plan.name );
+                serializer.serializeDate( ( Date ) value, builder );
+                return true;
+            case STRING:
+            case CHAR_SEQUENCE:
+                String string = value.toString();
+                if ( includeEmpty || string.length() > 0 ) {
+                    builder.addChars( plan.name );
+                    serializer.serializeString( string, builder );
+                    return true;
+                }
+                return false;
+            case INTEGER_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addInt( ( Integer ) value );
+                return true;
+            case LONG_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addLong( ( Long ) value );
+                return true;
+            case FLOAT_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addFloat( ( Float ) value );
+                return true;
+            case DOUBLE_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addDouble( ( Double ) value );
+                return true;
+            case SHORT_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addShort( ( Short ) value );
+                return true;
+            case BYTE_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addByte( ( Byte ) value );
+                return true;
+            case CHAR_WRAPPER:
+                builder.addChars( plan.name );
+                builder.addChar( ( Character ) value );
+                return true;
+            case ENUM:
+                builder.addChars( plan.name );
+                builder.addQuoted( value.toString() );
+                return true;
+            case COLLECTION:
+            case LIST:
+            case SET:
+                Collection collection = ( Collection ) value;
+                if ( includeEmpty || collection.size() > 0 ) {
+                    builder.addChars( plan.name );
+                    serializer.serializeCollection( collection, builder );
+                    return true;
+                }
+                return false;
+            case MAP:
+                Map map = ( Map ) value;
+                if ( includeEmpty || map.size() > 0 ) {
+                    builder.addChars( plan.name );
+                    serializer.serializeMap( map, builder );
+                    return true;
+                }
+                return false;
+            case ARRAY:
+                Object[] array = ( Object[] ) value;
+                if ( includeEmpty || array.length > 0 ) {
+                    builder.addChars( plan.name );
+                    serializer.serializeArray( value, builder );
+                    return true;
+                }
+                return false;
+            case INSTANCE:
+                builder.addChars( plan.name );
+                serializer.serializeInstance( value, builder );
+                return true;
+            default:
+                builder.addChars( plan.name );
+                serializer.serializeUnknown( value, builder );
+                return true;
+        }
+    }
+}
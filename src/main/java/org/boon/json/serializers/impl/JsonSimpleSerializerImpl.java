@@ -384,6 +384,7 @@ public class JsonSimpleSerializerImpl implements JsonSerializerInternal {
 
         final Set<Map.Entry<String, Object>> entrySet = map.entrySet();
         for ( Map.Entry<String, Object> entry : entrySet ) {
+            builder.checkpoint ();
             serializeFieldName ( entry.getKey ().toString (), builder );
             serializeObject( entry.getValue(), builder );
             builder.addChar ( ',' );
@@ -404,6 +405,7 @@ public class JsonSimpleSerializerImpl implements JsonSerializerInternal {
         builder.addChar( '[' );
         final int length = Array.getLength( array );
         for ( int index = 0; index < length; index++ ) {
+            builder.checkpoint ();
             serializeObject( Array.get( array, index ), builder );
             builder.addChar ( ',' );
         }
@@ -428,6 +430,7 @@ public class JsonSimpleSerializerImpl implements JsonSerializerInternal {
 
         builder.addChar( '[' );
         for ( Object o : collection ) {
+            builder.checkpoint ();
             serializeObject( o, builder );
             builder.addChar ( ',' );
         }
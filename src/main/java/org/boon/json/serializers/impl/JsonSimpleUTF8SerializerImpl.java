@@ -0,0 +1,358 @@
+package org.boon.json.serializers.impl;
+
+
+import org.boon.Exceptions;
+import org.boon.core.Type;
+import org.boon.core.reflection.Reflection;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.json.JsonByteSerializer;
+import org.boon.primitive.ByteBuf;
+
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link JsonSimpleSerializerImpl} writing UTF-8 straight into a {@link ByteBuf}, for sockets, files and queues
+ * that want bytes, so there is no char to byte pass over the whole output at the end.
+ * Like that one it leaves out default values, nulls and empties.
+ * <p/>
+ * The <code>"name":</code> of every field is encoded once per class,
+ * strings are encoded as they are escaped and integers are written as digits without a String in between.
+ */
+public class JsonSimpleUTF8SerializerImpl implements JsonByteSerializer {
+
+    /** A field with its name already encoded. */
+    private static final class NamedField {
+        final FieldAccess field;
+        final Type type;
+        final byte[] name;
+
+        NamedField( FieldAccess field ) {
+            this.field = field;
+            this.type = field.typeEnum();
+            this.name = ( "\"" + field.getName() + "\":" ).getBytes( StandardCharsets.UTF_8 );
+        }
+    }
+
+
+    private static final byte[] TRUE = { 't', 'r', 'u', 'e' };
+    private static final byte[] FALSE = { 'f', 'a', 'l', 's', 'e' };
+    private static final byte[] EMPTY_MAP = { '{', '}' };
+    private static final byte[] EMPTY_LIST = { '[', ']' };
+
+
+    private final Map<Class<?>, NamedField[]> fieldMap = new ConcurrentHashMap<>();
+
+    private ByteBuf builder = ByteBuf.create( 4000 );
+
+
+    public ByteBuf serialize( Object obj ) {
+
+        builder.readForRecycle();
+        try {
+            serializeObject( obj, builder );
+        } catch ( Exception ex ) {
+            return Exceptions.handle( ByteBuf.class, "unable to serializeObject", ex );
+        }
+        return builder;
+    }
+
+
+    private NamedField[] getFields( Class<?> aClass ) {
+        NamedField[] fields = fieldMap.get( aClass );
+        if ( fields == null ) {
+            Collection<FieldAccess> values = Reflection.getPropertyFieldAccessMapFieldFirst( aClass ).values();
+            fields = new NamedField[ values.size() ];
+            int index = 0;
+            for ( FieldAccess field : values ) {
+                fields[ index++ ] = new NamedField( field );
+            }
+            fieldMap.put( aClass, fields );
+        }
+        return fields;
+    }
+
+
+    private boolean serializeField( Object parent, NamedField named, boolean comma, ByteBuf builder ) {
+
+        final FieldAccess fieldAccess = named.field;
+
+        switch ( named.type ) {
+            case INT:
+                int value = fieldAccess.getInt( parent );
+                if ( value != 0 ) {
+                    name( named, comma, builder );
+                    builder.addAsciiLong( value );
+                    return true;
+                }
+                return false;
+            case BOOLEAN:
+                if ( fieldAccess.getBoolean( parent ) ) {
+                    name( named, comma, builder );
+                    builder.add( TRUE );
+                    return true;
+                }
+                return false;
+            case BYTE:
+                byte byvalue = fieldAccess.getByte( parent );
+                if ( byvalue != 0 ) {
+                    name( named, comma, builder );
+                    builder.addAsciiLong( byvalue );
+                    return true;
+                }
+                return false;
+            case LONG:
+                long lvalue = fieldAccess.getLong( parent );
+                if ( lvalue != 0 ) {
+                    name( named, comma, builder );
+                    builder.addAsciiLong( lvalue );
+                    return true;
+                }
+                return false;
+            case DOUBLE:
+                double dvalue = fieldAccess.getDouble( parent );
+                if ( dvalue != 0 ) {
+                    name( named, comma, builder );
+                    builder.addAscii( Double.toString( dvalue ) );
+                    return true;
+                }
+                return false;
+            case FLOAT:
+                float fvalue = fieldAccess.getFloat( parent );
+                if ( fvalue != 0 ) {
+                    name( named, comma, builder );
+                    builder.addAscii( Float.toString( fvalue ) );
+                    return true;
+                }
+                return false;
+            case SHORT:
+                short svalue = fieldAccess.getShort( parent );
+                if ( svalue != 0 ) {
+                    name( named, comma, builder );
+                    builder.addAsciiLong( svalue );
+                    return true;
+                }
+                return false;
+            case CHAR:
+                char cvalue = fieldAccess.getChar( parent );
+                if ( cvalue != 0 ) {
+                    name( named, comma, builder );
+                    serializeChar( cvalue, builder );
+                    return true;
+                }
+                return false;
+        }
+
+        Object value = fieldAccess.getObject( parent );
+
+        if ( value == null ) {
+            return false;
+        }
+
+        /* Avoid back reference and infinite loops. */
+        if ( value == parent ) {
+            return false;
+        }
+
+        switch ( named.type ) {
+            case COLLECTION:
+            case LIST:
+            case SET:
+                Collection collection = ( Collection ) value;
+                if ( collection.size() > 0 ) {
+                    name( named, comma, builder );
+                    serializeCollection( collection, builder );
+                    return true;
+                }
+                return false;
+            case MAP:
+                Map map = ( Map ) value;
+                if ( map.size() > 0 ) {
+                    name( named, comma, builder );
+                    serializeMap( map, builder );
+                    return true;
+                }
+                return false;
+            case ARRAY:
+                if ( Array.getLength( value ) > 0 ) {
+                    name( named, comma, builder );
+                    serializeArray( value, builder );
+                    return true;
+                }
+                return false;
+            case STRING:
+                name( named, comma, builder );
+                builder.addJsonEscapedString( ( String ) value );
+                return true;
+            case INSTANCE:
+                name( named, comma, builder );
+                serializeInstance( value, builder );
+                return true;
+            default:
+                name( named, comma, builder );
+                serializeObject( value, builder );
+                return true;
+        }
+    }
+
+
+    private void name( NamedField named, boolean comma, ByteBuf builder ) {
+        if ( comma ) {
+            builder.addByte( ',' );
+        }
+        builder.add( named.name );
+    }
+
+
+    /* A lone char goes out unquoted, same as the char serializer. */
+    private void serializeChar( char c, ByteBuf builder ) {
+        builder.addUTF8( new char[]{ c }, 0, 1 );
+    }
+
+
+    public final void serializeObject( Object obj, ByteBuf builder ) {
+
+        Type type = Type.getInstanceType( obj );
+
+        switch ( type ) {
+
+            case NULL:
+                return;
+            case STRING:
+                builder.addJsonEscapedString( ( String ) obj );
+                return;
+            case CHAR_SEQUENCE:
+            case ENUM:
+                builder.addJsonEscapedString( obj.toString() );
+                return;
+            case INT:
+            case INTEGER_WRAPPER:
+            case LONG:
+            case LONG_WRAPPER:
+            case SHORT:
+            case SHORT_WRAPPER:
+            case BYTE:
+            case BYTE_WRAPPER:
+                builder.addAsciiLong( ( ( Number ) obj ).longValue() );
+                return;
+            case BOOLEAN:
+            case BOOLEAN_WRAPPER:
+                builder.add( ( Boolean ) obj ? TRUE : FALSE );
+                return;
+            case DOUBLE:
+            case DOUBLE_WRAPPER:
+            case FLOAT:
+            case FLOAT_WRAPPER:
+            case BIG_DECIMAL:
+            case BIG_INT:
+                builder.addAscii( obj.toString() );
+                return;
+            case CHAR:
+            case CHAR_WRAPPER:
+                serializeChar( ( Character ) obj, builder );
+                return;
+            case DATE:
+                builder.addAsciiLong( ( ( Date ) obj ).getTime() );
+                return;
+            case COLLECTION:
+            case LIST:
+            case SET:
+                serializeCollection( ( Collection ) obj, builder );
+                return;
+            case MAP:
+                serializeMap( ( Map ) obj, builder );
+                return;
+            case ARRAY:
+                serializeArray( obj, builder );
+                return;
+            case INSTANCE:
+                serializeInstance( obj, builder );
+                return;
+            default:
+                builder.addJsonEscapedString( obj.toString() );
+        }
+    }
+
+
+    public final void serializeInstance( Object obj, ByteBuf builder ) {
+
+        final NamedField[] fields = getFields( obj.getClass() );
+
+        builder.addByte( '{' );
+
+        boolean comma = false;
+        for ( NamedField field : fields ) {
+            if ( serializeField( obj, field, comma, builder ) ) {
+                comma = true;
+            }
+        }
+        builder.addByte( '}' );
+    }
+
+
+    public final void serializeMap( Map<?, ?> map, ByteBuf builder ) {
+
+        if ( map.size() == 0 ) {
+            builder.add( EMPTY_MAP );
+            return;
+        }
+
+        builder.addByte( '{' );
+
+        boolean first = true;
+        for ( Map.Entry<?, ?> entry : map.entrySet() ) {
+            if ( !first ) {
+                builder.addByte( ',' );
+            }
+            first = false;
+            builder.addJsonEscapedString( entry.getKey().toString() );
+            builder.addByte( ':' );
+            serializeObject( entry.getValue(), builder );
+        }
+        builder.addByte( '}' );
+    }
+
+
+    public final void serializeArray( Object array, ByteBuf builder ) {
+
+        final int length = Array.getLength( array );
+
+        if ( length == 0 ) {
+            builder.add( EMPTY_LIST );
+            return;
+        }
+
+        builder.addByte( '[' );
+        for ( int index = 0; index < length; index++ ) {
+            if ( index > 0 ) {
+                builder.addByte( ',' );
+            }
+            serializeObject( Array.get( array, index ), builder );
+        }
+        builder.addByte( ']' );
+    }
+
+
+    public final void serializeCollection( Collection<?> collection, ByteBuf builder ) {
+
+        if ( collection.size() == 0 ) {
+            builder.add( EMPTY_LIST );
+            return;
+        }
+
+        builder.addByte( '[' );
+        boolean first = true;
+        for ( Object o : collection ) {
+            if ( !first ) {
+                builder.addByte( ',' );
+            }
+            first = false;
+            serializeObject( o, builder );
+        }
+        builder.addByte( ']' );
+    }
+}
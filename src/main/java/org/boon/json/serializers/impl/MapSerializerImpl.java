@@ -32,6 +32,7 @@ public class MapSerializerImpl implements MapSerializer {
 
         final Set<Map.Entry<String, Object>> entrySet = map.entrySet();
         for ( Map.Entry<String, Object> entry : entrySet ) {
+            builder.checkpoint ();
             serializeFieldName ( entry.getKey (), builder );
             serializer.serializeObject ( entry.getValue (), builder );
             builder.addChar ( ',' );
@@ -1,6 +1,7 @@
 package org.boon.primitive;
 
 import org.boon.Exceptions;
+import org.boon.core.reflection.FastStringUtils;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
@@ -245,6 +246,179 @@ public class ByteBuf implements Output {
         return this;
     }
 
+    /**
+     * Encodes <code>chars[start, end)</code> as UTF-8 straight into the buffer.
+     * A surrogate without its other half is written as '?'.
+     */
+    public ByteBuf addUTF8( final char[] chars, final int start, final int end ) {
+
+        ensure( ( end - start ) * 3 );
+
+        final byte[] buffer = this.buffer;
+        int location = this.length;
+
+        for ( int index = start; index < end; index++ ) {
+            final char c = chars[ index ];
+
+            if ( c < 0x80 ) {
+                buffer[ location++ ] = ( byte ) c;
+            } else if ( c < 0x800 ) {
+                buffer[ location++ ] = ( byte ) ( 0xC0 | ( c >> 6 ) );
+                buffer[ location++ ] = ( byte ) ( 0x80 | ( c & 0x3F ) );
+            } else if ( Character.isSurrogate( c ) ) {
+                if ( Character.isHighSurrogate( c ) && index + 1 < end && Character.isLowSurrogate( chars[ index + 1 ] ) ) {
+                    final int codePoint = Character.toCodePoint( c, chars[ ++index ] );
+                    buffer[ location++ ] = ( byte ) ( 0xF0 | ( codePoint >> 18 ) );
+                    buffer[ location++ ] = ( byte ) ( 0x80 | ( ( codePoint >> 12 ) & 0x3F ) );
+                    buffer[ location++ ] = ( byte ) ( 0x80 | ( ( codePoint >> 6 ) & 0x3F ) );
+                    buffer[ location++ ] = ( byte ) ( 0x80 | ( codePoint & 0x3F ) );
+                } else {
+                    buffer[ location++ ] = '?';
+                }
+            } else {
+                buffer[ location++ ] = ( byte ) ( 0xE0 | ( c >> 12 ) );
+                buffer[ location++ ] = ( byte ) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+                buffer[ location++ ] = ( byte ) ( 0x80 | ( c & 0x3F ) );
+            }
+        }
+
+        this.length = location;
+        return this;
+    }
+
+    private void ensure( final int more ) {
+        if ( this.length + more >= capacity ) {
+            buffer = Byt.grow( buffer, buffer.length * 2 + more );
+            capacity = buffer.length;
+        }
+    }
+
+
+    /* What follows the back slash for the ASCII chars that have to be escaped in a JSON string, 'u' means \\u00XX. */
+    private static final byte[] JSON_ESCAPES = new byte[ 128 ];
+
+    static {
+        for ( int c = 0; c < 0x20; c++ ) {
+            JSON_ESCAPES[ c ] = 'u';
+        }
+        JSON_ESCAPES[ '"' ] = '"';
+        JSON_ESCAPES[ '\\' ] = '\\';
+        JSON_ESCAPES[ '/' ] = '/';
+        JSON_ESCAPES[ '\b' ] = 'b';
+        JSON_ESCAPES[ '\f' ] = 'f';
+        JSON_ESCAPES[ '\n' ] = 'n';
+        JSON_ESCAPES[ '\r' ] = 'r';
+        JSON_ESCAPES[ '\t' ] = 't';
+    }
+
+    private static final byte[] HEX = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+
+    /**
+     * Adds the string in quotes, JSON escaped and encoded as UTF-8.
+     * ASCII that needs no escaping, by far the most common, is copied a char to a byte.
+     */
+    public ByteBuf addJsonEscapedString( final String value ) {
+
+        final char[] chars = FastStringUtils.toCharArray( value );
+        final int count = value.length();
+
+        ensure( count * 6 + 2 );
+
+        byte[] buffer = this.buffer;
+        int location = this.length;
+
+        buffer[ location++ ] = '"';
+
+        for ( int index = 0; index < count; index++ ) {
+            final char c = chars[ index ];
+
+            if ( c < 0x80 ) {
+                final byte escape = JSON_ESCAPES[ c ];
+                if ( escape == 0 ) {
+                    buffer[ location++ ] = ( byte ) c;
+                } else if ( escape != 'u' ) {
+                    buffer[ location++ ] = '\\';
+                    buffer[ location++ ] = escape;
+                } else {
+                    buffer[ location++ ] = '\\';
+                    buffer[ location++ ] = 'u';
+                    buffer[ location++ ] = '0';
+                    buffer[ location++ ] = '0';
+                    buffer[ location++ ] = HEX[ c >> 4 ];
+                    buffer[ location++ ] = HEX[ c & 0xF ];
+                }
+            } else {
+                this.length = location;
+                int end = index + 1;
+                if ( Character.isHighSurrogate( c ) && end < count ) {
+                    end++;
+                }
+                addUTF8( chars, index, end );
+                buffer = this.buffer;
+                location = this.length;
+                index = end - 1;
+            }
+        }
+
+        buffer[ location++ ] = '"';
+        this.length = location;
+        return this;
+    }
+
+
+    /** Adds the decimal digits of the value, as <code>Long.toString</code> would but without the String. */
+    public ByteBuf addAsciiLong( long value ) {
+
+        if ( value == Long.MIN_VALUE ) {
+            return addAscii( Long.toString( value ) );
+        }
+
+        ensure( 20 );
+
+        final boolean negative = value < 0;
+        if ( negative ) {
+            value = -value;
+        }
+
+        int digits = 1;
+        for ( long rest = value / 10; rest != 0; rest /= 10 ) {
+            digits++;
+        }
+
+        final byte[] buffer = this.buffer;
+        int location = this.length;
+        if ( negative ) {
+            buffer[ location++ ] = '-';
+        }
+
+        int index = location + digits;
+        location = index;
+        do {
+            buffer[ --index ] = ( byte ) ( '0' + value % 10 );
+            value /= 10;
+        } while ( value != 0 );
+
+        this.length = location;
+        return this;
+    }
+
+
+    /** Adds a string known to be ASCII, such as a formatted number, a char to a byte. */
+    public ByteBuf addAscii( final String value ) {
+
+        final int count = value.length();
+        ensure( count );
+
+        final byte[] buffer = this.buffer;
+        final int location = this.length;
+        for ( int index = 0; index < count; index++ ) {
+            buffer[ location + index ] = ( byte ) value.charAt( index );
+        }
+        this.length = location + count;
+        return this;
+    }
+
     public byte[] readAndReset() {
         byte[] bytes = this.buffer;
         this.buffer = null;
@@ -1,5 +1,9 @@
 package org.boon.primitive;
 
+import org.boon.core.reflection.Reflection;
+import sun.misc.Unsafe;
+
+import java.nio.ByteOrder;
 import java.util.Objects;
 
 import static org.boon.Exceptions.die;
@@ -282,6 +286,9 @@ public class ByteScanner {
                                     num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
                                     if ( ++offset < to ) {
                                         num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
+                                        if ( ++offset < to ) {
+                                            num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
+                                        }
                                     }
                                 }
                             }
@@ -329,6 +336,13 @@ public class ByteScanner {
     }
 
     public static long parseLong( byte[] digitChars, int offset, int len ) {
+        if ( len > 18 ) {
+            long num = 0;
+            for ( int index = offset; index < offset + len; index++ ) {
+                num = ( num * 10 ) + ( digitChars[ index ] - '0' );
+            }
+            return num;
+        }
         int len1 = len - 9;
         long val = parseInt( digitChars, offset, len1 ) * L_BILLION;
         return val + ( long ) parseInt( digitChars, offset + len1, 9 );
@@ -464,4 +478,88 @@ public class ByteScanner {
     };
 
 
+    /*
+     * Scans that look at eight bytes at a time as one long (SWAR, SIMD within a register).
+     * Every byte of a mask is 0x80 where the byte in the word matched and 0 where it did not,
+     * exactly, so the first match is the lowest byte in memory order.
+     * Reading a long out of a byte array takes Unsafe; without it, or with -Dorg.boon.noUnsafe=true,
+     * the scans go a byte at a time.
+     */
+
+    private static final Unsafe UNSAFE = Boolean.getBoolean( "org.boon.noUnsafe" ) ? null : Reflection.getUnsafe();
+    private static final long BYTE_BASE = UNSAFE == null ? 0 : UNSAFE.arrayBaseOffset( byte[].class );
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long QUOTES = 0x2222222222222222L;
+    private static final long BACKSLASHES = 0x5C5C5C5C5C5C5C5CL;
+    /* Added to a seven bit byte, it sets the high bit only for bytes above a space. */
+    private static final long ABOVE_SPACE = 0x5F5F5F5F5F5F5F5FL;
+
+
+    private static long zeroBytes( long word ) {
+        return ~( ( ( word & LOW_SEVEN_BITS ) + LOW_SEVEN_BITS ) | word | LOW_SEVEN_BITS );
+    }
+
+
+    private static int firstByte( long mask ) {
+        return ( LITTLE_ENDIAN ? Long.numberOfTrailingZeros( mask ) : Long.numberOfLeadingZeros( mask ) ) >>> 3;
+    }
+
+
+    /**
+     * Index of the first double quote or backslash at or after index, or the length of the array.
+     * Bytes of multi-byte UTF-8 chars are never either, so this finds the end of a JSON string or its first escape.
+     */
+    public static int indexOfQuoteOrBackslash( final byte[] array, int index ) {
+
+        final int length = array.length;
+
+        if ( UNSAFE != null ) {
+            for (; index + 8 <= length; index += 8 ) {
+                long word = UNSAFE.getLong( array, BYTE_BASE + index );
+                long found = zeroBytes( word ^ QUOTES ) | zeroBytes( word ^ BACKSLASHES );
+                if ( found != 0 ) {
+                    return index + firstByte( found );
+                }
+            }
+        }
+
+        for (; index < length; index++ ) {
+            byte b = array[ index ];
+            if ( b == '"' || b == '\\' ) {
+                return index;
+            }
+        }
+        return length;
+    }
+
+
+    /**
+     * Index of the first printable ASCII byte (above space, below 0x80) at or after index, or the length of the array.
+     */
+    public static int indexOfNonWhiteSpace( final byte[] array, int index ) {
+
+        final int length = array.length;
+
+        if ( UNSAFE != null ) {
+            for (; index + 8 <= length; index += 8 ) {
+                long word = UNSAFE.getLong( array, BYTE_BASE + index );
+                long found = ( ( word & LOW_SEVEN_BITS ) + ABOVE_SPACE ) & ~word & HIGH_BITS;
+                if ( found != 0 ) {
+                    return index + firstByte( found );
+                }
+            }
+        }
+
+        for (; index < length; index++ ) {
+            if ( array[ index ] > 32 ) {
+                return index;
+            }
+        }
+        return length;
+    }
+
+
 }
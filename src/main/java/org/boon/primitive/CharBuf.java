@@ -88,6 +88,13 @@ public class CharBuf extends Writer implements CharSequence {
     public void close() throws IOException {
     }
 
+    /**
+     * The serializers call this between the items of an array or map, where everything added so far is final.
+     * Does nothing here, {@link StreamingCharBuf} hands what it has to its sink once it has enough.
+     */
+    public void checkpoint() {
+    }
+
     public void init() {
         buffer = new char[ capacity ];
     }
@@ -548,7 +555,7 @@ public class CharBuf extends Writer implements CharSequence {
         char [] _buffer = buffer;
         int _capacity = capacity;
 
-        int sizeNeeded = chars.length + 2 + _location;
+        int sizeNeeded = chars.length + 3 + _location;
         if (  sizeNeeded > _capacity ) {
             _buffer = Chr.grow( _buffer, sizeNeeded * 2  );
             _capacity = _buffer.length;
@@ -920,21 +927,26 @@ public class CharBuf extends Writer implements CharSequence {
 
 
     public void addAsUTF( byte[] value ) {
+        addAsUTF( value, 0, value.length );
+    }
+
 
+    public void addAsUTF( byte[] value, int start, int end ) {
 
+        int length = end - start;
 
         if ( this.buffer == null ) {
-            this.buffer = new char[ value.length * 2 ];
+            this.buffer = new char[ length * 2 ];
             capacity = buffer.length;
-        } else if ( this.buffer.length < value.length ) {
-            buffer = Chr.grow( buffer, value.length - buffer.length );
+        } else if ( this.buffer.length - location < length ) {
+            buffer = Chr.grow( buffer, length + location - buffer.length );
             capacity = buffer.length;
         }
 
         char [] buffer = this.buffer;
         int location = this.location;
 
-        for ( int index = 0; index < value.length; index++ ) {
+        for ( int index = start; index < end; index++ ) {
             int c = value[ index ];
 
 
@@ -1043,14 +1055,17 @@ public class CharBuf extends Writer implements CharSequence {
                     ( b4 & 0x3f );
 
             if ( isMalformed4( b2, b3, b4 ) && !Surrogate.neededFor( uc ) ) {
-                addChar( '#' );
+                buffer [location] =  '#' ;
+                location ++;
             } else {
 
                 final char high = Surrogate.high( uc );
                 final char low = Surrogate.low( uc );
 
-                addChar( high );
-                addChar( low );
+                buffer [location] = high;
+                location ++;
+                buffer [location] = low;
+                location ++;
 
             }
         }
@@ -1368,7 +1383,11 @@ public class CharBuf extends Writer implements CharSequence {
                     buffer[location++]=(char)c;
                 }
             } else {
+                this.buffer = buffer;
+                this.location = location;
                 index = utf8MultiByte( c, index, bytes );
+                buffer = this.buffer;
+                location = this.location;
             }
         }
 
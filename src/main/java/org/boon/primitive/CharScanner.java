@@ -407,6 +407,9 @@ public class CharScanner {
                                     num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
                                     if ( ++offset < to ) {
                                         num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
+                                        if ( ++offset < to ) {
+                                            num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
+                                        }
                                     }
                                 }
                             }
@@ -438,6 +441,9 @@ public class CharScanner {
                                     num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
                                     if ( ++offset < to ) {
                                         num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
+                                        if ( ++offset < to ) {
+                                            num = ( num * 10 ) + ( digitChars[ offset ] - '0' );
+                                        }
                                     }
                                 }
                             }
@@ -484,6 +490,13 @@ public class CharScanner {
     }
 
     public static long parseLong( char[] digitChars, int offset, int len ) {
+        if ( len > 18 ) {
+            long num = 0;
+            for ( int index = offset; index < offset + len; index++ ) {
+                num = ( num * 10 ) + ( digitChars[ index ] - '0' );
+            }
+            return num;
+        }
         int len1 = len - 9;
         long val = parseInt( digitChars, offset, len1 ) * L_BILLION;
         return val + ( long ) parseInt( digitChars, offset + len1, 9 );
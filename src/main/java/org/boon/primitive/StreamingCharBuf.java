@@ -0,0 +1,123 @@
+package org.boon.primitive;
+
+import org.boon.Exceptions;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
+import static org.boon.Exceptions.die;
+
+/**
+ * A {@link CharBuf} that hands what it holds to a sink at each {@link #checkpoint()} once it has
+ * <code>flushSize</code> chars or more, so serializing a large collection needs about that much memory
+ * instead of the whole document.
+ * Byte sinks get UTF-8 encoded straight from the buffer into a reusable {@link ByteBuf}.
+ * Call {@link #flush()} at the end to hand off the rest.
+ */
+public abstract class StreamingCharBuf extends CharBuf {
+
+    public static final int DEFAULT_FLUSH_SIZE = 8 * 1024;
+
+    private final int flushSize;
+
+
+    protected StreamingCharBuf( int flushSize ) {
+        super( flushSize + flushSize / 2 );
+        this.flushSize = flushSize;
+    }
+
+
+    public static StreamingCharBuf create( final OutputStream output, final int flushSize ) {
+        return new StreamingCharBuf( flushSize ) {
+            private final ByteBuf bytes = ByteBuf.create( flushSize * 2 );
+
+            @Override
+            protected void drain( char[] chars, int length ) throws IOException {
+                bytes.addUTF8( chars, 0, length );
+                int count = bytes.len();
+                output.write( bytes.readForRecycle(), 0, count );
+            }
+
+            @Override
+            protected void flushSink() throws IOException {
+                output.flush();
+            }
+        };
+    }
+
+
+    public static StreamingCharBuf create( final Writer writer, final int flushSize ) {
+        return new StreamingCharBuf( flushSize ) {
+            @Override
+            protected void drain( char[] chars, int length ) throws IOException {
+                writer.write( chars, 0, length );
+            }
+
+            @Override
+            protected void flushSink() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+
+    /** Fails once the byte buffer has no room left for what is being handed off. */
+    public static StreamingCharBuf create( final ByteBuffer output, final int flushSize ) {
+        return new StreamingCharBuf( flushSize ) {
+            private final ByteBuf bytes = ByteBuf.create( flushSize * 2 );
+
+            @Override
+            protected void drain( char[] chars, int length ) {
+                bytes.addUTF8( chars, 0, length );
+                int count = bytes.len();
+                if ( count > output.remaining() ) {
+                    die( "byte buffer is full, needed " + count + " bytes but only " + output.remaining() + " are left" );
+                }
+                output.put( bytes.readForRecycle(), 0, count );
+            }
+
+            @Override
+            protected void flushSink() {
+            }
+        };
+    }
+
+
+    protected abstract void drain( char[] chars, int length ) throws IOException;
+
+    protected abstract void flushSink() throws IOException;
+
+
+    @Override
+    public void checkpoint() {
+        if ( location >= flushSize ) {
+            handOff();
+        }
+    }
+
+
+    private void handOff() {
+        int length = location;
+        if ( length == 0 ) {
+            return;
+        }
+        try {
+            drain( readForRecycle(), length );
+        } catch ( IOException ex ) {
+            Exceptions.handle( ex );
+        }
+    }
+
+
+    @Override
+    public void flush() {
+        handOff();
+        try {
+            flushSink();
+        } catch ( IOException ex ) {
+            Exceptions.handle( ex );
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.boon.benchmark.datarepo;
+
+import org.boon.benchmark.datarepo.model.Employee;
+import org.boon.benchmark.datarepo.utils.BenchmarkHelper;
+import org.boon.criteria.Criteria;
+import org.boon.criteria.QueryFactory;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.boon.Boon.println;
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+import static org.boon.criteria.CriteriaFactory.and;
+import static org.boon.criteria.CriteriaFactory.gt;
+import static org.boon.criteria.CriteriaFactory.lt;
+
+
+/**
+ * An and of two indexed criteria that each match about half the repo,
+ * so the index results are intersected as row id bitmaps, against checking every item.
+ */
+public class BenchMarkAndQuery {
+
+
+    static int numCreations = 200_000;
+
+    @Test
+    public void test() {
+        numCreations = 100;
+    }
+
+    public static void main( String[] args ) throws Exception {
+
+
+        final List<Employee> employees = BenchmarkHelper.createMetricTonOfEmployees( numCreations );
+        System.out.println( "employees created " + employees.size() );
+
+        Repo<String, Employee> repo = Repos.builder().primaryKey( "id" )
+                .searchIndex( "empNum" ).searchIndex( "salary" )
+                .build( String.class, Employee.class );
+        repo.addAll( employees );
+
+        Criteria[] criteria = { gt( "empNum", ( long ) numCreations / 2 ), lt( "salary", 160_000 ) };
+
+
+        for ( int index = 0; index < 7; index++ ) {
+
+            System.gc();
+            Thread.sleep( 10 );
+
+            long start = System.nanoTime();
+            int found = 0;
+            for ( int run = 0; run < 10; run++ ) {
+                found = repo.query( criteria ).size();
+            }
+            long indexTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int scanned = 0;
+            for ( int run = 0; run < 10; run++ ) {
+                scanned = QueryFactory.filter( employees, and( criteria ) ).size();
+            }
+            long scanTime = System.nanoTime() - start;
+
+            if ( found != scanned ) {
+                die( "results differ " + found + " " + scanned );
+            }
+
+            puts( "found", found,
+                    "indexes ms/query", indexTime / 10_000_000.0,
+                    "scan ms/query", scanTime / 10_000_000.0 );
+        }
+
+        println( "done" );
+
+
+    }
+
+}
@@ -0,0 +1,78 @@
+package org.boon.benchmark.datarepo;
+
+import org.boon.benchmark.datarepo.model.Employee;
+import org.boon.benchmark.datarepo.utils.BenchmarkHelper;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.boon.Boon.println;
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+
+
+/**
+ * Loading a repo with several indexes an item at a time against addAll,
+ * which fills the indexes side by side and builds search indexes from sorted keys.
+ */
+public class BenchMarkBulkLoad {
+
+
+    static int numCreations = 200_000;
+
+    @Test
+    public void test() {
+        numCreations = 100;
+    }
+
+    private static Repo<String, Employee> repo() {
+        return Repos.builder().primaryKey( "id" )
+                .searchIndex( "firstName" ).searchIndex( "lastName" )
+                .searchIndex( "salary" ).searchIndex( "empNum" ).searchIndex( "birthDate" )
+                .lookupIndex( "lastName" ).build( String.class, Employee.class );
+    }
+
+    public static void main( String[] args ) throws Exception {
+
+
+        final List<Employee> employees = BenchmarkHelper.createMetricTonOfEmployees( numCreations );
+        System.out.println( "employees created " + employees.size() );
+
+
+        for ( int index = 0; index < 7; index++ ) {
+
+            System.gc();
+            Thread.sleep( 10 );
+
+            Repo<String, Employee> oneAtATime = repo();
+            long start = System.nanoTime();
+            for ( Employee employee : employees ) {
+                oneAtATime.add( employee );
+            }
+            long addTime = System.nanoTime() - start;
+
+            System.gc();
+            Thread.sleep( 10 );
+
+            Repo<String, Employee> bulk = repo();
+            start = System.nanoTime();
+            bulk.addAll( employees );
+            long addAllTime = System.nanoTime() - start;
+
+            if ( bulk.size() != oneAtATime.size() ) {
+                die( "sizes differ " + bulk.size() + " " + oneAtATime.size() );
+            }
+
+            puts( "items", employees.size(),
+                    "add one at a time ms", addTime / 1_000_000,
+                    "addAll ms", addAllTime / 1_000_000 );
+        }
+
+        println( "done" );
+
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package org.boon.benchmark.datarepo;
+
+import org.boon.benchmark.datarepo.model.Employee;
+import org.boon.benchmark.datarepo.utils.BenchmarkHelper;
+import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.criteria.CompiledCriteria;
+import org.boon.criteria.Criteria;
+import org.boon.criteria.QueryFactory;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Boon.println;
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+import static org.boon.criteria.CriteriaFactory.and;
+import static org.boon.criteria.CriteriaFactory.between;
+import static org.boon.criteria.CriteriaFactory.gt;
+
+
+/**
+ * A linear scan with the criteria testing each item against the same scan with the criteria compiled.
+ */
+public class BenchMarkCompiledCriteria {
+
+
+    static int numCreations = 200_000;
+
+    @Test
+    public void test() {
+        numCreations = 100;
+    }
+
+    public static void main( String[] args ) throws Exception {
+
+
+        final List<Employee> employees = BenchmarkHelper.createMetricTonOfEmployees( numCreations );
+        System.out.println( "employees created " + employees.size() );
+
+        Map<String, FieldAccess> fields = BeanUtils.getPropertyFieldAccessMap( Employee.class );
+        Criteria criteria = and( gt( "salary", 50_000 ), between( "empNum", 1_000L, numCreations / 2L ),
+                gt( "lastName", "M" ) );
+
+
+        for ( int index = 0; index < 7; index++ ) {
+
+            System.gc();
+            Thread.sleep( 10 );
+
+            long start = System.nanoTime();
+            int found = 0;
+            for ( int run = 0; run < 10; run++ ) {
+                found = QueryFactory.filter( employees, criteria ).size();
+            }
+            long criteriaTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int compiledFound = 0;
+            for ( int run = 0; run < 10; run++ ) {
+                compiledFound = CompiledCriteria.filter( employees, fields, criteria ).size();
+            }
+            long compiledTime = System.nanoTime() - start;
+
+            if ( found != compiledFound ) {
+                die( "results differ " + found + " " + compiledFound );
+            }
+
+            puts( "found", found,
+                    "criteria ms/scan", criteriaTime / 10_000_000.0,
+                    "compiled ms/scan", compiledTime / 10_000_000.0 );
+        }
+
+        println( "done" );
+
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.boon.benchmark.datarepo;
+
+import org.boon.benchmark.datarepo.model.Employee;
+import org.boon.benchmark.datarepo.utils.BenchmarkHelper;
+import org.boon.criteria.Criteria;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.boon.Boon.println;
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+import static org.boon.criteria.CriteriaFactory.eq;
+
+
+/**
+ * Readers searching a repo while a writer keeps updating it.
+ * Compares a plain repo behind one lock, which is what callers had to do,
+ * with a repo built with concurrent( true ).
+ */
+public class BenchMarkConcurrentSearch {
+
+
+    static int numCreations = 100_000;
+
+    static int readers = Runtime.getRuntime().availableProcessors();
+
+    static long runTime = 2_000;
+
+    @Test
+    public void test() {
+        numCreations = 100;
+    }
+
+    public static void main( String[] args ) throws Exception {
+
+
+        final List<Employee> employees = BenchmarkHelper.createMetricTonOfEmployees( numCreations );
+        System.out.println( "employees created " + employees.size() );
+
+
+        for ( int index = 0; index < 5; index++ ) {
+
+            Repo<String, Employee> plain = Repos.builder().primaryKey( "id" )
+                    .searchIndex( "firstName" ).build( String.class, Employee.class );
+            plain.addAll( employees );
+
+            Repo<String, Employee> concurrent = Repos.builder().primaryKey( "id" )
+                    .searchIndex( "firstName" ).concurrent( true ).build( String.class, Employee.class );
+            concurrent.addAll( employees );
+
+            System.gc();
+            Thread.sleep( 10 );
+            long lockedQueries = run( plain, employees, true );
+
+            System.gc();
+            Thread.sleep( 10 );
+            long concurrentQueries = run( concurrent, employees, false );
+
+            puts( "readers", readers,
+                    "one lock queries/ms", lockedQueries / runTime,
+                    "concurrent queries/ms", concurrentQueries / runTime );
+        }
+
+        println( "done" );
+
+
+    }
+
+
+    private static long run( final Repo<String, Employee> repo, final List<Employee> employees,
+                             final boolean outerLock ) throws Exception {
+
+        final Criteria exp = eq( "firstName", "Mike" );
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicLong queries = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch( readers + 1 );
+
+        for ( int thread = 0; thread < readers; thread++ ) {
+            new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    long count = 0;
+                    while ( !stop.get() ) {
+                        List<Employee> results;
+                        if ( outerLock ) {
+                            synchronized ( repo ) {
+                                results = repo.query( exp );
+                            }
+                        } else {
+                            results = repo.query( exp );
+                        }
+                        if ( results.size() == 0 ) {
+                            die( "not found" );
+                        }
+                        count++;
+                    }
+                    queries.addAndGet( count );
+                    done.countDown();
+                }
+            } ).start();
+        }
+
+        new Thread( new Runnable() {
+            @Override
+            public void run() {
+                int salary = 0;
+                while ( !stop.get() ) {
+                    Employee employee = employees.get( salary % employees.size() );
+                    if ( outerLock ) {
+                        synchronized ( repo ) {
+                            repo.update( employee.getId(), "salary", salary );
+                        }
+                    } else {
+                        repo.update( employee.getId(), "salary", salary );
+                    }
+                    salary++;
+                }
+                done.countDown();
+            }
+        } ).start();
+
+        Thread.sleep( runTime );
+        stop.set( true );
+        done.await();
+
+        return queries.get();
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.boon.benchmark.datarepo;
+
+import org.boon.benchmark.datarepo.model.Employee;
+import org.boon.benchmark.datarepo.utils.BenchmarkHelper;
+import org.boon.core.Function;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.datarepo.impl.indexes.SearchIndexDefault;
+import org.boon.datarepo.spi.SearchIndex;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.boon.Boon.println;
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+import static org.boon.criteria.CriteriaFactory.between;
+
+
+/**
+ * Range queries on a long key, the index picked for primitive keys against the tree map index,
+ * with the heap each repo takes.
+ */
+public class BenchMarkPrimitiveIndex {
+
+
+    static int numCreations = 200_000;
+
+    @Test
+    public void test() {
+        numCreations = 100;
+    }
+
+    public static void main( String[] args ) throws Exception {
+
+
+        final List<Employee> employees = BenchmarkHelper.createMetricTonOfEmployees( numCreations );
+        System.out.println( "employees created " + employees.size() );
+
+        /* Let the garbage from creating the employees go first. */
+        usedMemory();
+        long before = usedMemory();
+        Repo<String, Employee> primitive = Repos.builder().primaryKey( "id" )
+                .searchIndex( "empNum" ).build( String.class, Employee.class );
+        primitive.addAll( employees );
+        long primitiveMemory = usedMemory() - before;
+
+        before = usedMemory();
+        Repo<String, Employee> tree = Repos.builder().primaryKey( "id" )
+                .searchIndexFactory( new Function<Class, SearchIndex>() {
+                    @Override
+                    public SearchIndex apply( Class keyType ) {
+                        return new SearchIndexDefault( keyType );
+                    }
+                } )
+                .searchIndex( "empNum" ).build( String.class, Employee.class );
+        tree.addAll( employees );
+        long treeMemory = usedMemory() - before;
+
+        puts( "primitive repo bytes", primitiveMemory, "tree repo bytes", treeMemory );
+
+
+        for ( int index = 0; index < 7; index++ ) {
+
+            System.gc();
+            Thread.sleep( 10 );
+
+            long start = System.nanoTime();
+            int found = 0;
+            for ( int run = 0; run < 10; run++ ) {
+                found = primitive.query( between( "empNum", 10_000L, numCreations - 10_000L ) ).size();
+            }
+            long primitiveTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int treeFound = 0;
+            for ( int run = 0; run < 10; run++ ) {
+                treeFound = tree.query( between( "empNum", 10_000L, numCreations - 10_000L ) ).size();
+            }
+            long treeTime = System.nanoTime() - start;
+
+            if ( found != treeFound ) {
+                die( "results differ " + found + " " + treeFound );
+            }
+
+            puts( "found", found,
+                    "primitive ms/query", primitiveTime / 10_000_000.0,
+                    "tree ms/query", treeTime / 10_000_000.0 );
+        }
+
+        println( "done" );
+
+
+    }
+
+    private static long usedMemory() throws Exception {
+        for ( int index = 0; index < 3; index++ ) {
+            System.gc();
+            Thread.sleep( 10 );
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+}
@@ -0,0 +1,131 @@
+package org.boon.benchmark.datarepo;
+
+import org.boon.benchmark.datarepo.model.Employee;
+import org.boon.benchmark.datarepo.utils.BenchmarkHelper;
+import org.boon.criteria.Criteria;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.boon.Boon.println;
+import static org.boon.Boon.puts;
+import static org.boon.Exceptions.die;
+import static org.boon.criteria.CriteriaFactory.between;
+
+
+/**
+ * Readers running range queries while a writer refreshes the repo in batches.
+ * Compares a repo built with concurrent( true ) with one built with snapshots( true ).
+ */
+public class BenchMarkSnapshotSearch {
+
+
+    static int numCreations = 100_000;
+
+    static int readers = Runtime.getRuntime().availableProcessors();
+
+    static long runTime = 2_000;
+
+    /* Time between batches from the writer. */
+    static long refresh = 200;
+
+    @Test
+    public void test() {
+        numCreations = 100;
+    }
+
+    public static void main( String[] args ) throws Exception {
+
+
+        final List<Employee> employees = BenchmarkHelper.createMetricTonOfEmployees( numCreations );
+        System.out.println( "employees created " + employees.size() );
+
+
+        for ( int index = 0; index < 5; index++ ) {
+
+            Repo<String, Employee> concurrent = Repos.builder().primaryKey( "id" )
+                    .searchIndex( "empNum" ).concurrent( true ).build( String.class, Employee.class );
+            concurrent.addAll( employees );
+
+            Repo<String, Employee> snapshots = Repos.builder().primaryKey( "id" )
+                    .searchIndex( "empNum" ).snapshots( true ).build( String.class, Employee.class );
+            snapshots.addAll( employees );
+
+            System.gc();
+            Thread.sleep( 10 );
+            long concurrentQueries = run( concurrent, employees );
+
+            System.gc();
+            Thread.sleep( 10 );
+            long snapshotQueries = run( snapshots, employees );
+
+            puts( "readers", readers,
+                    "concurrent queries/ms", concurrentQueries / runTime,
+                    "snapshot queries/ms", snapshotQueries / runTime );
+        }
+
+        println( "done" );
+
+
+    }
+
+
+    private static long run( final Repo<String, Employee> repo, final List<Employee> employees ) throws Exception {
+
+        final Criteria exp = between( "empNum", 1_000L, 1_100L );
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicLong queries = new AtomicLong();
+        final CountDownLatch done = new CountDownLatch( readers + 1 );
+
+        for ( int thread = 0; thread < readers; thread++ ) {
+            new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    long count = 0;
+                    while ( !stop.get() ) {
+                        if ( repo.query( exp ).size() == 0 ) {
+                            die( "not found" );
+                        }
+                        count++;
+                    }
+                    queries.addAndGet( count );
+                    done.countDown();
+                }
+            } ).start();
+        }
+
+        new Thread( new Runnable() {
+            @Override
+            public void run() {
+                int offset = 0;
+                while ( !stop.get() ) {
+                    List<Employee> batch = new ArrayList<>( 1_000 );
+                    for ( int index = 0; index < 1_000; index++ ) {
+                        batch.add( employees.get( ( offset + index ) % employees.size() ) );
+                    }
+                    repo.modifyAll( batch );
+                    offset += 1_000;
+                    try {
+                        Thread.sleep( refresh );
+                    } catch ( InterruptedException ex ) {
+                        break;
+                    }
+                }
+                done.countDown();
+            }
+        } ).start();
+
+        Thread.sleep( runTime );
+        stop.set( true );
+        done.await();
+
+        return queries.get();
+    }
+
+}
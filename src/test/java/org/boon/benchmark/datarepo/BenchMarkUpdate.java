@@ -40,8 +40,9 @@ public class BenchMarkUpdate {
 
         MeasuredRun run1 = test( employees, testResults );
         MeasuredRun run2 = test1( employees, testResults );
+        MeasuredRun run3 = test2( employees, testResults );
 
-        List<MeasuredRun> runs = Lists.list( run1, run2 );
+        List<MeasuredRun> runs = Lists.list( run1, run2, run3 );
 
 
         for ( int index = 0; index < 1; index++ ) {
@@ -101,6 +102,32 @@ public class BenchMarkUpdate {
         };
     }
 
+    /* Salary has a handful of values, so every update moves an item out of a bucket with thousands in it. */
+    private static MeasuredRun test2( final List<Employee> employees, final Map<String, List<MeasuredRun>> results ) {
+        return new MeasuredRun( "test indexed salary", 1, 10, results ) {
+            Repo repo;
+
+            @Override
+            protected void init() {
+                repo = Repos.builder().primaryKey( "id" ).searchIndex( "salary" )
+                        .lookupIndex( "salary" ).nestedIndex( "department", "name" )
+                        .useUnsafe( true ).removeDuplication( false )
+                        .build( String.class, Employee.class );
+
+                repo.addAll( copy( employees ) );
+
+
+            }
+
+            @Override
+            protected void test() {
+                repo.updateByFilter(
+                        Update.update( Update.incPercent( "salary", 10 ) ),
+                        eqNestedAdvanced( "engineering", "department", "name" ) );
+            }
+        };
+    }
+
     private static MeasuredRun test1( final List<Employee> employees, final Map<String, List<MeasuredRun>> results ) {
         return new MeasuredRun( "test linear", 1, 100, results ) {
             List<Employee> employeeList;
@@ -0,0 +1,117 @@
+package org.boon.cache;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.boon.Boon.puts;
+import static org.junit.Assert.*;
+
+public class KeyCacheTest {
+
+
+    @Test
+    public void hitsReturnTheSameString() {
+
+        KeyCache cache = new KeyCache( 64 );
+        char[] json = "{\"name\":1,\"name\":2}".toCharArray();
+
+        String first = cache.get( json, 2, 6 );
+        String second = cache.get( json, 11, 15 );
+
+        assertEquals( "name", first );
+        assertSame( first, second );
+        assertEquals( 1, cache.hits() );
+        assertEquals( 1, cache.misses() );
+
+        byte[] bytes = "\"name\"".getBytes( StandardCharsets.UTF_8 );
+        assertSame( first, cache.get( bytes, 1, 5 ) );
+        assertSame( first, cache.intern( new String( "name" ) ) );
+        assertEquals( 3, cache.hits() );
+    }
+
+
+    @Test
+    public void slices() {
+
+        KeyCache cache = new KeyCache( 64 );
+
+        /* Same hash, different keys, the newer one takes the slot. */
+        assertEquals( "Aa".hashCode(), "BB".hashCode() );
+        assertEquals( "Aa", cache.intern( "Aa" ) );
+        assertEquals( "BB", cache.get( "BB".toCharArray(), 0, 2 ) );
+        assertEquals( "Aa", cache.get( "Aa".getBytes( StandardCharsets.UTF_8 ), 0, 2 ) );
+        assertEquals( 0, cache.hits() );
+
+        assertNull( cache.get( "café".getBytes( StandardCharsets.UTF_8 ), 0, 5 ) );
+
+        assertEquals( "", cache.get( new char[ 0 ], 0, 0 ) );
+
+        char[] longKey = new char[ KeyCache.MAX_KEY_LENGTH + 1 ];
+        assertNotSame( cache.get( longKey, 0, longKey.length ), cache.get( longKey, 0, longKey.length ) );
+    }
+
+
+    @Test
+    public void staysBounded() {
+
+        KeyCache cache = new KeyCache( 1_000 );
+        assertEquals( 1_024, cache.capacity() );
+
+        Set<String> distinct = Collections.newSetFromMap( new IdentityHashMap<String, Boolean>() );
+
+        for ( int index = 0; index < 100_000; index++ ) {
+            char[] key = ( "user-key-" + index ).toCharArray();
+            distinct.add( cache.get( key, 0, key.length ) );
+        }
+        assertEquals( 100_000, cache.misses() );
+
+        /* Repeating a small set of keys gives back the cached strings. */
+        distinct.clear();
+        for ( int run = 0; run < 1_000; run++ ) {
+            for ( String name : new String[]{ "id", "name", "email", "address", "created" } ) {
+                distinct.add( cache.get( name.toCharArray(), 0, name.length() ) );
+            }
+        }
+        assertEquals( 5, distinct.size() );
+        puts( cache );
+    }
+
+
+    @Test
+    public void sharedBetweenThreads() throws Exception {
+
+        final KeyCache cache = new KeyCache( 256 );
+        final String[] names = new String[ 500 ];
+        for ( int index = 0; index < names.length; index++ ) {
+            names[ index ] = "key" + index;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        final boolean[] ok = { true };
+
+        for ( int thread = 0; thread < 4; thread++ ) {
+            executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int run = 0; run < 200; run++ ) {
+                        for ( String name : names ) {
+                            if ( !name.equals( cache.get( name.toCharArray(), 0, name.length() ) ) ) {
+                                ok[ 0 ] = false;
+                            }
+                        }
+                    }
+                }
+            } );
+        }
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 30, TimeUnit.SECONDS ) );
+        assertTrue( ok[ 0 ] );
+    }
+}
@@ -0,0 +1,68 @@
+package org.boon.core.reflection.fields;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FieldNameLookupTest {
+
+
+    public static class Wide {
+        int f0, f1, f2, f3, f4, f5, f6, f7, f8, f9;
+        int f10, f11, f12, f13, f14, f15, f16, f17, f18, f19;
+        int f20, f21, f22, f23, f24, f25, f26, f27, f28, f29;
+        int f30, f31, f32, f33, f34, f35, f36, f37, f38, f39;
+        String name, firstName, lastName, emailAddress;
+    }
+
+
+    @Test
+    public void findsEveryFieldFromTheBuffer() {
+
+        FieldsAccessor accessor = new FieldFieldsAccessor();
+        FieldNameLookup lookup = accessor.getFieldLookup( Wide.class );
+        assertSame( lookup, accessor.getFieldLookup( Wide.class ) );
+
+        for ( Map.Entry<String, FieldAccess> entry : accessor.getFields( Wide.class ).entrySet() ) {
+            char[] buffer = ( "{\"" + entry.getKey() + "\":1}" ).toCharArray();
+            assertSame( entry.getValue(), lookup.find( buffer, 2, 2 + entry.getKey().length() ) );
+        }
+
+        char[] buffer = "\"f40\" \"nam\" \"names\" \"\"".toCharArray();
+        assertNull( lookup.find( buffer, 1, 4 ) );
+        assertNull( lookup.find( buffer, 7, 10 ) );
+        assertNull( lookup.find( buffer, 13, 18 ) );
+        assertNull( lookup.find( buffer, 21, 21 ) );
+    }
+
+
+    @Test
+    public void sameHashDifferentName() {
+
+        /* "Aa" and "BB" have the same String hash code. */
+        Map<String, FieldAccess> fields = new LinkedHashMap<>( new FieldFieldsAccessor().getFields( Wide.class ) );
+        FieldAccess first = fields.get( "f1" );
+        FieldAccess second = fields.get( "f2" );
+
+        Map<String, FieldAccess> colliding = new LinkedHashMap<>();
+        colliding.put( "Aa", first );
+        colliding.put( "BB", second );
+
+        FieldNameLookup lookup = new FieldNameLookup( colliding );
+
+        assertSame( first, lookup.find( "Aa".toCharArray(), 0, 2 ) );
+        assertSame( second, lookup.find( "BB".toCharArray(), 0, 2 ) );
+        assertNull( lookup.find( "Ab".toCharArray(), 0, 2 ) );
+    }
+
+
+    @Test
+    public void empty() {
+        assertNull( new FieldNameLookup( new LinkedHashMap<String, FieldAccess>() ).find( "a".toCharArray(), 0, 1 ) );
+    }
+
+}
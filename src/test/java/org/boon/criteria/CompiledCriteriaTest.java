@@ -0,0 +1,122 @@
+package org.boon.criteria;
+
+import org.boon.core.Conversions;
+import org.boon.predicates.Predicate;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.boon.Lists.list;
+import static org.boon.criteria.CriteriaFactory.*;
+import static org.junit.Assert.assertEquals;
+
+
+public class CompiledCriteriaTest {
+
+    public static class Item {
+        int i;
+        long l;
+        short s;
+        char c;
+        double d;
+        float f;
+        boolean b;
+        String name;
+        Date date;
+
+        Item( int index ) {
+            i = index;
+            l = index * 1_000L;
+            s = ( short ) ( index % 7 );
+            c = ( char ) ( 'a' + index % 26 );
+            d = index / 4.0;
+            f = index / 10.0f;
+            b = index % 2 == 0;
+            name = index % 5 == 0 ? null : "item" + index;
+            date = Conversions.toDate( "1." + ( 10 + index % 20 ) + ".1970:00:00:01" );
+        }
+    }
+
+
+    private static List<Item> items() {
+        List<Item> items = new ArrayList<>();
+        for ( int index = 0; index < 200; index++ ) {
+            items.add( new Item( index ) );
+        }
+        return items;
+    }
+
+
+    /* Names are null on every fifth item, which the string criteria do not take. */
+    private static List<Criteria> criteria() {
+        return list(
+                eq( "i", 7 ), eq( "i", "7" ), notEq( "i", 7 ), lt( "i", 20 ), lte( "i", 20 ), gt( "i", "150" ), gte( "i", 150 ),
+                between( "i", 10, 20 ), in( "i", 1, 3, 5, 200 ), notIn( "i", 1, 3, 5 ),
+                eq( "l", 7_000 ), between( "l", 5_000L, 9_000L ), gt( "s", 4 ), in( "s", 1, 2 ), eq( "c", 'c' ),
+                eq( "d", 2.5 ), lt( "d", 10 ), eq( "f", 0.1 ), between( "f", 1, 2.5f ),
+                eq( "b", true ), notEq( "b", "true" ),
+                eq( "name", "item7" ), notEq( "name", "item7" ), and( notNull( "name" ), startsWith( "name", "item1" ) ), in( "name", "item3", "item4" ),
+                notNull( "name" ), isNull( "name" ), gt( "date", "1.20.1970:00:00:01" ), between( "date", "1.12.1970:00:00:01", "1.15.1970:00:00:01" ),
+                and( gt( "i", 10 ), lt( "i", 100 ), not( eq( "name", "item50" ) ) ),
+                or( eq( "i", 3 ), and( eq( "b", false ), gt( "d", 40 ) ), and( notNull( "name" ), startsWith( "name", "item19" ) ) ),
+                instanceOf( Item.class ), eqDouble( "d", 2.5 )
+        );
+    }
+
+
+    @Test
+    public void sameAsCriteria() {
+
+        List<Item> items = items();
+
+        for ( Criteria criteria : criteria() ) {
+            Predicate<Item> predicate = CompiledCriteria.compile( Item.class, criteria );
+            for ( Item item : items ) {
+                assertEquals( criteria.toString(), criteria.test( item ), predicate.test( item ) );
+            }
+        }
+
+        /* A not resolves its criterion without converting the value, compiled it compares as a short. */
+        assertEquals( false, CompiledCriteria.compile( Item.class, not( eq( "s", 3 ) ) ).test( new Item( 3 ) ) );
+    }
+
+
+    @Test
+    public void sharedAcrossThreads() throws Exception {
+
+        final List<Item> items = items();
+        final Predicate<Item> predicate = CompiledCriteria.compile( Item.class,
+                and( between( "i", 10, 109 ), notNull( "name" ), eq( "b", true ) ) );
+
+        final AtomicInteger found = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for ( int thread = 0; thread < 4; thread++ ) {
+            threads.add( new Thread( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int run = 0; run < 1_000; run++ ) {
+                        int count = 0;
+                        for ( Item item : items ) {
+                            if ( predicate.test( item ) ) {
+                                count++;
+                            }
+                        }
+                        found.addAndGet( count );
+                    }
+                }
+            } ) );
+        }
+        for ( Thread thread : threads ) {
+            thread.start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        /* Even i from 10 to 109, less the multiples of ten, which have no name. */
+        assertEquals( 4 * 1_000 * 40, found.get() );
+    }
+}
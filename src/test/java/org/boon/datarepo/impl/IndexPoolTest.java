@@ -0,0 +1,91 @@
+package org.boon.datarepo.impl;
+
+import org.boon.core.reflection.BeanUtils;
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.criteria.CompiledCriteria;
+import org.boon.criteria.Criteria;
+import org.boon.criteria.QueryFactory;
+import org.boon.predicates.Predicate;
+import org.boon.tests.model.Employee;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.boon.criteria.CriteriaFactory.*;
+import static org.boon.criteria.Selector.select;
+import static org.junit.Assert.*;
+
+public class IndexPoolTest {
+
+
+    private static List<Employee> employees() {
+        List<Employee> employees = new ArrayList<>();
+        for ( int index = 0; index < IndexPool.SCAN_THRESHOLD + 1_001; index++ ) {
+            employees.add( Employee.employee( index % 3 == 0 ? "Rick" : "Diana", "Hightower" + index,
+                    "" + index, "5.29.1970:00:00:01", index ) );
+        }
+        return employees;
+    }
+
+
+    @Test
+    public void rangesCoverEveryItemOnce() {
+
+        final AtomicIntegerArray seen = new AtomicIntegerArray( 1_003 );
+        IndexPool.forRanges( seen.length(), 7, new IndexPool.Range() {
+            @Override
+            public void run( int from, int to ) {
+                for ( int index = from; index < to; index++ ) {
+                    seen.incrementAndGet( index );
+                }
+            }
+        } );
+
+        for ( int index = 0; index < seen.length(); index++ ) {
+            assertEquals( 1, seen.get( index ) );
+        }
+    }
+
+
+    @Test
+    public void chunkedScanKeepsOrder() {
+
+        List<Employee> employees = employees();
+        Map<String, FieldAccess> fields = BeanUtils.getPropertyFieldAccessMap( Employee.class );
+
+        Criteria criteria = or( and( eq( "firstName", "Rick" ), gt( "salary", 5_000 ) ), lt( "salary", 100 ) );
+        Predicate<Employee> predicate = CompiledCriteria.compile( fields, criteria );
+        assertTrue( CompiledCriteria.isCompiled( predicate ) );
+
+        List<Employee> expected = QueryFactory.filter( employees, criteria );
+        assertEquals( expected, IndexPool.filter( employees, predicate, 1 ) );
+        assertEquals( expected, IndexPool.filter( employees, predicate, 13 ) );
+        assertEquals( expected, IndexPool.filter( new LinkedList<>( employees ), predicate, 13 ) );
+        assertEquals( expected, IndexPool.filter( employees, fields, criteria ) );
+
+        /* Nested paths resolve themselves, so they are not shared across threads. */
+        assertFalse( CompiledCriteria.isCompiled( CompiledCriteria.compile( fields,
+                and( gt( "salary", 5 ), eqNested( "Engineering", "department", "name" ) ) ) ) );
+    }
+
+
+    @Test
+    public void selectsFieldsInOrder() {
+
+        List<Employee> employees = employees();
+        Map<String, FieldAccess> fields = BeanUtils.getPropertyFieldAccessMap( Employee.class );
+
+        int[] salaries = new ResultSetImpl<>( employees, fields ).selectInts( select( "salary" ) );
+        double[] doubles = new ResultSetImpl<>( employees, fields ).selectDoubles( select( "salary" ) );
+
+        assertEquals( employees.size(), salaries.length );
+        for ( int index = 0; index < salaries.length; index++ ) {
+            assertEquals( index, salaries[ index ] );
+            assertEquals( index, doubles[ index ], 0 );
+        }
+    }
+}
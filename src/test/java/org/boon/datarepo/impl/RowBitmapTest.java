@@ -0,0 +1,80 @@
+package org.boon.datarepo.impl;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RowBitmapTest {
+
+
+    @Test
+    public void build() {
+
+        RowBitmap bitmap = RowBitmap.of( new int[]{ 70_000, 3, 3, 1, 65_536 }, 5 );
+
+        assertEquals( 4, bitmap.cardinality() );
+        assertArrayEquals( new int[]{ 1, 3, 65_536, 70_000 }, bitmap.toArray() );
+        assertTrue( bitmap.contains( 65_536 ) );
+        assertFalse( bitmap.contains( 2 ) );
+        assertEquals( 0, RowBitmap.of( new int[ 0 ], 0 ).cardinality() );
+    }
+
+
+    @Test
+    public void sameAsBitSet() {
+
+        Random random = new Random( 7 );
+
+        /* Sparse, dense and mixed chunks, so arrays and bitmaps meet each other. */
+        int[][] shapes = { { 200_000, 300 }, { 70_000, 60_000 }, { 140_000, 20_000 } };
+
+        for ( int[] left : shapes ) {
+            for ( int[] right : shapes ) {
+                BitSet leftSet = new BitSet();
+                BitSet rightSet = new BitSet();
+                RowBitmap leftBitmap = random( random, left[ 0 ], left[ 1 ], leftSet );
+                RowBitmap rightBitmap = random( random, right[ 0 ], right[ 1 ], rightSet );
+
+                BitSet expected = ( BitSet ) leftSet.clone();
+                expected.and( rightSet );
+                check( expected, leftBitmap.and( rightBitmap ) );
+
+                expected = ( BitSet ) leftSet.clone();
+                expected.or( rightSet );
+                check( expected, leftBitmap.or( rightBitmap ) );
+
+                expected = ( BitSet ) leftSet.clone();
+                expected.andNot( rightSet );
+                check( expected, leftBitmap.andNot( rightBitmap ) );
+            }
+        }
+    }
+
+
+    private static RowBitmap random( Random random, int range, int count, BitSet set ) {
+        int[] ids = new int[ count ];
+        for ( int index = 0; index < count; index++ ) {
+            ids[ index ] = random.nextInt( range );
+            set.set( ids[ index ] );
+        }
+        return RowBitmap.of( ids, count );
+    }
+
+
+    private static void check( BitSet expected, RowBitmap bitmap ) {
+        int[] ids = new int[ expected.cardinality() ];
+        int count = 0;
+        for ( int id = expected.nextSetBit( 0 ); id >= 0; id = expected.nextSetBit( id + 1 ) ) {
+            ids[ count++ ] = id;
+        }
+        assertEquals( ids.length, bitmap.cardinality() );
+        assertTrue( Arrays.equals( ids, bitmap.toArray() ) );
+    }
+}
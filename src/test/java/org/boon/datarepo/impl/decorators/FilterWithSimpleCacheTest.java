@@ -0,0 +1,121 @@
+package org.boon.datarepo.impl.decorators;
+
+import org.boon.core.reflection.BeanUtils;
+import org.boon.criteria.Criteria;
+import org.boon.datarepo.Filter;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.datarepo.ResultSet;
+import org.boon.datarepo.impl.ResultSetImpl;
+import org.boon.datarepo.modification.ModificationEvent;
+import org.boon.datarepo.modification.ModificationType;
+import org.boon.tests.model.Employee;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.boon.Sets.set;
+import static org.boon.criteria.CriteriaFactory.eq;
+import static org.boon.criteria.CriteriaFactory.gt;
+import static org.boon.datarepo.modification.ModificationEvent.createModification;
+import static org.junit.Assert.assertEquals;
+
+public class FilterWithSimpleCacheTest {
+
+
+    static class Counting implements Filter {
+        int calls;
+
+        @Override
+        public ResultSet filter( Criteria... expressions ) {
+            calls++;
+            return new ResultSetImpl( new ArrayList() );
+        }
+
+        @Override
+        public void invalidate() {
+        }
+
+        @Override
+        public void invalidate( ModificationEvent event ) {
+        }
+    }
+
+
+    @Test
+    public void evictsOnlyWhatTheModificationCanChange() {
+
+        Counting counting = new Counting();
+
+        /* lastName is indexed with a transformer, so an equals there does not pin a value. */
+        FilterWithSimpleCache cache = new FilterWithSimpleCache( counting,
+                BeanUtils.getPropertyFieldAccessMap( Employee.class ), set( "lastName" ) );
+
+        Criteria rick = eq( "firstName", "Rick" );
+        Criteria diana = eq( "firstName", "Diana" );
+        Criteria paid = gt( "salary", 10 );
+        Criteria hightower = eq( "lastName", "Hightower" );
+
+        for ( int run = 0; run < 2; run++ ) {
+            cache.filter( rick );
+            cache.filter( diana );
+            cache.filter( paid );
+            cache.filter( hightower );
+        }
+
+        assertEquals( 4, counting.calls );
+        assertEquals( 4, cache.getHitCount() );
+        assertEquals( 4, cache.getMissCount() );
+
+
+        Employee employee = Employee.employee( "Diana", "Smith", "1", "5.29.1970:00:00:01", 5 );
+
+        cache.invalidate( createModification( ModificationType.AFTER_UPDATE, "1", employee, "salary", ( Object ) null ) );
+        assertEquals( 1, cache.getEvictionCount() );
+
+        /* A whole item, firstName pins Rick out. */
+        cache.invalidate( createModification( ModificationType.AFTER_ADD, "1", employee, null, ( Object ) null ) );
+        assertEquals( 3, cache.getEvictionCount() );
+
+        cache.filter( rick );
+        assertEquals( 4, counting.calls );
+        cache.filter( diana );
+        cache.filter( paid );
+        cache.filter( hightower );
+        assertEquals( 7, counting.calls );
+
+
+        cache.invalidate();
+        assertEquals( 7, cache.getEvictionCount() );
+        cache.filter( rick );
+        assertEquals( 8, counting.calls );
+    }
+
+
+    @Test
+    public void cachedQueriesSeeEdits() {
+
+        Repo<String, Employee> repo = Repos.builder().primaryKey( "id" ).searchIndex( "firstName" )
+                .useCache().build( String.class, Employee.class );
+
+        repo.add( Employee.employee( "Rick", "Hightower", "1", "5.29.1970:00:00:01", 100 ) );
+        repo.add( Employee.employee( "Diana", "Hightower", "2", "5.29.1970:00:00:01", 100 ) );
+
+        assertEquals( 1, repo.query( eq( "firstName", "Rick" ) ).size() );
+        assertEquals( 2, repo.query( gt( "salary", 50 ) ).size() );
+
+        repo.add( Employee.employee( "Rick", "Jones", "3", "5.29.1970:00:00:01", 10 ) );
+        assertEquals( 2, repo.query( eq( "firstName", "Rick" ) ).size() );
+        assertEquals( 2, repo.query( gt( "salary", 50 ) ).size() );
+
+        repo.update( "3", "salary", 70 );
+        assertEquals( 3, repo.query( gt( "salary", 50 ) ).size() );
+
+        repo.update( "2", "firstName", "Rick" );
+        assertEquals( 3, repo.query( eq( "firstName", "Rick" ) ).size() );
+
+        repo.removeByKey( "1" );
+        assertEquals( 2, repo.query( eq( "firstName", "Rick" ) ).size() );
+        assertEquals( 2, repo.query( gt( "salary", 50 ) ).size() );
+    }
+}
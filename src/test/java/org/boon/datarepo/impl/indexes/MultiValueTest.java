@@ -5,7 +5,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.boon.Lists.list;
 
@@ -102,4 +106,89 @@ public class MultiValueTest {
 
     }
 
+    @Test
+    public void testRemoveFromBigBucket() throws Exception {
+
+        List<String> strings = new ArrayList<>();
+        for ( int index = 0; index < 1_000; index++ ) {
+            strings.add( "item" + index );
+            mv = MultiValue.add( mv, strings.get( index ), 3 );
+        }
+
+        /* Twice, so removing one copy leaves the other. */
+        mv = MultiValue.add( mv, strings.get( 7 ), 3 );
+
+        for ( int index = 0; index < 1_000; index += 2 ) {
+            mv = MultiValue.remove( mv, strings.get( index ) );
+        }
+        mv = MultiValue.remove( mv, new String( "item501" ) );
+
+        Assert.assertEquals( 500, mv.size() );
+        Set<Object> left = new HashSet<>( mv.getValues() );
+        for ( int index = 0; index < 1_000; index++ ) {
+            Assert.assertEquals( index % 2 == 1 && index != 501, left.contains( strings.get( index ) ) );
+        }
+
+        mv = MultiValue.remove( mv, strings.get( 7 ) );
+        Assert.assertTrue( mv.getValues().contains( "item7" ) );
+        mv = MultiValue.remove( mv, strings.get( 7 ) );
+        Assert.assertFalse( mv.getValues().contains( "item7" ) );
+
+        for ( int index = 1; index < 1_000; index += 2 ) {
+            mv = MultiValue.remove( mv, strings.get( index ) );
+        }
+        Assert.assertNull( mv );
+    }
+
+    @Test
+    public void testRemoveAfterBucketIsSorted() throws Exception {
+
+        List<String> strings = new ArrayList<>();
+        for ( int index = 0; index < 40; index++ ) {
+            strings.add( "item" + index );
+            mv = MultiValue.add( mv, strings.get( index ), 3 );
+        }
+
+        /* Result sets sort the bucket they are handed in place. */
+        Collections.sort( mv.getValues(), Collections.reverseOrder() );
+
+        for ( int index = 0; index < 40; index += 2 ) {
+            mv = MultiValue.remove( mv, strings.get( index ) );
+        }
+        Assert.assertEquals( 20, mv.size() );
+        Set<Object> left = new HashSet<>( mv.getValues() );
+        for ( int index = 0; index < 40; index++ ) {
+            Assert.assertEquals( index % 2 == 1, left.contains( strings.get( index ) ) );
+        }
+
+        MultiValue one = MultiValue.add( null, "Rick", 3 );
+        Collections.sort( one.getValues() );
+        Assert.assertEquals( list( "Rick" ), one.getValues() );
+    }
+
+    @Test
+    public void testCopyIsEditedOnItsOwn() throws Exception {
+
+        MultiValue<String> mv = null;
+        for ( int index = 0; index < 40; index++ ) {
+            mv = MultiValue.add( mv, "v" + index, 3 );
+        }
+
+        MultiValue<String> copy = mv.copy();
+        for ( int index = 0; index < 40; index += 2 ) {
+            MultiValue.remove( copy, "v" + index );
+        }
+        MultiValue.add( copy, "extra", 3 );
+
+        Assert.assertEquals( 40, mv.size() );
+        Assert.assertEquals( 21, copy.size() );
+        Assert.assertTrue( copy.getValues().contains( "extra" ) );
+        Assert.assertFalse( copy.getValues().contains( "v0" ) );
+        Assert.assertTrue( mv.getValues().contains( "v0" ) );
+
+        MultiValue<String> one = MultiValue.add( null, "one", 3 );
+        Assert.assertNull( MultiValue.remove( one.copy(), "one" ) );
+        Assert.assertEquals( "one", one.getValue() );
+    }
+
 }
@@ -0,0 +1,137 @@
+package org.boon.datarepo.impl.indexes;
+
+import org.boon.core.Function;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.datarepo.spi.SPIFactory;
+import org.boon.datarepo.spi.SearchIndex;
+import org.boon.tests.model.Employee;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.boon.Lists.list;
+import static org.boon.criteria.CriteriaFactory.eq;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveSearchIndexTest {
+
+    /* The items are their own keys. */
+    private static final Function self = new Function() {
+        @Override
+        public Object apply( Object value ) {
+            return value;
+        }
+    };
+
+
+    private static SearchIndex index( SearchIndex index ) {
+        index.setKeyGetter( self );
+        index.init();
+        return index;
+    }
+
+
+    @Test
+    public void sameAsTreeIndex() {
+
+        List<Integer> keys = new ArrayList<>();
+        Random random = new Random( 7 );
+        for ( int index = 0; index < 20_000; index++ ) {
+            keys.add( random.nextInt( 10_000 ) - 2_000 );
+        }
+
+        SearchIndex tree = index( new SearchIndexDefault( int.class ) );
+        SearchIndex added = index( new PrimitiveSearchIndex( int.class ) );
+        SearchIndex bulk = index( new PrimitiveSearchIndex( int.class ) );
+        for ( Integer key : keys ) {
+            tree.add( key );
+            added.add( key );
+        }
+        bulk.addAll( keys );
+
+        for ( SearchIndex index : list( added, bulk ) ) {
+            check( tree, index );
+        }
+
+        /* Take out every other add and every copy of the keys divisible by three, so keys and whole pages go. */
+        for ( int index = 0; index < keys.size(); index++ ) {
+            if ( index % 2 == 0 || keys.get( index ) % 3 == 0 ) {
+                tree.delete( keys.get( index ) );
+                added.delete( keys.get( index ) );
+                bulk.delete( keys.get( index ) );
+            }
+        }
+        for ( SearchIndex index : list( added, bulk ) ) {
+            check( tree, index );
+        }
+        for ( Integer key : keys.subList( 0, 5_000 ) ) {
+            tree.add( key );
+            bulk.add( key );
+        }
+        check( tree, bulk );
+    }
+
+
+    private static void check( SearchIndex tree, SearchIndex index ) {
+        assertEquals( tree.size(), index.size() );
+        assertEquals( tree.all(), index.all() );
+        assertEquals( tree.findFirstKey(), index.findFirstKey() );
+        assertEquals( tree.findLastKey(), index.findLastKey() );
+        assertEquals( tree.findBetween( -500, 3_000 ), index.findBetween( -500, 3_000 ) );
+        assertEquals( tree.findGreaterThan( 7_000 ), index.findGreaterThan( 7_000 ) );
+        assertEquals( tree.findGreaterThanEqual( 7_001 ), index.findGreaterThanEqual( 7_001 ) );
+        assertEquals( tree.findLessThan( -1_500 ), index.findLessThan( -1_500 ) );
+        /* The tree index leaves the key itself out of less than or equal. */
+        assertEquals( tree.findLessThan( -1_500 ), index.findLessThanEqual( -1_501 ) );
+        for ( int key = 0; key < 50; key++ ) {
+            assertEquals( tree.findEquals( key ), index.findEquals( key ) );
+        }
+    }
+
+
+    @Test
+    public void doublesSortBySign() {
+
+        SearchIndex index = index( new PrimitiveSearchIndex( double.class ) );
+        index.addAll( list( 3.0, -1.0, 0.0, -Double.MAX_VALUE, 1.5, -2.5, Double.MAX_VALUE, 1.5 ) );
+
+        assertEquals( 7, index.size() );
+        assertEquals( -Double.MAX_VALUE, index.findFirstKey() );
+        assertEquals( Double.MAX_VALUE, index.findLastKey() );
+        assertEquals( list( -Double.MAX_VALUE, -2.5, -1.0 ), index.findLessThan( 0.0 ) );
+        assertEquals( list( 0.0, 1.5, 1.5 ), index.findBetween( -0.5, 3 ) );
+        assertEquals( 2, index.count( 1.5 ) );
+        assertEquals( 0, index.count( 2.0 ) );
+        assertNull( index.findEquals( 2.0 ) );
+    }
+
+
+    @Test
+    public void chosenForPrimitiveKeys() {
+
+        SPIFactory.init();
+        assertTrue( SPIFactory.getSearchIndexFactory().apply( int.class ) instanceof PrimitiveSearchIndex );
+        assertTrue( SPIFactory.getSearchIndexFactory().apply( long.class ) instanceof PrimitiveSearchIndex );
+        assertTrue( SPIFactory.getSearchIndexFactory().apply( double.class ) instanceof PrimitiveSearchIndex );
+        assertTrue( SPIFactory.getSearchIndexFactory().apply( Integer.class ) instanceof SearchIndexDefault );
+    }
+
+
+    @Test
+    public void collatedPrimitiveKeys() {
+
+        Repo<String, Employee> repo = Repos.builder().primaryKey( "id" ).searchIndex( "salary" )
+                .collateIndex( "salary", Collections.reverseOrder() ).build( String.class, Employee.class );
+
+        repo.add( Employee.employee( "Rick", "Hightower", "1", "5.29.1970:00:00:01", 100 ) );
+        repo.add( Employee.employee( "Diana", "Hightower", "2", "5.29.1970:00:00:01", 200 ) );
+
+        assertEquals( 1, repo.query( eq( "salary", 200 ) ).size() );
+    }
+}
@@ -0,0 +1,85 @@
+package org.boon.datarepo.impl.indexes;
+
+import org.boon.core.Function;
+import org.junit.Test;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.boon.Lists.list;
+import static org.junit.Assert.assertEquals;
+
+public class SearchIndexDefaultTest {
+
+    private static final Function<String, String> firstLetter = new Function<String, String>() {
+        @Override
+        public String apply( String value ) {
+            return value.isEmpty() ? null : value.substring( 0, 1 );
+        }
+    };
+
+
+    private static SearchIndexDefault<String, String> index( Collator collator ) {
+        SearchIndexDefault<String, String> index = new SearchIndexDefault<>( String.class );
+        index.setComparator( collator );
+        index.setKeyGetter( firstLetter );
+        index.init();
+        return index;
+    }
+
+
+    @Test
+    public void addAllSameAsAdd() {
+
+        List<String> words = new ArrayList<>();
+        Random random = new Random( 7 );
+        for ( int index = 0; index < 5_000; index++ ) {
+            words.add( Integer.toString( random.nextInt( 1_000_000 ), 36 ) );
+        }
+        words.add( "" );
+
+        SearchIndexDefault<String, String> added = index( null );
+        for ( String word : words ) {
+            added.add( word );
+        }
+
+        /* Empty index, built from the sorted keys. */
+        SearchIndexDefault<String, String> bulk = index( null );
+        bulk.addAll( words );
+
+        /* Half in first, the rest merged into the filled index. */
+        SearchIndexDefault<String, String> merged = index( null );
+        merged.addAll( words.subList( 0, 2_500 ) );
+        merged.addAll( words.subList( 2_500, words.size() ) );
+
+        for ( SearchIndexDefault<String, String> index : list( bulk, merged ) ) {
+            assertEquals( added.size(), index.size() );
+            assertEquals( added.all(), index.all() );
+            assertEquals( added.findEquals( "a" ), index.findEquals( "a" ) );
+            assertEquals( added.findBetween( "3", "c" ), index.findBetween( "3", "c" ) );
+            assertEquals( added.findGreaterThan( "x" ), index.findGreaterThan( "x" ) );
+            assertEquals( added.findFirstKey(), index.findFirstKey() );
+        }
+
+        bulk.delete( words.get( 0 ) );
+        assertEquals( added.findEquals( firstLetter.apply( words.get( 0 ) ) ).size() - 1,
+                bulk.findEquals( firstLetter.apply( words.get( 0 ) ) ).size() );
+    }
+
+
+    @Test
+    public void addAllKeepsComparator() {
+
+        Collator collator = Collator.getInstance();
+        collator.setStrength( Collator.PRIMARY );
+
+        SearchIndexDefault<String, String> index = index( collator );
+        index.addAll( list( "apple", "Avocado", "banana", "Blueberry", "cherry" ) );
+
+        assertEquals( 3, index.size() );
+        assertEquals( list( "apple", "Avocado" ), index.findEquals( "A" ) );
+        assertEquals( "cherry", index.max() );
+    }
+}
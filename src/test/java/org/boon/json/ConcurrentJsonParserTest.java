@@ -3,6 +3,19 @@ package org.boon.json;
 
 import org.boon.json.implementation.JsonParserConcurrent;
 import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.boon.Boon.puts;
+import static org.junit.Assert.assertEquals;
 
 public class ConcurrentJsonParserTest extends JsonParserBaseTest {
 
@@ -17,4 +30,79 @@ public class ConcurrentJsonParserTest extends JsonParserBaseTest {
     public void after () {
       jsonParserConcurrent.close ();
     }
+
+
+    private long parseOnThreads ( final JsonParser parser, int threads, final int count ) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool ( threads );
+        try {
+            List<Future<Integer>> futures = new ArrayList<> ();
+            long start = System.nanoTime ();
+
+            for ( int thread = 0; thread < threads; thread++ ) {
+                final int offset = thread * count;
+                futures.add ( executor.submit ( new Callable<Integer> () {
+                    @Override
+                    public Integer call () {
+                        int sum = 0;
+                        for ( int index = offset; index < offset + count; index++ ) {
+                            Map<String, Object> map = parser.parseMap ( "{\"id\" : " + index + ", \"name\" : \"n" + index + "\"}" );
+                            assertEquals ( "n" + index, map.get ( "name" ) );
+                            sum += ( Integer ) map.get ( "id" ) == index ? 1 : 0;
+                        }
+                        return sum;
+                    }
+                } ) );
+            }
+
+            for ( Future<Integer> future : futures ) {
+                assertEquals ( count, ( int ) future.get () );
+            }
+            return System.nanoTime () - start;
+        } finally {
+            executor.shutdown ();
+        }
+    }
+
+
+    @Test
+    public void sharedBetweenThreads () throws Exception {
+
+        JsonParserConcurrent parser = new JsonParserFactory ().createConcurrentParser ( 2, 0, TimeUnit.MILLISECONDS );
+        try {
+            parseOnThreads ( parser, 8, 2_000 );
+            assertEquals ( 16_000, parser.getLeaseCount () + parser.getMissCount () );
+        } finally {
+            parser.close ();
+        }
+
+        /* With a wait every parse gets a pooled parser unless one is held longer than the wait. */
+        parser = new JsonParserFactory ().createConcurrentParser ( 2, 1, TimeUnit.SECONDS );
+        try {
+            parseOnThreads ( parser, 8, 2_000 );
+            assertEquals ( 16_000, parser.getLeaseCount () );
+            assertEquals ( 0, parser.getMissCount () );
+        } finally {
+            parser.close ();
+        }
+    }
+
+
+    @Test
+    public void scaling () throws Exception {
+
+        JsonParserConcurrent parser = new JsonParserFactory ().createConcurrentParser ();
+        try {
+            int cores = Runtime.getRuntime ().availableProcessors ();
+            parseOnThreads ( parser, cores, 20_000 );
+
+            long one = parseOnThreads ( parser, 1, 20_000 );
+            long all = parseOnThreads ( parser, cores, 20_000 );
+
+            puts ( "threads", cores, "one thread", one / 1_000_000, "ms", "all threads", all / 1_000_000, "ms",
+                    "leases", parser.getLeaseCount (), "misses", parser.getMissCount () );
+        } finally {
+            parser.close ();
+        }
+    }
 }
@@ -0,0 +1,111 @@
+package org.boon.json;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonArrayStreamingTest {
+
+
+    private InputStream input( String json ) {
+        return new ByteArrayInputStream( json.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+
+    @Test
+    public void eachFromFile() {
+
+        final List<AllTypes> items = new ArrayList<>();
+
+        new JsonParserFactory().create().parseEachFromFile( AllTypes.class, "files/arrayOfAllType.json",
+                new EachItem<AllTypes>() {
+                    @Override
+                    public boolean item( AllTypes item, int index ) {
+                        assertEquals( index, item.getMyInt() );
+                        items.add( item );
+                        return true;
+                    }
+                } );
+
+        assertEquals( 3, items.size() );
+        assertEquals( "test", items.get( 2 ).getString() );
+        assertEquals( 3, items.get( 2 ).getMyByte() );
+    }
+
+
+    @Test
+    public void stopEarly() {
+
+        final List<Integer> items = new ArrayList<>();
+
+        new JsonParserFactory().create().parseEach( Integer.class, input( "[1, 2, 3, 4, 5]" ),
+                new EachItem<Integer>() {
+                    @Override
+                    public boolean item( Integer item, int index ) {
+                        items.add( item );
+                        return index < 1;
+                    }
+                } );
+
+        assertEquals( 2, items.size() );
+        assertEquals( 2, ( int ) items.get( 1 ) );
+    }
+
+
+    @Test
+    public void iterator() {
+
+        Iterator<AllTypes> iterator = ObjectMapperFactory.create().readValues(
+                input( "[ {\"myInt\" : 100, \"string\" : \"a\"}, {\"myInt\" : 2, \"string\" : \"b\\\"c\"} ]" ),
+                AllTypes.class );
+
+        assertTrue( iterator.hasNext() );
+        AllTypes first = iterator.next();
+        assertEquals( 100, first.getMyInt() );
+        assertEquals( "a", first.getString() );
+
+        AllTypes second = iterator.next();
+        assertEquals( 2, second.getMyInt() );
+        assertEquals( "b\"c", second.getString() );
+
+        assertFalse( iterator.hasNext() );
+    }
+
+
+    @Test
+    public void mapsAndScalars() {
+
+        Iterator<Object> iterator = new JsonParserFactory().create().parseIterator( Object.class,
+                input( "[ 12345, {\"a\" : [1, 2]}, \"str\", 7, true, null ]" ) );
+
+        assertEquals( 12345, iterator.next() );
+
+        Map<String, Object> map = ( Map<String, Object> ) iterator.next();
+        assertEquals( 2, ( ( List ) map.get( "a" ) ).size() );
+
+        assertEquals( "str", iterator.next() );
+
+        /* A short number after a longer one must not pick up left over digits. */
+        assertEquals( 7, iterator.next() );
+        assertEquals( true, iterator.next() );
+        iterator.next();
+        assertFalse( iterator.hasNext() );
+    }
+
+
+    @Test( expected = JsonException.class )
+    public void notAnArray() {
+        new JsonParserFactory().create().parseIterator( Object.class, input( "{ }" ) ).hasNext();
+    }
+
+}
@@ -0,0 +1,38 @@
+package org.boon.json;
+
+import org.boon.IO;
+import org.boon.json.implementation.JsonAsciiParser;
+import org.boon.json.implementation.JsonUTF8Parser;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class JsonByteFileTest {
+
+
+    @Test
+    public void parseBigFile () {
+
+        Map<String, Object> catalog = ( Map<String, Object> ) new JsonUTF8Parser ().parseFile ( "files/citm_catalog.json" );
+        Map<String, Object> expected = ( Map<String, Object> ) new JsonParserFactory ().create ().parse (
+                IO.read ( "files/citm_catalog.json" ) );
+
+        assertEquals ( expected.size (), catalog.size () );
+        assertEquals ( ( ( Map ) expected.get ( "events" ) ).size (), ( ( Map ) catalog.get ( "events" ) ).size () );
+        assertEquals ( ( ( List ) expected.get ( "performances" ) ).size (), ( ( List ) catalog.get ( "performances" ) ).size () );
+
+        catalog = ( Map<String, Object> ) new JsonAsciiParser ().parseFile ( "files/citm_catalog.json" );
+        assertEquals ( ( ( List ) expected.get ( "performances" ) ).size (), ( ( List ) catalog.get ( "performances" ) ).size () );
+    }
+
+
+    @Test
+    public void parseSmallFile () {
+        AllTypes types = new JsonUTF8Parser ().parseFile ( AllTypes.class, "files/AllTypes.json" );
+        assertEquals ( 1, types.getMyInt () );
+    }
+
+}
@@ -0,0 +1,218 @@
+package org.boon.json;
+
+import org.boon.IO;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Boon.puts;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class JsonDirectBindingTest {
+
+
+    public static class Price {
+        long amount;
+        long audienceSubCategoryId;
+        long seatCategoryId;
+    }
+
+    public static class Performance {
+        long id;
+        Long eventId;
+        Long logo;
+        String name;
+        long start;
+        String venueCode;
+        List<Price> prices;
+        List<Object> seatCategories;
+    }
+
+    public static class Catalog {
+        Map<String, Object> areaNames;
+        Map<String, Object> events;
+        List<Performance> performances;
+    }
+
+    public static class Item {
+        int count;
+        long big;
+        double ratio;
+        Integer boxed;
+        boolean flag = true;
+        String name;
+        List<String> tags;
+        List<Long> ids;
+        Item child;
+    }
+
+
+    private final JsonParser valueMapParser = new JsonParserFactory().create();
+    private final JsonParser bindingParser = new JsonParserFactory().useDirectBinding().create();
+
+
+    private String serialize( Object object ) {
+        return new JsonSerializerFactory().create().serialize( object ).toString();
+    }
+
+
+    @Test
+    public void sameAsValueMapPath() {
+        String json = IO.read( "files/AllTypes.json" );
+
+        AllTypes expected = valueMapParser.parse( AllTypes.class, json );
+        AllTypes types = bindingParser.parse( AllTypes.class, json );
+
+        assertEquals( serialize( expected ), serialize( types ) );
+        assertEquals( expected.getDate(), types.getDate() );
+        assertEquals( expected.getFoo(), types.getFoo() );
+        assertEquals( expected.getBar(), types.getBar() );
+        assertEquals( expected.getBigDecimal(), types.getBigDecimal() );
+        assertEquals( 3, types.getAllTypes().size() );
+
+        types = bindingParser.parseFile( AllTypes.class, "files/AllTypes.json" );
+        assertEquals( serialize( expected ), serialize( types ) );
+    }
+
+
+    @Test
+    public void catalog() {
+
+        /* The value map path can not bind this one, it has keys without fields and map fields. */
+        Catalog catalog = bindingParser.parseFile( Catalog.class, "files/citm_catalog.json" );
+        Map<String, Object> map = valueMapParser.parseMapFromFile( "files/citm_catalog.json" );
+
+        List<Object> performances = ( List<Object> ) map.get( "performances" );
+        assertEquals( performances.size(), catalog.performances.size() );
+        assertEquals( ( ( Map ) map.get( "events" ) ).size(), catalog.events.size() );
+
+        Performance first = catalog.performances.get( 0 );
+        assertEquals( 339887544L, first.id );
+        assertEquals( 138586341L, ( long ) first.eventId );
+        assertNull( first.logo );
+        assertEquals( 90250L, first.prices.get( 0 ).amount );
+        assertEquals( 338937296L, first.prices.get( 1 ).seatCategoryId );
+    }
+
+
+    @Test
+    public void valuesThatDoNotMatchTheField() {
+
+        Item item = bindingParser.parse( Item.class,
+                "{ \"count\" : \"12\", \"big\" : 12345678901234567, \"ratio\" : -1.5e2, \"boxed\" : 7, " +
+                        "\"fl\\u0061g\" : false, \"unknown\" : { \"a\" : [ \"]}\", 1, null ] }, \"other\" : [ ], " +
+                        "\"name\" : \"a\\\"b\", \"tags\" : [ \"x\", \"y\" ], \"ids\" : [ 1, 2 ], " +
+                        "\"child\" : { \"count\" : 1.0, \"name\" : null } }" );
+
+        assertEquals( 12, item.count );
+        assertEquals( 12345678901234567L, item.big );
+        assertEquals( -150.0, item.ratio, 0.001 );
+        assertEquals( 7, ( int ) item.boxed );
+        assertEquals( false, item.flag );
+        assertEquals( "a\"b", item.name );
+        assertEquals( "y", item.tags.get( 1 ) );
+        assertEquals( 2L, ( long ) item.ids.get( 1 ) );
+        assertEquals( 1, item.child.count );
+        assertNull( item.child.name );
+    }
+
+
+    public static class Numbers {
+        long big;
+        long small;
+        long exact;
+        Long boxed;
+        int ten;
+        int wide;
+        short shrt;
+        byte bt;
+    }
+
+
+    @Test
+    public void wholeLongRange() {
+
+        String json = "{ \"big\" : " + Long.MAX_VALUE + ", \"small\" : " + Long.MIN_VALUE +
+                ", \"exact\" : 1234567890123456789, \"boxed\" : " + Long.MAX_VALUE +
+                ", \"ten\" : 2000000000, \"wide\" : 3000000000, \"shrt\" : 70000, \"bt\" : 300 }";
+
+        Numbers numbers = bindingParser.parse( Numbers.class, json );
+        assertEquals( Long.MAX_VALUE, numbers.big );
+        assertEquals( Long.MIN_VALUE, numbers.small );
+        assertEquals( 1234567890123456789L, numbers.exact );
+        assertEquals( Long.MAX_VALUE, ( long ) numbers.boxed );
+        assertEquals( 2000000000, numbers.ten );
+
+        /* Narrow fields wrap, the same on both paths. */
+        Numbers expected = valueMapParser.parse( Numbers.class, json );
+        assertEquals( ( int ) 3000000000L, numbers.wide );
+        assertEquals( expected.wide, numbers.wide );
+        assertEquals( expected.shrt, numbers.shrt );
+        assertEquals( expected.bt, numbers.bt );
+        assertEquals( expected.big, numbers.big );
+        assertEquals( expected.exact, numbers.exact );
+        assertEquals( expected.ten, numbers.ten );
+    }
+
+
+    @Test( expected = JsonException.class )
+    public void pastTheLongRange() {
+        bindingParser.parse( Numbers.class, "{ \"big\" : 9223372036854775808 }" );
+    }
+
+
+    @Test( expected = JsonException.class )
+    public void badInput() {
+        bindingParser.parse( Item.class, "{ \"count\" : 1 \"name\" : \"a\" }" );
+    }
+
+
+    @Test
+    public void comparison() {
+
+        String[] files = { "files/AllTypes.json" };
+
+        for ( String file : files ) {
+            char[] json = IO.read( file ).toCharArray();
+
+            for ( int run = 0; run < 2; run++ ) {
+                long start = System.nanoTime();
+                for ( int index = 0; index < 2_000; index++ ) {
+                    valueMapParser.parse( AllTypes.class, json );
+                }
+                long valueMapTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for ( int index = 0; index < 2_000; index++ ) {
+                    bindingParser.parse( AllTypes.class, json );
+                }
+                long bindingTime = System.nanoTime() - start;
+
+                puts( file, "value map", valueMapTime / 1_000_000, "ms", "direct binding", bindingTime / 1_000_000, "ms" );
+            }
+        }
+
+        /* The catalog can only be bound directly, so compare against building the untyped value tree. */
+        char[] catalogJson = IO.read( "files/citm_catalog.json" ).toCharArray();
+        JsonParser valueParser = new JsonParserFactory().createFastParser();
+
+        for ( int run = 0; run < 2; run++ ) {
+            long start = System.nanoTime();
+            for ( int index = 0; index < 10; index++ ) {
+                valueParser.parse( Map.class, catalogJson );
+            }
+            long valueMapTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for ( int index = 0; index < 10; index++ ) {
+                bindingParser.parse( Catalog.class, catalogJson );
+            }
+            long bindingTime = System.nanoTime() - start;
+
+            puts( "files/citm_catalog.json", "value map", valueMapTime / 1_000_000, "ms",
+                    "direct binding", bindingTime / 1_000_000, "ms" );
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.boon.json;
+
+import org.boon.cache.KeyCache;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JsonInternKeysTest {
+
+
+    private static final String JSON = "[ { \"name\" : \"a\", \"count\" : 1 }, { \"name\" : \"b\", \"count\" : 2 } ]";
+
+
+    /**
+     * Interning is read from a system property once per class loader,
+     * so the parsers are loaded again, on their own, with it turned on.
+     */
+    private static ClassLoader internKeys() throws Exception {
+        URL classes = KeyCache.class.getProtectionDomain().getCodeSource().getLocation();
+        String before = System.getProperty( "org.boon.json.implementation.internKeys" );
+        System.setProperty( "org.boon.json.implementation.internKeys", "true" );
+        try {
+            ClassLoader loader = new URLClassLoader( new URL[]{ classes }, null );
+            Class.forName( "org.boon.cache.KeyCache", true, loader );
+            return loader;
+        } finally {
+            if ( before == null ) {
+                System.clearProperty( "org.boon.json.implementation.internKeys" );
+            } else {
+                System.setProperty( "org.boon.json.implementation.internKeys", before );
+            }
+        }
+    }
+
+    private static Object parse( ClassLoader loader, String parser, boolean bytes ) throws Exception {
+        Object instance = loader.loadClass( "org.boon.json.implementation." + parser ).newInstance();
+        return bytes ? instance.getClass().getMethod( "parse", byte[].class ).invoke( instance, JSON.getBytes( StandardCharsets.UTF_8 ) )
+                : instance.getClass().getMethod( "parse", char[].class ).invoke( instance, ( Object ) JSON.toCharArray() );
+    }
+
+    private static List<String> keys( Object parsed ) throws Exception {
+        List<String> keys = new ArrayList<>();
+        for ( Object item : ( List ) parsed ) {
+            if ( !( item instanceof Map ) ) {
+                /* The byte parsers leave containers in lists wrapped in a Value. */
+                item = item.getClass().getMethod( "toValue" ).invoke( item );
+            }
+            for ( Map.Entry<String, Object> entry : ( ( Map<String, Object> ) item ).entrySet() ) {
+                keys.add( entry.getKey() );
+            }
+        }
+        return keys;
+    }
+
+    private static long count( Object cache, String name ) throws Exception {
+        return ( Long ) cache.getClass().getMethod( name ).invoke( cache );
+    }
+
+
+    @Test
+    public void parsersShareOneCache() throws Exception {
+
+        ClassLoader loader = internKeys();
+        Object cache = loader.loadClass( "org.boon.cache.KeyCache" ).getMethod( "shared" ).invoke( null );
+        assertNotNull( cache );
+
+        List<String> keys = new ArrayList<>();
+        keys.addAll( keys( parse( loader, "JsonParserCharArray", false ) ) );
+        keys.addAll( keys( parse( loader, "JsonFastParser", false ) ) );
+        keys.addAll( keys( parse( loader, "JsonUTF8Parser", true ) ) );
+        keys.addAll( keys( parse( loader, "JsonAsciiParser", true ) ) );
+
+        /* Every parser, and the lazy map values of the fast parser, hand back the same two strings. */
+        String name = keys.get( 0 ).equals( "name" ) ? keys.get( 0 ) : keys.get( 1 );
+        String count = keys.get( 0 ).equals( "count" ) ? keys.get( 0 ) : keys.get( 1 );
+        assertEquals( 16, keys.size() );
+        for ( String key : keys ) {
+            assertSame( key.equals( "name" ) ? name : count, key );
+        }
+
+        assertEquals( 2, count( cache, "misses" ) );
+        assertEquals( 14, count( cache, "hits" ) );
+    }
+
+
+    @Test
+    public void offByDefault() {
+        assertNull( KeyCache.shared() );
+    }
+}
@@ -0,0 +1,117 @@
+package org.boon.json;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Boon.puts;
+import static org.boon.Maps.map;
+import static org.junit.Assert.assertEquals;
+
+public class JsonPathTest {
+
+
+    private final JsonParser parser = new JsonParserFactory().createJsonParserForJsonPath();
+
+    private final String json = "{ \"envelope\" : { \"id\" : \"m-1\", \"route\" : \"orders\", \"priority\" : 7 },\n" +
+            "  \"skip\" : { \"text\" : \"a \\\"quoted\\\" } ] { [ string\\\\\", \"list\" : [ 1, [ 2, { } ], -3.5e2 ] },\n" +
+            "  \"items\" : [ { \"sku\" : \"a\", \"qty\" : 1, \"tags\" : [ \"x\", \"y\" ] },\n" +
+            "               { \"sku\" : \"b\", \"qty\" : 2, \"tags\" : [ ] },\n" +
+            "               { \"sku\" : \"c\", \"qty\" : 3, \"ok\" : true, \"none\" : null } ],\n" +
+            "  \"esc\\u0061ped\" : \"yes\" }";
+
+
+    @Test
+    public void keysAndIndexes() {
+
+        assertEquals( Arrays.<Object>asList( "m-1" ), parser.parsePath( "envelope.id", json ) );
+        assertEquals( Arrays.<Object>asList( 7 ), parser.parsePath( "$.envelope.priority", json ) );
+        assertEquals( Arrays.<Object>asList( "b" ), parser.parsePath( "items[1].sku", json ) );
+        assertEquals( Arrays.<Object>asList( "y" ), parser.parsePath( "items[0].tags[1]", json ) );
+        assertEquals( Arrays.<Object>asList( true ), parser.parsePath( "items[2].ok", json ) );
+        assertEquals( Collections.singletonList( null ), parser.parsePath( "items[2].none", json ) );
+        assertEquals( Arrays.<Object>asList( "yes" ), parser.parsePath( "escaped", json ) );
+
+        Map<String, Object> envelope = ( Map<String, Object> ) parser.parsePath( "envelope", json ).get( 0 );
+        assertEquals( "orders", envelope.get( "route" ) );
+    }
+
+
+    @Test
+    public void missing() {
+        assertEquals( 0, parser.parsePath( "envelope.nope", json ).size() );
+        assertEquals( 0, parser.parsePath( "items[9].sku", json ).size() );
+        assertEquals( 0, parser.parsePath( "envelope[0]", json ).size() );
+        assertEquals( 0, parser.parsePath( "skip.text.more", json ).size() );
+    }
+
+
+    @Test
+    public void wildcards() {
+        assertEquals( Arrays.<Object>asList( "a", "b", "c" ), parser.parsePath( "items[*].sku", json ) );
+        assertEquals( Arrays.<Object>asList( "x", "y" ), parser.parsePath( "items.*.tags.*", json ) );
+        assertEquals( Arrays.<Object>asList( "m-1", "orders", 7 ), parser.parsePath( "envelope.*", json ) );
+    }
+
+
+    @Test
+    public void bytesAndOtherParsers() {
+
+        byte[] bytes = json.getBytes( StandardCharsets.UTF_8 );
+        assertEquals( Arrays.<Object>asList( "a", "b", "c" ), parser.parsePath( "items[*].sku", bytes ) );
+
+        /* Parsers that do not scan for paths parse the whole document then walk it. */
+        JsonParser plain = new JsonParserFactory().create();
+        assertEquals( Arrays.<Object>asList( "a", "b", "c" ), plain.parsePath( "items[*].sku", json ) );
+        assertEquals( Arrays.<Object>asList( "m-1" ), plain.parsePath( "envelope.id", bytes ) );
+
+        JsonParser concurrent = new JsonParserFactory().createConcurrentParser();
+        assertEquals( Arrays.<Object>asList( "y" ), concurrent.parsePath( "items[0].tags[1]", json ) );
+    }
+
+
+    @Test
+    public void comparison() {
+
+        List<Object> payload = new ArrayList<>();
+        for ( int index = 0; index < 10_000; index++ ) {
+            payload.add( map( "id", index, "name", "name " + index, "values", Arrays.asList( 1, 2, 3 ) ) );
+        }
+        String document = "{\"envelope\":{\"id\":\"m-2\",\"route\":\"bulk\"},\"payload\":" +
+                new JsonSerializerFactory().create().serialize( payload ) + ",\"trailer\":{\"count\":10000}}";
+        char[] chars = document.toCharArray();
+
+        JsonParser full = new JsonParserFactory().create();
+
+        for ( int warm = 0; warm < 20; warm++ ) {
+            ( ( Map ) full.parse( chars ) ).get( "trailer" );
+            parser.parsePath( "trailer.count", chars );
+        }
+
+        long start = System.nanoTime();
+        for ( int run = 0; run < 50; run++ ) {
+            Map map = ( Map ) full.parse( chars );
+            ( ( Map ) map.get( "envelope" ) ).get( "route" );
+            ( ( Map ) map.get( "trailer" ) ).get( "count" );
+        }
+        long fullTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for ( int run = 0; run < 50; run++ ) {
+            parser.parsePath( "envelope.route", chars );
+            parser.parsePath( "trailer.count", chars );
+        }
+        long pathTime = System.nanoTime() - start;
+
+        puts( "full parse", fullTime / 1_000_000, "ms", "path", pathTime / 1_000_000, "ms", "size", chars.length );
+
+        assertEquals( Arrays.<Object>asList( "bulk" ), parser.parsePath( "envelope.route", chars ) );
+        assertEquals( Arrays.<Object>asList( 10_000 ), parser.parsePath( "trailer.count", chars ) );
+        assertEquals( Arrays.<Object>asList( "name 9999" ), parser.parsePath( "payload[9999].name", chars ) );
+    }
+}
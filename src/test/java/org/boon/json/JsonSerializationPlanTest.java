@@ -0,0 +1,149 @@
+package org.boon.json;
+
+import org.boon.core.reflection.fields.FieldAccess;
+import org.boon.json.annotations.JsonIgnore;
+import org.boon.json.annotations.JsonInclude;
+import org.boon.json.annotations.JsonViews;
+import org.boon.json.serializers.FieldFilter;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.boon.Boon.puts;
+import static org.junit.Assert.assertEquals;
+
+public class JsonSerializationPlanTest {
+
+
+    public static class Address {
+        String street = "1 Main St";
+        String city;
+        int zip = 94_000;
+    }
+
+
+    public static class Employee {
+
+        @JsonViews( ignoreWithViews = { "public" }, includeWithViews = { "internal" } )
+        String empId = "555-55-5555";
+
+        @JsonIgnore
+        String ssn = "555-55-5555";
+
+        @JsonInclude
+        String status = null;
+
+        String name = "Rick";
+        String nickName = "";
+        int age;
+        long salary = 100_000L;
+        double rating = 4.5;
+        boolean active = true;
+        Integer level = 3;
+        Date hired = new Date( 1_000_000L );
+        Address address = new Address();
+        List<String> tags = Arrays.asList( "a", "b" );
+        List<String> notes = new ArrayList<>();
+        Map<String, Object> extra = new LinkedHashMap<>();
+        Employee self = this;
+    }
+
+
+    private void same( JsonSerializerFactory factory, Object value ) {
+        String expected = factory.setUseSerializationPlans( false ).create().serialize( value ).toString();
+        String actual = factory.setUseSerializationPlans( true ).create().serialize( value ).toString();
+        assertEquals( expected, actual );
+    }
+
+
+    @Test
+    public void sameAsWithoutPlans() {
+
+        Employee employee = new Employee();
+        employee.extra.put( "k", new Address() );
+        List<Object> list = Arrays.<Object>asList( employee, new Address(), Collections.singletonMap( "x", employee ) );
+
+        same( new JsonSerializerFactory().useAnnotations(), employee );
+        same( new JsonSerializerFactory().useAnnotations().setView( "public" ), employee );
+        same( new JsonSerializerFactory().useAnnotations().setView( "internal" ), employee );
+        same( new JsonSerializerFactory().includeNulls(), employee );
+        same( new JsonSerializerFactory().includeEmpty().includeDefaultValues(), list );
+        same( new JsonSerializerFactory().useAnnotations().includeNulls().includeEmpty(), list );
+        same( new JsonSerializerFactory().useJsonFormatForDates(), list );
+        same( new JsonSerializerFactory().usePropertiesFirst(), list );
+    }
+
+
+    @Test
+    public void annotationsAreWorkedOutOnce() {
+
+        JsonSerializer serializer = new JsonSerializerFactory().useAnnotations()
+                .setView( "public" ).useSerializationPlans().create();
+
+        String json = serializer.serialize( new Employee() ).toString();
+        puts( json );
+
+        assertEquals( false, json.contains( "empId" ) );
+        assertEquals( false, json.contains( "ssn" ) );
+        assertEquals( true, json.contains( "\"status\":null" ) );
+        assertEquals( false, json.contains( "nickName" ) );
+        assertEquals( false, json.contains( "self" ) );
+
+        /* A new view on the same factory gets its own plans. */
+        JsonSerializerFactory factory = new JsonSerializerFactory().useAnnotations().useSerializationPlans();
+        factory.setView( "public" ).create().serialize( new Employee() );
+        json = factory.setView( "internal" ).create().serialize( new Employee() ).toString();
+        assertEquals( true, json.contains( "\"empId\":\"555-55-5555\"" ) );
+    }
+
+
+    @Test
+    public void filtersAndCustomSerializersStillRun() {
+
+        JsonSerializerFactory factory = new JsonSerializerFactory().useAnnotations()
+                .addFilter( new FieldFilter() {
+                    @Override
+                    public boolean include( Object parent, FieldAccess fieldAccess ) {
+                        return !fieldAccess.getName().equals( "salary" );
+                    }
+                } );
+
+        same( factory, new Employee() );
+        String json = factory.useSerializationPlans().create().serialize( new Employee() ).toString();
+        assertEquals( false, json.contains( "salary" ) );
+    }
+
+
+    @Test
+    public void comparison() {
+
+        List<Employee> employees = new ArrayList<>();
+        for ( int index = 0; index < 1_000; index++ ) {
+            employees.add( new Employee() );
+        }
+
+        JsonSerializer plain = new JsonSerializerFactory().useAnnotations().setView( "internal" ).create();
+        JsonSerializer planned = new JsonSerializerFactory().useAnnotations().setView( "internal" )
+                .useSerializationPlans().create();
+
+        for ( int warm = 0; warm < 20; warm++ ) {
+            plain.serialize( employees );
+            planned.serialize( employees );
+        }
+
+        long start = System.nanoTime();
+        for ( int run = 0; run < 50; run++ ) {
+            plain.serialize( employees );
+        }
+        long plainTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for ( int run = 0; run < 50; run++ ) {
+            planned.serialize( employees );
+        }
+        long plannedTime = System.nanoTime() - start;
+
+        puts( "without plans", plainTime / 1_000_000, "ms", "with plans", plannedTime / 1_000_000, "ms" );
+        assertEquals( plain.serialize( employees ).toString(), planned.serialize( employees ).toString() );
+    }
+}
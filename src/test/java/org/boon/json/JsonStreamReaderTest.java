@@ -0,0 +1,174 @@
+package org.boon.json;
+
+import org.boon.IO;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.boon.Lists.list;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonStreamReaderTest {
+
+
+    private JsonStreamReader reader( String json, int bufferSize ) {
+        return new JsonParserFactory().setStreamBufferSize( bufferSize )
+                .createStreamReader( new ByteArrayInputStream( json.getBytes( StandardCharsets.UTF_8 ) ) );
+    }
+
+    private List<Object> tokens( JsonStreamReader reader ) {
+        List<Object> tokens = new ArrayList<>();
+        JsonToken token;
+        while ( ( token = reader.nextToken() ) != null ) {
+            tokens.add( token );
+            if ( token.isScalar() || token == JsonToken.FIELD_NAME ) {
+                tokens.add( reader.stringValue() );
+            }
+        }
+        return tokens;
+    }
+
+
+    @Test
+    public void tokens() {
+        String json = "{ \"name\" : \"Rick\", \"age\" : 43, \"tags\" : [ true, false, null, 1.5 ], \"empty\" : {} }";
+
+        List<Object> expected = list( ( Object ) JsonToken.START_OBJECT,
+                JsonToken.FIELD_NAME, "name", JsonToken.STRING, "Rick",
+                JsonToken.FIELD_NAME, "age", JsonToken.NUMBER, "43",
+                JsonToken.FIELD_NAME, "tags", JsonToken.START_ARRAY,
+                JsonToken.TRUE, "true", JsonToken.FALSE, "false", JsonToken.NULL, null,
+                JsonToken.NUMBER, "1.5", JsonToken.END_ARRAY,
+                JsonToken.FIELD_NAME, "empty", JsonToken.START_OBJECT, JsonToken.END_OBJECT,
+                JsonToken.END_OBJECT );
+
+        assertEquals( expected, tokens( reader( json, 8192 ) ) );
+
+        /* A tiny buffer forces a refill in the middle of every token. */
+        assertEquals( expected, tokens( reader( json, 3 ) ) );
+    }
+
+
+    @Test
+    public void numbers() {
+        JsonStreamReader reader = reader( "[ 1, -2, 2147483648, -9223372036854775808, 3.25, -1e3, 123456789012345678901 ]", 5 );
+
+        assertEquals( JsonToken.START_ARRAY, reader.nextToken() );
+
+        reader.nextToken();
+        assertEquals( 1, reader.intValue() );
+        assertEquals( 1, reader.numberValue() );
+
+        reader.nextToken();
+        assertEquals( -2, reader.intValue() );
+
+        reader.nextToken();
+        assertEquals( 2147483648L, reader.longValue() );
+        assertEquals( 2147483648L, reader.numberValue() );
+
+        reader.nextToken();
+        assertEquals( Long.MIN_VALUE, reader.longValue() );
+
+        reader.nextToken();
+        assertEquals( 3.25, reader.doubleValue(), 0.001 );
+
+        reader.nextToken();
+        assertEquals( -1000.0, reader.doubleValue(), 0.001 );
+
+        reader.nextToken();
+        assertEquals( "123456789012345678901", reader.numberValue().toString() );
+
+        assertEquals( JsonToken.END_ARRAY, reader.nextToken() );
+        assertNull( reader.nextToken() );
+    }
+
+
+    @Test
+    public void escapedStrings() {
+        JsonStreamReader reader = reader( "[\"a\\\"b\", \"tab\\there\", \"\\u0041BC\", \"caf\u00e9 \\\\\", \"\u00e9\u20ac\"]", 4 );
+
+        reader.nextToken();
+
+        reader.nextToken();
+        assertEquals( "a\"b", reader.stringValue() );
+        reader.nextToken();
+        assertEquals( "tab\there", reader.stringValue() );
+        reader.nextToken();
+        assertEquals( "ABC", reader.stringValue() );
+        reader.nextToken();
+        assertEquals( "caf\u00e9 \\", reader.stringValue() );
+        reader.nextToken();
+        assertEquals( "\u00e9\u20ac", reader.stringValue() );
+    }
+
+
+    @Test
+    public void skipValue() {
+        JsonStreamReader reader = reader(
+                "{ \"skip\" : { \"a\" : [ 1, 2, { \"b\" : \"}]\" } ] }, \"keep\" : \"yes\", \"last\" : [ [ ] ] }", 6 );
+
+        assertEquals( JsonToken.START_OBJECT, reader.nextToken() );
+        assertEquals( "skip", reader.readFieldName() );
+        reader.skipValue();
+        assertEquals( JsonToken.END_OBJECT, reader.currentToken() );
+        assertEquals( 1, reader.depth() );
+
+        assertEquals( "keep", reader.readFieldName() );
+        assertEquals( JsonToken.STRING, reader.nextToken() );
+        assertEquals( "yes", reader.stringValue() );
+
+        assertEquals( "last", reader.readFieldName() );
+        reader.skipValue();
+        assertEquals( JsonToken.END_ARRAY, reader.currentToken() );
+
+        assertNull( reader.readFieldName() );
+        assertEquals( 0, reader.depth() );
+        assertNull( reader.nextToken() );
+    }
+
+
+    @Test
+    public void channel() {
+        byte[] bytes = "{\"id\":7}".getBytes( StandardCharsets.UTF_8 );
+        JsonStreamReader reader = new JsonParserFactory().createStreamReader(
+                Channels.newChannel( new ByteArrayInputStream( bytes ) ) );
+
+        reader.nextToken();
+        assertEquals( "id", reader.readFieldName() );
+        reader.nextToken();
+        assertEquals( 7, reader.intValue() );
+        reader.close();
+    }
+
+
+    @Test
+    public void largeFileSameTokensAnyBufferSize() {
+        String json = IO.read( "files/citm_catalog.json" );
+
+        List<Object> expected = tokens( reader( json, 1 << 20 ) );
+        List<Object> tokens = tokens( reader( json, 64 ) );
+
+        assertTrue( expected.size() > 1000 );
+        assertEquals( expected, tokens );
+    }
+
+
+    @Test( expected = JsonException.class )
+    public void missingComma() {
+        tokens( reader( "[1 2]", 16 ) );
+    }
+
+
+    @Test( expected = JsonException.class )
+    public void truncated() {
+        tokens( reader( "{\"a\" : [1, 2", 16 ) );
+    }
+
+
+}
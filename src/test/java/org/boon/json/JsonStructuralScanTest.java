@@ -0,0 +1,144 @@
+package org.boon.json;
+
+import org.boon.json.implementation.JsonParserCharArray;
+import org.boon.primitive.ByteScanner;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.boon.Boon.puts;
+import static org.boon.Maps.map;
+import static org.junit.Assert.assertEquals;
+
+public class JsonStructuralScanTest {
+
+
+    private List<byte[]> files() throws Exception {
+        List<byte[]> files = new ArrayList<>();
+        for ( File file : new File( "files" ).listFiles() ) {
+            if ( file.getName().endsWith( ".json" ) ) {
+                files.add( Files.readAllBytes( file.toPath() ) );
+            }
+        }
+        return files;
+    }
+
+
+    @Test
+    public void sameAsCharParser() throws Exception {
+
+        JsonParser parser = new JsonParserFactory().createUTF8DirectByteParser();
+
+        for ( byte[] bytes : files() ) {
+            Object expected = new JsonParserCharArray().parse( new String( bytes, StandardCharsets.UTF_8 ) );
+            /* LazyMap does not compare with equals, its toString builds the map. */
+            assertEquals( expected.toString(), parser.parse( bytes ).toString() );
+        }
+
+        String escaped = "{\"a\\\\\":\"x\\\\\",\"b\":\"q\\\"uote\\\\\\\"d\",\"c\":\"caf\u00e9 \\u00e9\"}";
+        assertEquals( new JsonParserCharArray().parse( escaped ).toString(),
+                parser.parse( escaped.getBytes( StandardCharsets.UTF_8 ) ).toString() );
+    }
+
+
+    /* Where each string in the documents starts, just past its opening quote. */
+    private static int[] stringStarts( byte[] array ) {
+        int[] starts = new int[ array.length ];
+        int count = 0;
+        for ( int index = 0; index < array.length; index++ ) {
+            if ( array[ index ] == '"' ) {
+                starts[ count++ ] = index + 1;
+                index = ByteScanner.indexOfQuoteOrBackslash( array, index + 1 );
+                while ( index < array.length && array[ index ] == '\\' ) {
+                    index = ByteScanner.indexOfQuoteOrBackslash( array, index + 2 );
+                }
+            }
+        }
+        return Arrays.copyOf( starts, count );
+    }
+
+
+    private static long endsByByte( byte[] array, int[] starts ) {
+        long sum = 0;
+        for ( int start : starts ) {
+            int index = start;
+            while ( index < array.length && array[ index ] != '"' && array[ index ] != '\\' ) {
+                index++;
+            }
+            sum += index;
+        }
+        return sum;
+    }
+
+
+    private static long endsByWord( byte[] array, int[] starts ) {
+        long sum = 0;
+        for ( int start : starts ) {
+            sum += ByteScanner.indexOfQuoteOrBackslash( array, start );
+        }
+        return sum;
+    }
+
+
+    @Test
+    public void comparison() throws Exception {
+
+        List<byte[]> documents = files();
+
+        /* files/*.json are mostly short keys, add a document with longer text values. */
+        List<Object> rows = new ArrayList<>();
+        for ( int index = 0; index < 2_000; index++ ) {
+            rows.add( map( "id", index, "description", "a somewhat longer text value, the kind that ends up in " +
+                    "descriptions, comments and messages, number " + index ) );
+        }
+        documents.add( new JsonSerializerFactory().create().serialize( rows ).toString().getBytes( StandardCharsets.UTF_8 ) );
+
+        List<int[]> starts = new ArrayList<>();
+        for ( byte[] bytes : documents ) {
+            starts.add( stringStarts( bytes ) );
+        }
+
+        JsonParser parser = new JsonParserFactory().createUTF8DirectByteParser();
+
+        for ( int warm = 0; warm < 200; warm++ ) {
+            for ( int index = 0; index < documents.size(); index++ ) {
+                assertEquals( endsByByte( documents.get( index ), starts.get( index ) ),
+                        endsByWord( documents.get( index ), starts.get( index ) ) );
+                parser.parse( documents.get( index ) );
+            }
+        }
+
+        for ( int index = 0; index < documents.size(); index++ ) {
+            byte[] bytes = documents.get( index );
+            int[] documentStarts = starts.get( index );
+
+            long start = System.nanoTime();
+            for ( int run = 0; run < 200; run++ ) {
+                endsByByte( bytes, documentStarts );
+            }
+            long byteTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for ( int run = 0; run < 200; run++ ) {
+                endsByWord( bytes, documentStarts );
+            }
+            long wordTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for ( int run = 0; run < 200; run++ ) {
+                parser.parse( bytes );
+            }
+            long parseTime = System.nanoTime() - start;
+
+            puts( "size", bytes.length, "strings", documentStarts.length,
+                    "string ends a byte at a time", byteTime / 1_000, "us",
+                    "a word at a time", wordTime / 1_000, "us",
+                    "utf-8 parse", parseTime / 1_000, "us" );
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.boon.json;
+
+import org.boon.IO;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Boon.puts;
+import static org.boon.Maps.map;
+import static org.junit.Assert.assertEquals;
+
+public class JsonUTF8SerializerTest {
+
+
+    public static class Numbers {
+        int small = -7;
+        long min = Long.MIN_VALUE;
+        long max = Long.MAX_VALUE;
+        short s = 300;
+        byte b = -3;
+        double d = 1.5e-7;
+        float f = 2.5f;
+        boolean yes = true;
+        boolean no;
+        String none;
+        List<Integer> ints = Arrays.asList( 0, -1, 10, Integer.MIN_VALUE );
+    }
+
+
+    private final JsonSerializer chars = new JsonSerializerFactory().create();
+    private final JsonByteSerializer bytes = new JsonSerializerFactory().createUTF8Serializer();
+
+
+    private String utf8( Object object ) {
+        return new String( bytes.serialize( object ).toBytes(), StandardCharsets.UTF_8 );
+    }
+
+
+    @Test
+    public void sameAsCharSerializer() {
+
+        assertEquals( chars.serialize( new Numbers() ).toString(), utf8( new Numbers() ) );
+
+        Object map = map( "name", "café € 😀", "list", Arrays.asList( 1L, 2.0, "x" ), "nested", map( "a", true ) );
+        assertEquals( chars.serialize( map ).toString(), utf8( map ) );
+    }
+
+
+    @Test
+    public void roundTrip() {
+
+        JsonParser parser = new JsonParserFactory().create();
+        AllTypes types = parser.parseFile( AllTypes.class, "files/AllTypes.json" );
+
+        AllTypes read = parser.parse( AllTypes.class, bytes.serialize( types ).toBytes() );
+
+        assertEquals( utf8( types ), utf8( read ) );
+        assertEquals( types.getString(), read.getString() );
+        assertEquals( types.getDate(), read.getDate() );
+    }
+
+
+    @Test
+    public void escapes() {
+
+        String tricky = "q\"b\\s/n\nt\tc\u0001 é 😀 end\"";
+        String json = utf8( map( "key", tricky ) );
+
+        assertEquals( "{\"key\":\"q\\\"b\\\\s\\/n\\nt\\tc\\u0001 é 😀 end\\\"\"}", json );
+
+        Map<String, Object> read = new JsonParserFactory().create().parseMap( json );
+        assertEquals( tricky, read.get( "key" ).toString() );
+
+        assertEquals( "[\"\",\"a\"]", utf8( Arrays.asList( "", "a" ) ) );
+    }
+
+
+    @Test
+    public void customSettingsStillEncode() {
+
+        JsonByteSerializer serializer = new JsonSerializerFactory().includeNulls().createUTF8Serializer();
+        Numbers numbers = new Numbers();
+
+        assertEquals( new JsonSerializerFactory().includeNulls().create().serialize( numbers ).toString(),
+                new String( serializer.serialize( numbers ).toBytes(), StandardCharsets.UTF_8 ) );
+    }
+
+
+    @Test
+    public void comparison() {
+
+        AllTypes types = new JsonParserFactory().create().parseFile( AllTypes.class, "files/AllTypes.json" );
+
+        List<Object> rows = new ArrayList<>();
+        for ( int index = 0; index < 1_000; index++ ) {
+            rows.add( map( "id", index, "name", "row " + index, "price", index * 1.5, "tags", Arrays.asList( "a", "b" ) ) );
+        }
+
+        for ( Object value : new Object[]{ types, rows } ) {
+            int count = value == types ? 20_000 : 200;
+
+            for ( int run = 0; run < 2; run++ ) {
+                long start = System.nanoTime();
+                for ( int index = 0; index < count; index++ ) {
+                    chars.serialize( value ).toString().getBytes( StandardCharsets.UTF_8 );
+                }
+                long charTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for ( int index = 0; index < count; index++ ) {
+                    bytes.serialize( value ).toBytes();
+                }
+                long byteTime = System.nanoTime() - start;
+
+                puts( value.getClass().getSimpleName(), "chars then encode", charTime / 1_000_000, "ms",
+                        "utf-8", byteTime / 1_000_000, "ms" );
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.boon.json;
+
+import org.boon.json.implementation.NdJsonParser;
+import org.boon.json.implementation.NdJsonWriter;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.boon.Maps.map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class NdJsonTest {
+
+
+    private InputStream input( String json ) {
+        return new ByteArrayInputStream( json.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private String lines( int count ) {
+        StringBuilder builder = new StringBuilder();
+        for ( int index = 0; index < count; index++ ) {
+            builder.append( "{\"myInt\" : " ).append( index ).append( ", \"string\" : \"s" ).append( index ).append( "\"}\n" );
+        }
+        return builder.toString();
+    }
+
+
+    @Test
+    public void sequential() {
+
+        /* Blank lines, CRLF, a missing last new line and a buffer smaller than a record. */
+        String json = "{\"myInt\" : 1, \"string\" : \"café\"}\r\n\n   \n{\"myInt\" : 2, \"string\" : \"b\"}";
+
+        List<AllTypes> items = new JsonParserFactory().setStreamBufferSize( 8 )
+                .createNdJsonParser().parseList( AllTypes.class, input( json ) );
+
+        assertEquals( 2, items.size() );
+        assertEquals( 1, items.get( 0 ).getMyInt() );
+        assertEquals( "café", items.get( 0 ).getString() );
+        assertEquals( 2, items.get( 1 ).getMyInt() );
+    }
+
+
+    @Test
+    public void mapsKeepTheirRecords() {
+
+        /* Later records go through the same buffer, each map must still read its own. */
+        List<Object> items = new JsonParserFactory().createNdJsonParser().parseList( Object.class, input( lines( 500 ) ) );
+
+        assertEquals( 500, items.size() );
+        for ( int index = 0; index < items.size(); index++ ) {
+            Map record = ( Map ) items.get( index );
+            assertEquals( index, record.get( "myInt" ) );
+            assertEquals( "s" + index, record.get( "string" ) );
+        }
+    }
+
+
+    @Test
+    public void cutOffRecordAfterLongerOne() {
+
+        /* What the first record has past the cut would finish the second one. */
+        String json = "{\"myInt\" : 1 , \"string\" : \"b\"}\n{\"myInt\" : 7\n";
+
+        try {
+            new JsonParserFactory().createNdJsonParser().parseList( AllTypes.class, input( json ) );
+            fail( "a cut off record parsed" );
+        } catch ( JsonException expected ) {
+        }
+
+        try {
+            new JsonParserFactory().createNdJsonParser().parseList( Object.class, input( json ) );
+            fail( "a cut off record parsed" );
+        } catch ( JsonException expected ) {
+        }
+    }
+
+
+    @Test
+    public void mapsAndScalars() {
+
+        List<Object> items = new JsonParserFactory().createNdJsonParser()
+                .parseList( Object.class, input( "{\"a\" : [1, 2]}\n12345\n7\n\"str\"\n" ) );
+
+        assertEquals( 2, ( ( List ) ( ( Map ) items.get( 0 ) ).get( "a" ) ).size() );
+        assertEquals( 12345, items.get( 1 ) );
+        assertEquals( 7, items.get( 2 ) );
+        assertEquals( "str", items.get( 3 ) );
+    }
+
+
+    @Test
+    public void parallelOrdered() {
+
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try {
+            final List<AllTypes> items = new ArrayList<>();
+
+            new JsonParserFactory().createParallelNdJsonParser( pool, true ).parseEach( AllTypes.class,
+                    input( lines( 20000 ) ), new EachItem<AllTypes>() {
+                @Override
+                public boolean item( AllTypes item, int index ) {
+                    assertEquals( index, item.getMyInt() );
+                    items.add( item );
+                    return true;
+                }
+            } );
+
+            assertEquals( 20000, items.size() );
+            assertEquals( "s19999", items.get( 19999 ).getString() );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void parallelUnordered() {
+
+        ForkJoinPool pool = new ForkJoinPool( 4 );
+        try {
+            final List<Integer> ints = Collections.synchronizedList( new ArrayList<Integer>() );
+
+            new JsonParserFactory().createParallelNdJsonParser( pool, false ).parseEach( AllTypes.class,
+                    input( lines( 20000 ) ), new EachItem<AllTypes>() {
+                @Override
+                public boolean item( AllTypes item, int index ) {
+                    assertEquals( index, item.getMyInt() );
+                    ints.add( item.getMyInt() );
+                    return true;
+                }
+            } );
+
+            Collections.sort( ints );
+            assertEquals( 20000, ints.size() );
+            assertEquals( 19999, ( int ) ints.get( 19999 ) );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void parallelStopEarly() {
+
+        ForkJoinPool pool = new ForkJoinPool( 2 );
+        try {
+            final List<AllTypes> items = new ArrayList<>();
+
+            new JsonParserFactory().createParallelNdJsonParser( pool, true ).parseEach( AllTypes.class,
+                    input( lines( 20000 ) ), new EachItem<AllTypes>() {
+                @Override
+                public boolean item( AllTypes item, int index ) {
+                    items.add( item );
+                    return index < 9;
+                }
+            } );
+
+            assertEquals( 10, items.size() );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test( expected = JsonException.class )
+    public void parallelBadRecord() {
+
+        ForkJoinPool pool = new ForkJoinPool( 2 );
+        try {
+            new JsonParserFactory().createParallelNdJsonParser( pool, true )
+                    .parseList( Object.class, input( lines( 5000 ) + "{\"a\" : }\n" + lines( 10 ) ) );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void roundTrip() {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        NdJsonWriter writer = new JsonSerializerFactory().createNdJsonWriter( bytes );
+
+        for ( int index = 0; index < 2000; index++ ) {
+            writer.write( map( "id", index, "name", "café €" + index ) );
+        }
+        writer.close();
+
+        String text = new String( bytes.toByteArray(), StandardCharsets.UTF_8 );
+        assertEquals( "{\"id\":0,\"name\":\"café €0\"}\n", text.substring( 0, text.indexOf( '\n' ) + 1 ) );
+
+        NdJsonParser parser = new JsonParserFactory().createNdJsonParser();
+        List<Map> records = parser.parseList( Map.class, new ByteArrayInputStream( bytes.toByteArray() ) );
+
+        assertEquals( 2000, records.size() );
+        assertEquals( 1999, records.get( 1999 ).get( "id" ) );
+        assertEquals( "café €1999", records.get( 1999 ).get( "name" ) );
+    }
+
+}
@@ -0,0 +1,109 @@
+package org.boon.json;
+
+import org.boon.primitive.StreamingCharBuf;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.boon.Maps.map;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectMapperStreamingTest {
+
+
+    /* Remembers the biggest single write, which is about what the mapper held at once. */
+    static class SinkStream extends ByteArrayOutputStream {
+        int largestWrite;
+
+        @Override
+        public synchronized void write( byte[] bytes, int offset, int length ) {
+            largestWrite = Math.max( largestWrite, length );
+            super.write( bytes, offset, length );
+        }
+    }
+
+
+    private final ObjectMapper mapper = ObjectMapperFactory.create();
+
+
+    private List<Object> rows( int count ) {
+        List<Object> rows = new ArrayList<>();
+        for ( int index = 0; index < count; index++ ) {
+            rows.add( map( "id", index, "name", "café € 😀 " + index,
+                    "tags", Arrays.asList( "a", "b" ), "nested", map( "x", index ) ) );
+        }
+        return rows;
+    }
+
+
+    @Test
+    public void outputStream() {
+
+        List<Object> rows = rows( 20_000 );
+        byte[] expected = mapper.writeValueAsBytes( rows );
+
+        SinkStream output = new SinkStream();
+        mapper.writeValue( output, rows );
+
+        assertArrayEquals( expected, output.toByteArray() );
+        assertTrue( output.largestWrite < StreamingCharBuf.DEFAULT_FLUSH_SIZE * 4 );
+        assertTrue( expected.length > StreamingCharBuf.DEFAULT_FLUSH_SIZE * 100 );
+
+        List<Object> read = ( List<Object> ) mapper.parser().parse( output.toByteArray() );
+        assertEquals( 20_000, read.size() );
+        assertEquals( "café € 😀 19999", ( ( Map ) read.get( 19_999 ) ).get( "name" ) );
+    }
+
+
+    @Test
+    public void writerAndByteBuffer() {
+
+        List<Object> rows = rows( 5_000 );
+        String expected = mapper.writeValueAsString( rows );
+
+        StringWriter writer = new StringWriter();
+        mapper.writeValue( writer, rows );
+        assertEquals( expected, writer.toString() );
+
+        ByteBuffer buffer = ByteBuffer.allocate( expected.length() * 2 );
+        buffer.put( ( byte ) ' ' );
+        mapper.writeValue( buffer, rows );
+        assertEquals( " " + expected, new String( buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8 ) );
+
+        /* Small values never reach a check point, they go out on the last flush. */
+        writer = new StringWriter();
+        mapper.writeValue( writer, map( "a", 1 ) );
+        assertEquals( "{\"a\":1}", writer.toString() );
+    }
+
+
+    @Test( expected = Exception.class )
+    public void byteBufferTooSmall() {
+        mapper.writeValue( ByteBuffer.allocate( 1_000 ), rows( 5_000 ) );
+    }
+
+
+    @Test
+    public void file() throws Exception {
+
+        File file = File.createTempFile( "boon", ".json" );
+        try {
+            List<Object> rows = rows( 1_000 );
+            mapper.writeValue( file, rows );
+            assertArrayEquals( mapper.writeValueAsBytes( rows ), Files.readAllBytes( file.toPath() ) );
+        } finally {
+            file.delete();
+        }
+    }
+}
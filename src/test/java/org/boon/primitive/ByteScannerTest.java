@@ -3,6 +3,8 @@ package org.boon.primitive;
 
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.boon.primitive.Byt.bytes;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -497,4 +499,33 @@ public class ByteScannerTest {
     }
 
 
+    @Test
+    public void wordScansMatchByteScans() {
+
+        Random random = new Random( 7 );
+        byte[] alphabet = bytes( " \t\n\r\"\\az{}:,0" );
+
+        for ( int run = 0; run < 2_000; run++ ) {
+            byte[] array = new byte[ random.nextInt( 40 ) ];
+            for ( int index = 0; index < array.length; index++ ) {
+                array[ index ] = random.nextInt( 4 ) == 0 ? ( byte ) ( 128 + random.nextInt( 128 ) )
+                        : alphabet[ random.nextInt( alphabet.length ) ];
+            }
+
+            for ( int start = 0; start <= array.length; start++ ) {
+                int quote = start;
+                while ( quote < array.length && array[ quote ] != '"' && array[ quote ] != '\\' ) {
+                    quote++;
+                }
+                int nonWhite = start;
+                while ( nonWhite < array.length && array[ nonWhite ] <= 32 ) {
+                    nonWhite++;
+                }
+                assertEquals( quote, ByteScanner.indexOfQuoteOrBackslash( array, start ) );
+                assertEquals( nonWhite, ByteScanner.indexOfNonWhiteSpace( array, start ) );
+            }
+        }
+    }
+
+
 }
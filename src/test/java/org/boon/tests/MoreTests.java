@@ -9,6 +9,7 @@ import org.boon.datarepo.RepoBuilder;
 import org.boon.datarepo.Repos;
 import org.boon.criteria.CriteriaFactory;
 import org.boon.criteria.ProjectedSelector;
+import org.boon.criteria.Sort;
 import org.boon.datarepo.impl.RepoBuilderDefault;
 import org.boon.tests.model.Department;
 import org.boon.tests.model.Employee;
@@ -823,4 +824,22 @@ public class MoreTests {
 
     }
 
+    @Test
+    public void sortResultsThenRemoveFromBucket() {
+
+        Repo<String, Employee> repo = Repos.builder().primaryKey( "id" ).lookupIndex( "firstName" )
+                .build( String.class, Employee.class );
+        for ( int index = 0; index < 40; index++ ) {
+            repo.add( Employee.employee( "Eng", "Last" + index, "e" + index, "05.29.70", 40 - index ) );
+        }
+
+        /* The result set sorts the index bucket it was handed, removes must still find their items. */
+        repo.results( eq( "firstName", "Eng" ) ).sort( Sort.asc( "salary" ) );
+        repo.removeByKey( "e0" );
+        repo.removeByKey( "e17" );
+
+        assertEquals( 38, repo.query( eq( "firstName", "Eng" ) ).size() );
+        assertEquals( 0, repo.query( eq( "firstName", "Eng" ), eq( "lastName", "Last17" ) ).size() );
+    }
+
 }
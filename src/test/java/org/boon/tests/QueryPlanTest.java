@@ -0,0 +1,129 @@
+package org.boon.tests;
+
+import org.boon.datarepo.PlanStep;
+import org.boon.datarepo.PlanSteps;
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.datarepo.ResultSet;
+import org.boon.tests.model.Employee;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.boon.Boon.puts;
+import static org.boon.criteria.CriteriaFactory.*;
+import static org.boon.tests.model.Employee.employee;
+import static org.junit.Assert.assertEquals;
+
+public class QueryPlanTest {
+
+    Repo<String, Employee> repo;
+
+    @Before
+    public void setup() {
+        repo = Repos.builder().primaryKey( "id" )
+                .searchIndex( "firstName" ).searchIndex( "lastName" )
+                .searchIndex( "salary" ).build( String.class, Employee.class );
+
+        for ( int index = 0; index < 1_000; index++ ) {
+            repo.add( employee( "First" + index, index % 2 == 0 ? "Even" : "Odd",
+                    "id" + index, "08.15.82", index * 10 ) );
+        }
+    }
+
+
+    @Test
+    public void mostSelectiveIndexFirst() {
+
+        /* Given the common criterion first, the rare one still goes first and the rest is a filter. */
+        ResultSet<Employee> results = repo.results( eq( "lastName", "Even" ), gt( "salary", 5_000 ), eq( "firstName", "First600" ) );
+        List<PlanStep> plan = results.queryPlan();
+        puts( plan );
+
+        assertEquals( 1, results.size() );
+        assertEquals( "id600", results.firstItem().getSsn() );
+
+        assertEquals( PlanSteps.USE_INDEX, plan.get( 0 ).getType() );
+        assertEquals( "firstName EQUAL First600", plan.get( 0 ).getDetails() );
+        assertEquals( 1, plan.get( 0 ).getEstimate() );
+        assertEquals( PlanSteps.FILTER, plan.get( 1 ).getType() );
+        assertEquals( "(lastName EQUAL Even AND salary GREATER_THAN 5000)", plan.get( 1 ).getDetails() );
+        assertEquals( 2, plan.size() );
+    }
+
+
+    @Test
+    public void rangeEstimates() {
+
+        ResultSet<Employee> results = repo.results( eq( "lastName", "Odd" ), gt( "salary", 9_000 ) );
+        List<PlanStep> plan = results.queryPlan();
+        puts( plan );
+
+        assertEquals( 50, results.size() );
+
+        /* Salaries run from 0 to 9990, so about a tenth are over 9000. */
+        assertEquals( "salary GREATER_THAN 9000", plan.get( 0 ).getDetails() );
+        assertEquals( 100, plan.get( 0 ).getEstimate(), 2 );
+        assertEquals( 99, plan.get( 0 ).getRows() );
+        assertEquals( PlanSteps.FILTER, plan.get( 1 ).getType() );
+        assertEquals( 99, plan.get( 1 ).getEstimate() );
+        assertEquals( 50, plan.get( 1 ).getRows() );
+
+        results = repo.results( between( "salary", 1_000, 1_200 ), startsWith( "firstName", "First1" ) );
+        assertEquals( "salary BETWEEN [1000, 1200]", results.queryPlan().get( 0 ).getDetails() );
+        assertEquals( 20, results.size() );
+    }
+
+
+    @Test
+    public void groupsAndNot() {
+
+        List<Employee> results = repo.query( eq( "lastName", "Even" ),
+                or( eq( "firstName", "First2" ), eq( "firstName", "First3" ), eq( "firstName", "First4" ), gt( "salary", 9_970 ) ) );
+        assertEquals( 3, results.size() );
+        assertEquals( "First2", results.get( 0 ).getFirstName() );
+        assertEquals( "First4", results.get( 1 ).getFirstName() );
+        assertEquals( "First998", results.get( 2 ).getFirstName() );
+
+        /* Ten candidates, one row to take out, the index is cheaper than checking. */
+        ResultSet<Employee> notTwo = repo.results( lt( "salary", 100 ), not( eq( "firstName", "First2" ) ) );
+        assertEquals( 9, notTwo.size() );
+        assertEquals( "not firstName EQUAL First2", notTwo.queryPlan().get( 1 ).getDetails() );
+        assertEquals( PlanSteps.USE_INDEX, notTwo.queryPlan().get( 1 ).getType() );
+
+        /* Half the repo to take out, checking the ten is cheaper. */
+        ResultSet<Employee> notEven = repo.results( lt( "salary", 100 ), not( eq( "lastName", "Even" ) ) );
+        assertEquals( 5, notEven.size() );
+        assertEquals( PlanSteps.FILTER, notEven.queryPlan().get( 1 ).getType() );
+    }
+
+
+    @Test
+    public void linearSearchWithoutIndex() {
+
+        ResultSet<Employee> results = repo.results( eq( "empNum", -1L ) );
+        List<PlanStep> plan = results.queryPlan();
+
+        assertEquals( 0, results.size() );
+        assertEquals( 1, plan.size() );
+        assertEquals( PlanSteps.LINEAR_SEARCH, plan.get( 0 ).getType() );
+        assertEquals( 1_000, plan.get( 0 ).getEstimate() );
+    }
+
+
+    @Test
+    public void orScansOnceForUnindexedBranches() {
+
+        ResultSet<Employee> results = repo.results( or( eq( "firstName", "First1" ),
+                eq( "empNum", -1L ), lt( "empNum", 0L ) ) );
+        List<PlanStep> plan = results.queryPlan();
+        puts( plan );
+
+        assertEquals( 1, results.size() );
+        assertEquals( 2, plan.size() );
+        assertEquals( PlanSteps.USE_INDEX, plan.get( 0 ).getType() );
+        assertEquals( PlanSteps.LINEAR_SEARCH, plan.get( 1 ).getType() );
+        assertEquals( 1_000, plan.get( 1 ).getEstimate() );
+    }
+}
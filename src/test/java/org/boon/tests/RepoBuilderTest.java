@@ -1,8 +1,24 @@
 package org.boon.tests;
 
+import org.boon.datarepo.Repo;
+import org.boon.datarepo.Repos;
+import org.boon.tests.model.Employee;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.boon.criteria.CriteriaFactory.eq;
+import static org.boon.criteria.CriteriaFactory.gt;
+import static org.boon.tests.model.Employee.employee;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
 public class RepoBuilderTest {
     RepoDefaultTest test;
 
@@ -93,4 +109,231 @@ public class RepoBuilderTest {
 
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testConcurrent() throws Exception {
+
+        test.repo = TestHelper.createFromBuilderConcurrent();
+        runAll();
+
+    }
+
+
+    @Test
+    public void testConcurrentReadersAndWriters() throws Exception {
+
+        final Repo<String, Employee> repo = TestHelper.createFromBuilderConcurrent();
+        final int before = repo.size();
+
+        ExecutorService executor = Executors.newFixedThreadPool( 6 );
+        List<Future<?>> futures = new ArrayList<>();
+
+        for ( int thread = 0; thread < 2; thread++ ) {
+            final int writer = thread;
+            futures.add( executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int index = 0; index < 500; index++ ) {
+                        String id = "writer-" + writer + "-" + index;
+                        repo.add( employee( "Writer", "Smith", id, "05.29.70", index ) );
+                        repo.update( id, "salary", index + 1 );
+                        if ( index % 2 == 0 ) {
+                            repo.removeByKey( id );
+                        }
+                    }
+                }
+            } ) );
+        }
+
+        for ( int thread = 0; thread < 4; thread++ ) {
+            futures.add( executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int index = 0; index < 200; index++ ) {
+                        for ( Employee employee : repo.query( eq( "lastName", "Smith" ), gt( "salary", 5 ) ) ) {
+                            assertEquals( "Smith", employee.getLastName() );
+                        }
+                        repo.sortedQuery( "firstName", eq( "lastName", "Smith" ) );
+                        repo.results( eq( "firstName", "Writer" ) ).asList().size();
+                    }
+                }
+            } ) );
+        }
+
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 60, TimeUnit.SECONDS ) );
+        for ( Future<?> future : futures ) {
+            future.get();
+        }
+
+        List<Employee> more = new ArrayList<>();
+        for ( int index = 0; index < 1_500; index++ ) {
+            more.add( employee( "Async", "Smith", "async-" + index, "05.29.70", index ) );
+        }
+        repo.addAllAsync( more ).get( 30, TimeUnit.SECONDS );
+        repo.removeAllAsync( more.subList( 0, 1_000 ) ).get( 30, TimeUnit.SECONDS );
+
+        assertEquals( before + 1_000, repo.size() );
+        assertEquals( 500, repo.query( eq( "firstName", "Writer" ) ).size() );
+        assertEquals( 2, repo.get( "writer-0-1" ).getSalary() );
+    }
+
+
+    @Test
+    public void testSnapshots() throws Exception {
+
+        test.repo = TestHelper.createFromBuilderSnapshots();
+        runAll();
+
+    }
+
+
+    @Test
+    public void testSnapshotsPublishWholeBatches() throws Exception {
+
+        final Repo<String, Employee> repo = TestHelper.createFromBuilderSnapshots();
+        final int before = repo.size();
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        List<Future<?>> futures = new ArrayList<>();
+
+        futures.add( executor.submit( new Runnable() {
+            @Override
+            public void run() {
+                for ( int batch = 0; batch < 20; batch++ ) {
+                    List<Employee> employees = new ArrayList<>();
+                    for ( int index = 0; index < 100; index++ ) {
+                        employees.add( employee( "Batch", "Batch" + batch, "batch-" + batch + "-" + index, "05.29.70", index ) );
+                    }
+                    repo.addAll( employees );
+                }
+            }
+        } ) );
+
+        /* A batch is in a snapshot whole or not at all. */
+        for ( int thread = 0; thread < 3; thread++ ) {
+            futures.add( executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int index = 0; index < 300; index++ ) {
+                        int found = repo.query( eq( "lastName", "Batch" + index % 20 ) ).size();
+                        assertTrue( found == 0 || found == 100 );
+                        assertEquals( 0, ( repo.size() - before ) % 100 );
+                    }
+                }
+            } ) );
+        }
+
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 60, TimeUnit.SECONDS ) );
+        for ( Future<?> future : futures ) {
+            future.get();
+        }
+
+        assertEquals( before + 2_000, repo.size() );
+        assertEquals( 50, repo.query( eq( "lastName", "Batch3" ), gt( "salary", 49 ) ).size() );
+
+        repo.removeAllAsync( repo.query( eq( "firstName", "Batch" ) ) ).get( 30, TimeUnit.SECONDS );
+        assertEquals( before, repo.size() );
+    }
+
+
+    @Test
+    public void testSnapshotsHoldTheirOwnCopies() throws Exception {
+
+        final Repo<String, Employee> repo = TestHelper.createFromBuilderSnapshots();
+        for ( int index = 0; index < 1_000; index++ ) {
+            repo.add( employee( "Copy", "Copy", "copy-" + index, "05.29.70", index % 5 ) );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        List<Future<?>> futures = new ArrayList<>();
+
+        futures.add( executor.submit( new Runnable() {
+            @Override
+            public void run() {
+                for ( int run = 0; run < 5_000; run++ ) {
+                    repo.update( "copy-" + run % 1_000, "salary", run % 7 );
+                }
+            }
+        } ) );
+
+        /* Rows found by salary keep that salary, however long they are held. */
+        for ( int thread = 0; thread < 3; thread++ ) {
+            futures.add( executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    List<Employee> held = new ArrayList<>();
+                    for ( int run = 0; run < 300; run++ ) {
+                        List<Employee> found = repo.query( eq( "salary", 3 ) );
+                        for ( Employee employee : found ) {
+                            assertEquals( 3, employee.getSalary() );
+                        }
+                        held.addAll( found );
+                    }
+                    for ( Employee employee : held ) {
+                        assertEquals( 3, employee.getSalary() );
+                    }
+                }
+            } ) );
+        }
+
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 60, TimeUnit.SECONDS ) );
+        for ( Future<?> future : futures ) {
+            future.get();
+        }
+
+        /* The merged snapshots index every item once, under its last salary. */
+        for ( int salary = 0; salary < 7; salary++ ) {
+            int expected = 0;
+            for ( Employee employee : repo.all() ) {
+                if ( employee.getSalary() == salary && employee.getFirstName().equals( "Copy" ) ) {
+                    expected++;
+                }
+            }
+            assertEquals( expected, repo.query( eq( "firstName", "Copy" ), eq( "salary", salary ) ).size() );
+        }
+        assertEquals( 1_000, repo.query( eq( "firstName", "Copy" ) ).size() );
+        assertEquals( ( 4_999 % 7 ), repo.get( "copy-999" ).getSalary() );
+
+        repo.removeAllAsync( repo.query( eq( "firstName", "Copy" ), gt( "salary", 2 ) ) ).get( 30, TimeUnit.SECONDS );
+        assertEquals( 0, repo.query( eq( "firstName", "Copy" ), gt( "salary", 2 ) ).size() );
+    }
+
+
+    @Test
+    public void testSnapshotsCarryLookupIndexesOver() throws Exception {
+
+        Repo<String, Employee> repo = Repos.builder().primaryKey( "id" )
+                .lookupIndex( "lastName" ).uniqueLookupIndex( "empNum" ).searchIndex( "salary" )
+                .snapshots( true ).build( String.class, Employee.class );
+
+        for ( int index = 0; index < 40; index++ ) {
+            Employee employee = employee( "Bucket" + index, "Bucket", "bucket-" + index, "05.29.70", index );
+            employee.setEmpNum( index );
+            repo.add( employee );
+        }
+
+        /* Each edit publishes, every snapshot after the first is the one before with the edit merged in. */
+        repo.update( "bucket-0", "lastName", "Moved" );
+        repo.removeByKey( "bucket-1" );
+        Employee added = employee( "Bucket40", "Bucket", "bucket-40", "05.29.70", 40 );
+        added.setEmpNum( 40 );
+        repo.add( added );
+        repo.update( "bucket-2", "empNum", 102L );
+
+        assertEquals( 39, repo.query( eq( "lastName", "Bucket" ) ).size() );
+        assertEquals( 1, repo.query( eq( "lastName", "Moved" ) ).size() );
+        assertEquals( 30, repo.query( eq( "lastName", "Bucket" ), gt( "salary", 10 ) ).size() );
+        assertEquals( "bucket-2", repo.query( eq( "empNum", 102L ) ).get( 0 ).getId() );
+        assertEquals( 0, repo.query( eq( "empNum", 2L ) ).size() );
+        assertEquals( 0, repo.query( eq( "empNum", 1L ) ).size() );
+
+        assertEquals( null, repo.get( "bucket-1" ) );
+        assertEquals( 40, repo.get( "bucket-40" ).getSalary() );
+        assertEquals( 40, repo.size() );
+        assertEquals( 40, repo.all().size() );
+    }
+
+}
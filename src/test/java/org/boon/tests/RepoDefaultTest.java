@@ -8,8 +8,13 @@ import org.boon.tests.model.Employee;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static junit.framework.Assert.*;
 import static org.boon.Boon.puts;
@@ -436,4 +441,167 @@ public class RepoDefaultTest {
         repo.clear();
         assertEquals( 0, repo.size() );
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testAddAllAsync() throws Exception {
+
+        int before = repo.size();
+
+        List<Future<?>> writes = new ArrayList<>();
+        List<Employee> removes = new ArrayList<>();
+        for ( int batch = 0; batch < 5; batch++ ) {
+            List<Employee> employees = new ArrayList<>();
+            for ( int index = 0; index < 1_000; index++ ) {
+                Employee employee = employee( "Async" + index, "Async", "async-" + batch + "-" + index, "08.15.82", index );
+                employees.add( employee );
+                if ( index % 4 == 0 ) {
+                    removes.add( employee );
+                }
+            }
+
+            /* Already in the repo, skipped like add does. */
+            employees.add( employee( "Dup", "Async", TestHelper.getTestSSN, "08.15.82", 1 ) );
+            writes.add( repo.addAllAsync( employees ) );
+        }
+        writes.add( repo.removeAllAsync( removes ) );
+
+        for ( Future<?> write : writes ) {
+            write.get( 30, TimeUnit.SECONDS );
+        }
+
+        assertEquals( before + 3_750, repo.size() );
+        assertEquals( 3_750, repo.query( CriteriaFactory.eq( "lastName", "Async" ) ).size() );
+        assertNull( repo.get( "async-2-4" ) );
+        assertEquals( "Async5", repo.get( "async-2-5" ).getFirstName() );
+        assertEquals( 5, repo.query( CriteriaFactory.eq( "firstName", "Async5" ) ).size() );
+        assertEquals( TestHelper.getTestFirstName, repo.get( TestHelper.getTestSSN ).getFirstName() );
+    }
+
+    @Test
+    public void testCompareAndIncrementFromManyThreads() throws Exception {
+
+        final int counters = 8;
+        final int increments = 2_000;
+        final int threads = 4;
+
+        for ( int index = 0; index < counters; index++ ) {
+            repo.add( employee( "Counter", "Counter", "counter-" + index, "08.15.82", 0 ) );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        List<Future<?>> runs = new ArrayList<>();
+        for ( int thread = 0; thread < threads; thread++ ) {
+            runs.add( executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int run = 0; run < increments; run++ ) {
+                        String key = "counter-" + ( run % counters );
+                        while ( !repo.compareAndIncrement( key, "salary", repo.get( key ).getSalary() ) ) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            } ) );
+        }
+        for ( Future<?> run : runs ) {
+            run.get( 30, TimeUnit.SECONDS );
+        }
+        executor.shutdown();
+
+        int expected = threads * increments / counters;
+        for ( int index = 0; index < counters; index++ ) {
+            assertEquals( expected, repo.get( "counter-" + index ).getSalary() );
+        }
+
+        /* The salary index only has the final values, nothing left behind. */
+        assertEquals( counters, repo.query( CriteriaFactory.eq( "lastName", "Counter" ),
+                CriteriaFactory.eq( "salary", expected ) ).size() );
+        assertEquals( 0, repo.query( CriteriaFactory.eq( "lastName", "Counter" ),
+                CriteriaFactory.lt( "salary", expected ) ).size() );
+    }
+
+    @Test
+    public void testCompareAndIncrementWhileAddingAndRemoving() throws Exception {
+
+        final int counters = 8;
+        final int increments = 2_000;
+        final int threads = 4;
+        final int churn = 2_000;
+
+        for ( int index = 0; index < counters; index++ ) {
+            repo.add( employee( "Counter", "Counter", "counter-" + index, "08.15.82", 0 ) );
+        }
+        final int before = repo.size();
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads + 1 );
+        List<Future<?>> runs = new ArrayList<>();
+        for ( int thread = 0; thread < threads; thread++ ) {
+            runs.add( executor.submit( new Runnable() {
+                @Override
+                public void run() {
+                    for ( int run = 0; run < increments; run++ ) {
+                        String key = "counter-" + ( run % counters );
+                        while ( !repo.compareAndIncrement( key, "salary", repo.get( key ).getSalary() ) ) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            } ) );
+        }
+        runs.add( executor.submit( new Runnable() {
+            @Override
+            public void run() {
+                for ( int run = 0; run < churn; run++ ) {
+                    Employee churned = employee( "Churn", "Churn", "churn-" + run, "08.15.82", run % counters );
+                    repo.add( churned );
+                    if ( run % 2 == 0 ) {
+                        repo.delete( churned );
+                    }
+                }
+            }
+        } ) );
+        for ( Future<?> run : runs ) {
+            run.get( 30, TimeUnit.SECONDS );
+        }
+        executor.shutdown();
+
+        int expected = threads * increments / counters;
+        for ( int index = 0; index < counters; index++ ) {
+            assertEquals( expected, repo.get( "counter-" + index ).getSalary() );
+        }
+
+        /* Every item is in the salary index once, and the removed ones are gone from it. */
+        assertEquals( before + churn / 2, repo.size() );
+        assertEquals( repo.size(), repo.query( CriteriaFactory.gte( "salary", Integer.MIN_VALUE ) ).size() );
+        assertEquals( churn / 2, repo.query( CriteriaFactory.eq( "lastName", "Churn" ),
+                CriteriaFactory.lt( "salary", counters ) ).size() );
+        assertEquals( counters, repo.query( CriteriaFactory.eq( "lastName", "Counter" ),
+                CriteriaFactory.eq( "salary", expected ) ).size() );
+    }
+
+    @Test
+    public void testAddAllAsyncInPlainRepo() throws Exception {
+
+        int before = repo.size();
+        List<Employee> employees = new ArrayList<>();
+        for ( int index = 0; index < 10; index++ ) {
+            employees.add( employee( "Plain" + index, "Plain", "plain-" + index, "08.15.82", index ) );
+        }
+        repo.add( employee( "Counter", "Counter", "counter", "08.15.82", 0 ) );
+
+        /* Queued in order, the remove lands after the add it follows. */
+        Future<?> added = repo.addAllAsync( employees );
+        Future<?> removed = repo.removeAllAsync( employees.subList( 0, 4 ) );
+
+        /* Edits on the caller's thread meanwhile go through the same index lock. */
+        for ( int index = 0; index < 100; index++ ) {
+            repo.update( "counter", "salary", index );
+        }
+
+        added.get( 30, TimeUnit.SECONDS );
+        removed.get( 30, TimeUnit.SECONDS );
+        assertEquals( before + 7, repo.size() );
+        assertEquals( 6, repo.query( CriteriaFactory.eq( "lastName", "Plain" ) ).size() );
+        assertEquals( 1, repo.query( CriteriaFactory.eq( "salary", 99 ), CriteriaFactory.eq( "lastName", "Counter" ) ).size() );
+    }
+}
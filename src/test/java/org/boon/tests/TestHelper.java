@@ -235,4 +235,44 @@ public class TestHelper {
         return repo;
     }
 
+    static Repo<String, Employee> createFromBuilderConcurrent() {
+
+        /* Create a repo, and decide what to index. */
+        RepoBuilder repoBuilder = Repos.builder();
+
+        /* Same indexes as createFromBuilder, shared between threads. */
+        repoBuilder.primaryKey( "id" )
+                .searchIndex( "firstName" ).searchIndex( "lastName" )
+                .searchIndex( "salary" ).uniqueSearchIndex( "empNum" )
+                .concurrent( true );
+
+        /* Create the repo with the builder. */
+        Repo<String, Employee> repo
+                = repoBuilder.build( String.class, Employee.class, SalesEmployee.class );
+
+        for ( Employee employee : employees ) {
+            repo.add( employee );
+        }
+        return repo;
+    }
+
+    static Repo<String, Employee> createFromBuilderSnapshots() {
+
+        /* Create a repo, and decide what to index. */
+        RepoBuilder repoBuilder = Repos.builder();
+
+        /* Same indexes as createFromBuilder, queried through published snapshots. */
+        repoBuilder.primaryKey( "id" )
+                .searchIndex( "firstName" ).searchIndex( "lastName" )
+                .searchIndex( "salary" ).uniqueSearchIndex( "empNum" )
+                .snapshots( true );
+
+        /* Create the repo with the builder. */
+        Repo<String, Employee> repo
+                = repoBuilder.build( String.class, Employee.class, SalesEmployee.class );
+
+        repo.addAll( employees );
+        return repo;
+    }
+
 }